@@ -26,11 +26,10 @@ import javax.security.auth.callback.CallbackHandler;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetAddress;
-import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.util.List;
 
-import org.jboss.as.controller.client.impl.AbstractModelControllerClient;
-import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
+import org.jboss.as.controller.client.impl.RemotingModelControllerClient;
 import org.jboss.dmr.ModelNode;
 import org.jboss.threads.AsyncFuture;
 
@@ -99,6 +98,42 @@ public interface ModelControllerClient extends Closeable {
      */
     AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler);
 
+    /**
+     * Execute a number of independent operations without waiting for the result of one before sending the next.
+     * The remote clients send all the operations over the same connection, so the time taken to execute many small
+     * operations is no longer bound by the round trip time of the connection. The operations are not executed
+     * as a composite, each one succeeds or fails on its own and they may complete in any order.
+     *
+     * @param operations the operations to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @return the future results of the operations, in the same order as {@code operations}
+     */
+    List<AsyncFuture<ModelNode>> executePipelined(List<ModelNode> operations, OperationMessageHandler messageHandler);
+
+    /**
+     * Execute an operation synchronously, receiving its result as a stream of events rather than as a single node.
+     * This avoids having to hold the complete result of an operation like a recursive {@code read-resource} in memory.
+     *
+     * @param operation the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @param resultHandler the handler to pass the result to
+     * @return the outcome of the operation, with an undefined {@code result}
+     * @throws IOException if an I/O error occurs while executing the operation
+     */
+    ModelNode executeStreaming(ModelNode operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException;
+
+    /**
+     * Execute an operation synchronously, receiving its result as a stream of events rather than as a single node.
+     * This avoids having to hold the complete result of an operation like a recursive {@code read-resource} in memory.
+     *
+     * @param operation the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @param resultHandler the handler to pass the result to
+     * @return the outcome of the operation, with an undefined {@code result}
+     * @throws IOException if an I/O error occurs while executing the operation
+     */
+    ModelNode executeStreaming(Operation operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException;
+
     class Factory {
 
         /**
@@ -110,12 +145,7 @@ public interface ModelControllerClient extends Closeable {
          * @throws UnknownHostException if the host cannot be found
          */
         public static ModelControllerClient create(final InetAddress address, final int port){
-            return new AbstractModelControllerClient() {
-                @Override
-                protected ManagementClientChannelStrategy getClientChannelStrategy() throws URISyntaxException, IOException {
-                    return ManagementClientChannelStrategy.create(address.getHostName(), port, executor, this, null);
-                }
-            };
+            return new RemotingModelControllerClient(address.getHostName(), port, null);
         }
 
         /**
@@ -128,12 +158,7 @@ public interface ModelControllerClient extends Closeable {
          * @throws UnknownHostException if the host cannot be found
          */
         public static ModelControllerClient create(final InetAddress address, final int port, final CallbackHandler handler){
-            return new AbstractModelControllerClient() {
-                @Override
-                protected ManagementClientChannelStrategy getClientChannelStrategy() throws URISyntaxException, IOException {
-                    return ManagementClientChannelStrategy.create(address.getHostName(), port, executor, this, handler);
-                }
-            };
+            return new RemotingModelControllerClient(address.getHostName(), port, handler);
         }
 
         /**
@@ -145,12 +170,7 @@ public interface ModelControllerClient extends Closeable {
          * @throws UnknownHostException if the host cannot be found
          */
         public static ModelControllerClient create(final String hostName, final int port) throws UnknownHostException {
-            return new AbstractModelControllerClient() {
-                @Override
-                protected ManagementClientChannelStrategy getClientChannelStrategy() throws URISyntaxException, IOException {
-                    return ManagementClientChannelStrategy.create(hostName, port, executor, this, null);
-                }
-            };
+            return new RemotingModelControllerClient(hostName, port, null);
         }
 
         /**
@@ -163,12 +183,7 @@ public interface ModelControllerClient extends Closeable {
          * @throws UnknownHostException if the host cannot be found
          */
         public static ModelControllerClient create(final String hostName, final int port, final CallbackHandler handler) throws UnknownHostException {
-            return new AbstractModelControllerClient() {
-                @Override
-                protected ManagementClientChannelStrategy getClientChannelStrategy() throws URISyntaxException, IOException {
-                    return ManagementClientChannelStrategy.create(hostName, port, executor, this, handler);
-                }
-            };
+            return new RemotingModelControllerClient(hostName, port, handler);
         }
     }
 
@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.client;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A handler receiving the result of an operation as a stream of (address, node) events, see
+ * {@link ModelControllerClient#executeStreaming(ModelNode, OperationMessageHandler, ResultStreamHandler)}.
+ * <p/>
+ * The first event carries the top level of the result and has an empty address. Each child resource contained in
+ * the result is passed as an event of its own, in depth first order, with an address relative to the result. In the
+ * node of its parent it is represented by an undefined placeholder, much like the children of a non-recursive
+ * {@code read-resource}. No events are passed if the operation did not produce a result.
+ */
+public interface ResultStreamHandler {
+
+    /**
+     * Handle a part of the result.
+     *
+     * @param address the address of the part relative to the result, a list of properties
+     * @param node the part of the result
+     */
+    void handleResult(ModelNode address, ModelNode node);
+}
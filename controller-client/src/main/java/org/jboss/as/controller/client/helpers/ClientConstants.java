@@ -45,6 +45,7 @@ public class ClientConstants {
     public static final String RUNTIME_NAME = "runtime-name";
     public static final String STEPS = "steps";
     public static final String SUCCESS = "success";
+    public static final String SYNC_PERSISTENCE = "sync-persistence";
     public static final String TO_REPLACE = "to-replace";
 
     public static final String DEPLOYMENT_DEPLOY_OPERATION = "deploy";
@@ -38,6 +38,7 @@ import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.ResultStreamHandler;
 import org.jboss.as.controller.client.helpers.domain.DomainClient;
 import org.jboss.as.controller.client.helpers.domain.DomainDeploymentManager;
 import org.jboss.as.controller.client.helpers.domain.ServerIdentity;
@@ -83,6 +84,16 @@ public class DomainClientImpl implements DomainClient {
         return delegate.execute(operation, messageHandler);
     }
 
+    @Override
+    public ModelNode executeStreaming(ModelNode operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+        return delegate.executeStreaming(operation, messageHandler, resultHandler);
+    }
+
+    @Override
+    public ModelNode executeStreaming(Operation operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+        return delegate.executeStreaming(operation, messageHandler, resultHandler);
+    }
+
     @Override
     public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
         return delegate.executeAsync(operation, messageHandler);
@@ -93,6 +104,11 @@ public class DomainClientImpl implements DomainClient {
         return delegate.executeAsync(operation, messageHandler);
     }
 
+    @Override
+    public List<AsyncFuture<ModelNode>> executePipelined(List<ModelNode> operations, OperationMessageHandler messageHandler) {
+        return delegate.executePipelined(operations, messageHandler);
+    }
+
     @Override
     public byte[] addDeploymentContent(InputStream stream) {
         ModelNode op = new ModelNode();
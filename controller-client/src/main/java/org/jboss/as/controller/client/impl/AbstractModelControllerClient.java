@@ -24,6 +24,7 @@ import java.io.DataInput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -40,6 +41,7 @@ import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.ResultStreamHandler;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementBatchIdManager;
 import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
@@ -47,6 +49,7 @@ import org.jboss.as.protocol.mgmt.ManagementOperationHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequest;
 import org.jboss.as.protocol.mgmt.ManagementRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementResponseHandler;
+import org.jboss.as.protocol.mgmt.ModelNodeStreamReader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
 import org.jboss.as.protocol.old.ProtocolUtils;
 import org.jboss.dmr.ModelNode;
@@ -89,12 +92,12 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
 
     @Override
     public ModelNode execute(ModelNode operation, OperationMessageHandler messageHandler) throws IOException {
-        return executeSynch(operation, null, messageHandler);
+        return executeSynch(operation, null, messageHandler, null);
     }
 
     @Override
     public ModelNode execute(Operation operation, OperationMessageHandler messageHandler) throws IOException {
-        return executeSynch(operation.getOperation(), operation, messageHandler);
+        return executeSynch(operation.getOperation(), operation, messageHandler, null);
     }
 
     @Override
@@ -107,6 +110,25 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
         return executeAsync(operation.getOperation(), operation, messageHandler);
     }
 
+    @Override
+    public List<AsyncFuture<ModelNode>> executePipelined(List<ModelNode> operations, OperationMessageHandler messageHandler) {
+        final List<AsyncFuture<ModelNode>> futures = new ArrayList<AsyncFuture<ModelNode>>(operations.size());
+        for (ModelNode operation : operations) {
+            futures.add(executeAsync(operation, null, messageHandler, true));
+        }
+        return futures;
+    }
+
+    @Override
+    public ModelNode executeStreaming(ModelNode operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+        return executeSynch(operation, null, messageHandler, resultHandler);
+    }
+
+    @Override
+    public ModelNode executeStreaming(Operation operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+        return executeSynch(operation.getOperation(), operation, messageHandler, resultHandler);
+    }
+
     /** {@inheritDoc} */
     @Override
     public ManagementRequestHandler getRequestHandler(final byte id) {
@@ -120,11 +142,11 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
 
     protected abstract ManagementClientChannelStrategy getClientChannelStrategy() throws URISyntaxException, IOException;
 
-    private ModelNode executeSynch(ModelNode operation, OperationAttachments attachments, OperationMessageHandler messageHandler) throws IOException {
+    private ModelNode executeSynch(ModelNode operation, OperationAttachments attachments, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
         final int batchId = ManagementBatchIdManager.DEFAULT.createBatchId();
 
         try {
-            return new ExecuteRequest(batchId, false, operation, messageHandler, attachments).executeForResult(executor, getClientChannelStrategy());
+            return new ExecuteRequest(batchId, false, operation, messageHandler, attachments, resultHandler).executeForResult(executor, getClientChannelStrategy());
         } catch (Exception e) {
             ManagementBatchIdManager.DEFAULT.freeBatchId(batchId);
             Throwable cause = e;
@@ -142,9 +164,17 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
     }
 
     private AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationAttachments attachments, OperationMessageHandler messageHandler) {
+        return executeAsync(operation, attachments, messageHandler, false);
+    }
+
+    private AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationAttachments attachments, OperationMessageHandler messageHandler, boolean pipelined) {
         final int batchId = ManagementBatchIdManager.DEFAULT.createBatchId();
         try {
-            return new DelegatingCancellableAsyncFuture(new ExecuteRequest(batchId, true, operation, messageHandler, attachments).execute(executor, getClientChannelStrategy()), batchId);
+            final ExecuteRequest request = new ExecuteRequest(batchId, true, operation, messageHandler, attachments, null);
+            final ManagementClientChannelStrategy channelStrategy = getClientChannelStrategy();
+            // When pipelining the request is written by the calling thread so the requests go out in order
+            final AsyncFuture<ModelNode> future = pipelined ? request.send(channelStrategy) : request.execute(executor, channelStrategy);
+            return new DelegatingCancellableAsyncFuture(future, batchId);
         } catch (Exception e) {
             ManagementBatchIdManager.DEFAULT.freeBatchId(batchId);
             if (e instanceof RuntimeException) {
@@ -155,23 +185,30 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
     }
 
     /**
-     * Propagates an execute() call from this proxy controller to the remote target controller
+     * Propagates an execute() call from this proxy controller to the remote target controller. If a result handler
+     * is given the result is received as a stream of chunks which are passed to the handler as they are read.
      */
     private class ExecuteRequest extends ManagementRequest<ModelNode> {
 
         private final ExecuteRequestContext executeRequestContext;
         private final ModelNode operation;
         private final boolean async;
+        private final ResultStreamHandler resultHandler;
 
-        ExecuteRequest(final int batchId, final boolean async, final ModelNode operation, final OperationMessageHandler messageHandler, final OperationAttachments attachments) {
+        ExecuteRequest(final int batchId, final boolean async, final ModelNode operation, final OperationMessageHandler messageHandler, final OperationAttachments attachments,
+                final ResultStreamHandler resultHandler) {
             super(batchId);
             this.operation = operation;
             this.async = async;
+            this.resultHandler = resultHandler;
             executeRequestContext = new ExecuteRequestContext(this, messageHandler, attachments);
         }
 
         @Override
         protected byte getRequestCode() {
+            if (resultHandler != null) {
+                return ModelControllerProtocol.EXECUTE_STREAMING_CLIENT_REQUEST;
+            }
             return async ? ModelControllerProtocol.EXECUTE_ASYNC_CLIENT_REQUEST : ModelControllerProtocol.EXECUTE_CLIENT_REQUEST;
         }
 
@@ -219,6 +256,13 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
                         ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_RESPONSE);
                         ModelNode node = new ModelNode();
                         node.readExternal(input);
+                        if (resultHandler != null) {
+                            ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_RESULT_STREAM);
+                            final ModelNodeStreamReader reader = new ModelNodeStreamReader(input);
+                            while (reader.next()) {
+                                resultHandler.handleResult(reader.getAddress(), reader.getNode());
+                            }
+                        }
                         log.tracef("Client read response %d successfully", getBatchId());
                         return node;
                     } catch (Exception e) {
@@ -40,6 +40,7 @@ public interface ModelControllerProtocol {
     byte COMPLETE_TX_REQUEST = 0x4E;
     //TODO this can go once REM3-121 is available
     byte TEMP_PING_REQUEST = 0x4F;
+    byte EXECUTE_STREAMING_CLIENT_REQUEST = 0x50;
 
 
     byte PARAM_END = 0x60;
@@ -54,5 +55,6 @@ public interface ModelControllerProtocol {
     //byte PARAM_PREPARED = 0x69;
     byte PARAM_COMMIT = 0x70;
     byte PARAM_ROLLBACK = 0x71;
+    byte PARAM_RESULT_STREAM = 0x72;
 
 }
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.client.impl;
+
+import java.io.IOException;
+
+import javax.security.auth.callback.CallbackHandler;
+
+import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
+import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy.SharedManagementClientChannelStrategy;
+
+/**
+ * A client connecting to a remote model controller. All requests made by the client, including any number of
+ * concurrent and pipelined ones, share a single connection which is opened on first use and released when the client
+ * is closed.
+ */
+public class RemotingModelControllerClient extends AbstractModelControllerClient {
+
+    private final String hostName;
+    private final int port;
+    private final CallbackHandler callbackHandler;
+    private SharedManagementClientChannelStrategy channelStrategy;
+    private boolean closed;
+
+    public RemotingModelControllerClient(final String hostName, final int port, final CallbackHandler callbackHandler) {
+        this.hostName = hostName;
+        this.port = port;
+        this.callbackHandler = callbackHandler;
+    }
+
+    @Override
+    protected synchronized ManagementClientChannelStrategy getClientChannelStrategy() throws IOException {
+        if (closed) {
+            throw new IOException("Client is closed");
+        }
+        if (channelStrategy == null) {
+            channelStrategy = ManagementClientChannelStrategy.createShared(hostName, port, executor, this, callbackHandler);
+        }
+        return channelStrategy;
+    }
+
+    @Override
+    public void close() throws IOException {
+        final SharedManagementClientChannelStrategy channelStrategy;
+        synchronized (this) {
+            closed = true;
+            channelStrategy = this.channelStrategy;
+            this.channelStrategy = null;
+        }
+        try {
+            if (channelStrategy != null) {
+                channelStrategy.close();
+            }
+        } finally {
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.client.impl;
+
+import java.io.IOException;
+
+import org.jboss.as.controller.client.ResultStreamHandler;
+import org.jboss.as.controller.client.helpers.ClientConstants;
+import org.jboss.as.protocol.mgmt.ModelNodeStreamWriter;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Utilities for implementing {@link org.jboss.as.controller.client.ModelControllerClient#executeStreaming(ModelNode,
+ * org.jboss.as.controller.client.OperationMessageHandler, ResultStreamHandler)}.
+ */
+public final class ResultStreamSupport {
+
+    private ResultStreamSupport() {
+    }
+
+    /**
+     * Get a copy of an operation response without its result.
+     *
+     * @param response the response
+     * @return the copy, with an undefined {@code result}
+     */
+    public static ModelNode getOutcome(final ModelNode response) {
+        final ModelNode outcome = new ModelNode();
+        for (String key : response.keys()) {
+            if (ClientConstants.RESULT.equals(key)) {
+                outcome.get(key);
+            } else {
+                outcome.get(key).set(response.get(key));
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Pass the result of an operation which has been executed locally to a handler, as it would have been received
+     * from a remote controller.
+     *
+     * @param response the response of the operation
+     * @param resultHandler the handler
+     * @return the outcome of the operation, with an undefined {@code result}
+     * @throws IOException never, declared by the writer splitting the result
+     */
+    public static ModelNode stream(final ModelNode response, final ResultStreamHandler resultHandler) throws IOException {
+        if (response.hasDefined(ClientConstants.RESULT)) {
+            new ModelNodeStreamWriter(false) {
+                @Override
+                protected void writeChunk(final ModelNode address, final ModelNode node) {
+                    resultHandler.handleResult(address, node);
+                }
+
+                @Override
+                protected void writeEnd() {
+                }
+            }.write(response.get(ClientConstants.RESULT));
+        }
+        return getOutcome(response);
+    }
+}
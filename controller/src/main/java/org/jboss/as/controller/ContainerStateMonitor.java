@@ -47,6 +47,8 @@ public final class ContainerStateMonitor extends AbstractServiceListener<Object>
     private final ServiceRegistry serviceRegistry;
     private final ServiceController<?> controllerController;
     private final AtomicInteger busyServiceCount = new AtomicInteger();
+    /** The number of operations holding the monitor, each of them accounts for one tick of the busy count. Guarded by "this" */
+    private int holders;
 
     // protected by "this"
     /** Failed controllers pending tick reaching zero */
@@ -67,11 +69,22 @@ public final class ContainerStateMonitor extends AbstractServiceListener<Object>
         controllerController = controller;
     }
 
+    /**
+     * Called by an operation before it modifies the container. The operation holds one tick of the busy count
+     * until it calls {@link #release()}, so no status report is produced while it is making changes.
+     */
     void acquire() {
-        untick();
+        synchronized (this) {
+            // together, so a waiter never sees the hold without its tick
+            holders++;
+            untick();
+        }
     }
 
     void release() {
+        synchronized (this) {
+            holders--;
+        }
         tick();
     }
 
@@ -135,11 +148,16 @@ public final class ContainerStateMonitor extends AbstractServiceListener<Object>
         awaitUninterruptibly(0);
     }
 
+    /**
+     * Wait until no more than {@code count} services are busy. The ticks held by the operations which have
+     * {@link #acquire() acquired} the monitor are not counted, so concurrent operations never wait for each other,
+     * only for the services they changed to settle.
+     */
     void awaitUninterruptibly(int count) {
         boolean intr = false;
         try {
             synchronized (this) {
-                while (busyServiceCount.get() > count) {
+                while (busyServiceCount.get() - holders > count) {
                     try {
                         wait();
                     } catch (InterruptedException e) {
@@ -158,9 +176,14 @@ public final class ContainerStateMonitor extends AbstractServiceListener<Object>
         await(0);
     }
 
+    /**
+     * Wait until no more than {@code count} services are busy, not counting the ticks held by operations.
+     *
+     * @see #awaitUninterruptibly(int)
+     */
     void await(int count) throws InterruptedException {
         synchronized (this) {
-            while (busyServiceCount.get() > count) {
+            while (busyServiceCount.get() - holders > count) {
                 wait();
             }
         }
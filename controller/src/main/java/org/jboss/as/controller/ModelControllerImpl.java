@@ -29,13 +29,24 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYNC_PERSISTENCE;
 
 import java.io.IOException;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -44,9 +55,12 @@ import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.ResultStreamHandler;
+import org.jboss.as.controller.client.impl.ResultStreamSupport;
 import org.jboss.as.controller.operations.common.ExtensionAddHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteModel;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
@@ -56,6 +70,7 @@ import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.threads.AsyncFutureTask;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
@@ -66,6 +81,26 @@ class ModelControllerImpl implements ModelController {
 
     private static final ModelNode EMPTY;
 
+    /**
+     * System property which, if set to {@code true}, makes every operation which modifies the model or the runtime
+     * take a controller wide lock instead of locking just the resources it modifies.
+     */
+    static final String GLOBAL_LOCK_PROPERTY = "org.jboss.as.controller.global-lock";
+
+    /**
+     * System property which, if set to {@code true}, makes the boot execute the operations of the subsystems in
+     * parallel instead of one after another.
+     */
+    static final String PARALLEL_BOOT_PROPERTY = "org.jboss.as.controller.parallel-boot";
+
+    /**
+     * System property listing the subsystems which the other subsystems depend on, and which are therefore booted
+     * before them. Defaults to {@value #DEFAULT_SEQUENTIAL_SUBSYSTEMS}.
+     */
+    static final String SEQUENTIAL_SUBSYSTEMS_PROPERTY = "org.jboss.as.controller.parallel-boot.sequential-subsystems";
+
+    private static final String DEFAULT_SEQUENTIAL_SUBSYSTEMS = "logging";
+
     static {
         ModelNode empty = new ModelNode();
         empty.protect();
@@ -75,7 +110,9 @@ class ModelControllerImpl implements ModelController {
     private final ServiceRegistry serviceRegistry;
     private final ServiceTarget serviceTarget;
     private final ManagementResourceRegistration rootRegistration;
-    private final Lock writeLock = new ReentrantLock();
+    private final ModelControllerLock writeLock = new ModelControllerLock(Boolean.getBoolean(GLOBAL_LOCK_PROPERTY));
+    /** Serializes merging and persisting the changes made by concurrent operations */
+    private final Lock commitLock = new ReentrantLock();
     private final ContainerStateMonitor stateMonitor;
     private final RootResource model = new RootResource();
     private final ConfigurationPersister persister;
@@ -83,6 +120,13 @@ class ModelControllerImpl implements ModelController {
     private final AtomicBoolean bootingFlag = new AtomicBoolean(true);
     private final OperationStepHandler prepareStep;
     private final ControlledProcessState processState;
+    /** Incremented whenever an operation which changed the model or the resource registry completes */
+    private final AtomicLong modelGeneration = new AtomicLong();
+    /**
+     * Executes read-only steps. The number of threads bounds the fan-out of all concurrent reads together, once they
+     * are all busy the steps run on the thread which added them.
+     */
+    private final Executor readExecutor = createReadExecutor();
 
     @Deprecated
     ModelControllerImpl(final ModelNode model, final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
@@ -111,6 +155,9 @@ class ModelControllerImpl implements ModelController {
         final ModelNode headers = operation.has(OPERATION_HEADERS) ? operation.get(OPERATION_HEADERS) : null;
         final boolean rollbackOnFailure = headers == null || !headers.hasDefined(ROLLBACK_ON_RUNTIME_FAILURE) || headers.get(ROLLBACK_ON_RUNTIME_FAILURE).asBoolean();
         final EnumSet<OperationContextImpl.ContextFlag> contextFlags = rollbackOnFailure ? EnumSet.of(OperationContextImpl.ContextFlag.ROLLBACK_ON_FAIL) : EnumSet.noneOf(OperationContextImpl.ContextFlag.class);
+        if (headers != null && headers.hasDefined(SYNC_PERSISTENCE) && headers.get(SYNC_PERSISTENCE).asBoolean()) {
+            contextFlags.add(OperationContextImpl.ContextFlag.SYNC_PERSISTENCE);
+        }
         OperationContextImpl context = new OperationContextImpl(this, controllerType, contextFlags, handler, attachments, model, control, processState, bootingFlag.get());
         ModelNode response = new ModelNode();
         context.addStep(response, operation, prepareStep, OperationContext.Stage.MODEL);
@@ -119,6 +166,9 @@ class ModelControllerImpl implements ModelController {
             context.completeStep();
         } finally {
             RB_ON_RT_FAILURE.set(null);
+            if (context.isModelAffected() || context.isResourceRegistryAffected()) {
+                modelGeneration.incrementAndGet();
+            }
         }
         ControlledProcessState.State state = processState.getState();
         switch (state) {
@@ -136,11 +186,65 @@ class ModelControllerImpl implements ModelController {
         OperationContextImpl context = new OperationContextImpl(this, controllerType, EnumSet.noneOf(OperationContextImpl.ContextFlag.class), handler, null, model, control, processState, bootingFlag.get());
         ModelNode result = context.getResult();
         result.setEmptyList();
+        // the subsystem operations following each other are booted in parallel, once the operations of the
+        // subsystems the others depend on have been executed
+        final Set<String> sequentialSubsystems = new HashSet<String>(Arrays.asList(System.getProperty(SEQUENTIAL_SUBSYSTEMS_PROPERTY, DEFAULT_SEQUENTIAL_SUBSYSTEMS).split("\\s*,\\s*")));
+        final boolean parallel = Boolean.parseBoolean(System.getProperty(PARALLEL_BOOT_PROPERTY, "false"));
+        ThreadPoolExecutor bootExecutor = null;
+        ParallelBootOperationStepHandler parallelBoot = null;
         for (ModelNode bootOp : bootList) {
             final ModelNode response = result.add();
+            final PathAddress address = PathAddress.pathAddress(bootOp.get(OP_ADDR));
+            final String subsystem = address.size() > 0 && SUBSYSTEM.equals(address.getElement(0).getKey()) ? address.getElement(0).getValue() : null;
+            if (parallel && subsystem != null && !sequentialSubsystems.contains(subsystem)) {
+                if (parallelBoot == null) {
+                    if (bootExecutor == null) {
+                        bootExecutor = createBootExecutor();
+                    }
+                    parallelBoot = new ParallelBootOperationStepHandler(bootExecutor);
+                }
+                parallelBoot.addOperation(subsystem, bootOp, new BootStepHandler(bootOp, response), response);
+                continue;
+            }
+            if (parallelBoot != null && subsystem == null) {
+                addParallelBootStep(context, parallelBoot);
+                parallelBoot = null;
+            }
             context.addStep(response, bootOp, new BootStepHandler(bootOp, response), OperationContext.Stage.MODEL);
         }
-        context.completeStep();
+        if (parallelBoot != null) {
+            addParallelBootStep(context, parallelBoot);
+        }
+        try {
+            context.completeStep();
+        } finally {
+            modelGeneration.incrementAndGet();
+            if (bootExecutor != null) {
+                bootExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Create the executor booting subsystems in parallel. The subsystems wait for each other at the start of each
+     * stage, so it has to run all the subsystems of a parallel boot step at once.
+     */
+    private static ThreadPoolExecutor createBootExecutor() {
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("ParallelBoot-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), threadFactory);
+    }
+
+    private static ThreadPoolExecutor createReadExecutor() {
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("ManagementRead-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        return new ThreadPoolExecutor(0, Runtime.getRuntime().availableProcessors(), 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static void addParallelBootStep(final OperationContextImpl context, final ParallelBootOperationStepHandler parallelBoot) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(ParallelBootOperationStepHandler.OPERATION_NAME);
+        operation.get(OP_ADDR).setEmptyList();
+        context.addStep(new ModelNode(), operation, parallelBoot, OperationContext.Stage.MODEL);
     }
 
     void finshBoot() {
@@ -209,6 +313,16 @@ class ModelControllerImpl implements ModelController {
                 return ModelControllerImpl.this.execute(operation.getOperation(), messageHandler, OperationTransactionControl.COMMIT, operation);
             }
 
+            @Override
+            public ModelNode executeStreaming(ModelNode operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+                return ResultStreamSupport.stream(execute(operation, messageHandler), resultHandler);
+            }
+
+            @Override
+            public ModelNode executeStreaming(Operation operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+                return ResultStreamSupport.stream(execute(operation, messageHandler), resultHandler);
+            }
+
             @Override
             public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
                 return executeAsync(operation, messageHandler, null);
@@ -219,6 +333,15 @@ class ModelControllerImpl implements ModelController {
                 return executeAsync(operation.getOperation(), messageHandler, operation);
             }
 
+            @Override
+            public List<AsyncFuture<ModelNode>> executePipelined(final List<ModelNode> operations, final OperationMessageHandler messageHandler) {
+                final List<AsyncFuture<ModelNode>> futures = new ArrayList<AsyncFuture<ModelNode>>(operations.size());
+                for (ModelNode operation : operations) {
+                    futures.add(executeAsync(operation, messageHandler, null));
+                }
+                return futures;
+            }
+
             private AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationMessageHandler messageHandler, final OperationAttachments attachments) {
                 if (executor == null) {
                     throw new IllegalStateException("Cannot execute asynchronous operation without an executor");
@@ -256,36 +379,104 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
-    ConfigurationPersister.PersistenceResource writeModel(final Resource resource, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
-        final ModelNode newModel = Resource.Tools.readModel(resource);  // Get the model representation
-        final ConfigurationPersister.PersistenceResource delegate = persister.store(newModel, affectedAddresses);
-        return new ConfigurationPersister.PersistenceResource() {
+    /**
+     * Install the operation's changes into the model and store the new model.
+     *
+     * @param writableModel the operation's changes
+     * @param affectedAddresses the addresses of the changed resources
+     * @param synchronous whether the new model must be written to permanent storage within the commit, in which case
+     *                    {@link ConfigurationPersister.DeferredPersistenceResource#awaitPersisted()} reports a failed
+     *                    write
+     * @return the resource to commit or roll back, which holds the commit lock until either is done
+     * @throws ConfigurationPersistenceException if the new model could not be stored
+     */
+    ConfigurationPersister.DeferredPersistenceResource writeModel(final CopyOnWriteModel writableModel, Set<PathAddress> affectedAddresses,
+                                                                  final boolean synchronous) throws ConfigurationPersistenceException {
+        //noinspection LockAcquiredButNotSafelyReleased
+        commitLock.lock();
+        boolean ok = false;
+        try {
+            // operations holding other locks may have committed in the meantime, apply our changes on top of theirs
+            final Resource resource = writableModel.applyTo(model.getDelegate(), affectedAddresses);
+            final ModelNode newModel = Resource.Tools.readModel(resource);  // Get the model representation
+            final ConfigurationPersister.PersistenceResource delegate = persister.store(newModel, affectedAddresses);
+            ok = true;
+            // waiting for a deferred write happens after the commit lock has been released, so that the models
+            // committed meanwhile can be written along with ours
+            return new ConfigurationPersister.DeferredPersistenceResource() {
+                private ConfigurationPersistenceException failure;
+
+                @Override
+                public void commit() {
+                    try {
+                        // the generation changes both before and after the model is published, so that a result
+                        // cached by a read running meanwhile is never taken for the new model
+                        modelGeneration.incrementAndGet();
+                        model.set(resource);
+                        modelGeneration.incrementAndGet();
+                        if (synchronous && delegate instanceof ConfigurationPersister.SynchronousPersistenceResource) {
+                            // written under the commit lock, so that no later model can be overwritten by ours
+                            try {
+                                ((ConfigurationPersister.SynchronousPersistenceResource) delegate).commitSynchronously();
+                            } catch (ConfigurationPersistenceException e) {
+                                failure = e;
+                            }
+                        } else {
+                            delegate.commit();
+                        }
+                    } finally {
+                        commitLock.unlock();
+                    }
+                }
 
-            @Override
-            public void commit() {
-                model.set(resource);
-                delegate.commit();
-            }
+                @Override
+                public void rollback() {
+                    try {
+                        delegate.rollback();
+                    } finally {
+                        commitLock.unlock();
+                    }
+                }
 
-            @Override
-            public void rollback() {
-                delegate.rollback();
+                @Override
+                public boolean isDurabilityRequired() {
+                    return delegate instanceof ConfigurationPersister.DeferredPersistenceResource
+                            && ((ConfigurationPersister.DeferredPersistenceResource) delegate).isDurabilityRequired();
+                }
+
+                @Override
+                public void awaitPersisted() throws ConfigurationPersistenceException {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    if (delegate instanceof ConfigurationPersister.DeferredPersistenceResource) {
+                        ((ConfigurationPersister.DeferredPersistenceResource) delegate).awaitPersisted();
+                    }
+                }
+            };
+        } finally {
+            if (!ok) {
+                commitLock.unlock();
             }
-        };
+        }
     }
 
-    void acquireLock(final boolean interruptibly) throws InterruptedException {
-        if (interruptibly) {
-            //noinspection LockAcquiredButNotSafelyReleased
-            writeLock.lockInterruptibly();
-        } else {
-            //noinspection LockAcquiredButNotSafelyReleased
-            writeLock.lock();
-        }
+    /**
+     * Lock the resource at the given address, and its descendants, for modification.
+     *
+     * @param owner the operation taking the lock
+     * @param address the address
+     * @param interruptibly whether waiting for the lock may be interrupted
+     * @return {@code true} if the owner did not hold a lock covering the address yet
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if waiting for the lock would deadlock
+     */
+    boolean acquireLock(final Object owner, final PathAddress address, final boolean interruptibly) throws InterruptedException {
+        return writeLock.lock(owner, address, interruptibly);
     }
 
-    void releaseLock() {
-        writeLock.unlock();
+    void releaseLock(final Object owner) {
+        writeLock.unlock(owner);
     }
 
     void acquireContainerMonitor() {
@@ -304,6 +495,14 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    long getModelGeneration() {
+        return modelGeneration.get();
+    }
+
+    Executor getReadExecutor() {
+        return readExecutor;
+    }
+
     ServiceRegistry getServiceRegistry() {
         return serviceRegistry;
     }
@@ -351,6 +550,24 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    /**
+     * Creates a writable view of the current model. Must only be called with a controller lock held.
+     *
+     * @return the writable model
+     */
+    CopyOnWriteModel createWritableModel() {
+        return new CopyOnWriteModel(model.getDelegate());
+    }
+
+    /**
+     * Gets the current model, which must not be modified.
+     *
+     * @return the root of the current model
+     */
+    Resource getPublishedModel() {
+        return model.getDelegate();
+    }
+
     /**
      * The root resource, maintains a read-only reference to the current model. All write operations have to performed
      * after acquiring the write lock on a clone of the underlying model.
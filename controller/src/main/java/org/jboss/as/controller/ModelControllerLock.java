@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lock guarding modifications of the model and the runtime.
+ * <p>
+ * Locks are taken on the address of the resource which is going to be modified, and cover that resource and all
+ * of its descendants. Two owners can therefore hold locks at the same time as long as neither address is a prefix
+ * of the other, which allows operations on disjoint parts of the model to run concurrently. A lock on the empty
+ * address excludes every other owner; in global mode every lock is taken on the empty address, which gives the
+ * behaviour of a single controller wide lock.
+ * <p>
+ * Locks are reentrant and are all released together. An owner which would have to wait for an owner which is
+ * (directly or indirectly) waiting for it fails with an {@link IllegalStateException} instead of deadlocking.
+ */
+final class ModelControllerLock {
+
+    private final boolean global;
+    /** The addresses locked by each owner, protected by "this" */
+    private final Map<Object, List<PathAddress>> locks = new IdentityHashMap<Object, List<PathAddress>>();
+    /** The owner each blocked owner is waiting for, protected by "this" */
+    private final Map<Object, Object> waiting = new IdentityHashMap<Object, Object>();
+
+    ModelControllerLock(final boolean global) {
+        this.global = global;
+    }
+
+    boolean isGlobal() {
+        return global;
+    }
+
+    /**
+     * Lock an address for the given owner.
+     *
+     * @param owner the owner
+     * @param address the address
+     * @param interruptibly whether waiting for the lock may be interrupted
+     * @return {@code true} if the owner did not hold a lock covering the address yet
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if waiting for the lock would deadlock
+     */
+    synchronized boolean lock(final Object owner, final PathAddress address, final boolean interruptibly) throws InterruptedException {
+        final PathAddress lockAddress = global ? PathAddress.EMPTY_ADDRESS : address;
+        List<PathAddress> held = locks.get(owner);
+        if (held != null) {
+            for (final PathAddress heldAddress : held) {
+                if (isPrefix(heldAddress, lockAddress)) {
+                    return false;
+                }
+            }
+        }
+        boolean intr = false;
+        try {
+            for (;;) {
+                final Object blocker = findConflict(owner, lockAddress);
+                if (blocker == null) {
+                    break;
+                }
+                // waiting would close a cycle if the blocker is waiting for us
+                Object next = blocker;
+                while (next != null) {
+                    if (next == owner) {
+                        waiting.remove(owner);
+                        throw new IllegalStateException("Deadlock detected while waiting for the lock on " + lockAddress);
+                    }
+                    next = waiting.get(next);
+                }
+                waiting.put(owner, blocker);
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    if (interruptibly) {
+                        waiting.remove(owner);
+                        throw e;
+                    }
+                    intr = true;
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        waiting.remove(owner);
+        if (held == null) {
+            held = new ArrayList<PathAddress>(1);
+            locks.put(owner, held);
+        }
+        held.add(lockAddress);
+        return true;
+    }
+
+    /**
+     * Release all the locks held by the given owner.
+     *
+     * @param owner the owner
+     */
+    synchronized void unlock(final Object owner) {
+        if (locks.remove(owner) != null) {
+            notifyAll();
+        }
+    }
+
+    private Object findConflict(final Object owner, final PathAddress address) {
+        for (final Map.Entry<Object, List<PathAddress>> entry : locks.entrySet()) {
+            if (entry.getKey() == owner) {
+                continue;
+            }
+            for (final PathAddress heldAddress : entry.getValue()) {
+                if (isPrefix(heldAddress, address) || isPrefix(address, heldAddress)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    static boolean isPrefix(final PathAddress prefix, final PathAddress address) {
+        final int size = prefix.size();
+        if (size > address.size()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!prefix.getElement(i).equals(address.getElement(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
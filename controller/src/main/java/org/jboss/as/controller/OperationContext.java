@@ -78,6 +78,19 @@ public interface OperationContext {
      */
     void addStep(ModelNode response, ModelNode operation, OperationStepHandler step, Stage stage) throws IllegalArgumentException;
 
+    /**
+     * Add a step which only reads the model and the runtime. The read-only steps added by a step are executed, possibly
+     * concurrently with each other, before any step it added with {@link Stage#IMMEDIATE}. Each of them executes in
+     * a separate context which shares this context's view of the model, so a read-only step must not modify the
+     * model, the resource registration or the runtime, and its failure is only reported in its response.
+     *
+     * @param response the response which the step should populate
+     * @param operation the operation body to pass into the step
+     * @param step the step to add
+     * @throws IllegalArgumentException if any of the parameters is {@code null}
+     */
+    void addReadOnlyStep(ModelNode response, ModelNode operation, OperationStepHandler step) throws IllegalArgumentException;
+
     /**
      * Get a stream which is attached to the request.
      *
@@ -353,6 +366,17 @@ public interface OperationContext {
      */
     boolean isRuntimeAffected();
 
+    /**
+     * Get the generation of the management model and resource registry. The generation changes while a modified
+     * model is committed, and once an operation which modified either of them has completed, whether it was
+     * committed or rolled back, so data derived from them can be cached if the generation is the same before and
+     * after it was read, for as long as that generation is current. Runtime resources modified outside of any
+     * operation, like the ones of deployments, do not change the generation.
+     *
+     * @return the generation
+     */
+    long getModelGeneration();
+
     /**
      * Get the current stage of execution.
      *
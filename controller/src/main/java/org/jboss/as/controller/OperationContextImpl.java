@@ -38,6 +38,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUC
 
 import java.io.InputStream;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.EnumMap;
@@ -45,9 +46,13 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.controller.client.MessageSeverity;
@@ -55,6 +60,7 @@ import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteModel;
 import org.jboss.as.controller.registry.DelegatingImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -90,12 +96,19 @@ final class OperationContextImpl implements OperationContext {
     private final OperationMessageHandler messageHandler;
     private final Thread initiatingThread;
     private final EnumMap<Stage, Deque<Step>> steps;
+    /** Read-only steps added by the current step */
+    private List<Step> readOnlySteps;
     private final ModelController.OperationTransactionControl transactionControl;
     private final ServiceTarget serviceTarget;
     private final Map<ServiceName, ServiceController<?>> realRemovingControllers = new HashMap<ServiceName, ServiceController<?>>();
     private final boolean booting;
     private final OperationAttachments attachments;
     private final ControlledProcessState processState;
+    /**
+     * The boot context this context executes a part of the boot operations for, or {@code null}. Such a context
+     * shares the lock and the container monitor of the primary context and leaves persisting its changes to it.
+     */
+    private final OperationContextImpl primaryContext;
     /** Tracks whether any steps have gotten write access to the model */
     private final Set<PathAddress> affectsModel;
     /** Tracks whether any steps have gotten write access to the management resource registration*/
@@ -114,6 +127,8 @@ final class OperationContextImpl implements OperationContext {
     private ModelNode operation;
 
     private Resource model;
+    /** The writable view of the model, created by the first step which gets write access to the model */
+    private CopyOnWriteModel writableModel;
     private ResultAction resultAction;
     /** Tracks whether any steps have gotten write access to the runtime */
     private boolean affectsRuntime;
@@ -130,12 +145,33 @@ final class OperationContextImpl implements OperationContext {
 
     enum ContextFlag {
         ROLLBACK_ON_FAIL,
+        SYNC_PERSISTENCE,
     }
 
     OperationContextImpl(final ModelControllerImpl modelController, final Type contextType, final EnumSet<ContextFlag> contextFlags,
                          final OperationMessageHandler messageHandler, final OperationAttachments attachments,
                          final Resource model, final ModelController.OperationTransactionControl transactionControl,
                          final ControlledProcessState processState, final boolean booting) {
+        this(modelController, contextType, contextFlags, messageHandler, attachments, model, transactionControl, processState, booting, null);
+    }
+
+    /**
+     * Create a context executing some of the boot operations of the given context on another thread.
+     *
+     * @param primaryContext the context executing the boot
+     * @param transactionControl the transaction control, which decides whether the changes are kept
+     */
+    OperationContextImpl(final OperationContextImpl primaryContext, final ModelController.OperationTransactionControl transactionControl) {
+        this(primaryContext.modelController, primaryContext.contextType, EnumSet.noneOf(ContextFlag.class), primaryContext.messageHandler,
+                primaryContext.attachments, primaryContext.getParallelBootModel(), transactionControl, primaryContext.processState,
+                primaryContext.booting, primaryContext);
+    }
+
+    private OperationContextImpl(final ModelControllerImpl modelController, final Type contextType, final EnumSet<ContextFlag> contextFlags,
+                         final OperationMessageHandler messageHandler, final OperationAttachments attachments,
+                         final Resource model, final ModelController.OperationTransactionControl transactionControl,
+                         final ControlledProcessState processState, final boolean booting, final OperationContextImpl primaryContext) {
+        this.primaryContext = primaryContext;
         this.contextType = contextType;
         this.transactionControl = transactionControl;
         this.booting = booting;
@@ -210,6 +246,26 @@ final class OperationContextImpl implements OperationContext {
         }
     }
 
+    public void addReadOnlyStep(final ModelNode response, final ModelNode operation, final OperationStepHandler step) throws IllegalArgumentException {
+        assert Thread.currentThread() == initiatingThread;
+        if (response == null) {
+            throw new IllegalArgumentException("response is null");
+        }
+        if (operation == null) {
+            throw new IllegalArgumentException("operation is null");
+        }
+        if (step == null) {
+            throw new IllegalArgumentException("step is null");
+        }
+        if (currentStage == Stage.DONE) {
+            throw new IllegalStateException("Operation already complete");
+        }
+        if (readOnlySteps == null) {
+            readOnlySteps = new ArrayList<Step>();
+        }
+        readOnlySteps.add(new Step(step, response, operation));
+    }
+
     public ModelNode getFailureDescription() {
         return response.get(FAILURE_DESCRIPTION);
     }
@@ -243,6 +299,13 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage == null) {
             throw new IllegalStateException("Operation already complete");
         }
+        final List<Step> readOnlySteps = this.readOnlySteps;
+        if (readOnlySteps != null) {
+            this.readOnlySteps = null;
+            if (!response.hasDefined(FAILURE_DESCRIPTION)) {
+                executeReadOnlySteps(readOnlySteps);
+            }
+        }
         // Cancellation is detected via interruption.
         if (Thread.currentThread().isInterrupted()) {
             cancelled = true;
@@ -280,10 +343,10 @@ final class OperationContextImpl implements OperationContext {
                     if (contextType == Type.MANAGEMENT && currentStage == Stage.MODEL.next()) {
                         // Management mode; we do not proceed past the MODEL stage.
                         currentStage = Stage.DONE;
-                    } else if (affectsRuntime && currentStage == Stage.VERIFY) {
+                    } else if (affectsRuntime && currentStage == Stage.VERIFY && primaryContext == null) {
                         // a change was made to the runtime.  Thus, we must wait for stability before resuming in to verify.
                         try {
-                            modelController.awaitContainerMonitor(true, 1);
+                            modelController.awaitContainerMonitor(true, 0);
                         } catch (InterruptedException e) {
                             Thread.currentThread().interrupt();
                             cancelled = true;
@@ -300,39 +363,102 @@ final class OperationContextImpl implements OperationContext {
         } while (currentStage != Stage.DONE);
         final AtomicReference<ResultAction> ref = new AtomicReference<ResultAction>(transactionControl == null ? ResultAction.KEEP : ResultAction.ROLLBACK);
         // No more steps, verified operation is a success!
-        ConfigurationPersister.PersistenceResource persistenceResource = null;
-        if (isModelAffected() && resultAction != ResultAction.ROLLBACK) try {
-            persistenceResource = modelController.writeModel(model, affectsModel);
+        ConfigurationPersister.DeferredPersistenceResource persistenceResource = null;
+        if (isModelAffected() && resultAction != ResultAction.ROLLBACK && primaryContext == null) try {
+            persistenceResource = modelController.writeModel(writableModel, affectsModel, contextFlags.contains(ContextFlag.SYNC_PERSISTENCE));
         } catch (ConfigurationPersistenceException e) {
             response.get(OUTCOME).set(FAILED);
             response.get(FAILURE_DESCRIPTION).set("Failed to persist configuration change: " + e);
             return resultAction = ResultAction.ROLLBACK;
         }
-        if (transactionControl != null) {
-            if (log.isTraceEnabled()) {
-                log.trace("Prepared response is " + response);
-            }
-            transactionControl.operationPrepared(new ModelController.OperationTransaction() {
-                public void commit() {
-                    ref.set(ResultAction.KEEP);
+        try {
+            if (transactionControl != null) {
+                if (log.isTraceEnabled()) {
+                    log.trace("Prepared response is " + response);
                 }
+                transactionControl.operationPrepared(new ModelController.OperationTransaction() {
+                    public void commit() {
+                        ref.set(ResultAction.KEEP);
+                    }
 
-                public void rollback() {
-                    ref.set(ResultAction.ROLLBACK);
+                    public void rollback() {
+                        ref.set(ResultAction.ROLLBACK);
+                    }
+                }, response);
+            }
+        } finally {
+            // always complete the persistence resource, it holds the controller's commit lock
+            resultAction = ref.get();
+            if (persistenceResource != null) {
+                if (resultAction == ResultAction.ROLLBACK) {
+                    persistenceResource.rollback();
+                } else {
+                    persistenceResource.commit();
                 }
-            }, response);
+            }
         }
-        resultAction = ref.get();
-        if (persistenceResource != null) {
-            if (resultAction == ResultAction.ROLLBACK) {
-                persistenceResource.rollback();
-            } else {
-                persistenceResource.commit();
+        if (persistenceResource != null && resultAction == ResultAction.KEEP
+                && (persistenceResource.isDurabilityRequired() || contextFlags.contains(ContextFlag.SYNC_PERSISTENCE))) {
+            try {
+                persistenceResource.awaitPersisted();
+            } catch (ConfigurationPersistenceException e) {
+                // the change has been applied and cannot be rolled back anymore
+                response.get(OUTCOME).set(FAILED);
+                response.get(FAILURE_DESCRIPTION).set("Configuration change was applied but could not be persisted: " + e);
             }
         }
         return resultAction;
     }
 
+    /**
+     * Execute read-only steps, each in a context of its own. All but the last step are handed off to the controller's
+     * read executor, which runs them on the calling thread if all its threads are busy.
+     *
+     * @param readOnlySteps the steps
+     */
+    private void executeReadOnlySteps(final List<Step> readOnlySteps) {
+        final List<Future<?>> futures = new ArrayList<Future<?>>(readOnlySteps.size());
+        try {
+            final int last = readOnlySteps.size() - 1;
+            for (int i = 0; i < last; i++) {
+                final Step step = readOnlySteps.get(i);
+                final FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+                    public void run() {
+                        executeReadOnlyStep(step);
+                    }
+                }, null);
+                futures.add(task);
+                modelController.getReadExecutor().execute(task);
+            }
+            executeReadOnlyStep(readOnlySteps.get(last));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // executeReadOnlyStep() does not throw
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void executeReadOnlyStep(final Step step) {
+        try {
+            final OperationContextImpl context = new OperationContextImpl(modelController, contextType, EnumSet.noneOf(ContextFlag.class),
+                    OperationMessageHandler.logging, attachments, model, null, processState, booting);
+            context.addStep(step.response, step.operation, step.handler, Stage.MODEL);
+            context.completeStep();
+        } catch (Throwable t) {
+            log.errorf(t, "Operation (%s) failed - address: (%s)", step.operation.get(OP), step.operation.get(OP_ADDR));
+            step.response.get(OUTCOME).set(FAILED);
+            step.response.get(FAILURE_DESCRIPTION).set("Operation handler failed: " + t);
+        }
+    }
+
     private ResultAction executeStep(final Step step) {
         PathAddress oldModelAddress = modelAddress;
         ModelNode oldOperation = operation;
@@ -399,7 +525,7 @@ final class OperationContextImpl implements OperationContext {
             this.response = oldResponse;
             this.restartStampHolder = oldRestartStamp;
             if (lockDepth == depth) {
-                modelController.releaseLock();
+                modelController.releaseLock(this);
                 lockDepth = 0;
             }
             if (containerMonitorDepth == depth) {
@@ -534,7 +660,8 @@ final class OperationContextImpl implements OperationContext {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
         if (!affectsResourceRegistration) {
-            takeWriteLock();
+            // the registry is shared by the whole model
+            takeWriteLock(PathAddress.EMPTY_ADDRESS);
             affectsResourceRegistration = true;
         }
         return modelController.getRootRegistration().getSubModel(address);
@@ -561,8 +688,10 @@ final class OperationContextImpl implements OperationContext {
         if (! (currentStage == Stage.RUNTIME || currentStage == Stage.VERIFY || isRollingBack() && ! modify)) {
             throw new IllegalStateException("Get service registry only supported in runtime operations");
         }
+        if (modify) {
+            takeWriteLock(modelAddress);
+        }
         if (modify && !affectsRuntime) {
-            takeWriteLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -579,8 +708,8 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage != Stage.RUNTIME && currentStage != Stage.VERIFY && !isRollingBack()) {
             throw new IllegalStateException("Service removal only supported in runtime operations");
         }
+        takeWriteLock(modelAddress);
         if (!affectsRuntime) {
-            takeWriteLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -601,8 +730,8 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage != Stage.RUNTIME && currentStage != Stage.VERIFY && !isRollingBack()) {
             throw new IllegalStateException("Service removal only supported in runtime operations");
         }
+        takeWriteLock(modelAddress);
         if (!affectsRuntime) {
-            takeWriteLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -647,8 +776,8 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage != Stage.RUNTIME && currentStage != Stage.VERIFY && !isRollingBack()) {
             throw new IllegalStateException("Get service target only supported in runtime operations");
         }
+        takeWriteLock(modelAddress);
         if (!affectsRuntime) {
-            takeWriteLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -656,23 +785,36 @@ final class OperationContextImpl implements OperationContext {
         return serviceTarget;
     }
 
-    private void takeWriteLock() {
-        if (lockDepth == 0) {
-            if (currentStage == Stage.DONE) {
-                throw new IllegalStateException("Invalid modification after completed step");
-            }
-            try {
-                modelController.acquireLock(respectInterruption);
-                lockDepth = depth;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new CancellationException("Operation cancelled asynchronously");
+    /**
+     * Lock the resource at the given address and its descendants for modification. The boot operation, and
+     * addresses with wildcards, lock the whole model.
+     *
+     * @param address the absolute address of the resource
+     */
+    private void takeWriteLock(final PathAddress address) {
+        if (lockDepth == 0 && currentStage == Stage.DONE) {
+            throw new IllegalStateException("Invalid modification after completed step");
+        }
+        try {
+            final PathAddress lockAddress = booting || address.isMultiTarget() ? PathAddress.EMPTY_ADDRESS : address;
+            if (modelController.acquireLock(primaryContext != null ? primaryContext : this, lockAddress, respectInterruption)) {
+                if (lockDepth == 0) {
+                    lockDepth = depth;
+                }
+                if (writableModel != null) {
+                    // another operation may have modified this part of the model since we started writing
+                    writableModel.refresh(lockAddress, modelController.getPublishedModel(), affectsModel);
+                    model = writableModel.getRoot();
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Operation cancelled asynchronously");
         }
     }
 
     private void acquireContainerMonitor() {
-        if (containerMonitorDepth == 0) {
+        if (containerMonitorDepth == 0 && primaryContext == null) {
             if (currentStage == Stage.DONE) {
                 throw new IllegalStateException("Invalid modification after completed step");
             }
@@ -682,8 +824,12 @@ final class OperationContextImpl implements OperationContext {
     }
 
     private void awaitContainerMonitor() {
+        if (primaryContext != null) {
+            // the primary context waits for the container before and after the runtime stage of its parallel contexts
+            return;
+        }
         try {
-            modelController.awaitContainerMonitor(respectInterruption, 1);
+            modelController.awaitContainerMonitor(respectInterruption, 0);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new CancellationException("Operation cancelled asynchronously");
@@ -715,12 +861,9 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage != Stage.MODEL) {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
-        if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        final CopyOnWriteModel writableModel = getWritableModel(address);
         affectsModel.add(address);
-        Resource model = this.model;
+        Resource model = writableModel.getRoot();
         final Iterator<PathElement> i = address.iterator();
         while (i.hasNext()) {
             final PathElement element = i.next();
@@ -740,10 +883,10 @@ final class OperationContextImpl implements OperationContext {
                     model.registerChild(element, newModel);
                     model = newModel;
                 } else {
-                    model = model.requireChild(element);
+                    model = writableModel.requireChildForUpdate(model, element);
                 }
             } else {
-                model = model.requireChild(element);
+                model = writableModel.requireChildForUpdate(model, element);
             }
         }
         if(model == null) {
@@ -776,21 +919,15 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage != Stage.MODEL) {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
-        if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        final CopyOnWriteModel writableModel = getWritableModel(address);
         affectsModel.add(address);
-        Resource resource = this.model;
-        final Iterator<PathElement> i = address.iterator();
-        while (i.hasNext()) {
-            final PathElement element = i.next();
+        for (final PathElement element : address) {
             if (element.isMultiTarget()) {
                 throw new IllegalArgumentException("Cannot write to *");
             }
-            resource = resource.requireChild(element);
         }
-        return resource;
+        // the caller may modify the children of the resource as well
+        return writableModel.navigateForUpdate(address, true);
     }
 
     public Resource createResource(PathAddress requestAddress) {
@@ -803,12 +940,9 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage != Stage.MODEL) {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
-        if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        final CopyOnWriteModel writableModel = getWritableModel(address);
         affectsModel.add(address);
-        Resource model = this.model;
+        Resource model = writableModel.getRoot();
         final Iterator<PathElement> i = address.iterator();
         while (i.hasNext()) {
             final PathElement element = i.next();
@@ -831,7 +965,7 @@ final class OperationContextImpl implements OperationContext {
                     model = newModel;
                 }
             } else {
-                model = model.requireChild(element);
+                model = writableModel.requireChildForUpdate(model, element);
             }
         }
         return model;
@@ -847,12 +981,9 @@ final class OperationContextImpl implements OperationContext {
         if (currentStage != Stage.MODEL) {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
-        if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        final CopyOnWriteModel writableModel = getWritableModel(address);
         affectsModel.add(address);
-        Resource model = this.model;
+        Resource model = writableModel.getRoot();
         final Iterator<PathElement> i = address.iterator();
         while (i.hasNext()) {
             final PathElement element = i.next();
@@ -862,14 +993,68 @@ final class OperationContextImpl implements OperationContext {
             if (! i.hasNext()) {
                 model = model.removeChild(element);
             } else {
-                model = model.requireChild(element);
+                model = writableModel.requireChildForUpdate(model, element);
             }
         }
         return model;
     }
 
+    /**
+     * Lock the given address and get the writable view of the model. Rather than cloning the whole model, only the
+     * resources on the paths which are written to are copied.
+     *
+     * @param address the absolute address of the resource which is going to be modified
+     */
+    private CopyOnWriteModel getWritableModel(final PathAddress address) {
+        takeWriteLock(address);
+        if (writableModel == null) {
+            // a parallel boot context starts from the uncommitted model of the primary context
+            writableModel = primaryContext != null ? new CopyOnWriteModel(model) : modelController.createWritableModel();
+            model = writableModel.getRoot();
+        }
+        return writableModel;
+    }
+
+    /**
+     * Get the model a parallel boot context starts from. Must only be called while this context is waiting for its
+     * parallel contexts.
+     *
+     * @return the current model of this context, which must not be modified
+     */
+    private Resource getParallelBootModel() {
+        return writableModel != null ? writableModel.getRoot() : modelController.getPublishedModel();
+    }
+
+    /**
+     * Get the addresses of the resources modified by this context.
+     *
+     * @return the addresses, which must not be modified
+     */
+    Set<PathAddress> getAffectedAddresses() {
+        return affectsModel;
+    }
+
+    /**
+     * Take over the model changes of a parallel boot context which has completed its model stage.
+     *
+     * @param context the parallel boot context
+     */
+    void mergeParallelBootContext(final OperationContextImpl context) {
+        assert Thread.currentThread() == initiatingThread;
+        assert context.primaryContext == this;
+        if (context.isModelAffected()) {
+            getWritableModel(PathAddress.EMPTY_ADDRESS).merge(context.writableModel, context.affectsModel);
+            // the merge replaces the root if the parallel context modified it
+            model = writableModel.getRoot();
+            affectsModel.addAll(context.affectsModel);
+        }
+        if (context.affectsResourceRegistration) {
+            affectsResourceRegistration = true;
+        }
+    }
+
     public void acquireControllerLock() {
-        takeWriteLock();
+        takeWriteLock(PathAddress.EMPTY_ADDRESS);
     }
 
     public Resource getRootResource() {
@@ -893,6 +1078,10 @@ final class OperationContextImpl implements OperationContext {
         return currentStage;
     }
 
+    public long getModelGeneration() {
+        return modelController.getModelGeneration();
+    }
+
     public void report(final MessageSeverity severity, final String message) {
         try {
             messageHandler.handleReport(severity, message);
@@ -0,0 +1,373 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jboss.as.controller.registry.CopyOnWriteModel;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+
+/**
+ * Boots a number of subsystems in parallel. The operations of each subsystem are executed in a context of their own,
+ * on a thread of the boot executor, which shares the controller lock of the boot context.
+ * <p/>
+ * The subsystems execute their {@link OperationContext.Stage#MODEL MODEL} stage while the boot context waits, which
+ * then takes over their model changes, so that the following boot operations see them. The model can only be
+ * modified in that stage. Subsystems which modified the same resources cannot be merged, they fail the boot. They
+ * execute their {@link OperationContext.Stage#RUNTIME RUNTIME} stage during the runtime stage of the boot context,
+ * after the remaining boot operations have completed their model stage. Their
+ * {@link OperationContext.Stage#VERIFY VERIFY} stage starts once the container has settled in the verify stage of the
+ * boot context. They keep or roll back their changes along with the boot context. A subsystem which fails in a way
+ * that would have rolled back a sequential boot rolls back the whole boot.
+ */
+final class ParallelBootOperationStepHandler implements OperationStepHandler {
+
+    static final String OPERATION_NAME = "parallel-subsystem-boot";
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    private final Executor executor;
+    private final Map<String, SubsystemBoot> subsystems = new LinkedHashMap<String, SubsystemBoot>();
+
+    /** The stage the subsystems may proceed to, protected by "this" */
+    private OperationContext.Stage released = OperationContext.Stage.MODEL;
+    /** The outcome of the boot context once it is complete, protected by "this" */
+    private OperationContext.ResultAction decision;
+
+    /**
+     * @param executor the executor running the subsystem boots, which must be able to run all of them at once
+     */
+    ParallelBootOperationStepHandler(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Add a boot operation of a subsystem.
+     *
+     * @param subsystem the name of the subsystem
+     * @param operation the operation
+     * @param handler the handler executing the operation
+     * @param response the response of the operation
+     */
+    void addOperation(final String subsystem, final ModelNode operation, final OperationStepHandler handler, final ModelNode response) {
+        SubsystemBoot boot = subsystems.get(subsystem);
+        if (boot == null) {
+            boot = new SubsystemBoot(subsystem);
+            subsystems.put(subsystem, boot);
+        }
+        boot.operations.add(operation);
+        boot.handlers.add(handler);
+        boot.responses.add(response);
+    }
+
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final OperationContextImpl primaryContext = (OperationContextImpl) context;
+        // the subsystem contexts lock on behalf of the boot context, which therefore has to hold the lock first
+        context.acquireControllerLock();
+        final boolean runtime = context.getType() != OperationContext.Type.MANAGEMENT;
+        OperationContext.ResultAction resultAction = OperationContext.ResultAction.ROLLBACK;
+        try {
+            for (SubsystemBoot boot : subsystems.values()) {
+                boot.start(primaryContext, runtime);
+            }
+            final List<String> failed = awaitSubsystems(runtime ? OperationContext.Stage.RUNTIME : OperationContext.Stage.DONE);
+            if (!failed.isEmpty()) {
+                context.getFailureDescription().set(String.format("Failed to boot subsystems %s", failed));
+            } else if (merge(primaryContext) && runtime) {
+                context.addStep(new RuntimeStepHandler(), OperationContext.Stage.RUNTIME);
+            }
+            resultAction = context.completeStep();
+        } finally {
+            decide(resultAction);
+        }
+    }
+
+    /**
+     * Lets the subsystems execute their runtime stage, and waits for them to finish it.
+     */
+    private class RuntimeStepHandler implements OperationStepHandler {
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            // makes the boot context wait for the services installed by the subsystems before verifying
+            context.getServiceTarget();
+            release(OperationContext.Stage.RUNTIME);
+            final List<String> failed = awaitSubsystems(OperationContext.Stage.VERIFY);
+            if (!failed.isEmpty()) {
+                context.getFailureDescription().set(String.format("Failed to boot subsystems %s", failed));
+                context.setRollbackOnly();
+            } else {
+                context.addStep(new VerifyStepHandler(), OperationContext.Stage.VERIFY);
+            }
+            context.completeStep();
+        }
+    }
+
+    /**
+     * Lets the subsystems execute their verify stage.
+     */
+    private class VerifyStepHandler implements OperationStepHandler {
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            release(OperationContext.Stage.VERIFY);
+            final List<String> failed = awaitSubsystems(OperationContext.Stage.DONE);
+            if (!failed.isEmpty()) {
+                context.getFailureDescription().set(String.format("Failed to boot subsystems %s", failed));
+                context.setRollbackOnly();
+            }
+            context.completeStep();
+        }
+    }
+
+    /**
+     * Take over the model changes of the subsystems, which have completed their model stage.
+     *
+     * @param primaryContext the boot context
+     * @return {@code true} if the changes were merged, {@code false} if some subsystems modified the same resources,
+     *         in which case the boot context has been marked for rollback
+     */
+    private boolean merge(final OperationContextImpl primaryContext) {
+        final List<SubsystemBoot> boots = new ArrayList<SubsystemBoot>(subsystems.values());
+        for (int i = 0; i < boots.size(); i++) {
+            final Set<PathAddress> affected = boots.get(i).context.getAffectedAddresses();
+            for (int j = i + 1; j < boots.size(); j++) {
+                final PathAddress overlap = CopyOnWriteModel.findOverlap(affected, boots.get(j).context.getAffectedAddresses());
+                if (overlap != null) {
+                    primaryContext.getFailureDescription().set(String.format("Subsystems %s and %s both modified %s and cannot be booted in parallel, " +
+                            "list one of them in %s", boots.get(i).name, boots.get(j).name, overlap, ModelControllerImpl.SEQUENTIAL_SUBSYSTEMS_PROPERTY));
+                    primaryContext.setRollbackOnly();
+                    return false;
+                }
+            }
+        }
+        for (SubsystemBoot boot : boots) {
+            primaryContext.mergeParallelBootContext(boot.context);
+        }
+        return true;
+    }
+
+    private synchronized void release(final OperationContext.Stage stage) {
+        released = stage;
+        notifyAll();
+    }
+
+    /**
+     * Report the outcome of the boot context to the subsystems and wait for them to complete.
+     */
+    private synchronized void decide(final OperationContext.ResultAction resultAction) {
+        decision = resultAction;
+        notifyAll();
+        boolean intr = false;
+        try {
+            for (SubsystemBoot boot : subsystems.values()) {
+                while (boot.started && !boot.finished) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        intr = true;
+                    }
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Wait for all the subsystems to reach the given stage, or to fail.
+     *
+     * @param stage the stage
+     * @return the names of the subsystems which failed
+     */
+    private synchronized List<String> awaitSubsystems(final OperationContext.Stage stage) {
+        boolean intr = false;
+        try {
+            for (SubsystemBoot boot : subsystems.values()) {
+                while (!boot.finished && boot.reached.compareTo(stage) < 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        intr = true;
+                    }
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final List<String> failed = new ArrayList<String>();
+        for (SubsystemBoot boot : subsystems.values()) {
+            if (boot.failed) {
+                failed.add(boot.name);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Called by a subsystem which reached the given stage, waits until the subsystem may proceed.
+     *
+     * @return {@code true} if the subsystem may proceed, {@code false} if it has to roll back
+     */
+    private synchronized boolean reached(final SubsystemBoot boot, final OperationContext.Stage stage) {
+        boot.reached = stage;
+        notifyAll();
+        boolean intr = false;
+        try {
+            while (decision == null && released.compareTo(stage) < 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    intr = true;
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // the boot context only completes once all subsystems are prepared, anything else is an abort
+        return decision == null;
+    }
+
+    private synchronized OperationContext.ResultAction prepared(final SubsystemBoot boot) {
+        boot.reached = OperationContext.Stage.DONE;
+        notifyAll();
+        boolean intr = false;
+        try {
+            while (decision == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    intr = true;
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return decision;
+    }
+
+    private synchronized void finished(final SubsystemBoot boot, final boolean rolledBack) {
+        // a subsystem rolled back along with the boot context has not failed
+        boot.failed = rolledBack && decision == null;
+        boot.finished = true;
+        notifyAll();
+    }
+
+    /**
+     * The boot of a single subsystem.
+     */
+    private final class SubsystemBoot implements Runnable, ModelController.OperationTransactionControl {
+        private final String name;
+        private final List<ModelNode> operations = new ArrayList<ModelNode>();
+        private final List<OperationStepHandler> handlers = new ArrayList<OperationStepHandler>();
+        private final List<ModelNode> responses = new ArrayList<ModelNode>();
+        private OperationContextImpl primaryContext;
+        private boolean runtime;
+        private volatile OperationContextImpl context;
+
+        // protected by the enclosing instance
+        private OperationContext.Stage reached = OperationContext.Stage.MODEL;
+        private boolean started;
+        private boolean finished;
+        private boolean failed;
+
+        private SubsystemBoot(final String name) {
+            this.name = name;
+        }
+
+        void start(final OperationContextImpl primaryContext, final boolean runtime) {
+            this.primaryContext = primaryContext;
+            this.runtime = runtime;
+            synchronized (ParallelBootOperationStepHandler.this) {
+                started = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                log.errorf(e, "Failed to boot subsystem %s", name);
+                finished(this, true);
+            }
+        }
+
+        public void run() {
+            boolean rolledBack = true;
+            try {
+                final OperationContextImpl context = new OperationContextImpl(primaryContext, this);
+                this.context = context;
+                for (int i = 0; i < operations.size(); i++) {
+                    context.addStep(responses.get(i), operations.get(i), handlers.get(i), OperationContext.Stage.MODEL);
+                }
+                if (runtime) {
+                    final ModelNode barrier = new ModelNode();
+                    barrier.get(OP_ADDR).set(operations.get(0).get(OP_ADDR));
+                    context.addStep(new ModelNode(), barrier, new BarrierStepHandler(OperationContext.Stage.RUNTIME), OperationContext.Stage.RUNTIME);
+                    context.addStep(new ModelNode(), barrier, new BarrierStepHandler(OperationContext.Stage.VERIFY), OperationContext.Stage.VERIFY);
+                }
+                rolledBack = context.completeStep() == OperationContext.ResultAction.ROLLBACK;
+            } catch (Throwable t) {
+                log.errorf(t, "Failed to boot subsystem %s", name);
+            } finally {
+                finished(this, rolledBack);
+            }
+        }
+
+        public void operationPrepared(final ModelController.OperationTransaction transaction, final ModelNode result) {
+            if (prepared(this) == OperationContext.ResultAction.KEEP) {
+                transaction.commit();
+            } else {
+                transaction.rollback();
+            }
+        }
+
+        /**
+         * Holds the subsystem back at the start of a stage until the boot context lets it proceed.
+         */
+        private class BarrierStepHandler implements OperationStepHandler {
+            private final OperationContext.Stage stage;
+
+            BarrierStepHandler(final OperationContext.Stage stage) {
+                this.stage = stage;
+            }
+
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                if (!reached(SubsystemBoot.this, stage)) {
+                    context.setRollbackOnly();
+                }
+                context.completeStep();
+            }
+        }
+    }
+}
@@ -42,6 +42,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYP
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import org.jboss.as.controller.operations.global.ReadResultCache;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -69,6 +70,12 @@ public class ManagementDescription {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
         root.get(DESCRIPTION).set(bundle.getString("core.management"));
+        root.get(ATTRIBUTES, ReadResultCache.HITS, DESCRIPTION).set(bundle.getString("core.management.read-cache-hits"));
+        root.get(ATTRIBUTES, ReadResultCache.HITS, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, ReadResultCache.MISSES, DESCRIPTION).set(bundle.getString("core.management.read-cache-misses"));
+        root.get(ATTRIBUTES, ReadResultCache.MISSES, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, ReadResultCache.SIZE, DESCRIPTION).set(bundle.getString("core.management.read-cache-size"));
+        root.get(ATTRIBUTES, ReadResultCache.SIZE, TYPE).set(ModelType.INT);
         root.get(OPERATIONS);
 
         root.get(CHILDREN, SECURITY_REALM, DESCRIPTION).set(bundle.getString("core.management.security-realms"));
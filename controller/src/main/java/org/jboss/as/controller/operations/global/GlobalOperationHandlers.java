@@ -107,8 +107,8 @@ public class GlobalOperationHandlers {
     /**
      * {@link org.jboss.as.controller.OperationStepHandler} reading a part of the model. The result will only contain the current attributes of a node by default,
      * excluding all addressable children and runtime attributes. Setting the request parameter "recursive" to "true" will recursively include
-     * all children and configuration attributes. Non-recursive queries can include runtime attributes by setting the request parameter
-     * "include-runtime" to "true".
+     * all children and configuration attributes. Queries can include runtime attributes by setting the request parameter
+     * "include-runtime" to "true". Child resources and runtime attributes are read by read-only steps, which may execute concurrently.
      */
     public static class ReadResourceHandler extends AbstractMultiTargetHandler implements OperationStepHandler {
 
@@ -130,7 +130,7 @@ public class GlobalOperationHandlers {
             final ModelNode opAddr = operation.get(OP_ADDR);
             final PathAddress address = PathAddress.pathAddress(opAddr);
             final boolean recursive = operation.get(RECURSIVE).asBoolean(false);
-            final boolean queryRuntime = !recursive && operation.get(INCLUDE_RUNTIME).asBoolean(false);
+            final boolean queryRuntime = operation.get(INCLUDE_RUNTIME).asBoolean(false);
             final boolean proxies = operation.get(PROXIES).asBoolean(false);
             final boolean defaults = operation.get(INCLUDE_DEFAULTS).asBoolean(true);
 
@@ -218,7 +218,7 @@ public class GlobalOperationHandlers {
                                 childResources.put(childPE, rrRsp);
 
                                 OperationStepHandler rrHandler = childReg.getOperationHandler(relativeAddr, opName);
-                                context.addStep(rrRsp, rrOp, rrHandler, OperationContext.Stage.IMMEDIATE);
+                                context.addReadOnlyStep(rrRsp, rrOp, rrHandler);
                             }
                         }
                         if (storeDirect) {
@@ -263,7 +263,12 @@ public class GlobalOperationHandlers {
                         } else {
                             otherAttributes.put(attributeName, attrResponse);
                         }
-                        context.addStep(attrResponse, attributeOperation, handler, OperationContext.Stage.IMMEDIATE);
+                        if (storage == AttributeAccess.Storage.RUNTIME) {
+                            // typically queries a service, which is independent of the other reads
+                            context.addReadOnlyStep(attrResponse, attributeOperation, handler);
+                        } else {
+                            context.addStep(attrResponse, attributeOperation, handler, OperationContext.Stage.IMMEDIATE);
+                        }
                     }
                 }
             }
@@ -594,7 +599,7 @@ public class GlobalOperationHandlers {
                     }
                     ModelNode rrRsp = new ModelNode();
                     resources.put(childPath, rrRsp);
-                    context.addStep(rrRsp, readOp, handler, OperationContext.Stage.IMMEDIATE);
+                    context.addReadOnlyStep(rrRsp, readOp, handler);
                 }
             }
 
@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROXIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the results of read-only global operations like {@code read-resource-description}, which are expensive to
+ * compute for large subtrees and get called over and over again by consoles and tab completion.
+ * <p>
+ * A result is cached under the operation that produced it, minus its headers, together with the
+ * {@link OperationContext#getModelGeneration() model generation} it was computed at. All entries are dropped once
+ * the generation changes. Results which do not depend only on the local model and resource registry, i.e. ones
+ * including runtime attributes or data read from proxied controllers, are never cached, and neither are reads
+ * done by an operation which has already modified the model itself. Deployments and runtime only resources are
+ * not cached either, since they get modified outside of any operation, e.g. by the deployment services, which does
+ * not change the generation.
+ * <p>
+ * Each controller uses a cache of its own, which decorates the handlers it registers.
+ */
+public class ReadResultCache {
+
+    /**
+     * System property setting the maximum number of results kept, the least recently used ones are evicted first.
+     * Setting it to {@code 0} disables the cache.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "org.jboss.as.controller.read-cache.max-entries";
+
+    public static final String HITS = "read-cache-hits";
+    public static final String MISSES = "read-cache-misses";
+    public static final String SIZE = "read-cache-size";
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    /** Guarded by this */
+    private final Map<ModelNode, ModelNode> entries;
+    /** Guarded by this */
+    private long generation;
+
+    public ReadResultCache() {
+        this(Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+    }
+
+    public ReadResultCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<ModelNode, ModelNode>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ModelNode, ModelNode> eldest) {
+                return size() > ReadResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Decorate a handler for a read-only operation so that its results are cached.
+     *
+     * @param handler the handler
+     * @return the caching handler
+     */
+    public OperationStepHandler cache(final OperationStepHandler handler) {
+        return maxEntries > 0 ? new CachingHandler(handler) : handler;
+    }
+
+    /**
+     * Register the metrics of this cache on the given resource.
+     *
+     * @param registration the {@code core-service=management} registration
+     */
+    public void registerMetrics(final ManagementResourceRegistration registration) {
+        final OperationStepHandler metricHandler = new MetricHandler();
+        registration.registerMetric(HITS, metricHandler);
+        registration.registerMetric(MISSES, metricHandler);
+        registration.registerMetric(SIZE, metricHandler);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    private synchronized ModelNode get(final ModelNode key, final long generation) {
+        if (!isCurrent(generation)) {
+            return null;
+        }
+        return entries.get(key);
+    }
+
+    private synchronized void put(final ModelNode key, final long generation, final ModelNode result) {
+        if (isCurrent(generation)) {
+            entries.put(key, result);
+        }
+    }
+
+    private boolean isCurrent(final long generation) {
+        if (generation > this.generation) {
+            entries.clear();
+            this.generation = generation;
+        }
+        return generation == this.generation;
+    }
+
+    private static boolean isCacheable(final OperationContext context, final ModelNode operation) {
+        if (context.isModelAffected() || context.isResourceRegistryAffected()) {
+            return false;
+        }
+        if (operation.get(INCLUDE_RUNTIME).asBoolean(false) || operation.get(PROXIES).asBoolean(false)) {
+            return false;
+        }
+        for (final PathElement element : PathAddress.pathAddress(operation.get(OP_ADDR))) {
+            if (DEPLOYMENT.equals(element.getKey())) {
+                return false;
+            }
+        }
+        final ImmutableManagementResourceRegistration registration = context.getResourceRegistration();
+        if (registration.isRuntimeOnly()) {
+            return false;
+        }
+        if (operation.hasDefined(CHILD_TYPE)) {
+            // the children may be proxies, e.g. the hosts registered with a domain controller
+            final String childType = operation.get(CHILD_TYPE).asString();
+            if (DEPLOYMENT.equals(childType)) {
+                return false;
+            }
+            final boolean recursive = operation.get(RECURSIVE).asBoolean(false);
+            for (final PathElement element : registration.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
+                if (childType.equals(element.getKey())) {
+                    final ImmutableManagementResourceRegistration child = registration.getSubModel(PathAddress.pathAddress(element));
+                    if (!isCacheable(child) || (recursive && !isSubtreeCacheable(child))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCacheable(final ImmutableManagementResourceRegistration registration) {
+        return !registration.isRemote() && !registration.isRuntimeOnly();
+    }
+
+    private static boolean isSubtreeCacheable(final ImmutableManagementResourceRegistration registration) {
+        for (final PathElement element : registration.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
+            final ImmutableManagementResourceRegistration child = registration.getSubModel(PathAddress.pathAddress(element));
+            if (DEPLOYMENT.equals(element.getKey()) || !isCacheable(child) || !isSubtreeCacheable(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class CachingHandler implements OperationStepHandler {
+        private final OperationStepHandler delegate;
+
+        CachingHandler(final OperationStepHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            if (!isCacheable(context, operation)) {
+                delegate.execute(context, operation);
+                return;
+            }
+            final long generation = context.getModelGeneration();
+            final ModelNode key = new ModelNode();
+            for (final String name : operation.keys()) {
+                if (!OPERATION_HEADERS.equals(name)) {
+                    key.get(name).set(operation.get(name));
+                }
+            }
+            final ModelNode cached = get(key, generation);
+            if (cached != null) {
+                hits.incrementAndGet();
+                context.getResult().set(cached.clone());
+                context.completeStep();
+                return;
+            }
+            misses.incrementAndGet();
+            // the steps added by the delegate have all run by the time it returns from completeStep()
+            delegate.execute(context, operation);
+            // a model committed while the delegate was reading may or may not be part of the result
+            if (!context.hasFailureDescription() && context.hasResult() && context.getModelGeneration() == generation) {
+                put(key, generation, context.getResult().clone());
+            }
+        }
+    }
+
+    private class MetricHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String name = operation.require(NAME).asString();
+            if (HITS.equals(name)) {
+                context.getResult().set(getHits());
+            } else if (MISSES.equals(name)) {
+                context.getResult().set(getMisses());
+            } else if (SIZE.equals(name)) {
+                context.getResult().set(getSize());
+            } else {
+                context.getFailureDescription().set(String.format("Unknown metric %s", name));
+            }
+            context.completeStep();
+        }
+    }
+}
@@ -73,7 +73,12 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
-        return new ConfigurationFilePersistenceResource(model, configurationFile, this);
+        return super.store(model, affectedAddresses);
+    }
+
+    @Override
+    FilePersistenceResource createPersistenceResource(final ModelNode model, final boolean sync) throws ConfigurationPersistenceException {
+        return new ConfigurationFilePersistenceResource(model, configurationFile, this, sync);
     }
 
     @Override
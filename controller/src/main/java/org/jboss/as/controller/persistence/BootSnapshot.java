@@ -0,0 +1,242 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+
+/**
+ * A binary snapshot of the boot operations parsed from a configuration file.
+ * <p/>
+ * The snapshot records the SHA-1 hash of the configuration file it was created from, together with the environment
+ * the file was parsed in, and a fingerprint of each extension module referenced by the boot operations. It is only used if both still match, so any change to the
+ * configuration file or to an extension results in the file being parsed again. The content is protected by a
+ * version number and a CRC32 checksum; a snapshot which cannot be read for whatever reason is simply ignored.
+ */
+final class BootSnapshot {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    private static final int MAGIC = 0x4A424F54;
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final String hash;
+    private final Map<String, String> fingerprints;
+    private final List<ModelNode> operations;
+
+    private BootSnapshot(final File file, final String hash, final Map<String, String> fingerprints, final List<ModelNode> operations) {
+        this.file = file;
+        this.hash = hash;
+        this.fingerprints = fingerprints;
+        this.operations = operations;
+    }
+
+    /**
+     * Create a snapshot which can be {@link #write() written} to a file.
+     *
+     * @param file the snapshot file
+     * @param hash the hash of the configuration file, see {@link #hash(byte[], String)}
+     * @param fingerprints the fingerprints of the extension modules, keyed by module name
+     * @param operations the boot operations
+     * @return the snapshot
+     */
+    static BootSnapshot create(final File file, final String hash, final Map<String, String> fingerprints, final List<ModelNode> operations) {
+        return new BootSnapshot(file, hash, fingerprints, operations);
+    }
+
+    /**
+     * Read a snapshot.
+     *
+     * @param file the snapshot file
+     * @param hash the hash of the current configuration file
+     * @return the snapshot, or {@code null} if there is none, it cannot be read or it was created from different content
+     */
+    static BootSnapshot read(final File file, final String hash) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final byte[] bytes = readFully(file);
+            if (bytes.length < 8) {
+                return null;
+            }
+            final int length = bytes.length - 8;
+            final CRC32 crc = new CRC32();
+            crc.update(bytes, 0, length);
+            final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+            input.skipBytes(length);
+            if (input.readLong() != crc.getValue()) {
+                log.debugf("Ignoring corrupt boot snapshot %s", file);
+                return null;
+            }
+
+            final DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+            if (data.readInt() != MAGIC || data.readInt() != VERSION || !hash.equals(data.readUTF())) {
+                return null;
+            }
+            final int extensions = data.readInt();
+            final Map<String, String> fingerprints = new LinkedHashMap<String, String>();
+            for (int i = 0; i < extensions; i++) {
+                fingerprints.put(data.readUTF(), data.readUTF());
+            }
+            final int count = data.readInt();
+            final List<ModelNode> operations = new ArrayList<ModelNode>(count);
+            for (int i = 0; i < count; i++) {
+                final ModelNode operation = new ModelNode();
+                operation.readExternal(data);
+                operations.add(operation);
+            }
+            return new BootSnapshot(file, hash, fingerprints, operations);
+        } catch (Exception e) {
+            log.debugf(e, "Failed to read boot snapshot %s", file);
+            return null;
+        }
+    }
+
+    /**
+     * Write the snapshot, replacing the previous one. Failures are logged but otherwise ignored, the snapshot is only
+     * an optimization.
+     */
+    void write() {
+        final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            final DataOutputStream data = new DataOutputStream(bytes);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeUTF(hash);
+            data.writeInt(fingerprints.size());
+            for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                data.writeUTF(entry.getKey());
+                data.writeUTF(entry.getValue());
+            }
+            data.writeInt(operations.size());
+            for (ModelNode operation : operations) {
+                operation.writeExternal(data);
+            }
+            data.flush();
+            final CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            data.writeLong(crc.getValue());
+            data.close();
+
+            final FileOutputStream output = new FileOutputStream(temp);
+            try {
+                bytes.writeTo(output);
+                output.close();
+            } finally {
+                safeClose(output);
+            }
+            if (!temp.renameTo(file) && (!file.delete() || !temp.renameTo(file))) {
+                throw new IOException("Failed to rename " + temp + " to " + file);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            log.debugf(e, "Failed to write boot snapshot %s", file);
+        }
+    }
+
+    /**
+     * Get the fingerprints of the extension modules as they were when the snapshot was created.
+     *
+     * @return the fingerprints, keyed by module name
+     */
+    Map<String, String> getFingerprints() {
+        return fingerprints;
+    }
+
+    List<ModelNode> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Compute the hash identifying the content of a configuration file and the environment it is parsed in.
+     *
+     * @param content the content
+     * @param environment a description of the parser and anything else the parsed operations depend on
+     * @return the hash as a hex string
+     */
+    static String hash(final byte[] content, final String environment) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(content);
+        final byte[] hash;
+        try {
+            hash = digest.digest(environment.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16));
+            builder.append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString();
+    }
+
+    static byte[] readFully(final File file) throws IOException {
+        final InputStream input = new FileInputStream(file);
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.max(file.length(), 1024));
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        } finally {
+            safeClose(input);
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (Throwable t) {
+            log.errorf(t, "Failed to close resource %s", closeable);
+        }
+    }
+}
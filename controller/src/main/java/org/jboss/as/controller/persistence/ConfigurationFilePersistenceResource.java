@@ -22,6 +22,8 @@
 
 package org.jboss.as.controller.persistence;
 
+import java.io.File;
+
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -35,19 +37,16 @@ public class ConfigurationFilePersistenceResource extends FilePersistenceResourc
     private final ConfigurationFile configurationFile;
 
     ConfigurationFilePersistenceResource(final ModelNode model, final ConfigurationFile configurationFile,
-                                         final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
-        super(model, configurationFile.getMainFile(), persister);
+                                         final AbstractConfigurationPersister persister, final boolean sync) throws ConfigurationPersistenceException {
+        super(model, configurationFile.getMainFile(), persister, sync);
         this.configurationFile = configurationFile;
     }
 
     @Override
-    public void commit() {
-        try {
-            configurationFile.backup();
-            super.commit();
-            configurationFile.fileWritten();
-        } catch (ConfigurationPersistenceException e) {
-           log.errorf(e, e.toString());
-        }
+    protected void replace(final File temp, final File target) throws ConfigurationPersistenceException {
+        // the new content is already on disk, so the window without a main file is as short as possible
+        configurationFile.backup();
+        super.replace(temp, target);
+        configurationFile.fileWritten();
     }
 }
@@ -54,6 +54,43 @@ public interface ConfigurationPersister {
         void rollback();
     }
 
+    /**
+     * A {@link PersistenceResource} whose {@link #commit()} only schedules the model to be written to permanent storage
+     * in the background, along with the models committed around the same time.
+     */
+    interface DeferredPersistenceResource extends PersistenceResource {
+
+        /**
+         * Whether the persister has been configured to only let operations report success once their changes have
+         * been written to permanent storage.
+         *
+         * @return {@code true} if callers should {@link #awaitPersisted() wait} for the write
+         */
+        boolean isDurabilityRequired();
+
+        /**
+         * Wait until the committed model, or a later one, has been written to permanent storage.
+         *
+         * @throws ConfigurationPersistenceException if writing the model failed, or the wait was interrupted
+         */
+        void awaitPersisted() throws ConfigurationPersistenceException;
+    }
+
+    /**
+     * A {@link PersistenceResource} which can also write the model to permanent storage before the committing
+     * operation completes, reporting any failure to it.
+     */
+    interface SynchronousPersistenceResource extends PersistenceResource {
+
+        /**
+         * Flush the stored model to permanent storage, forcing it and the directory holding it to disk, and only
+         * return once that is done.
+         *
+         * @throws ConfigurationPersistenceException if the model could not be written
+         */
+        void commitSynchronously() throws ConfigurationPersistenceException;
+    }
+
     /**
      * Persist the given configuration model.
      *
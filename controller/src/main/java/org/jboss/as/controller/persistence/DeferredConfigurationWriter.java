@@ -0,0 +1,215 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+
+/**
+ * Writes committed configuration models on a background thread.
+ * <p/>
+ * Only the latest model matters, so all models committed while a write is pending or in progress are coalesced into
+ * a single write of the most recent one. Unless somebody is waiting for a model to be persisted, the writer also
+ * waits for {@code delay} milliseconds after the first commit before it writes, so that a burst of operations, e.g. a
+ * script adding hundreds of resources, results in a single write. Callers waiting for their model to be persisted are
+ * effectively group committed: the writer does not delay then, but the commits made while it is busy writing still
+ * share the next write.
+ */
+abstract class DeferredConfigurationWriter {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    /** How long the shutdown hook waits for pending models to be written */
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+
+    private final String name;
+    private final long delay;
+    private final boolean durabilityRequired;
+
+    // all guarded by this
+    private Thread thread;
+    private ModelNode pending;
+    private long committed;
+    private long written;
+    private long persisted;
+    private ConfigurationPersistenceException failure;
+    private int waiters;
+
+    /**
+     * @param name the name of the written configuration, used to name the thread
+     * @param delay the time in milliseconds to wait for further commits before writing
+     * @param durabilityRequired whether operations should wait for their changes to be persisted
+     */
+    DeferredConfigurationWriter(final String name, final long delay, final boolean durabilityRequired) {
+        this.name = name;
+        this.delay = delay;
+        this.durabilityRequired = durabilityRequired;
+    }
+
+    /**
+     * Write a model to permanent storage.
+     *
+     * @param model the model
+     * @throws ConfigurationPersistenceException if the model could not be written
+     */
+    protected abstract void write(ModelNode model) throws ConfigurationPersistenceException;
+
+    /**
+     * Create a resource which schedules a model to be written when it is committed.
+     *
+     * @param model the model
+     * @return the resource
+     */
+    ConfigurationPersister.DeferredPersistenceResource store(final ModelNode model) {
+        return new ConfigurationPersister.DeferredPersistenceResource() {
+            private long sequence;
+
+            @Override
+            public void commit() {
+                sequence = schedule(model);
+            }
+
+            @Override
+            public void rollback() {
+            }
+
+            @Override
+            public boolean isDurabilityRequired() {
+                return durabilityRequired;
+            }
+
+            @Override
+            public void awaitPersisted() throws ConfigurationPersistenceException {
+                if (sequence == 0) {
+                    throw new IllegalStateException("commit() has not been invoked");
+                }
+                DeferredConfigurationWriter.this.awaitPersisted(sequence);
+            }
+        };
+    }
+
+    synchronized long schedule(final ModelNode model) {
+        if (thread == null) {
+            final Thread worker = new Thread(new Worker(), "Configuration Writer " + name);
+            worker.setDaemon(true);
+            worker.start();
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            });
+            thread = worker;
+        }
+        pending = model;
+        notifyAll();
+        return ++committed;
+    }
+
+    synchronized void awaitPersisted(final long sequence) throws ConfigurationPersistenceException {
+        waiters++;
+        notifyAll();
+        try {
+            while (written < sequence) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationPersistenceException("Interrupted waiting for the configuration to be persisted");
+        } finally {
+            waiters--;
+        }
+        if (persisted < sequence) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Wait for a limited time for all committed models to be written.
+     */
+    synchronized void flush() {
+        final long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+        waiters++;
+        notifyAll();
+        try {
+            long remaining;
+            while (written < committed && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiters--;
+        }
+        if (written < committed) {
+            log.warnf("Configuration changes to %s may not have been persisted", name);
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            final DeferredConfigurationWriter writer = DeferredConfigurationWriter.this;
+            for (;;) {
+                final ModelNode model;
+                final long sequence;
+                try {
+                    synchronized (writer) {
+                        while (pending == null) {
+                            writer.wait();
+                        }
+                        final long deadline = System.currentTimeMillis() + delay;
+                        long remaining;
+                        while (waiters == 0 && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                            writer.wait(remaining);
+                        }
+                        model = pending;
+                        sequence = committed;
+                        pending = null;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ConfigurationPersistenceException error = null;
+                try {
+                    write(model);
+                } catch (ConfigurationPersistenceException e) {
+                    log.errorf(e, "Failed to store configuration to %s", name);
+                    error = e;
+                } catch (RuntimeException e) {
+                    log.errorf(e, "Failed to store configuration to %s", name);
+                    error = new ConfigurationPersistenceException(e);
+                }
+                synchronized (writer) {
+                    if (error == null) {
+                        persisted = sequence;
+                    } else {
+                        failure = error;
+                    }
+                    written = sequence;
+                    writer.notifyAll();
+                }
+            }
+        }
+    }
+}
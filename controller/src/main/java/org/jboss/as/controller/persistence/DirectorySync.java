@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.channels.FileChannel;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Forces the entries of a directory to disk, so that a file which has just been created in or renamed into the
+ * directory survives a crash.
+ * <p/>
+ * Only the JDK 7 {@code FileChannel.open(Path, OpenOption...)} can open a directory, it is accessed reflectively
+ * in order to avoid adding a compile time dependency on JDK 7. On an older JDK, or on a platform which does not
+ * allow directories to be opened, {@link #sync(File)} does nothing.
+ */
+final class DirectorySync {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    private static final Method TO_PATH;
+    private static final Method OPEN;
+    private static final Object READ;
+
+    static {
+        Method toPath = null;
+        Method open = null;
+        Object read = null;
+        try {
+            final Class<?> path = Class.forName("java.nio.file.Path");
+            final Class<?> openOption = Class.forName("java.nio.file.OpenOption");
+            final Class<?> standardOpenOption = Class.forName("java.nio.file.StandardOpenOption");
+            read = Array.newInstance(openOption, 1);
+            Array.set(read, 0, standardOpenOption.getField("READ").get(null));
+            toPath = File.class.getMethod("toPath");
+            open = FileChannel.class.getMethod("open", path, read.getClass());
+        } catch (Exception e) {
+            log.debugf("Directories can not be synced on this JDK: %s", e);
+            toPath = null;
+            open = null;
+        }
+        TO_PATH = toPath;
+        OPEN = open;
+        READ = read;
+    }
+
+    private DirectorySync() {
+    }
+
+    /**
+     * Forces the entries of the given directory to disk.
+     *
+     * @param directory the directory
+     * @throws IOException if the directory could be opened but not be synced
+     */
+    static void sync(final File directory) throws IOException {
+        if (OPEN == null) {
+            return;
+        }
+        final FileChannel channel;
+        try {
+            channel = (FileChannel) OPEN.invoke(null, TO_PATH.invoke(directory), READ);
+        } catch (InvocationTargetException e) {
+            // e.g. Windows, which does not allow a directory to be opened
+            log.debugf("Could not open directory %s to sync it: %s", directory, e.getCause());
+            return;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.jboss.dmr.ModelNode;
@@ -34,20 +35,27 @@ import org.jboss.logging.Logger;
 
 /**
  * {@link ConfigurationPersister.PersistenceResource} that persists to a file upon commit.
+ * <p/>
+ * The content is first written to a temporary file next to the target, which then replaces the target by renaming
+ * it, so a crash never leaves a partially written configuration behind. When the resource is
+ * {@link #commitSynchronously() committed synchronously}, or was created to sync, the temporary file and, after the
+ * rename, the directory are forced to disk as well.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
-public class FilePersistenceResource implements ConfigurationPersister.PersistenceResource {
+public class FilePersistenceResource implements ConfigurationPersister.SynchronousPersistenceResource {
 
     protected static final Logger log = Logger.getLogger("org.jboss.as.controller");
 
     private ExposedByteArrayOutputStream marshalled;
     private final File fileName;
     private final AbstractConfigurationPersister persister;
+    private final boolean sync;
 
-    FilePersistenceResource(final ModelNode model, final File fileName, final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+    FilePersistenceResource(final ModelNode model, final File fileName, final AbstractConfigurationPersister persister, final boolean sync) throws ConfigurationPersistenceException {
         this.fileName = fileName;
         this.persister = persister;
+        this.sync = sync;
         marshalled = new ExposedByteArrayOutputStream(1024 * 8);
         try {
             try {
@@ -65,11 +73,34 @@ public class FilePersistenceResource implements ConfigurationPersister.Persisten
 
     @Override
     public void commit() {
+        try {
+            write();
+        } catch (ConfigurationPersistenceException e) {
+            log.errorf(e, "Failed to store configuration to %s", fileName.getName());
+        }
+    }
+
+    @Override
+    public void commitSynchronously() throws ConfigurationPersistenceException {
+        write(true);
+    }
+
+    /**
+     * Write the marshalled model to the file.
+     *
+     * @throws ConfigurationPersistenceException if the file could not be written
+     */
+    void write() throws ConfigurationPersistenceException {
+        write(sync);
+    }
+
+    private void write(final boolean sync) throws ConfigurationPersistenceException {
         if (marshalled == null) {
             throw new IllegalStateException("rollback() has already been invoked");
         }
+        final File temp = new File(fileName.getParentFile(), fileName.getName() + ".tmp");
         try {
-            final FileOutputStream fos = new FileOutputStream(fileName);
+            final FileOutputStream fos = new FileOutputStream(temp);
             final InputStream is = marshalled.getInputStream();
             try {
                 BufferedOutputStream output = new BufferedOutputStream(fos);
@@ -78,6 +109,10 @@ public class FilePersistenceResource implements ConfigurationPersister.Persisten
                 while ((read = is.read(bytes)) > -1) {
                     output.write(bytes, 0, read);
                 }
+                output.flush();
+                if (sync) {
+                    fos.getFD().sync();
+                }
                 output.close();
                 fos.close();
                 is.close();
@@ -85,8 +120,33 @@ public class FilePersistenceResource implements ConfigurationPersister.Persisten
                 safeClose(fos);
                 safeClose(is);
             }
-        } catch (Exception e) {
-            log.errorf(e, "Failed to store configuration to %s", fileName.getName());
+        } catch (IOException e) {
+            temp.delete();
+            throw new ConfigurationPersistenceException("Failed to write configuration to " + temp, e);
+        }
+        replace(temp, fileName);
+        if (sync) {
+            try {
+                DirectorySync.sync(fileName.getAbsoluteFile().getParentFile());
+            } catch (IOException e) {
+                throw new ConfigurationPersistenceException("Failed to sync the directory of " + fileName, e);
+            }
+        }
+    }
+
+    /**
+     * Replace the target file with the completely written temporary file.
+     *
+     * @param temp the temporary file
+     * @param target the target file
+     * @throws ConfigurationPersistenceException if the target could not be replaced
+     */
+    protected void replace(final File temp, final File target) throws ConfigurationPersistenceException {
+        if (!temp.renameTo(target)) {
+            // renaming over an existing file is not supported everywhere
+            if (target.exists() && !target.delete() || !temp.renameTo(target)) {
+                throw new ConfigurationPersistenceException("Failed to rename " + temp + " to " + target);
+            }
         }
     }
 
@@ -22,14 +22,23 @@
 
 package org.jboss.as.controller.persistence;
 
-import java.io.BufferedInputStream;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URL;
+import java.security.CodeSource;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.xml.namespace.QName;
@@ -37,14 +46,31 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLMapper;
 
 /**
  * A configuration persister which uses an XML file for backing storage.
+ * <p/>
+ * By default each committed change is written within the operation that made it. If the
+ * {@value #PERSISTENCE_MODE_PROPERTY} system property is set to {@code deferred} the changes are instead written by a
+ * background thread, which coalesces the changes made within {@value #PERSISTENCE_DELAY_PROPERTY} milliseconds
+ * (100 by default) into a single write. Setting {@value #PERSISTENCE_DURABLE_PROPERTY} to {@code true} forces each
+ * write, and the directory entry of the replaced file, to disk, and in deferred mode makes operations wait until their
+ * changes have been written. An individual operation can ask for the same with the {@code sync-persistence} operation
+ * header: its changes are then written durably before it completes, in either mode, and it fails if they could not
+ * be.
+ * <p/>
+ * The boot operations parsed from the file are saved in a binary snapshot next to it, which later boots load instead
+ * of parsing the file again as long as neither the file, the parser, the local host name the parser may use as the
+ * default server or host name, nor any of the extension modules the file references have changed.
+ * The snapshot can be disabled by setting {@value #BOOT_SNAPSHOT_PROPERTY} to {@code false}.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
@@ -52,9 +78,22 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.controller");
 
+    public static final String PERSISTENCE_MODE_PROPERTY = "org.jboss.as.controller.persistence.mode";
+    public static final String PERSISTENCE_DELAY_PROPERTY = "org.jboss.as.controller.persistence.delay";
+    public static final String PERSISTENCE_DURABLE_PROPERTY = "org.jboss.as.controller.persistence.durable";
+
+    public static final String BOOT_SNAPSHOT_PROPERTY = "org.jboss.as.controller.persistence.boot-snapshot";
+
+    private static final String DEFERRED_MODE = "deferred";
+    private static final String EXTENSION_SERVICE = "META-INF/services/org.jboss.as.controller.Extension";
+    private static final long DEFAULT_DELAY = 100;
+
     private final File fileName;
     private final QName rootElement;
     private final XMLElementReader<List<ModelNode>> rootParser;
+    private final boolean durable;
+    private final DeferredConfigurationWriter deferredWriter;
+    private final File bootSnapshotFile;
 
     /**
      * Construct a new instance.
@@ -69,12 +108,43 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         this.fileName = fileName;
         this.rootElement = rootElement;
         this.rootParser = rootParser;
+        this.durable = Boolean.getBoolean(PERSISTENCE_DURABLE_PROPERTY);
+        if (DEFERRED_MODE.equals(System.getProperty(PERSISTENCE_MODE_PROPERTY))) {
+            deferredWriter = new DeferredConfigurationWriter(fileName.getName(), Long.getLong(PERSISTENCE_DELAY_PROPERTY, DEFAULT_DELAY), durable) {
+                @Override
+                protected void write(final ModelNode model) throws ConfigurationPersistenceException {
+                    createPersistenceResource(model, true).write();
+                }
+            };
+        } else {
+            deferredWriter = null;
+        }
+        if (Boolean.parseBoolean(System.getProperty(BOOT_SNAPSHOT_PROPERTY, "true"))) {
+            bootSnapshotFile = new File(fileName.getParentFile(), fileName.getName() + ".boot");
+        } else {
+            bootSnapshotFile = null;
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
-        return new FilePersistenceResource(model, fileName, this);
+        if (deferredWriter != null) {
+            return deferredWriter.store(model);
+        }
+        return createPersistenceResource(model, durable);
+    }
+
+    /**
+     * Create the resource writing a model to the configuration file.
+     *
+     * @param model the model
+     * @param sync {@code true} if the file must be forced to disk before it replaces the configuration file
+     * @return the resource
+     * @throws ConfigurationPersistenceException if the model could not be marshalled
+     */
+    FilePersistenceResource createPersistenceResource(final ModelNode model, final boolean sync) throws ConfigurationPersistenceException {
+        return new FilePersistenceResource(model, fileName, this, sync);
     }
 
     protected void store(final ModelNode model, final File file) throws ConfigurationPersistenceException {
@@ -96,27 +166,119 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     /** {@inheritDoc} */
     @Override
     public List<ModelNode> load() throws ConfigurationPersistenceException {
+        final byte[] content;
+        try {
+            content = BootSnapshot.readFully(fileName);
+        } catch (Exception e) {
+            throw new ConfigurationPersistenceException("Failed to parse configuration", e);
+        }
+        final String environment = bootSnapshotFile != null ? getBootEnvironment() : null;
+        final String hash = environment != null ? BootSnapshot.hash(content, environment) : null;
+        if (hash != null) {
+            final BootSnapshot snapshot = BootSnapshot.read(bootSnapshotFile, hash);
+            if (snapshot != null && snapshot.getFingerprints().equals(getExtensionFingerprints(snapshot.getOperations()))) {
+                log.debugf("Loaded boot operations from %s", bootSnapshotFile);
+                return snapshot.getOperations();
+            }
+        }
+
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(rootElement, rootParser);
         final List<ModelNode> updates = new ArrayList<ModelNode>();
         try {
-            final FileInputStream fis = new FileInputStream(fileName);
-            try {
-                BufferedInputStream input = new BufferedInputStream(fis);
-                XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(input);
-                mapper.parseDocument(updates, streamReader);
-                streamReader.close();
-                input.close();
-                fis.close();
-            } finally {
-                safeClose(fis);
-            }
+            XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(content));
+            mapper.parseDocument(updates, streamReader);
+            streamReader.close();
         } catch (Exception e) {
             throw new ConfigurationPersistenceException("Failed to parse configuration", e);
         }
+
+        if (hash != null) {
+            final Map<String, String> fingerprints = getExtensionFingerprints(updates);
+            if (fingerprints != null) {
+                BootSnapshot.create(bootSnapshotFile, hash, fingerprints, updates).write();
+            }
+        }
         return updates;
     }
 
+    private Map<String, String> getExtensionFingerprints(final List<ModelNode> operations) {
+        final Map<String, String> fingerprints = new LinkedHashMap<String, String>();
+        for (ModelNode operation : operations) {
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            if (address.size() == 1 && EXTENSION.equals(address.getElement(0).getKey())) {
+                final String moduleName = address.getElement(0).getValue();
+                final String fingerprint = getExtensionFingerprint(moduleName);
+                if (fingerprint == null) {
+                    return null;
+                }
+                fingerprints.put(moduleName, fingerprint);
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Get a description of everything besides the configuration file and the extensions that the parsed boot
+     * operations depend on, which is part of the key of the boot snapshot. This implementation is based on the
+     * current core namespace, the location, size and modification time of the root parser's code, and the local host
+     * name, which the parser uses if the file does not name the server or host.
+     *
+     * @return the description, or {@code null} if it cannot be determined, in which case no snapshot is used
+     */
+    protected String getBootEnvironment() {
+        try {
+            final StringBuilder environment = new StringBuilder();
+            environment.append(Namespace.CURRENT.getUriString()).append(';');
+            final CodeSource codeSource = rootParser.getClass().getProtectionDomain().getCodeSource();
+            if (codeSource == null || codeSource.getLocation() == null) {
+                return null;
+            }
+            appendLocation(environment, codeSource.getLocation());
+            environment.append(InetAddress.getLocalHost().getHostName());
+            return environment.toString();
+        } catch (Throwable t) {
+            log.debugf(t, "Cannot identify the boot environment of %s", fileName);
+            return null;
+        }
+    }
+
+    /**
+     * Get a fingerprint identifying the current version of an extension module, used to tell whether the boot
+     * snapshot is still valid. This implementation is based on the location, size and modification time of the
+     * resources declaring the module's extensions.
+     *
+     * @param moduleName the name of the module
+     * @return the fingerprint, or {@code null} if the module cannot be identified, in which case no snapshot is used
+     */
+    protected String getExtensionFingerprint(final String moduleName) {
+        try {
+            final Module module = Module.getBootModuleLoader().loadModule(ModuleIdentifier.fromString(moduleName));
+            final StringBuilder fingerprint = new StringBuilder();
+            final Enumeration<URL> resources = module.getClassLoader().getResources(EXTENSION_SERVICE);
+            while (resources.hasMoreElements()) {
+                appendLocation(fingerprint, resources.nextElement());
+            }
+            return fingerprint.length() > 0 ? fingerprint.toString() : null;
+        } catch (Throwable t) {
+            log.debugf(t, "Cannot identify extension module %s", moduleName);
+            return null;
+        }
+    }
+
+    private static void appendLocation(final StringBuilder fingerprint, final URL url) throws Exception {
+        fingerprint.append(url);
+        String location = url.toString();
+        if (location.startsWith("jar:") && location.indexOf("!/") > 0) {
+            location = location.substring(4, location.indexOf("!/"));
+        }
+        if (location.startsWith("file:")) {
+            final File file = new File(new URI(location));
+            fingerprint.append('@').append(file.length()).append('-').append(file.lastModified());
+        }
+        fingerprint.append(';');
+    }
+
     private static void safeClose(final Closeable closeable) {
         if (closeable != null) try {
             closeable.close();
@@ -38,7 +38,8 @@ import java.util.Set;
  * Standard {@link Resource} implementation.
  *
  * <p>Concurrency note: if a thread needs to modify a BasicResource, it must use the clone() method to obtain its
- * own copy of the resource. That instance cannot be made visible to other threads until all writes are complete.</p>
+ * own copy of the resource, or a {@link CopyOnWriteModel} to obtain copies of only the resources it writes to. That
+ * instance cannot be made visible to other threads until all writes are complete.</p>
  *
  * @author Emanuel Muckenhuber
  */
@@ -48,6 +49,8 @@ class BasicResource implements Resource {
     private final ModelNode model = new ModelNode();
     /** The children. */
     private final Map<String, ResourceProvider> children = new LinkedHashMap<String, ResourceProvider>();
+    /** The token of the {@link CopyOnWriteModel} this resource is private to, if any. */
+    private Object owner;
 
     protected BasicResource() {
     }
@@ -157,6 +160,9 @@ class BasicResource implements Resource {
             throw new IllegalArgumentException();
         }
         getOrCreateProvider(address.getKey()).register(address.getValue(), resource);
+        if (owner != null) {
+            adopt(resource, owner);
+        }
     }
 
     @Override
@@ -190,6 +196,93 @@ class BasicResource implements Resource {
         return clone;
     }
 
+    /**
+     * Determine whether this resource's children can be shared between copies, see {@link #copy(Object)}.
+     *
+     * @param resource the resource
+     * @return {@code true} if the resource is a plain {@code BasicResource}
+     */
+    static boolean isCopyable(final Resource resource) {
+        if (resource == null || resource.getClass() != BasicResource.class) {
+            return false;
+        }
+        final BasicResource basic = (BasicResource) resource;
+        synchronized (basic.children) {
+            for (final ResourceProvider provider : basic.children.values()) {
+                if (provider.getClass() != DefaultResourceProvider.class) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create a copy of this resource which has its own local model and child maps, but shares the child resources
+     * themselves with this resource. Only valid if {@link #isCopyable(Resource)}.
+     *
+     * @param owner the token of the model the copy is private to
+     * @return the copy
+     */
+    BasicResource copy(final Object owner) {
+        final BasicResource copy = new BasicResource();
+        copy.writeModel(model);
+        synchronized (children) {
+            for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
+                copy.children.put(entry.getKey(), new DefaultResourceProvider((DefaultResourceProvider) entry.getValue()));
+            }
+        }
+        copy.owner = owner;
+        return copy;
+    }
+
+    boolean isOwnedBy(final Object owner) {
+        return this.owner == owner;
+    }
+
+    /**
+     * Replace an existing child, keeping its position among its siblings.
+     *
+     * @param address the address
+     * @param resource the new child
+     */
+    void replaceChild(final PathElement address, final Resource resource) {
+        ((DefaultResourceProvider) getProvider(address.getKey())).replace(address.getValue(), resource);
+    }
+
+    /**
+     * Set a child, replacing any existing child in place. Unlike {@link #registerChild(PathElement, Resource)} the
+     * child does not become private to the owner of this resource.
+     *
+     * @param address the address
+     * @param resource the child
+     */
+    void setChild(final PathElement address, final Resource resource) {
+        ((DefaultResourceProvider) getOrCreateProvider(address.getKey())).set(address.getValue(), resource);
+    }
+
+    /**
+     * Resources created by the owner of a model and registered with it are private to that model, just like the
+     * copies the model made itself.
+     */
+    private static void adopt(final Resource resource, final Object owner) {
+        if (resource.getClass() == BasicResource.class) {
+            final BasicResource basic = (BasicResource) resource;
+            if (basic.owner == null) {
+                basic.owner = owner;
+                for (final String childType : basic.getChildTypes()) {
+                    final ResourceProvider provider = basic.getProvider(childType);
+                    for (final String name : provider.children()) {
+                        final Resource child = provider.get(name);
+                        if (child != null) {
+                            adopt(child, owner);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     protected void registerResourceProvider(final String type, final ResourceProvider provider) {
         synchronized (children) {
             if (children.containsKey(type)) {
@@ -225,6 +318,12 @@ class BasicResource implements Resource {
         protected DefaultResourceProvider() {
         }
 
+        DefaultResourceProvider(final DefaultResourceProvider source) {
+            synchronized (source.children) {
+                children.putAll(source.children);
+            }
+        }
+
         @Override
         public Set<String> children() {
             synchronized (children) {
@@ -267,6 +366,22 @@ class BasicResource implements Resource {
                 return children.remove(name);
             }
         }
+
+        void replace(String name, Resource resource) {
+            synchronized (children) {
+                if (!children.containsKey(name)) {
+                    throw new IllegalStateException("no resource " + name);
+                }
+                // replacing the value of an existing key keeps the iteration order
+                children.put(name, resource);
+            }
+        }
+
+        void set(String name, Resource resource) {
+            synchronized (children) {
+                children.put(name, resource);
+            }
+        }
     }
 
     abstract static class DelegateResource implements ResourceEntry {
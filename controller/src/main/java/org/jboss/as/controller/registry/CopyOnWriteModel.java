@@ -0,0 +1,338 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+
+/**
+ * A writable view of a published {@link Resource} tree which copies resources on demand instead of cloning the
+ * whole tree up front.
+ * <p>
+ * Navigating to a resource for update copies every resource on the path from the root; the copies share all the
+ * children which are not on the path with the original tree, so the published tree is never modified and remains a
+ * consistent snapshot for concurrent readers. Resources which are not plain {@link BasicResource}s are deep cloned
+ * the first time they are navigated through.
+ * <p>
+ * Only resources returned by this class, and resources registered with them, may be modified. Instances are not
+ * thread safe.
+ * <p>
+ * Since the original tree is never modified, the changes made through a model can be applied to a more recent
+ * version of it as well, as long as no one else modified the same resources in the meantime.
+ */
+public final class CopyOnWriteModel {
+
+    private final Object token = new Object();
+    private final Resource base;
+    private Resource root;
+
+    /**
+     * Create a writable view of the given resource.
+     *
+     * @param resource the published root resource, which will not be modified
+     */
+    public CopyOnWriteModel(final Resource resource) {
+        this.base = resource;
+        this.root = copy(resource);
+    }
+
+    /**
+     * Get the writable root.
+     *
+     * @return the root resource
+     */
+    public Resource getRoot() {
+        return root;
+    }
+
+    /**
+     * Get a writable child of a resource obtained from this model.
+     *
+     * @param parent the writable parent
+     * @param element the child's path element
+     * @return the writable child, or {@code null} if there is no such child
+     */
+    public Resource getChildForUpdate(final Resource parent, final PathElement element) {
+        final Resource child = parent.getChild(element);
+        if (child == null || isPrivate(parent, child)) {
+            return child;
+        }
+        final Resource copy = copy(child);
+        ((BasicResource) parent).replaceChild(element, copy);
+        return copy;
+    }
+
+    /**
+     * Get a writable child of a resource obtained from this model.
+     *
+     * @param parent the writable parent
+     * @param element the child's path element
+     * @return the writable child
+     * @throws NoSuchElementException if there is no such child
+     */
+    public Resource requireChildForUpdate(final Resource parent, final PathElement element) {
+        final Resource child = getChildForUpdate(parent, element);
+        if (child == null) {
+            throw new NoSuchElementException(element.toString());
+        }
+        return child;
+    }
+
+    /**
+     * Navigate to a resource for update.
+     *
+     * @param address the address, relative to the root
+     * @param includeChildren whether all the descendants of the resource need to be writable as well
+     * @return the writable resource
+     * @throws NoSuchElementException if there is no resource at the address
+     */
+    public Resource navigateForUpdate(final PathAddress address, final boolean includeChildren) {
+        Resource resource = root;
+        for (final PathElement element : address) {
+            resource = requireChildForUpdate(resource, element);
+        }
+        if (includeChildren) {
+            copyChildren(resource);
+        }
+        return resource;
+    }
+
+    /**
+     * Get the resource at the given address, which must not be modified unless it was obtained for update.
+     *
+     * @param address the address, relative to the root
+     * @return the resource, or {@code null} if there is no resource at the address
+     */
+    public Resource getResource(final PathAddress address) {
+        return find(root, address);
+    }
+
+    /**
+     * Set the resource at the given address. The resource is not copied up front, it will be copied on update like
+     * the resources of the original tree.
+     *
+     * @param address the address, relative to the root
+     * @param resource the resource, or {@code null} to remove the resource at the address
+     * @throws NoSuchElementException if the parent of the resource does not exist
+     */
+    public void setResource(final PathAddress address, final Resource resource) {
+        if (address.size() == 0) {
+            if (resource == null) {
+                throw new IllegalArgumentException("Cannot remove the root resource");
+            }
+            root = copy(resource);
+            return;
+        }
+        Resource parent = root;
+        for (final PathElement element : address.subAddress(0, address.size() - 1)) {
+            parent = getChildForUpdate(parent, element);
+            if (parent == null) {
+                if (resource == null) {
+                    return;
+                }
+                throw new NoSuchElementException(element.toString());
+            }
+        }
+        final PathElement element = address.getLastElement();
+        if (resource == null) {
+            parent.removeChild(element);
+        } else if (isCopied(parent)) {
+            ((BasicResource) parent).setChild(element, resource);
+        } else {
+            // the parent is a deep clone, so its children must be as well
+            parent.removeChild(element);
+            parent.registerChild(element, resource.clone());
+        }
+    }
+
+    /**
+     * Bring the resource at the given address up to date with a more recent version of the original tree, keeping
+     * the changes made through this model below that address.
+     *
+     * @param address the address, relative to the root
+     * @param current the current version of the original tree, which will not be modified
+     * @param modified the addresses of the resources which were modified through this model
+     */
+    public void refresh(final PathAddress address, final Resource current, final Collection<PathAddress> modified) {
+        if (find(base, address) == find(current, address)) {
+            // nothing at or below the address changed in the meantime
+            return;
+        }
+        final Map<PathAddress, Resource> changes = new LinkedHashMap<PathAddress, Resource>();
+        for (final PathAddress changed : outermost(modified)) {
+            if (isPrefix(address, changed)) {
+                changes.put(changed, getResource(changed));
+            }
+        }
+        if (address.size() == 0) {
+            setResource(address, current);
+        } else {
+            // replace the outermost resource on the way which was added or removed in the meantime
+            for (int i = 1; i <= address.size(); i++) {
+                final PathAddress prefix = address.subAddress(0, i);
+                final Resource resource = find(current, prefix);
+                if (i == address.size() || resource == null || find(root, prefix) == null) {
+                    setResource(prefix, resource);
+                    break;
+                }
+            }
+        }
+        for (final Map.Entry<PathAddress, Resource> entry : changes.entrySet()) {
+            setResource(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Apply the changes made through this model to a more recent version of the original tree.
+     *
+     * @param current the current version of the original tree, which will not be modified
+     * @param modified the addresses of the resources which were modified through this model
+     * @return the root of the resulting tree
+     */
+    public Resource applyTo(final Resource current, final Collection<PathAddress> modified) {
+        if (current == base) {
+            return root;
+        }
+        final CopyOnWriteModel target = new CopyOnWriteModel(current);
+        for (final PathAddress changed : outermost(modified)) {
+            target.setResource(changed, getResource(changed));
+        }
+        return target.getRoot();
+    }
+
+    /**
+     * Apply the changes made through another model, which was created from the current tree of this model, to this
+     * model. The resources modified through the other model replace those of this model, so models created from the
+     * same tree can only be merged one after the other if their changes do not {@link #findOverlap overlap}.
+     *
+     * @param other the other model
+     * @param modified the addresses of the resources which were modified through the other model
+     */
+    public void merge(final CopyOnWriteModel other, final Collection<PathAddress> modified) {
+        for (final PathAddress changed : outermost(modified)) {
+            setResource(changed, other.getResource(changed));
+        }
+    }
+
+    /**
+     * Find a resource modified in two sets of changes, counting a modified resource as modifying all its descendants.
+     *
+     * @param first the addresses of the resources modified by the first set of changes
+     * @param second the addresses of the resources modified by the second set of changes
+     * @return the address of a resource modified by both, or {@code null} if the changes do not overlap
+     */
+    public static PathAddress findOverlap(final Collection<PathAddress> first, final Collection<PathAddress> second) {
+        for (final PathAddress a : first) {
+            for (final PathAddress b : second) {
+                if (isPrefix(a, b)) {
+                    return b;
+                } else if (isPrefix(b, a)) {
+                    return a;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void copyChildren(final Resource resource) {
+        if (!isCopied(resource)) {
+            // a deep clone
+            return;
+        }
+        for (final String childType : resource.getChildTypes()) {
+            for (final String name : resource.getChildrenNames(childType)) {
+                final Resource child = getChildForUpdate(resource, PathElement.pathElement(childType, name));
+                if (child != null) {
+                    copyChildren(child);
+                }
+            }
+        }
+    }
+
+    private boolean isPrivate(final Resource parent, final Resource child) {
+        if (!isCopied(parent)) {
+            // the parent is a deep clone, so are its children
+            return true;
+        }
+        return child instanceof BasicResource && ((BasicResource) child).isOwnedBy(token);
+    }
+
+    private boolean isCopied(final Resource resource) {
+        return resource instanceof BasicResource && ((BasicResource) resource).isOwnedBy(token);
+    }
+
+    private static Resource find(final Resource root, final PathAddress address) {
+        Resource resource = root;
+        for (final PathElement element : address) {
+            resource = resource.getChild(element);
+            if (resource == null) {
+                return null;
+            }
+        }
+        return resource;
+    }
+
+    /**
+     * Get the addresses which are not below any of the other addresses.
+     */
+    private static List<PathAddress> outermost(final Collection<PathAddress> addresses) {
+        final List<PathAddress> result = new ArrayList<PathAddress>();
+        outer:
+        for (final PathAddress address : addresses) {
+            for (final PathAddress other : addresses) {
+                if (other.size() < address.size() && isPrefix(other, address)) {
+                    continue outer;
+                }
+            }
+            if (!result.contains(address)) {
+                result.add(address);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isPrefix(final PathAddress prefix, final PathAddress address) {
+        if (prefix.size() > address.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            if (!prefix.getElement(i).equals(address.getElement(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Resource copy(final Resource resource) {
+        if (BasicResource.isCopyable(resource)) {
+            return ((BasicResource) resource).copy(token);
+        }
+        return resource.clone();
+    }
+}
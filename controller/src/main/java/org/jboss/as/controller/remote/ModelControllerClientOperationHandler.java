@@ -24,6 +24,7 @@ package org.jboss.as.controller.remote;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
 import java.io.DataInput;
 import java.io.IOException;
@@ -38,8 +39,10 @@ import java.util.concurrent.Future;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.client.impl.ResultStreamSupport;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementRequestHandler;
+import org.jboss.as.protocol.mgmt.ModelNodeStreamWriter;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
 import org.jboss.as.protocol.old.ProtocolUtils;
 import org.jboss.dmr.ModelNode;
@@ -69,9 +72,11 @@ public class ModelControllerClientOperationHandler extends AbstractModelControll
     @Override
     public ManagementRequestHandler getRequestHandler(final byte id) {
         if (id == ModelControllerProtocol.EXECUTE_CLIENT_REQUEST) {
-            return new ExecuteRequestHandler(false);
+            return new ExecuteRequestHandler(false, false);
         } else if (id == ModelControllerProtocol.EXECUTE_ASYNC_CLIENT_REQUEST) {
-            return new ExecuteRequestHandler(true);
+            return new ExecuteRequestHandler(true, false);
+        } else if (id == ModelControllerProtocol.EXECUTE_STREAMING_CLIENT_REQUEST) {
+            return new ExecuteRequestHandler(false, true);
         } else if (id == ModelControllerProtocol.CANCEL_ASYNC_REQUEST) {
             return new CancelAsyncRequestHandler();
         }
@@ -84,13 +89,15 @@ public class ModelControllerClientOperationHandler extends AbstractModelControll
      */
     private class ExecuteRequestHandler extends ManagementRequestHandler {
         private final boolean asynch;
+        private final boolean streaming;
         private ModelNode operation = new ModelNode();
         private int batchId;
         private int attachmentsLength;
         private ModelNode result;
 
-        public ExecuteRequestHandler(boolean asynch) {
+        public ExecuteRequestHandler(boolean asynch, boolean streaming) {
             this.asynch = asynch;
+            this.streaming = streaming;
         }
 
         @Override
@@ -176,7 +183,15 @@ public class ModelControllerClientOperationHandler extends AbstractModelControll
         @Override
         protected void writeResponse(final FlushableDataOutput output) throws IOException {
             output.write(ModelControllerProtocol.PARAM_RESPONSE);
-            result.writeExternal(output);
+            if (!streaming) {
+                result.writeExternal(output);
+                return;
+            }
+            // Send the result in chunks, dropping each one once it has been written
+            ResultStreamSupport.getOutcome(result).writeExternal(output);
+            output.write(ModelControllerProtocol.PARAM_RESULT_STREAM);
+            new ModelNodeStreamWriter(output, true).write(result.has(RESULT) ? result.get(RESULT) : new ModelNode());
+            result = null;
         }
     }
 
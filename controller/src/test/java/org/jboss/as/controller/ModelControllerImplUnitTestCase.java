@@ -61,7 +61,12 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Locale;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -95,6 +100,7 @@ public class ModelControllerImplUnitTestCase {
     private ServiceContainer container;
     private ModelController controller;
     private AtomicBoolean sharedState;
+    private CyclicBarrier runtimeBarrier;
 
     public static final void toggleRuntimeState(AtomicBoolean state) {
         boolean runtimeVal = false;
@@ -112,6 +118,7 @@ public class ModelControllerImplUnitTestCase {
         ServiceBuilder<ModelController> builder = target.addService(ServiceName.of("ModelController"), svc);
         builder.install();
         sharedState = svc.state;
+        runtimeBarrier = svc.runtimeBarrier;
         svc.latch.await();
         controller = svc.getValue();
         ModelNode setup = Util.getEmptyOperation("setup", new ModelNode());
@@ -138,6 +145,7 @@ public class ModelControllerImplUnitTestCase {
 
         final AtomicBoolean state = new AtomicBoolean(true);
         final CountDownLatch latch = new CountDownLatch(1);
+        final CyclicBarrier runtimeBarrier = new CyclicBarrier(2);
 
         ModelControllerService(final ControlledProcessState processState) {
             super(OperationContext.Type.SERVER, new NullConfigurationPersister(), processState, DESC_PROVIDER, null);
@@ -170,7 +178,8 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler(READ_OPERATION_DESCRIPTION_OPERATION, GlobalOperationHandlers.READ_OPERATION_DESCRIPTION, CommonProviders.READ_OPERATION_PROVIDER, true);
             rootRegistration.registerOperationHandler(WRITE_ATTRIBUTE_OPERATION, GlobalOperationHandlers.WRITE_ATTRIBUTE, CommonProviders.WRITE_ATTRIBUTE_PROVIDER, true);
 
-            rootRegistration.registerSubModel(PathElement.pathElement("child"), DESC_PROVIDER);
+            ManagementResourceRegistration childRegistration = rootRegistration.registerSubModel(PathElement.pathElement("child"), DESC_PROVIDER);
+            childRegistration.registerOperationHandler("concurrent-service", new ConcurrentServiceHandler(runtimeBarrier), DESC_PROVIDER, false);
         }
 
         @Override
@@ -495,6 +504,43 @@ public class ModelControllerImplUnitTestCase {
         assertEquals(1, result.get("result").asInt());
     }
 
+    /**
+     * Two operations on different addresses which both modify the runtime, and are both in the runtime stage
+     * at the same time, must not wait for each other.
+     */
+    @Test
+    public void testConcurrentRuntimeOperations() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<ModelNode> one = executor.submit(new Callable<ModelNode>() {
+                public ModelNode call() {
+                    return controller.execute(getChildOperation("concurrent-service", "one"), null, null, null);
+                }
+            });
+            final Future<ModelNode> two = executor.submit(new Callable<ModelNode>() {
+                public ModelNode call() {
+                    return controller.execute(getChildOperation("concurrent-service", "two"), null, null, null);
+                }
+            });
+            ModelNode result = one.get(30, TimeUnit.SECONDS);
+            assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+            result = two.get(30, TimeUnit.SECONDS);
+            assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+            assertNotNull(container.getService(ServiceName.JBOSS.append("concurrent-service", "one")));
+            assertNotNull(container.getService(ServiceName.JBOSS.append("concurrent-service", "two")));
+        } finally {
+            runtimeBarrier.reset();
+            executor.shutdownNow();
+        }
+    }
+
+    private static ModelNode getChildOperation(String opName, String child) {
+        ModelNode op = new ModelNode();
+        op.get(OP).set(opName);
+        op.get(OP_ADDR).add("child", child);
+        return op;
+    }
+
     public static ModelNode getOperation(String opName, String attr, int val) {
         return getOperation(opName, attr, val, null, false);
     }
@@ -707,6 +753,48 @@ public class ModelControllerImplUnitTestCase {
         }
     }
 
+    /**
+     * Installs a service for the child resource it is invoked on, and keeps its runtime stage open until another
+     * operation has reached the same point.
+     */
+    public static class ConcurrentServiceHandler implements OperationStepHandler {
+
+        private final CyclicBarrier barrier;
+
+        ConcurrentServiceHandler(final CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) {
+            final String child = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            context.readModelForUpdate(PathAddress.EMPTY_ADDRESS).get("service").set(true);
+
+            context.addStep(new OperationStepHandler() {
+
+                @Override
+                public void execute(OperationContext context, ModelNode operation) {
+                    final ServiceName svcName = ServiceName.JBOSS.append("concurrent-service", child);
+                    final ServiceVerificationHandler verificationHandler = new ServiceVerificationHandler();
+                    context.getServiceTarget().addService(svcName, Service.NULL)
+                            .addListener(verificationHandler)
+                            .install();
+                    context.addStep(verificationHandler, OperationContext.Stage.VERIFY);
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new RuntimeException("The other operation did not reach the runtime stage", e);
+                    }
+                    if (context.completeStep() == OperationContext.ResultAction.ROLLBACK) {
+                        context.removeService(svcName);
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+
+            context.completeStep();
+        }
+    }
+
     public static class MissingServiceHandler implements OperationStepHandler {
         @Override
         public void execute(OperationContext context, ModelNode operation) {
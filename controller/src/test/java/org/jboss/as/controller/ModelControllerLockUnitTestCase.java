@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ModelControllerLock}.
+ */
+public class ModelControllerLockUnitTestCase {
+
+    private static final PathAddress SUBSYSTEM_A = PathAddress.pathAddress(PathElement.pathElement("subsystem", "a"));
+    private static final PathAddress SUBSYSTEM_B = PathAddress.pathAddress(PathElement.pathElement("subsystem", "b"));
+    private static final PathAddress CHILD_A = SUBSYSTEM_A.append(PathElement.pathElement("child", "x"));
+
+    private final Object owner1 = new Object();
+    private final Object owner2 = new Object();
+
+    @Test
+    public void testDisjointAddresses() throws Exception {
+        final ModelControllerLock lock = new ModelControllerLock(false);
+        assertTrue(lock.lock(owner1, SUBSYSTEM_A, true));
+        assertTrue(lock.lock(owner2, SUBSYSTEM_B, true));
+        // reentrant, including for addresses covered by a held lock
+        assertFalse(lock.lock(owner1, SUBSYSTEM_A, true));
+        assertFalse(lock.lock(owner1, CHILD_A, true));
+    }
+
+    @Test
+    public void testOverlappingAddresses() throws Exception {
+        final ModelControllerLock lock = new ModelControllerLock(false);
+        lock.lock(owner1, CHILD_A, true);
+        final AtomicBoolean acquired = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    lock.lock(owner2, SUBSYSTEM_A, true);
+                    acquired.set(true);
+                    lock.unlock(owner2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+        thread.start();
+        assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        assertFalse(acquired.get());
+        lock.unlock(owner1);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(acquired.get());
+    }
+
+    @Test
+    public void testGlobalMode() throws Exception {
+        final ModelControllerLock lock = new ModelControllerLock(true);
+        lock.lock(owner1, SUBSYSTEM_A, true);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    lock.lock(owner2, SUBSYSTEM_B, true);
+                    lock.unlock(owner2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+        thread.start();
+        assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        lock.unlock(owner1);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDeadlockDetection() throws Exception {
+        final ModelControllerLock lock = new ModelControllerLock(false);
+        lock.lock(owner1, SUBSYSTEM_A, true);
+        lock.lock(owner2, SUBSYSTEM_B, true);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    // waits for owner2
+                    lock.lock(owner1, SUBSYSTEM_B, true);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+        thread.start();
+        assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        try {
+            lock.lock(owner2, CHILD_A, true);
+            fail("Deadlock not detected");
+        } catch (IllegalStateException expected) {
+        }
+        lock.unlock(owner2);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        lock.unlock(owner1);
+    }
+}
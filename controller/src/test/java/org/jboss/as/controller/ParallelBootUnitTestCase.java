@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.descriptions.common.CommonProviders;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
+import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests booting subsystems in parallel.
+ */
+public class ParallelBootUnitTestCase {
+
+    private static final ServiceName SERVICE_BASE = ServiceName.JBOSS.append("parallel-boot-test");
+    private static final int SUBSYSTEMS = 8;
+    private static final String COUNT_SUBSYSTEMS = "count-subsystems";
+
+    private ServiceContainer container;
+    private ModelController controller;
+    private final ConcurrentMap<String, String> modelThreads = new ConcurrentHashMap<String, String>();
+    private volatile int countedSubsystems = -1;
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+            container = null;
+        }
+    }
+
+    @Test
+    public void testParallelBoot() throws Exception {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            operations.add(createAddOperation("subsystem" + i, false));
+            operations.add(createChildAddOperation("subsystem" + i));
+        }
+        boot(operations, true);
+
+        final ModelNode model = readModel();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            final ModelNode subsystem = model.get(SUBSYSTEM, "subsystem" + i);
+            assertEquals(i, subsystem.get("value").asInt());
+            assertTrue(subsystem.get("child", "child").isDefined());
+            final ServiceController<?> service = container.getService(SERVICE_BASE.append("subsystem" + i));
+            assertEquals(ServiceController.State.UP, service.getState());
+        }
+        // the model stage of each subsystem ran on a thread of its own
+        assertEquals(SUBSYSTEMS, new HashSet<String>(modelThreads.values()).size());
+    }
+
+    @Test
+    public void testLaterOperationsSeeSubsystems() throws Exception {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            operations.add(createAddOperation("subsystem" + i, false));
+        }
+        final ModelNode count = new ModelNode();
+        count.get(OP).set(COUNT_SUBSYSTEMS);
+        count.get(OP_ADDR).setEmptyList();
+        operations.add(count);
+        boot(operations, true);
+
+        // the subsystems' model changes are taken over once their model stage is complete
+        assertEquals(SUBSYSTEMS, countedSubsystems);
+    }
+
+    @Test
+    public void testOverlappingSubsystemsRollBackBoot() throws Exception {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            operations.add(createAddOperation("subsystem" + i, false));
+        }
+        // also modifies subsystem0, which cannot be merged with the changes of subsystem0 itself
+        final ModelNode overlapping = createAddOperation("subsystem" + SUBSYSTEMS, false);
+        overlapping.get("touch").set("subsystem0");
+        operations.add(overlapping);
+        boot(operations, true);
+
+        assertFalse(readModel().hasDefined(SUBSYSTEM));
+        for (int i = 0; i <= SUBSYSTEMS; i++) {
+            assertNull(container.getService(SERVICE_BASE.append("subsystem" + i)));
+        }
+    }
+
+    @Test
+    public void testFailedSubsystemRollsBackBoot() throws Exception {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            operations.add(createAddOperation("subsystem" + i, i == SUBSYSTEMS / 2));
+        }
+        boot(operations, true);
+
+        assertFalse(readModel().hasDefined(SUBSYSTEM));
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            assertNull(container.getService(SERVICE_BASE.append("subsystem" + i)));
+        }
+    }
+
+    @Test
+    public void testSequentialBoot() throws Exception {
+        // the subsystems are booted one after another unless parallel boot is enabled
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            operations.add(createAddOperation("subsystem" + i, false));
+        }
+        boot(operations, false);
+        assertEquals(SUBSYSTEMS, readModel().get(SUBSYSTEM).keys().size());
+        assertEquals(1, new HashSet<String>(modelThreads.values()).size());
+    }
+
+    private void boot(final List<ModelNode> operations, final boolean parallel) throws Exception {
+        if (parallel) {
+            System.setProperty(ModelControllerImpl.PARALLEL_BOOT_PROPERTY, "true");
+        }
+        try {
+            container = ServiceContainer.Factory.create("test");
+            final ControlledProcessState processState = new ControlledProcessState(true);
+            final ModelControllerService svc = new ModelControllerService(processState, operations);
+            container.subTarget().addService(ServiceName.of("ModelController"), svc).install();
+            assertTrue(svc.latch.await(30, TimeUnit.SECONDS));
+            controller = svc.getValue();
+        } finally {
+            System.clearProperty(ModelControllerImpl.PARALLEL_BOOT_PROPERTY);
+        }
+    }
+
+    private ModelNode readModel() {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_RESOURCE_OPERATION);
+        operation.get(OP_ADDR).setEmptyList();
+        operation.get(RECURSIVE).set(true);
+        return controller.execute(operation, null, null, null).get(RESULT);
+    }
+
+    private static ModelNode createAddOperation(final String subsystem, final boolean fail) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(ADD);
+        operation.get(OP_ADDR).add(SUBSYSTEM, subsystem);
+        operation.get("value").set(Integer.parseInt(subsystem.substring("subsystem".length())));
+        operation.get("fail").set(fail);
+        return operation;
+    }
+
+    private static ModelNode createChildAddOperation(final String subsystem) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(ADD);
+        operation.get(OP_ADDR).add(SUBSYSTEM, subsystem).add("child", "child");
+        return operation;
+    }
+
+    private class ModelControllerService extends AbstractControllerService {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        ModelControllerService(final ControlledProcessState processState, final List<ModelNode> operations) {
+            super(OperationContext.Type.SERVER, new TestConfigurationPersister(operations), processState, ModelControllerImplUnitTestCase.DESC_PROVIDER, null);
+        }
+
+        @Override
+        protected void initModel(final Resource rootResource, final ManagementResourceRegistration rootRegistration) {
+            rootRegistration.registerOperationHandler(READ_RESOURCE_OPERATION, GlobalOperationHandlers.READ_RESOURCE, CommonProviders.READ_RESOURCE_PROVIDER, true);
+            rootRegistration.registerOperationHandler(COUNT_SUBSYSTEMS, new CountSubsystemsHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
+            final ManagementResourceRegistration subsystem = rootRegistration.registerSubModel(PathElement.pathElement(SUBSYSTEM), ModelControllerImplUnitTestCase.DESC_PROVIDER);
+            subsystem.registerOperationHandler(ADD, new SubsystemAddHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
+            final ManagementResourceRegistration child = subsystem.registerSubModel(PathElement.pathElement("child"), ModelControllerImplUnitTestCase.DESC_PROVIDER);
+            child.registerOperationHandler(ADD, new ChildAddHandler(), ModelControllerImplUnitTestCase.DESC_PROVIDER, false);
+        }
+
+        @Override
+        protected void boot(final List<ModelNode> bootOperations) throws ConfigurationPersistenceException {
+            try {
+                super.boot(bootOperations);
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+
+    private class SubsystemAddHandler implements OperationStepHandler {
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+            modelThreads.put(name, Thread.currentThread().getName());
+            if (operation.get("fail").asBoolean()) {
+                throw new OperationFailedException(new ModelNode().set("Failing " + name));
+            }
+            context.createResource(PathAddress.EMPTY_ADDRESS).getModel().get("value").set(operation.get("value"));
+            if (operation.hasDefined("touch")) {
+                final ModelNode childAdd = createChildAddOperation(operation.get("touch").asString());
+                childAdd.get(OP_ADDR).get(1).set("child", name);
+                context.addStep(new ModelNode(), childAdd, new ChildAddHandler(), OperationContext.Stage.MODEL);
+            }
+            context.addStep(new OperationStepHandler() {
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    final ServiceName serviceName = SERVICE_BASE.append(name);
+                    final ServiceVerificationHandler verificationHandler = new ServiceVerificationHandler();
+                    context.getServiceTarget().addService(serviceName, Service.NULL)
+                            .addListener(verificationHandler)
+                            .install();
+                    context.addStep(verificationHandler, OperationContext.Stage.VERIFY);
+                    if (context.completeStep() == OperationContext.ResultAction.ROLLBACK) {
+                        context.removeService(serviceName);
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+            context.completeStep();
+        }
+    }
+
+    private class CountSubsystemsHandler implements OperationStepHandler {
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            countedSubsystems = context.getRootResource().getChildrenNames(SUBSYSTEM).size();
+            context.completeStep();
+        }
+    }
+
+    private static class ChildAddHandler implements OperationStepHandler {
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            context.createResource(PathAddress.EMPTY_ADDRESS);
+            context.completeStep();
+        }
+    }
+
+    private static class TestConfigurationPersister extends AbstractConfigurationPersister {
+        private final List<ModelNode> operations;
+
+        TestConfigurationPersister(final List<ModelNode> operations) {
+            super(null);
+            this.operations = operations;
+        }
+
+        public ConfigurationPersister.PersistenceResource store(final ModelNode model, final Set<PathAddress> affectedAddresses) {
+            return new ConfigurationPersister.PersistenceResource() {
+                public void commit() {
+                }
+
+                public void rollback() {
+                }
+            };
+        }
+
+        public List<ModelNode> load() {
+            return operations;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.namespace.QName;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BootSnapshotUnitTestCase {
+
+    private static final int SUBSYSTEMS = 40;
+
+    private File dir;
+
+    @Before
+    public void createDir() throws Exception {
+        dir = File.createTempFile("boot-snapshot", "");
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    @After
+    public void deleteDir() {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final File file = new File(dir, "test.xml.boot");
+        final List<ModelNode> operations = createOperations();
+        BootSnapshot.create(file, "abc", Collections.singletonMap("org.foo", "1"), operations).write();
+
+        final BootSnapshot snapshot = BootSnapshot.read(file, "abc");
+        assertNotNull(snapshot);
+        assertEquals(Collections.singletonMap("org.foo", "1"), snapshot.getFingerprints());
+        assertEquals(operations, snapshot.getOperations());
+    }
+
+    @Test
+    public void testHashMismatch() throws Exception {
+        final File file = new File(dir, "test.xml.boot");
+        BootSnapshot.create(file, "abc", Collections.<String, String>emptyMap(), createOperations()).write();
+        assertNull(BootSnapshot.read(file, "def"));
+        assertNull(BootSnapshot.read(new File(dir, "missing.boot"), "abc"));
+    }
+
+    @Test
+    public void testCorruptSnapshot() throws Exception {
+        final File file = new File(dir, "test.xml.boot");
+        BootSnapshot.create(file, "abc", Collections.<String, String>emptyMap(), createOperations()).write();
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(raf.length() / 2);
+            final int b = raf.read();
+            raf.seek(raf.length() / 2);
+            raf.write(b ^ 0xff);
+        } finally {
+            raf.close();
+        }
+        assertNull(BootSnapshot.read(file, "abc"));
+    }
+
+    /**
+     * Boots a configuration with {@value #SUBSYSTEMS} subsystems with and without the snapshot, and checks that
+     * both produce the same operations.
+     */
+    @Test
+    public void testSnapshotBoot() throws Exception {
+        final File config = new File(dir, "standalone.xml");
+        TestBootConfiguration.write(config, SUBSYSTEMS);
+        final List<String> fingerprinted = new ArrayList<String>();
+        final AtomicReference<String> environment = new AtomicReference<String>("host-a");
+
+        System.setProperty(XmlConfigurationPersister.BOOT_SNAPSHOT_PROPERTY, "false");
+        final XmlConfigurationPersister parsing;
+        try {
+            parsing = createPersister(config, fingerprinted, environment);
+        } finally {
+            System.clearProperty(XmlConfigurationPersister.BOOT_SNAPSHOT_PROPERTY);
+        }
+        final XmlConfigurationPersister snapshotting = createPersister(config, fingerprinted, environment);
+
+        final List<ModelNode> expected = parsing.load();
+        assertEquals(SUBSYSTEMS * TestBootConfiguration.OPERATIONS_PER_SUBSYSTEM, expected.size());
+        assertEquals(expected, snapshotting.load());
+        assertEquals(SUBSYSTEMS, fingerprinted.size());
+        assertEquals(true, new File(dir, "standalone.xml.boot").exists());
+
+        // loaded from the snapshot, only the extensions are checked again
+        fingerprinted.clear();
+        assertEquals(expected, snapshotting.load());
+        assertEquals(SUBSYSTEMS, fingerprinted.size());
+
+        // a change to the configuration invalidates the snapshot
+        final FileOutputStream out = new FileOutputStream(config, true);
+        try {
+            out.write("\n".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        fingerprinted.clear();
+        assertEquals(expected, snapshotting.load());
+        // parsed again and a new snapshot written
+        assertEquals(SUBSYSTEMS, fingerprinted.size());
+    }
+
+    /**
+     * Checks that the snapshot is not used once the environment the file was parsed in, e.g. the local host name
+     * used as the default server name, has changed, and not at all if the environment cannot be determined.
+     */
+    @Test
+    public void testEnvironmentChange() throws Exception {
+        final File config = new File(dir, "standalone.xml");
+        TestBootConfiguration.write(config, SUBSYSTEMS);
+        final File snapshot = new File(dir, "standalone.xml.boot");
+        final List<String> fingerprinted = new ArrayList<String>();
+        final AtomicReference<String> environment = new AtomicReference<String>("host-a");
+        final XmlConfigurationPersister persister = createPersister(config, fingerprinted, environment);
+
+        final List<ModelNode> expected = persister.load();
+        assertEquals(true, snapshot.exists());
+
+        // loading the snapshot leaves it alone
+        snapshot.setLastModified(0);
+        assertEquals(expected, persister.load());
+        assertEquals(0, snapshot.lastModified());
+
+        environment.set("host-b");
+        assertEquals(expected, persister.load());
+        // parsed again and a new snapshot written for the new host name
+        assertEquals(true, snapshot.lastModified() > 0);
+
+        environment.set(null);
+        snapshot.delete();
+        persister.load();
+        assertEquals(false, snapshot.exists());
+    }
+
+    private static XmlConfigurationPersister createPersister(final File config, final List<String> fingerprinted, final AtomicReference<String> environment) {
+        return new XmlConfigurationPersister(config, new QName(TestBootConfiguration.NAMESPACE, "server"), new TestBootConfiguration.Parser(), null) {
+            @Override
+            protected String getBootEnvironment() {
+                return environment.get();
+            }
+
+            @Override
+            protected String getExtensionFingerprint(final String moduleName) {
+                fingerprinted.add(moduleName);
+                return moduleName + ":1.0";
+            }
+        };
+    }
+
+    private static List<ModelNode> createOperations() {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < 3; i++) {
+            final ModelNode op = new ModelNode();
+            op.get("operation").set("add");
+            op.get("address").add("subsystem", "test" + i);
+            op.get("value").set(i);
+            operations.add(op);
+        }
+        return operations;
+    }
+}
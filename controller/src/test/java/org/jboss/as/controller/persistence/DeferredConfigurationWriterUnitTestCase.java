@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class DeferredConfigurationWriterUnitTestCase {
+
+    @Test
+    public void testCoalescing() throws Exception {
+        final RecordingWriter writer = new RecordingWriter(500, false);
+        ConfigurationPersister.DeferredPersistenceResource last = null;
+        for (int i = 0; i < 50; i++) {
+            last = writer.store(createModel(i));
+            last.commit();
+        }
+        last.awaitPersisted();
+        assertTrue(writer.written.size() < 50);
+        assertEquals("49", writer.written.get(writer.written.size() - 1).get("value").asString());
+    }
+
+    @Test
+    public void testWaitersAreNotDelayed() throws Exception {
+        final RecordingWriter writer = new RecordingWriter(60000, true);
+        final ConfigurationPersister.DeferredPersistenceResource resource = writer.store(createModel(1));
+        assertTrue(resource.isDurabilityRequired());
+        final long start = System.currentTimeMillis();
+        resource.commit();
+        resource.awaitPersisted();
+        assertTrue(System.currentTimeMillis() - start < 30000);
+        assertEquals(1, writer.written.size());
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        final RecordingWriter writer = new RecordingWriter(0, false);
+        writer.store(createModel(1)).rollback();
+        final ConfigurationPersister.DeferredPersistenceResource resource = writer.store(createModel(2));
+        resource.commit();
+        resource.awaitPersisted();
+        assertEquals(1, writer.written.size());
+        assertEquals("2", writer.written.get(0).get("value").asString());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final RecordingWriter writer = new RecordingWriter(0, false);
+        writer.fail = true;
+        final ConfigurationPersister.DeferredPersistenceResource failed = writer.store(createModel(1));
+        failed.commit();
+        try {
+            failed.awaitPersisted();
+            fail("Write should have failed");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+
+        writer.fail = false;
+        final ConfigurationPersister.DeferredPersistenceResource resource = writer.store(createModel(2));
+        resource.commit();
+        resource.awaitPersisted();
+        // a later successful write covers the failed one
+        failed.awaitPersisted();
+    }
+
+    private static ModelNode createModel(final int value) {
+        final ModelNode model = new ModelNode();
+        model.get("value").set(String.valueOf(value));
+        return model;
+    }
+
+    private static class RecordingWriter extends DeferredConfigurationWriter {
+
+        private final List<ModelNode> written = Collections.synchronizedList(new ArrayList<ModelNode>());
+        private volatile boolean fail;
+
+        RecordingWriter(final long delay, final boolean durabilityRequired) {
+            super("test", delay, durabilityRequired);
+        }
+
+        @Override
+        protected void write(final ModelNode model) throws ConfigurationPersistenceException {
+            if (fail) {
+                throw new ConfigurationPersistenceException("Failed");
+            }
+            written.add(model);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FilePersistenceResourceUnitTestCase {
+
+    private File dir;
+
+    @Before
+    public void createDir() throws IOException {
+        dir = File.createTempFile("persistence", "");
+        dir.delete();
+        dir.mkdir();
+    }
+
+    @After
+    public void deleteDir() {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testCommitSynchronously() throws Exception {
+        final File file = new File(dir, "standalone.xml");
+        new FilePersistenceResource(createModel(1), file, new TestPersister(), false).commitSynchronously();
+        assertEquals(createModel(1), ModelNode.fromString(new String(BootSnapshot.readFully(file), "UTF-8")));
+        assertFalse(new File(dir, "standalone.xml.tmp").exists());
+    }
+
+    @Test
+    public void testCommitSynchronouslyReportsFailure() throws Exception {
+        final File file = new File(new File(dir, "missing"), "standalone.xml");
+        final FilePersistenceResource resource = new FilePersistenceResource(createModel(1), file, new TestPersister(), false);
+        try {
+            resource.commitSynchronously();
+            fail("Writing to a missing directory should have failed");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+        // a plain commit only logs the failure
+        new FilePersistenceResource(createModel(1), file, new TestPersister(), false).commit();
+        assertFalse(file.exists());
+    }
+
+    private static ModelNode createModel(final int value) {
+        final ModelNode model = new ModelNode();
+        model.get("value").set(String.valueOf(value));
+        return model;
+    }
+
+    private static class TestPersister extends AbstractConfigurationPersister {
+
+        TestPersister() {
+            super(null);
+        }
+
+        @Override
+        public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+            try {
+                output.write(model.toString().getBytes("UTF-8"));
+            } catch (IOException e) {
+                throw new ConfigurationPersistenceException(e);
+            }
+        }
+
+        @Override
+        public PersistenceResource store(final ModelNode model, final Set<PathAddress> affectedAddresses) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+
+/**
+ * A synthetic server configuration with a given number of subsystems, each with an extension, and a generic parser
+ * for it. The real subsystem parsers are not available in this module.
+ */
+class TestBootConfiguration {
+
+    static final String NAMESPACE = "urn:jboss:test:boot-snapshot:1.0";
+
+    /**
+     * The number of operations parsed for each subsystem: one for its extension, one for the subsystem and one for
+     * each of its resources.
+     */
+    static final int OPERATIONS_PER_SUBSYSTEM = 12;
+
+    private TestBootConfiguration() {
+    }
+
+    static void write(final File file, final int subsystems) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("<?xml version='1.0' encoding='UTF-8'?>\n<server xmlns=\"").append(NAMESPACE).append("\">\n");
+        for (int i = 0; i < subsystems; i++) {
+            builder.append("  <extension module=\"org.test.subsystem").append(i).append("\"/>\n");
+        }
+        for (int i = 0; i < subsystems; i++) {
+            builder.append("  <subsystem name=\"subsystem").append(i).append("\" enabled=\"true\" timeout=\"").append(i * 10).append("\">\n");
+            for (int j = 0; j < OPERATIONS_PER_SUBSYSTEM - 2; j++) {
+                builder.append("    <resource name=\"resource").append(j).append("\" value=\"some-value-").append(j)
+                        .append("\" jndi-name=\"java:jboss/subsystem").append(i).append("/resource").append(j).append("\"/>\n");
+            }
+            builder.append("  </subsystem>\n");
+        }
+        builder.append("</server>\n");
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(builder.toString().getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * A generic parser turning every element into an add operation with the element's attributes as parameters.
+     */
+    static class Parser implements XMLElementReader<List<ModelNode>> {
+
+        @Override
+        public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+            readChildren(reader, new ModelNode().setEmptyList(), operations);
+        }
+
+        private void readChildren(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> operations) throws XMLStreamException {
+            while (reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                final ModelNode op = new ModelNode();
+                op.get("operation").set("add");
+                final ModelNode childAddress = address.clone();
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    final String name = reader.getAttributeLocalName(i);
+                    if ("name".equals(name) || "module".equals(name)) {
+                        childAddress.add(reader.getLocalName(), reader.getAttributeValue(i));
+                    } else {
+                        op.get(name).set(reader.getAttributeValue(i));
+                    }
+                }
+                op.get("address").set(childAddress);
+                operations.add(op);
+                readChildren(reader, childAddress, operations);
+            }
+        }
+    }
+}
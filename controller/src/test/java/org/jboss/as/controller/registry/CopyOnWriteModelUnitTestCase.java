@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CopyOnWriteModel}.
+ */
+public class CopyOnWriteModelUnitTestCase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+    private static final PathElement OTHER = PathElement.pathElement("subsystem", "other");
+    private static final PathElement CHILD_A = PathElement.pathElement("child", "a");
+    private static final PathElement CHILD_B = PathElement.pathElement("child", "b");
+    private static final PathElement CHILD_C = PathElement.pathElement("child", "c");
+
+    private Resource published;
+
+    @Before
+    public void setup() {
+        published = Resource.Factory.create();
+        final Resource subsystem = Resource.Factory.create();
+        subsystem.getModel().get("attr").set("original");
+        subsystem.registerChild(CHILD_A, Resource.Factory.create());
+        subsystem.registerChild(CHILD_B, Resource.Factory.create());
+        subsystem.registerChild(CHILD_C, Resource.Factory.create());
+        published.registerChild(SUBSYSTEM, subsystem);
+        published.registerChild(OTHER, Resource.Factory.create());
+    }
+
+    @Test
+    public void testOnlyPathIsCopied() {
+        final Resource subsystem = published.getChild(SUBSYSTEM);
+        final Resource childA = subsystem.getChild(CHILD_A);
+        final Resource childB = subsystem.getChild(CHILD_B);
+
+        final CopyOnWriteModel writable = new CopyOnWriteModel(published);
+        final Resource root = writable.getRoot();
+        assertNotSame(published, root);
+        final Resource copy = writable.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A), false);
+        copy.getModel().get("attr").set("changed");
+
+        assertNotSame(childA, copy);
+        assertNotSame(subsystem, root.getChild(SUBSYSTEM));
+        assertSame(copy, root.getChild(SUBSYSTEM).getChild(CHILD_A));
+        // siblings are shared
+        assertSame(childB, root.getChild(SUBSYSTEM).getChild(CHILD_B));
+        assertSame(published.getChild(OTHER), root.getChild(OTHER));
+        // the published tree is untouched
+        assertFalse(childA.getModel().isDefined());
+        assertSame(childA, published.getChild(SUBSYSTEM).getChild(CHILD_A));
+    }
+
+    @Test
+    public void testCopiesAreReused() {
+        final CopyOnWriteModel writable = new CopyOnWriteModel(published);
+        final Resource first = writable.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM), false);
+        first.getModel().get("attr").set("changed");
+        final Resource second = writable.requireChildForUpdate(writable.getRoot(), SUBSYSTEM);
+        assertSame(first, second);
+        assertEquals("changed", second.getModel().get("attr").asString());
+        assertEquals("original", published.getChild(SUBSYSTEM).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testChildOrderIsPreserved() {
+        final CopyOnWriteModel writable = new CopyOnWriteModel(published);
+        writable.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM, CHILD_B), false);
+        final Resource subsystem = writable.getRoot().getChild(SUBSYSTEM);
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<String>(subsystem.getChildrenNames("child")));
+    }
+
+    @Test
+    public void testStructuralChanges() {
+        final CopyOnWriteModel writable = new CopyOnWriteModel(published);
+        final Resource subsystem = writable.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM), false);
+        subsystem.removeChild(CHILD_A);
+        final Resource added = Resource.Factory.create();
+        subsystem.registerChild(PathElement.pathElement("child", "d"), added);
+
+        // registered resources belong to the writable model and are not copied again
+        assertSame(added, writable.requireChildForUpdate(subsystem, PathElement.pathElement("child", "d")));
+        assertEquals(3, subsystem.getChildrenNames("child").size());
+        assertTrue(published.getChild(SUBSYSTEM).hasChild(CHILD_A));
+        assertFalse(published.getChild(SUBSYSTEM).hasChild(PathElement.pathElement("child", "d")));
+    }
+
+    @Test
+    public void testIncludeChildren() {
+        final Resource childA = published.getChild(SUBSYSTEM).getChild(CHILD_A);
+        final CopyOnWriteModel writable = new CopyOnWriteModel(published);
+        final Resource subsystem = writable.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM), true);
+        final Resource copy = subsystem.getChild(CHILD_A);
+        assertNotSame(childA, copy);
+        copy.getModel().get("attr").set("changed");
+        assertFalse(childA.getModel().isDefined());
+    }
+
+    @Test
+    public void testApplyToConcurrentChanges() {
+        final CopyOnWriteModel first = new CopyOnWriteModel(published);
+        final CopyOnWriteModel second = new CopyOnWriteModel(published);
+        first.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A), false).getModel().get("attr").set("first");
+        second.navigateForUpdate(PathAddress.pathAddress(OTHER), false).getModel().get("attr").set("second");
+        second.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM), false).removeChild(CHILD_C);
+
+        final Resource afterFirst = first.applyTo(published, Collections.singleton(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)));
+        assertSame(first.getRoot(), afterFirst);
+        final Resource afterSecond = second.applyTo(afterFirst, Arrays.asList(PathAddress.pathAddress(OTHER), PathAddress.pathAddress(SUBSYSTEM, CHILD_C)));
+
+        assertEquals("first", afterSecond.getChild(SUBSYSTEM).getChild(CHILD_A).getModel().get("attr").asString());
+        assertEquals("second", afterSecond.getChild(OTHER).getModel().get("attr").asString());
+        assertFalse(afterSecond.getChild(SUBSYSTEM).hasChild(CHILD_C));
+        assertTrue(afterFirst.getChild(SUBSYSTEM).hasChild(CHILD_C));
+        assertFalse(afterFirst.getChild(OTHER).getModel().isDefined());
+    }
+
+    @Test
+    public void testRefresh() {
+        final CopyOnWriteModel writable = new CopyOnWriteModel(published);
+        final Resource childA = writable.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A), false);
+        childA.getModel().get("attr").set("mine");
+
+        final CopyOnWriteModel other = new CopyOnWriteModel(published);
+        other.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM), false).getModel().get("attr").set("theirs");
+        other.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM, CHILD_B), false).getModel().get("attr").set("theirs");
+        final Resource current = other.applyTo(published, Collections.singleton(PathAddress.pathAddress(SUBSYSTEM)));
+
+        // a lock on an unrelated address does not need to see the other changes
+        writable.refresh(PathAddress.pathAddress(OTHER), current, Collections.singleton(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)));
+        assertEquals("original", writable.getResource(PathAddress.pathAddress(SUBSYSTEM)).getModel().get("attr").asString());
+
+        writable.refresh(PathAddress.pathAddress(SUBSYSTEM), current, Collections.singleton(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)));
+        final Resource subsystem = writable.getResource(PathAddress.pathAddress(SUBSYSTEM));
+        assertEquals("theirs", subsystem.getModel().get("attr").asString());
+        assertEquals("theirs", subsystem.getChild(CHILD_B).getModel().get("attr").asString());
+        assertSame(childA, subsystem.getChild(CHILD_A));
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<String>(subsystem.getChildrenNames("child")));
+        // the refreshed resources are copied before they are modified
+        writable.navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM, CHILD_B), false).getModel().get("attr").set("mine");
+        assertEquals("theirs", current.getChild(SUBSYSTEM).getChild(CHILD_B).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testFindOverlap() {
+        final PathAddress subsystem = PathAddress.pathAddress(SUBSYSTEM);
+        final PathAddress childA = PathAddress.pathAddress(SUBSYSTEM, CHILD_A);
+        final PathAddress childB = PathAddress.pathAddress(SUBSYSTEM, CHILD_B);
+        final PathAddress other = PathAddress.pathAddress(OTHER);
+
+        assertNull(CopyOnWriteModel.findOverlap(Arrays.asList(childA, other), Collections.singleton(childB)));
+        assertEquals(childA, CopyOnWriteModel.findOverlap(Collections.singleton(childA), Collections.singleton(childA)));
+        // a modified resource covers its descendants
+        assertEquals(childB, CopyOnWriteModel.findOverlap(Collections.singleton(subsystem), Arrays.asList(other, childB)));
+        assertEquals(childB, CopyOnWriteModel.findOverlap(Collections.singleton(childB), Collections.singleton(subsystem)));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testMissingChild() {
+        new CopyOnWriteModel(published).navigateForUpdate(PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement("child", "x")), false);
+    }
+}
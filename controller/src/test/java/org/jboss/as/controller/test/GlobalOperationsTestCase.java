@@ -142,6 +142,22 @@ public class GlobalOperationsTestCase extends AbstractControllerTestBase {
         assertTrue(result.get("metric2").isDefined());
     }
 
+    @Test
+    public void testRecursiveReadIncludingRuntime() throws Exception {
+        ModelNode operation = createOperation(READ_RESOURCE_OPERATION, "profile", "profileA");
+        operation.get(RECURSIVE).set(true);
+        operation.get(INCLUDE_RUNTIME).set(true);
+
+        ModelNode result = executeForResult(operation);
+        ModelNode subsystem1 = result.get("subsystem", "subsystem1");
+        checkRecursiveSubsystem1(subsystem1);
+        assertTrue(subsystem1.get("metric1").isDefined());
+        assertTrue(subsystem1.get("metric2").isDefined());
+
+        // the children are read concurrently, the order of the result must not depend on it
+        assertEquals(result.get("subsystem").keys().toString(), executeForResult(operation).get("subsystem").keys().toString());
+    }
+
     @Test
     public void testNonRecursiveReadSubModelOperationSimple() throws Exception {
         ModelNode operation = createOperation(READ_RESOURCE_OPERATION, "profile", "profileA", "subsystem", "subsystem1");
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.common.CommonProviders;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.operations.global.ReadResultCache;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests caching of read-only description queries by {@link ReadResultCache}.
+ */
+public class ReadResultCacheTestCase extends AbstractControllerTestBase {
+
+    private static final DescriptionProvider NULL_PROVIDER = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            return new ModelNode();
+        }
+    };
+
+    private final ReadResultCache cache = new ReadResultCache(16);
+
+    @Test
+    public void testRepeatedReadIsCached() throws Exception {
+        ModelNode first = executeForResult(createOperation(READ_RESOURCE_DESCRIPTION_OPERATION));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        ModelNode operation = createOperation(READ_RESOURCE_DESCRIPTION_OPERATION);
+        operation.get(OPERATION_HEADERS, "some-header").set("ignored");
+        ModelNode second = executeForResult(operation);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getSize());
+        assertEquals(first, second);
+
+        // changing the result must not change the cached copy
+        second.get(DESCRIPTION).set("changed");
+        assertEquals(first, executeForResult(createOperation(READ_RESOURCE_DESCRIPTION_OPERATION)));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testWriteInvalidates() throws Exception {
+        executeForResult(createOperation(READ_RESOURCE_DESCRIPTION_OPERATION));
+        executeForResult(createOperation(READ_RESOURCE_DESCRIPTION_OPERATION));
+        assertEquals(1, cache.getHits());
+
+        executeForResult(createOperation("write"));
+        assertEquals(1, cache.getSize());
+
+        executeForResult(createOperation(READ_RESOURCE_DESCRIPTION_OPERATION));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testRuntimeReadIsNotCached() throws Exception {
+        ModelNode operation = createOperation(READ_RESOURCE_DESCRIPTION_OPERATION);
+        operation.get(INCLUDE_RUNTIME).set(true);
+        executeForResult(operation);
+        executeForResult(operation);
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testDeploymentReadIsNotCached() throws Exception {
+        ModelNode operation = createOperation(READ_RESOURCE_DESCRIPTION_OPERATION);
+        operation.get(OP_ADDR).add(DEPLOYMENT, "test.war");
+        executeForResult(operation);
+        executeForResult(operation);
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.getSize());
+    }
+
+    private ModelNode executeForResult(ModelNode operation) throws OperationFailedException {
+        ModelNode rsp = getController().execute(operation, null, null, null);
+        if (!SUCCESS.equals(rsp.get(OUTCOME).asString())) {
+            throw new OperationFailedException(rsp.get(FAILURE_DESCRIPTION));
+        }
+        return rsp.get(RESULT);
+    }
+
+    private ModelNode createOperation(String operationName) {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(operationName);
+        operation.get(OP_ADDR).setEmptyList();
+        return operation;
+    }
+
+    @Override
+    DescriptionProvider getRootDescriptionProvider() {
+        return new DescriptionProvider() {
+            @Override
+            public ModelNode getModelDescription(Locale locale) {
+                ModelNode node = new ModelNode();
+                node.get(DESCRIPTION).set("The root node of the test management API");
+                return node;
+            }
+        };
+    }
+
+    @Override
+    void initModel(ManagementResourceRegistration rootRegistration) {
+        rootRegistration.registerOperationHandler(READ_RESOURCE_DESCRIPTION_OPERATION, cache.cache(GlobalOperationHandlers.READ_RESOURCE_DESCRIPTION), CommonProviders.READ_RESOURCE_DESCRIPTION_PROVIDER, true);
+        rootRegistration.registerSubModel(PathElement.pathElement(DEPLOYMENT), NULL_PROVIDER);
+        rootRegistration.registerOperationHandler("setup", new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ModelNode model = new ModelNode();
+                model.get("value").set(0);
+                createModel(context, model);
+                context.completeStep();
+            }
+        }, NULL_PROVIDER, false, OperationEntry.EntryType.PRIVATE);
+        rootRegistration.registerOperationHandler("write", new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                ModelNode model = context.readModelForUpdate(PathAddress.EMPTY_ADDRESS);
+                model.get("value").set(model.get("value").asInt() + 1);
+                context.completeStep();
+            }
+        }, NULL_PROVIDER, false, OperationEntry.EntryType.PRIVATE);
+    }
+}
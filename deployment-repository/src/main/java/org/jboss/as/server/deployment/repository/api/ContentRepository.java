@@ -73,4 +73,42 @@ public interface ContentRepository {
      * @param hash the hash. Cannot be {@code null}
      */
     void removeContent(byte[] hash);
+
+    /**
+     * Record that a deployment refers to the given content. Referenced content is never removed by
+     * {@link #cleanObsoleteContent()}.
+     *
+     * @param hash the hash. Cannot be {@code null}
+     */
+    void addContentReference(byte[] hash);
+
+    /**
+     * Release a reference previously added by {@link #addContentReference(byte[])}. Once the last reference
+     * is released the content becomes obsolete.
+     *
+     * @param hash the hash. Cannot be {@code null}
+     */
+    void removeContentReference(byte[] hash);
+
+    /**
+     * Remove obsolete content from the repository. Content which is not referenced is only removed once it has
+     * been unreferenced for a while, as it may have been uploaded for a deployment which has not been added yet,
+     * or be about to be referenced again by a redeploy. Implementations which remove content are expected to call
+     * this periodically themselves, callers never have to wait for it.
+     */
+    void cleanObsoleteContent();
+
+    /**
+     * Gets the total size of the content stored in the repository.
+     *
+     * @return the size in bytes
+     */
+    long getContentSize();
+
+    /**
+     * Gets how much obsolete content {@link #cleanObsoleteContent()} has removed since the repository was created.
+     *
+     * @return the number of bytes reclaimed
+     */
+    long getReclaimedBytes();
 }
@@ -29,40 +29,83 @@ import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
 import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Default implementation of {@link org.jboss.as.server.deployment.repository.api.ContentRepository}.
+ * <p/>
+ * Content is stored under its SHA-1 hash, so the same content is only ever stored once. The repository counts the
+ * deployments referring to each piece of content and, if enabled, removes content no deployment refers to anymore
+ * in {@link #cleanObsoleteContent()}. While the service is running that is done periodically on a background
+ * thread, so management operations never wait for the repository to be scanned.
+ *
  * @author John Bailey
  */
 public class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     protected static final String CONTENT = "content";
+
+    /**
+     * How long content which is not referenced is kept by {@link #cleanObsoleteContent()}, counted from when it
+     * was added or from when its last reference was released.
+     */
+    public static final long OBSOLETE_CONTENT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final File repoRoot;
-    protected final MessageDigest messageDigest;
+    private final boolean cleanObsoleteContent;
+
+    /*
+     * The number of references to each piece of content, keyed by the hex string of its hash. A count of zero means
+     * the last reference has been released. Also guards the placement and the removal of content on disk.
+     */
+    private final Map<String, Integer> references = new HashMap<String, Integer>();
+
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    private volatile ScheduledExecutorService cleaner;
 
     // TODO: return void
-    public static ContentRepositoryImpl addService(final ServiceTarget serviceTarget, final File repoRoot) {
-        ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot);
+    public static ContentRepositoryImpl addService(final ServiceTarget serviceTarget, final File repoRoot, final boolean cleanObsoleteContent) {
+        ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, cleanObsoleteContent);
         serviceTarget.addService(ContentRepository.SERVICE_NAME, contentRepository).install();
         return contentRepository;
     }
 
     protected ContentRepositoryImpl(final File repoRoot) {
+        this(repoRoot, false);
+    }
+
+    /**
+     * @param repoRoot the root directory of the repository
+     * @param cleanObsoleteContent whether {@link #cleanObsoleteContent()} may remove content. Must be {@code false}
+     *                             if the repository is shared with other processes, which track their own references
+     */
+    protected ContentRepositoryImpl(final File repoRoot, final boolean cleanObsoleteContent) {
         if (repoRoot == null)
             throw new IllegalArgumentException("repoRoot is null");
         if (repoRoot.exists()) {
@@ -77,45 +120,48 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             throw new IllegalStateException("Failed to create a directory at " + repoRoot.getAbsolutePath());
         }
         this.repoRoot = repoRoot;
-
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
-        }
+        this.cleanObsoleteContent = cleanObsoleteContent;
+        // fail early rather than on the first upload
+        createMessageDigest();
     }
 
     @Override
     public byte[] addContent(InputStream stream) throws IOException {
-        byte[] sha1Bytes = null;
-        File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
-        FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
-            try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
-                }
-            }
-            finally {
-                safeClose(fos);
+        // a digest per call, so uploads are hashed in parallel
+        final MessageDigest messageDigest = createMessageDigest();
+        final byte[] sha1Bytes;
+        final FileChannel source;
+        File tmp = null;
+        if (stream instanceof FileInputStream) {
+            // a local file, hash it in place and only copy it if the content is new
+            source = ((FileInputStream) stream).getChannel();
+            sha1Bytes = hashChannel(source, messageDigest);
+            if (!hasContent(sha1Bytes)) {
+                tmp = transferToTemp(source);
             }
+        } else {
+            source = null;
+            tmp = copyToTemp(stream, messageDigest);
             sha1Bytes = messageDigest.digest();
         }
-        final File realFile = getDeploymentContentFile(sha1Bytes, true);
-        if(hasContent(sha1Bytes)) {
-            // we've already got this content
-            if (!tmp.delete()) {
-                tmp.deleteOnExit();
+        synchronized (references) {
+            final File realFile = getDeploymentContentFile(sha1Bytes, true);
+            if (realFile.exists()) {
+                // we've already got this content
+                if (tmp != null) {
+                    deleteTemp(tmp);
+                }
+                // restart the timeout in case the content is obsolete
+                realFile.setLastModified(System.currentTimeMillis());
+                log.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
+            } else {
+                if (tmp == null) {
+                    // removed by cleanObsoleteContent() since we checked
+                    tmp = transferToTemp(source);
+                }
+                moveTempToPermanent(tmp, realFile);
+                log.infof("Content added at location %s",realFile.getAbsolutePath());
             }
-            log.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
-        } else {
-            moveTempToPermanent(tmp, realFile);
-            log.infof("Content added at location %s",realFile.getAbsolutePath());
         }
 
         return sha1Bytes;
@@ -173,33 +219,99 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         }
     }
 
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+    }
+
+    private static byte[] hashChannel(final FileChannel channel, final MessageDigest messageDigest) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = channel.position();
+        int read;
+        while ((read = channel.read(buffer, position)) > -1) {
+            messageDigest.update(buffer.array(), 0, read);
+            position += read;
+            buffer.clear();
+        }
+        return messageDigest.digest();
+    }
+
+    private File copyToTemp(final InputStream stream, final MessageDigest messageDigest) throws IOException {
+        final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+        boolean ok = false;
+        final FileOutputStream fos = new FileOutputStream(tmp);
+        try {
+            final byte[] bytes = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = stream.read(bytes)) > -1) {
+                messageDigest.update(bytes, 0, read);
+                fos.write(bytes, 0, read);
+            }
+            ok = true;
+        } finally {
+            safeClose(fos);
+            if (!ok) {
+                deleteTemp(tmp);
+            }
+        }
+        return tmp;
+    }
+
+    private File transferToTemp(final FileChannel source) throws IOException {
+        final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+        boolean ok = false;
+        try {
+            transfer(source, source.position(), tmp);
+            ok = true;
+        } finally {
+            if (!ok) {
+                deleteTemp(tmp);
+            }
+        }
+        return tmp;
+    }
+
+    /**
+     * Copy the source channel from the given position to the target file, letting the OS move the bytes between the
+     * files where it can.
+     */
+    private static void transfer(final FileChannel source, final long start, final File target) throws IOException {
+        final FileOutputStream fos = new FileOutputStream(target);
+        try {
+            final FileChannel out = fos.getChannel();
+            final long size = source.size();
+            long position = start;
+            while (position < size) {
+                position += source.transferTo(position, size - position, out);
+            }
+        } finally {
+            safeClose(fos);
+        }
+    }
+
     private void moveTempToPermanent(File tmpFile, File permanentFile) throws IOException {
 
         if (!tmpFile.renameTo(permanentFile)) {
-            FileOutputStream fos = null;
-            BufferedOutputStream bos = null;
             FileInputStream fis = null;
             try {
-                fos = new FileOutputStream(permanentFile);
-                bos = new BufferedOutputStream(fos);
                 fis = new FileInputStream(tmpFile);
-                BufferedInputStream bis = new BufferedInputStream(fis);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    bos.write(bytes, 0, read);
-                }
+                transfer(fis.getChannel(), 0, permanentFile);
             } finally {
-                safeClose(bos);
-                safeClose(fos);
                 safeClose(fis);
-                if (!tmpFile.delete()) {
-                    tmpFile.deleteOnExit();
-                }
+                deleteTemp(tmpFile);
             }
         }
     }
 
+    private static void deleteTemp(final File tmp) {
+        if (!tmp.delete()) {
+            tmp.deleteOnExit();
+        }
+    }
+
     @Override
     public void removeContent(byte[] hash) {
         File file = getDeploymentContentFile(hash, true);
@@ -207,6 +319,144 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             file.deleteOnExit();
     }
 
+    @Override
+    public void addContentReference(byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        synchronized (references) {
+            final Integer count = references.get(sha1);
+            references.put(sha1, count == null ? 1 : count + 1);
+        }
+    }
+
+    @Override
+    public void removeContentReference(byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        synchronized (references) {
+            final Integer count = references.get(sha1);
+            if (count == null || count == 0) {
+                log.warnf("Content %s is not referenced", sha1);
+            } else {
+                references.put(sha1, count - 1);
+                if (count == 1) {
+                    // start the timeout, the content may be referenced again shortly, e.g. by a redeploy
+                    getDeploymentContentFile(hash).setLastModified(System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The repository is scanned without holding the reference lock. The lock is held briefly to take a snapshot of
+     * which of the expired content is unreferenced, and again for each piece of content to re-check its references
+     * and to move it out of place. It is deleted once the lock has been released.
+     */
+    @Override
+    public void cleanObsoleteContent() {
+        if (!cleanObsoleteContent) {
+            return;
+        }
+        final long timeout = System.currentTimeMillis() - OBSOLETE_CONTENT_TIMEOUT;
+        final List<File> expired = new ArrayList<File>();
+        for (File base : listFiles(repoRoot)) {
+            final String partA = base.getName();
+            if (base.isFile()) {
+                // left behind by an upload which failed badly, or by a previous run which could not delete it
+                if (partA.startsWith(CONTENT) && partA.endsWith("tmp") && base.lastModified() < timeout && base.delete()) {
+                    log.debugf("Removed stale temporary file %s", base.getAbsolutePath());
+                }
+                continue;
+            }
+            if (partA.length() != 2) {
+                continue;
+            }
+            for (File hashDir : listFiles(base)) {
+                if (new File(hashDir, CONTENT).lastModified() < timeout) {
+                    expired.add(hashDir);
+                }
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        final List<File> unreferenced = new ArrayList<File>(expired.size());
+        synchronized (references) {
+            for (File hashDir : expired) {
+                if (!isReferenced(hashDir)) {
+                    unreferenced.add(hashDir);
+                }
+            }
+        }
+        int removed = 0;
+        long removedBytes = 0;
+        for (File hashDir : unreferenced) {
+            final File content = new File(hashDir, CONTENT);
+            final File obsolete;
+            synchronized (references) {
+                // a deployment may have referenced the content, or an upload of it restarted the timeout, since the snapshot
+                if (isReferenced(hashDir) || content.lastModified() >= timeout) {
+                    continue;
+                }
+                final String sha1 = hashDir.getParentFile().getName() + hashDir.getName();
+                // named like a temporary file, so that a later run retries the delete if it fails
+                obsolete = new File(repoRoot, CONTENT + sha1 + "tmp");
+                if (content.exists() && !content.renameTo(obsolete)) {
+                    log.warnf("Cannot remove obsolete content %s", content.getAbsolutePath());
+                    continue;
+                }
+                hashDir.delete();
+                // only succeeds if empty
+                hashDir.getParentFile().delete();
+                references.remove(sha1);
+            }
+            final long length = obsolete.length();
+            if (obsolete.delete() || !obsolete.exists()) {
+                removed++;
+                removedBytes += length;
+                log.debugf("Removed obsolete content %s", content.getAbsolutePath());
+            } else {
+                log.warnf("Cannot remove obsolete content %s", obsolete.getAbsolutePath());
+            }
+        }
+        if (removed > 0) {
+            reclaimedBytes.addAndGet(removedBytes);
+            log.infof("Removed %d obsolete content items from %s, reclaiming %d bytes", removed, repoRoot.getAbsolutePath(), removedBytes);
+        }
+    }
+
+    /**
+     * Must be called while holding the reference lock.
+     */
+    private boolean isReferenced(final File hashDir) {
+        final Integer count = references.get(hashDir.getParentFile().getName() + hashDir.getName());
+        return count != null && count > 0;
+    }
+
+    @Override
+    public long getContentSize() {
+        long size = 0;
+        for (File base : listFiles(repoRoot)) {
+            if (base.getName().length() != 2) {
+                continue;
+            }
+            for (File hashDir : listFiles(base)) {
+                size += new File(hashDir, CONTENT).length();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    private static File[] listFiles(final File dir) {
+        final File[] files = dir.listFiles();
+        return files == null ? new File[0] : files;
+    }
+
     protected static void safeClose(final Closeable closeable) {
         if(closeable != null) {
             try {
@@ -219,11 +469,32 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
 
     @Override
     public void start(StartContext context) throws StartException {
+        if (cleanObsoleteContent) {
+            final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("ContentRepository-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+            final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            final long period = OBSOLETE_CONTENT_TIMEOUT / 2;
+            cleaner.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        cleanObsoleteContent();
+                    } catch (Throwable t) {
+                        log.errorf(t, "Failed to remove obsolete content from %s", repoRoot.getAbsolutePath());
+                    }
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+            this.cleaner = cleaner;
+        }
         log.debugf("%s started", ContentRepository.class.getSimpleName());
     }
 
     @Override
     public void stop(StopContext context) {
+        final ScheduledExecutorService cleaner = this.cleaner;
+        this.cleaner = null;
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
         log.debugf("%s stopped", ContentRepository.class.getSimpleName());
     }
 
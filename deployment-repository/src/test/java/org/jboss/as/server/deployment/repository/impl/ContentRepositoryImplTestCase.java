@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ContentRepositoryImpl}.
+ */
+public class ContentRepositoryImplTestCase {
+
+    private final Random random = new Random(42);
+    private File root;
+
+    @Before
+    public void setup() throws Exception {
+        root = File.createTempFile("content-repository", "test");
+        root.delete();
+        root.mkdirs();
+    }
+
+    @After
+    public void cleanup() {
+        delete(root);
+    }
+
+    @Test
+    public void testAddContent() throws Exception {
+        final ContentRepositoryImpl repository = new ContentRepositoryImpl(new File(root, "repo"));
+        final byte[] bytes = randomBytes(100000);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(bytes));
+        assertTrue(Arrays.equals(sha1(bytes), hash));
+        assertTrue(repository.hasContent(hash));
+        assertTrue(Arrays.equals(bytes, read(repository.getDeploymentContentFile(hash))));
+        assertEquals(1, contentCount(repository));
+    }
+
+    @Test
+    public void testAddContentFromFile() throws Exception {
+        final ContentRepositoryImpl repository = new ContentRepositoryImpl(new File(root, "repo"));
+        final byte[] bytes = randomBytes(200000);
+        final File file = write(bytes);
+
+        final byte[] hash = addFile(repository, file, 0);
+        assertTrue(Arrays.equals(sha1(bytes), hash));
+        assertTrue(Arrays.equals(bytes, read(repository.getDeploymentContentFile(hash))));
+        // the same content again is not stored twice
+        assertTrue(Arrays.equals(hash, repository.addContent(new ByteArrayInputStream(bytes))));
+        assertTrue(Arrays.equals(hash, addFile(repository, file, 0)));
+        assertEquals(1, contentCount(repository));
+
+        // the stream is read from its current position
+        final byte[] tail = Arrays.copyOfRange(bytes, 1000, bytes.length);
+        final byte[] tailHash = addFile(repository, file, 1000);
+        assertTrue(Arrays.equals(sha1(tail), tailHash));
+        assertTrue(Arrays.equals(tail, read(repository.getDeploymentContentFile(tailHash))));
+        assertEquals(2, contentCount(repository));
+    }
+
+    @Test
+    public void testConcurrentAddContent() throws Exception {
+        final ContentRepositoryImpl repository = new ContentRepositoryImpl(new File(root, "repo"));
+        final List<byte[]> contents = new ArrayList<byte[]>();
+        for (int i = 0; i < 32; i++) {
+            contents.add(randomBytes(10000 + i * 1000));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<byte[]>> hashes = new ArrayList<Future<byte[]>>();
+            for (final byte[] bytes : contents) {
+                hashes.add(executor.submit(new Callable<byte[]>() {
+                    public byte[] call() throws Exception {
+                        return repository.addContent(new ByteArrayInputStream(bytes));
+                    }
+                }));
+            }
+            for (int i = 0; i < contents.size(); i++) {
+                assertTrue(Arrays.equals(sha1(contents.get(i)), hashes.get(i).get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(contents.size(), contentCount(repository));
+    }
+
+    @Test
+    public void testCleanObsoleteContent() throws Exception {
+        final ContentRepositoryImpl repository = new ContentRepositoryImpl(new File(root, "repo"), true);
+        final byte[] used = repository.addContent(new ByteArrayInputStream(randomBytes(1000)));
+        final byte[] released = repository.addContent(new ByteArrayInputStream(randomBytes(2000)));
+        final byte[] uploaded = repository.addContent(new ByteArrayInputStream(randomBytes(3000)));
+        repository.addContentReference(used);
+        repository.addContentReference(used);
+        repository.addContentReference(released);
+
+        repository.removeContentReference(used);
+        repository.removeContentReference(released);
+        repository.cleanObsoleteContent();
+        assertTrue(repository.hasContent(used));
+        // neither released nor never referenced content is removed before the timeout
+        assertTrue(repository.hasContent(released));
+        assertTrue(repository.hasContent(uploaded));
+
+        expire(repository, released);
+        repository.cleanObsoleteContent();
+        assertTrue(repository.hasContent(used));
+        assertFalse(repository.hasContent(released));
+        assertTrue(repository.hasContent(uploaded));
+
+        expire(repository, uploaded);
+        expire(repository, used);
+        repository.cleanObsoleteContent();
+        // still referenced, however old
+        assertTrue(repository.hasContent(used));
+        assertFalse(repository.hasContent(uploaded));
+
+        // releasing the last reference restarts the timeout
+        repository.removeContentReference(used);
+        repository.cleanObsoleteContent();
+        assertTrue(repository.hasContent(used));
+        expire(repository, used);
+        repository.cleanObsoleteContent();
+        assertEquals(0, contentCount(repository));
+
+        // removed content can be added again
+        final byte[] bytes = randomBytes(1000);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(bytes));
+        assertTrue(Arrays.equals(bytes, read(repository.getDeploymentContentFile(hash))));
+    }
+
+    @Test
+    public void testCleanObsoleteContentDisabled() throws Exception {
+        final ContentRepositoryImpl repository = new ContentRepositoryImpl(new File(root, "repo"));
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(randomBytes(1000)));
+        repository.addContentReference(hash);
+        repository.removeContentReference(hash);
+        expire(repository, hash);
+        repository.cleanObsoleteContent();
+        assertTrue(repository.hasContent(hash));
+    }
+
+    @Test
+    public void testContentMetrics() throws Exception {
+        final ContentRepositoryImpl repository = new ContentRepositoryImpl(new File(root, "repo"), true);
+        final byte[] kept = repository.addContent(new ByteArrayInputStream(randomBytes(1000)));
+        final byte[] obsolete = repository.addContent(new ByteArrayInputStream(randomBytes(2000)));
+        final byte[] uploaded = repository.addContent(new ByteArrayInputStream(randomBytes(500)));
+        assertEquals(3500, repository.getContentSize());
+        assertEquals(0, repository.getReclaimedBytes());
+
+        repository.addContentReference(kept);
+        expire(repository, kept);
+        expire(repository, obsolete);
+        repository.cleanObsoleteContent();
+        assertTrue(repository.hasContent(kept));
+        assertFalse(repository.hasContent(obsolete));
+        assertTrue(repository.hasContent(uploaded));
+        assertEquals(1500, repository.getContentSize());
+        assertEquals(2000, repository.getReclaimedBytes());
+        // nothing is left behind once the content is deleted
+        for (File file : repository.getRepoRoot().listFiles()) {
+            assertTrue(file.getName(), file.isDirectory());
+        }
+    }
+
+    private static void expire(final ContentRepositoryImpl repository, final byte[] hash) {
+        repository.getDeploymentContentFile(hash).setLastModified(System.currentTimeMillis() - 2 * ContentRepositoryImpl.OBSOLETE_CONTENT_TIMEOUT);
+    }
+
+    private static int contentCount(final ContentRepositoryImpl repository) {
+        int count = 0;
+        for (File base : repository.getRepoRoot().listFiles()) {
+            final File[] hashDirs = base.listFiles();
+            if (hashDirs != null) {
+                for (File hashDir : hashDirs) {
+                    if (new File(hashDir, ContentRepositoryImpl.CONTENT).exists()) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private byte[] addFile(final ContentRepositoryImpl repository, final File file, final int skip) throws IOException {
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            in.skip(skip);
+            return repository.addContent(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private File write(final byte[] bytes) throws IOException {
+        final File file = new File(root, "file" + random.nextInt());
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < bytes.length) {
+                offset += in.read(bytes, offset, bytes.length - offset);
+            }
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+
+    private static byte[] sha1(final byte[] bytes) throws Exception {
+        return MessageDigest.getInstance("SHA-1").digest(bytes);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
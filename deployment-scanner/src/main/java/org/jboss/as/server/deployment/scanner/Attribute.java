@@ -40,6 +40,8 @@ enum Attribute {
     AUTO_DEPLOY_ZIPPED(CommonAttributes.AUTO_DEPLOY_ZIPPED),
     AUTO_DEPLOY_EXPLODED(CommonAttributes.AUTO_DEPLOY_EXPLODED),
     DEPLOYMENT_TIMEOUT(CommonAttributes.DEPLOYMENT_TIMEOUT),
+    WATCH_ENABLED(CommonAttributes.WATCH_ENABLED),
+    DEPLOYMENT_BATCH_SIZE(CommonAttributes.DEPLOYMENT_BATCH_SIZE),
     ;
 
     private final String name;
@@ -31,11 +31,13 @@ interface CommonAttributes {
     String AUTO_DEPLOY_EXPLODED = "auto-deploy-exploded";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
+    String DEPLOYMENT_BATCH_SIZE = "deployment-batch-size";
     String NAME = "name";
     String PATH = "path";
     String RELATIVE_TO = "relative-to";
     String SCANNER = "scanner";
     String SCAN_ENABLED = "scan-enabled";
     String SCAN_INTERVAL = "scan-interval";
+    String WATCH_ENABLED = "watch-enabled";
 
 }
@@ -62,6 +62,8 @@ class DeploymentScannerAdd extends AbstractAddStepHandler implements Description
         final Boolean autoDeployZip = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_ZIPPED) ? operation.get(CommonAttributes.AUTO_DEPLOY_ZIPPED).asBoolean() : true;
         final Boolean autoDeployExp = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_EXPLODED) ? operation.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).asBoolean() : false;
         final Long deploymentTimeout = operation.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT) ? operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asLong() : 60L;
+        final Boolean watchEnabled = operation.hasDefined(CommonAttributes.WATCH_ENABLED) ? operation.get(CommonAttributes.WATCH_ENABLED).asBoolean() : false;
+        final Integer deploymentBatchSize = operation.hasDefined(CommonAttributes.DEPLOYMENT_BATCH_SIZE) ? operation.get(CommonAttributes.DEPLOYMENT_BATCH_SIZE).asInt() : 0;
 
         model.get(CommonAttributes.NAME).set(name);
         model.get(CommonAttributes.PATH).set(path);
@@ -71,6 +73,8 @@ class DeploymentScannerAdd extends AbstractAddStepHandler implements Description
         if (autoDeployExp != null) model.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).set(autoDeployExp);
         if (relativeTo != null) model.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
         if (deploymentTimeout != null) model.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(deploymentTimeout);
+        if (watchEnabled != null) model.get(CommonAttributes.WATCH_ENABLED).set(watchEnabled);
+        if (deploymentBatchSize != null) model.get(CommonAttributes.DEPLOYMENT_BATCH_SIZE).set(deploymentBatchSize);
 
     }
 
@@ -84,10 +88,12 @@ class DeploymentScannerAdd extends AbstractAddStepHandler implements Description
         final Boolean autoDeployZip = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_ZIPPED) ? operation.get(CommonAttributes.AUTO_DEPLOY_ZIPPED).asBoolean() : true;
         final Boolean autoDeployExp = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_EXPLODED) ? operation.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).asBoolean() : false;
         final Long deploymentTimeout = operation.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT) ? operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asLong() : 60L;
+        final Boolean watchEnabled = operation.hasDefined(CommonAttributes.WATCH_ENABLED) ? operation.get(CommonAttributes.WATCH_ENABLED).asBoolean() : false;
+        final Integer deploymentBatchSize = operation.hasDefined(CommonAttributes.DEPLOYMENT_BATCH_SIZE) ? operation.get(CommonAttributes.DEPLOYMENT_BATCH_SIZE).asInt() : 0;
 
         final ServiceTarget serviceTarget = context.getServiceTarget();
         newControllers.add(DeploymentScannerService.addService(serviceTarget, name, relativeTo, path, interval, TimeUnit.MILLISECONDS,
-                autoDeployZip, autoDeployExp, enabled, deploymentTimeout, verificationHandler));
+                autoDeployZip, autoDeployExp, enabled, deploymentTimeout, watchEnabled, deploymentBatchSize, verificationHandler));
     }
 
     @Override
@@ -106,6 +106,8 @@ public class DeploymentScannerExtension implements Extension {
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_ZIPPED.getLocalName(), null, WriteAutoDeployZipAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_EXPLODED.getLocalName(), null, WriteAutoDeployExplodedAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), null, WriteDeploymentTimeoutAttributeHandler.INSTANCE, Storage.CONFIGURATION);
+        scanners.registerReadWriteAttribute(Attribute.WATCH_ENABLED.getLocalName(), null, WriteWatchEnabledAttributeHandler.INSTANCE, Storage.CONFIGURATION);
+        scanners.registerReadWriteAttribute(Attribute.DEPLOYMENT_BATCH_SIZE.getLocalName(), null, WriteDeploymentBatchSizeAttributeHandler.INSTANCE, Storage.CONFIGURATION);
     }
 
     /** {@inheritDoc} */
@@ -158,6 +160,17 @@ public class DeploymentScannerExtension implements Extension {
                     if (configuration.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT)) {
                         writer.writeAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), configuration.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asString());
                     }
+                    if (configuration.hasDefined(CommonAttributes.WATCH_ENABLED)) {
+                        if (configuration.get(CommonAttributes.WATCH_ENABLED).asBoolean()) {
+                            writer.writeAttribute(Attribute.WATCH_ENABLED.getLocalName(), Boolean.TRUE.toString());
+                        }
+                    }
+                    if (configuration.hasDefined(CommonAttributes.DEPLOYMENT_BATCH_SIZE)) {
+                        if (configuration.get(CommonAttributes.DEPLOYMENT_BATCH_SIZE).asInt() > 0) {
+                            writer.writeAttribute(Attribute.DEPLOYMENT_BATCH_SIZE.getLocalName(),
+                                    configuration.get(CommonAttributes.DEPLOYMENT_BATCH_SIZE).asString());
+                        }
+                    }
                 }
                 writer.writeEndElement();
             }
@@ -208,6 +221,8 @@ public class DeploymentScannerExtension implements Extension {
             Boolean autoDeployZipped = null;
             Boolean autoDeployExploded = null;
             Long deploymentTimeout = null;
+            Boolean watchEnabled = null;
+            Integer deploymentBatchSize = null;
             final int attrCount = reader.getAttributeCount();
             for (int i = 0; i < attrCount; i++) {
                 requireNoNamespaceAttribute(reader, i);
@@ -246,6 +261,14 @@ public class DeploymentScannerExtension implements Extension {
                         deploymentTimeout = Long.parseLong(value);
                         break;
                     }
+                    case WATCH_ENABLED: {
+                        watchEnabled = Boolean.parseBoolean(value);
+                        break;
+                    }
+                    case DEPLOYMENT_BATCH_SIZE: {
+                        deploymentBatchSize = Integer.parseInt(value);
+                        break;
+                    }
                     default:
                         throw ParseUtils.unexpectedAttribute(reader, i);
                 }
@@ -268,6 +291,8 @@ public class DeploymentScannerExtension implements Extension {
             if (enabled != null) operation.get(CommonAttributes.SCAN_ENABLED).set(enabled.booleanValue());
             if(relativeTo != null) operation.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
             if(deploymentTimeout != null) operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(deploymentTimeout);
+            if (watchEnabled != null) operation.get(CommonAttributes.WATCH_ENABLED).set(watchEnabled.booleanValue());
+            if (deploymentBatchSize != null) operation.get(CommonAttributes.DEPLOYMENT_BATCH_SIZE).set(deploymentBatchSize.intValue());
             list.add(operation);
         }
 
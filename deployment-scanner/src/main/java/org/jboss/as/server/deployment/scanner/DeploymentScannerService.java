@@ -24,9 +24,12 @@ package org.jboss.as.server.deployment.scanner;
 
 import java.io.File;
 import java.security.AccessController;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.ModelController;
@@ -63,6 +66,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private boolean autoDeployZipped;
     private boolean autoDeployExploded;
     private Long deploymentTimeout;
+    private boolean watchEnabled;
+    private Integer deploymentBatchSize;
     private final String relativeTo;
 
     /**
@@ -77,6 +82,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private final InjectedValue<ServerDeploymentRepository> deploymentRepositoryValue = new InjectedValue<ServerDeploymentRepository>();
     private final InjectedValue<ContentRepository> contentRepositoryValue = new InjectedValue<ContentRepository>();
     private final InjectedValue<ScheduledExecutorService> scheduledExecutorValue = new InjectedValue<ScheduledExecutorService>();
+    private final InjectedValue<ExecutorService> contentCheckExecutorValue = new InjectedValue<ExecutorService>();
 
     public static ServiceName getServiceName(String repositoryName) {
         return DeploymentScanner.BASE_SERVICE_NAME.append(repositoryName);
@@ -92,11 +98,13 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanInterval      the scan interval
      * @param scanEnabled       scan enabled
      * @param deploymentTimeout the deployment timeout
+     * @param watchEnabled      whether changes should be picked up from file change notifications
+     * @param deploymentBatchSize the maximum number of deployments executed in one operation
      * @return
      */
     public static ServiceController<?> addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
-                                  final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout, final ServiceListener<Object>... listeners) {
-        final DeploymentScannerService service = new DeploymentScannerService(relativeTo, scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout);
+                                  final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout, final Boolean watchEnabled, final Integer deploymentBatchSize, final ServiceListener<Object>... listeners) {
+        final DeploymentScannerService service = new DeploymentScannerService(relativeTo, scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout, watchEnabled, deploymentBatchSize);
         final ServiceName serviceName = getServiceName(name);
         final ServiceName pathService = serviceName.append("path");
         final ServiceName relativePathService = relativeTo != null ? RelativePathService.pathNameOf(relativeTo) : null;
@@ -108,6 +116,11 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         }
         final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("DeploymentScanner-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
         final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(2, threadFactory);
+        // checks auto-deploy content in parallel; the threads go away while the scanner is idle
+        final int contentCheckThreads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor contentCheckExecutor = new ThreadPoolExecutor(contentCheckThreads, contentCheckThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+        contentCheckExecutor.allowCoreThreadTimeOut(true);
 
         ServiceBuilder builder = serviceTarget.addService(serviceName, service)
                 .addDependency(pathService, String.class, service.pathValue)
@@ -115,7 +128,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 .addDependency(ServerDeploymentRepository.SERVICE_NAME, ServerDeploymentRepository.class, service.deploymentRepositoryValue)
                 .addDependency(ContentRepository.SERVICE_NAME, ContentRepository.class, service.contentRepositoryValue)
                 .addDependency(org.jboss.as.server.deployment.Services.JBOSS_DEPLOYMENT_CHAINS)
-                .addInjection(service.scheduledExecutorValue, scheduledExecutorService);
+                .addInjection(service.scheduledExecutorValue, scheduledExecutorService)
+                .addInjection(service.contentCheckExecutorValue, contentCheckExecutor);
         if (relativePathService != null) {
             builder.addDependency(relativePathService, String.class, service.relativePathValue);
         }
@@ -125,7 +139,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     }
 
     DeploymentScannerService(final String relativeTo, final Integer interval, final TimeUnit unit, final Boolean autoDeployZipped,
-                             final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout) {
+                             final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout, final Boolean watchEnabled,
+                             final Integer deploymentBatchSize) {
         this.relativeTo = relativeTo;
         this.interval = interval == null ? DEFAULT_INTERVAL : interval.longValue();
         this.unit = unit;
@@ -133,6 +148,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.autoDeployExploded = autoDeployExploded == null ? false : autoDeployExploded.booleanValue();
         this.enabled = enabled == null ? true : enabled.booleanValue();
         this.deploymentTimeout = deploymentTimeout;
+        this.watchEnabled = watchEnabled == null ? false : watchEnabled.booleanValue();
+        this.deploymentBatchSize = deploymentBatchSize;
     }
 
 
@@ -152,6 +169,11 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             if (deploymentTimeout != null) {
                 scanner.setDeploymentTimeout(deploymentTimeout);
             }
+            scanner.setWatchEnabled(watchEnabled);
+            if (deploymentBatchSize != null) {
+                scanner.setDeploymentBatchSize(deploymentBatchSize);
+            }
+            scanner.setContentCheckExecutor(contentCheckExecutorValue.getValue());
 
             if (enabled) {
                 scanner.startScanner();
@@ -171,6 +193,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.scanner = null;
         scanner.stopScanner();
         scheduledExecutorValue.getValue().shutdown();
+        contentCheckExecutorValue.getValue().shutdown();
     }
 
     /**
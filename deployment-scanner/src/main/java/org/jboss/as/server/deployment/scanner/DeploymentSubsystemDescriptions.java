@@ -136,6 +136,14 @@ public class DeploymentSubsystemDescriptions {
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        root.get(ATTRIBUTES, WATCH_ENABLED, TYPE).set(ModelType.BOOLEAN);
+        root.get(ATTRIBUTES, WATCH_ENABLED, DESCRIPTION).set(bundle.getString("scanner.watch.enabled"));
+        root.get(ATTRIBUTES, WATCH_ENABLED, REQUIRED).set(false);
+        root.get(ATTRIBUTES, WATCH_ENABLED, DEFAULT).set(false);
+        root.get(ATTRIBUTES, DEPLOYMENT_BATCH_SIZE, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, DEPLOYMENT_BATCH_SIZE, DESCRIPTION).set(bundle.getString("scanner.deployment.batch.size"));
+        root.get(ATTRIBUTES, DEPLOYMENT_BATCH_SIZE, REQUIRED).set(false);
+        root.get(ATTRIBUTES, DEPLOYMENT_BATCH_SIZE, DEFAULT).set(0);
 
         root.get(OPERATIONS);
 
@@ -177,6 +185,14 @@ public class DeploymentSubsystemDescriptions {
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        operation.get(REQUEST_PROPERTIES, WATCH_ENABLED, TYPE).set(ModelType.BOOLEAN);
+        operation.get(REQUEST_PROPERTIES, WATCH_ENABLED, DESCRIPTION).set(bundle.getString("scanner.watch.enabled"));
+        operation.get(REQUEST_PROPERTIES, WATCH_ENABLED, REQUIRED).set(false);
+        operation.get(REQUEST_PROPERTIES, WATCH_ENABLED, DEFAULT).set(false);
+        operation.get(REQUEST_PROPERTIES, DEPLOYMENT_BATCH_SIZE, TYPE).set(ModelType.INT);
+        operation.get(REQUEST_PROPERTIES, DEPLOYMENT_BATCH_SIZE, DESCRIPTION).set(bundle.getString("scanner.deployment.batch.size"));
+        operation.get(REQUEST_PROPERTIES, DEPLOYMENT_BATCH_SIZE, REQUIRED).set(false);
+        operation.get(REQUEST_PROPERTIES, DEPLOYMENT_BATCH_SIZE, DEFAULT).set(0);
 
         operation.get(REPLY_PROPERTIES).setEmptyObject();
 
@@ -0,0 +1,303 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.Closeable;
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Watches a deployment directory and its plain sub-directories for changes using the JDK 7
+ * {@code java.nio.file.WatchService}.
+ * <p/>
+ * The watch service is accessed reflectively in order to avoid adding a compile time dependency on JDK 7; on an
+ * older JDK {@link #create(File, Listener)} returns {@code null} and the scanner keeps polling. Events only tell
+ * the scanner that <em>something</em> changed, the scanner still works out what changed by scanning. An overflow
+ * of the event queue is therefore simply reported as a change, and once the watched root goes away the watcher
+ * becomes invalid and the scanner falls back to periodic scans.
+ */
+final class DirectoryChangeWatcher implements Closeable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.deployment");
+
+    /** Receives notification of changes, called on the watcher thread */
+    interface Listener {
+        void directoryChanged();
+    }
+
+    private static final Reflection REFLECTION = Reflection.load();
+
+    private final File root;
+    private final Listener listener;
+    private final Object watchService;
+    private final ConcurrentMap<File, Object> keysByDirectory = new ConcurrentHashMap<File, Object>();
+    private final ConcurrentMap<Object, File> directoriesByKey = new ConcurrentHashMap<Object, File>();
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    private final Thread thread;
+    private volatile boolean valid = true;
+
+    private DirectoryChangeWatcher(final File root, final Listener listener, final Object watchService) {
+        this.root = root;
+        this.listener = listener;
+        this.watchService = watchService;
+        this.thread = new Thread(new Runnable() {
+            public void run() {
+                processEvents();
+            }
+        }, "DeploymentScanner-watcher-" + root.getName());
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Creates a watcher for the given directory and starts its thread.
+     *
+     * @param root the directory to watch
+     * @param listener the listener to notify of changes
+     * @return the watcher, or {@code null} if file change notification is not available for the directory
+     */
+    static DirectoryChangeWatcher create(final File root, final Listener listener) {
+        if (REFLECTION == null) {
+            return null;
+        }
+        final Object watchService;
+        try {
+            watchService = REFLECTION.newWatchService();
+        } catch (Exception e) {
+            log.debugf(e, "Cannot create a watch service for %s", root);
+            return null;
+        }
+        final DirectoryChangeWatcher watcher = new DirectoryChangeWatcher(root, listener, watchService);
+        if (!watcher.register(root)) {
+            watcher.close();
+            return null;
+        }
+        watcher.thread.start();
+        return watcher;
+    }
+
+    /**
+     * Starts watching the given directory, if it is not already watched. The scanner calls this for every directory
+     * it descends into, directories created later are picked up on the scan triggered by their creation.
+     *
+     * @param directory the directory
+     * @return {@code true} if the directory is watched
+     */
+    boolean register(final File directory) {
+        if (!valid) {
+            return false;
+        }
+        if (keysByDirectory.containsKey(directory)) {
+            return true;
+        }
+        try {
+            final Object key = REFLECTION.register(directory, watchService);
+            keysByDirectory.put(directory, key);
+            directoriesByKey.put(key, directory);
+            return true;
+        } catch (Exception e) {
+            log.debugf(e, "Cannot watch %s for changes", directory);
+            return false;
+        }
+    }
+
+    /**
+     * Gets whether the watcher still reliably reports changes of the root directory.
+     *
+     * @return {@code true} if the watcher is valid
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Gets and clears the changed flag.
+     *
+     * @return {@code true} if a change was seen since the last call, or the watcher is no longer valid
+     */
+    boolean consumeChanges() {
+        return changed.getAndSet(false) || !valid;
+    }
+
+    public void close() {
+        valid = false;
+        try {
+            REFLECTION.close(watchService);
+        } catch (Exception e) {
+            log.debugf(e, "Failed closing watch service for %s", root);
+        }
+        keysByDirectory.clear();
+        directoriesByKey.clear();
+    }
+
+    private void processEvents() {
+        try {
+            while (valid) {
+                final Object key = REFLECTION.take(watchService);
+                final File directory = directoriesByKey.get(key);
+                boolean relevant = false;
+                for (Object event : REFLECTION.pollEvents(key)) {
+                    final Object kind = REFLECTION.kind(event);
+                    if (kind == REFLECTION.overflow) {
+                        log.debugf("Change notifications for %s overflowed, falling back to a full scan", root);
+                        relevant = true;
+                    } else if (!isTransientMarker(String.valueOf(REFLECTION.context(event)))) {
+                        relevant = true;
+                    }
+                }
+                if (!REFLECTION.reset(key)) {
+                    // the directory is gone or can no longer be watched
+                    directoriesByKey.remove(key);
+                    if (directory != null) {
+                        keysByDirectory.remove(directory);
+                    }
+                    if (root.equals(directory)) {
+                        log.debugf("No longer watching %s for changes, falling back to periodic scans", root);
+                        close();
+                    }
+                    relevant = true;
+                }
+                if (relevant) {
+                    changed.set(true);
+                    listener.directoryChanged();
+                }
+            }
+        } catch (InterruptedException e) {
+            // closing
+        } catch (Exception e) {
+            if (valid) {
+                log.debugf(e, "Watching %s for changes failed, falling back to periodic scans", root);
+                close();
+                listener.directoryChanged();
+            }
+        }
+    }
+
+    /** Markers the scanner puts down and removes itself while a scan is in progress */
+    private static boolean isTransientMarker(final String fileName) {
+        return fileName.endsWith(FileSystemDeploymentService.DEPLOYING)
+                || fileName.endsWith(FileSystemDeploymentService.UNDEPLOYING)
+                || fileName.endsWith(FileSystemDeploymentService.PENDING);
+    }
+
+    private static final class Reflection {
+        private final Method getDefault;
+        private final Method newWatchService;
+        private final Method toPath;
+        private final Method register;
+        private final Object kinds;
+        private final Object overflow;
+        private final Method take;
+        private final Method close;
+        private final Method pollEvents;
+        private final Method reset;
+        private final Method kind;
+        private final Method context;
+
+        private Reflection() throws Exception {
+            final Class<?> fileSystems = Class.forName("java.nio.file.FileSystems");
+            final Class<?> fileSystem = Class.forName("java.nio.file.FileSystem");
+            final Class<?> watchService = Class.forName("java.nio.file.WatchService");
+            final Class<?> path = Class.forName("java.nio.file.Path");
+            final Class<?> kindClass = Class.forName("java.nio.file.WatchEvent$Kind");
+            final Class<?> standardKinds = Class.forName("java.nio.file.StandardWatchEventKinds");
+            final Class<?> watchKey = Class.forName("java.nio.file.WatchKey");
+            final Class<?> watchEvent = Class.forName("java.nio.file.WatchEvent");
+
+            getDefault = fileSystems.getMethod("getDefault");
+            newWatchService = fileSystem.getMethod("newWatchService");
+            toPath = File.class.getMethod("toPath");
+            kinds = Array.newInstance(kindClass, 3);
+            Array.set(kinds, 0, standardKinds.getField("ENTRY_CREATE").get(null));
+            Array.set(kinds, 1, standardKinds.getField("ENTRY_DELETE").get(null));
+            Array.set(kinds, 2, standardKinds.getField("ENTRY_MODIFY").get(null));
+            overflow = standardKinds.getField("OVERFLOW").get(null);
+            register = path.getMethod("register", watchService, kinds.getClass());
+            take = watchService.getMethod("take");
+            close = watchService.getMethod("close");
+            pollEvents = watchKey.getMethod("pollEvents");
+            reset = watchKey.getMethod("reset");
+            kind = watchEvent.getMethod("kind");
+            context = watchEvent.getMethod("context");
+        }
+
+        static Reflection load() {
+            try {
+                return new Reflection();
+            } catch (Exception e) {
+                log.debugf("File change notification is not available, deployment scanners will poll: %s", e);
+                return null;
+            }
+        }
+
+        Object newWatchService() throws Exception {
+            return invoke(newWatchService, invoke(getDefault, null));
+        }
+
+        Object register(final File directory, final Object watchService) throws Exception {
+            return invoke(register, invoke(toPath, directory), watchService, kinds);
+        }
+
+        Object take(final Object watchService) throws Exception {
+            return invoke(take, watchService);
+        }
+
+        void close(final Object watchService) throws Exception {
+            invoke(close, watchService);
+        }
+
+        List<?> pollEvents(final Object key) throws Exception {
+            return (List<?>) invoke(pollEvents, key);
+        }
+
+        boolean reset(final Object key) throws Exception {
+            return (Boolean) invoke(reset, key);
+        }
+
+        Object kind(final Object event) throws Exception {
+            return invoke(kind, event);
+        }
+
+        Object context(final Object event) throws Exception {
+            return invoke(context, event);
+        }
+
+        private static Object invoke(final Method method, final Object target, final Object... args) throws Exception {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -53,7 +53,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -110,11 +113,17 @@ class FileSystemDeploymentService implements DeploymentScanner {
     /** Default timeout for deployments to execute in seconds*/
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 60;
 
+    /** Period, in ms, without change notifications after which a notified change is scanned, so content still being copied settles first */
+    static final long WATCH_QUIET_PERIOD = 500;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
     private ScheduledFuture<?> scanTask;
     private ScheduledFuture<?> rescanIncompleteTask;
+    private ScheduledFuture<?> watchScanTask;
+    private volatile boolean watchEnabled;
+    private volatile DirectoryChangeWatcher watcher;
     private final Lock scanLock = new ReentrantLock();
 
     private final Map<String, DeploymentMarker> deployed = new HashMap<String, DeploymentMarker>();
@@ -137,6 +146,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
 
+    private volatile int deploymentBatchSize;
+    private volatile ExecutorService contentCheckExecutor;
+
     private final String relativeTo;
     private final String relativePath;
 
@@ -151,6 +163,32 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     };
 
+    private final Runnable watchScanRunnable = new Runnable() {
+        @Override
+        public void run() {
+            // Don't tie up an executor thread waiting for a scan in progress, as that
+            // scan may need the other thread to execute its deployment operation
+            if (scanLock.tryLock()) {
+                try {
+                    scan();
+                } catch (Exception e) {
+                    log.errorf(e, "Scan of %s threw Exception", deploymentDir.getAbsolutePath());
+                } finally {
+                    scanLock.unlock();
+                }
+            } else {
+                scheduleWatchScan();
+            }
+        }
+    };
+
+    private final DirectoryChangeWatcher.Listener watchListener = new DirectoryChangeWatcher.Listener() {
+        @Override
+        public void directoryChanged() {
+            scheduleWatchScan();
+        }
+    };
+
     FileSystemDeploymentService(final String relativeTo, final File deploymentDir, final File relativeToDir, final ModelControllerClient controllerClient, final ScheduledExecutorService scheduledExecutor,
             final ServerDeploymentRepository deploymentRepository, final ContentRepository contentRepository) throws OperationFailedException {
         assert contentRepository != null : "content repository is null";
@@ -248,6 +286,38 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.deploymentTimeout = deploymentTimeout;
     }
 
+    @Override
+    public int getDeploymentBatchSize() {
+        return deploymentBatchSize;
+    }
+
+    @Override
+    public void setDeploymentBatchSize(int deploymentBatchSize) {
+        this.deploymentBatchSize = deploymentBatchSize;
+    }
+
+    /**
+     * Sets the executor used to check auto-deployable content in parallel. Without one, content is checked by
+     * the scanning thread.
+     */
+    void setContentCheckExecutor(ExecutorService contentCheckExecutor) {
+        this.contentCheckExecutor = contentCheckExecutor;
+    }
+
+    @Override
+    public boolean isWatchEnabled() {
+        return watchEnabled;
+    }
+
+    @Override
+    public synchronized void setWatchEnabled(boolean watchEnabled) {
+        if (watchEnabled != this.watchEnabled) {
+            this.watchEnabled = watchEnabled;
+            cancelScan();
+            startScan();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -319,10 +389,21 @@ class FileSystemDeploymentService implements DeploymentScanner {
         boolean scheduleRescan = false;
         try {
             if (scanEnabled) { // confirm the scan is still wanted
+                final DirectoryChangeWatcher watcher = this.watcher;
+                if (watcher != null && !watcher.consumeChanges() && incompleteDeployments.isEmpty()
+                        && nonscannableLogged.isEmpty() && !autoDeployExploded) {
+                    // Nothing was notified, and nothing is waiting for content to change without notification
+                    // (exploded content is not watched below its root)
+                    log.tracef("No changes notified for directory %s since the last scan", deploymentDir.getAbsolutePath());
+                    return;
+                }
                 log.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
 
                 ScanContext scanContext = new ScanContext();
                 scanDirectory(deploymentDir, relativePath, scanContext);
+                if (!checkAutoDeployCandidates(scanContext)) {
+                    return;
+                }
 
                 // WARN about markers with no associated content. Do this first in case any auto-deploy issue
                 // is due to a file that wasn't meant to be auto-deployed, but has a misspelled marker
@@ -389,68 +470,13 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     scannerTasks.add(new UndeployTask(missing, parent, scanContext.scanStartTime));
                 }
 
-                // Process the tasks
-                if (scannerTasks.size() > 0) {
-                    List<ModelNode> updates = new ArrayList<ModelNode>(scannerTasks.size());
-
-                    for (ScannerTask task : scannerTasks) {
-                        task.recordInProgress(); // puts down .isdeploying, .isundeploying
-                        final ModelNode update = task.getUpdate();
-                        if (log.isDebugEnabled()) {
-                            log.debugf("Deployment scan of [%s] found update action [%s]", deploymentDir, update);
-                        }
-                        updates.add(update);
-                    }
-
-                    while (!updates.isEmpty()) {
-                        ModelNode composite = getCompositeUpdate(updates);
-
-                        final DeploymentTask deploymentTask = new DeploymentTask(new OperationBuilder(composite).build());
-                        final Future<ModelNode> futureResults = scheduledExecutor.submit(deploymentTask);
-                        final ModelNode results;
-                        try {
-                            results = futureResults.get(deploymentTimeout, TimeUnit.SECONDS);
-                        } catch (TimeoutException e) {
-                            futureResults.cancel(true);
-                            final ModelNode failure = new ModelNode();
-                            failure.get(OUTCOME).set(FAILED);
-                            failure.get(FAILURE_DESCRIPTION).set("Did not receive a response to the deployment operation within " +
-                                    "the allowed timeout period [" + deploymentTimeout + " seconds]. Check the server configuration" +
-                                    "file and the server logs to find more about the status of the deployment.");
-                            for (ScannerTask task : scannerTasks) {
-                                task.handleFailureResult(failure);
-                            }
-                            break;
-                        } catch (Exception e) {
-                            log.error("File system deployment service failed", e);
-                            futureResults.cancel(true);
-                            final ModelNode failure = new ModelNode();
-                            failure.get(OUTCOME).set(FAILED);
-                            failure.get(FAILURE_DESCRIPTION).set(e.getMessage());
-                            for (ScannerTask task : scannerTasks) {
-                                task.handleFailureResult(failure);
-                            }
-                            break;
-                        }
-
-                        final List<Property> resultList = results.get(RESULT).asPropertyList();
-                        final List<ModelNode> toRetry = new ArrayList<ModelNode>();
-                        final List<ScannerTask> retryTasks = new ArrayList<ScannerTask>();
-                        for (int i = 0; i < resultList.size(); i++) {
-                            final ModelNode result = resultList.get(i).getValue();
-                            final ScannerTask task = scannerTasks.get(i);
-                            final ModelNode outcome = result.get(OUTCOME);
-                            if (outcome.isDefined() && SUCCESS.equals(outcome.asString())) {
-                                task.handleSuccessResult();
-                            } else if (outcome.isDefined() && CANCELLED.equals(outcome.asString())) {
-                                toRetry.add(updates.get(i));
-                                retryTasks.add(task);
-                            } else {
-                                task.handleFailureResult(result);
-                            }
-                        }
-                        updates = toRetry;
-                        scannerTasks = retryTasks;
+                // Process the tasks in sequential batches of at most deploymentBatchSize
+                final int batchSize = deploymentBatchSize > 0 ? deploymentBatchSize : scannerTasks.size();
+                for (int i = 0; i < scannerTasks.size(); i += batchSize) {
+                    final List<ScannerTask> batch = scannerTasks.subList(i, Math.min(i + batchSize, scannerTasks.size()));
+                    if (!executeScannerTasks(new ArrayList<ScannerTask>(batch))) {
+                        // the remaining content is picked up again by the next scan
+                        break;
                     }
                 }
                 log.tracef("Scan complete");
@@ -469,6 +495,79 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    /**
+     * Executes the updates of the given tasks in a single composite operation, retrying the steps
+     * that were cancelled because another step failed.
+     *
+     * @return {@code false} if the operation did not complete and no further updates should be attempted
+     */
+    private boolean executeScannerTasks(List<ScannerTask> scannerTasks) {
+        if (scannerTasks.size() > 0) {
+            List<ModelNode> updates = new ArrayList<ModelNode>(scannerTasks.size());
+
+            for (ScannerTask task : scannerTasks) {
+                task.recordInProgress(); // puts down .isdeploying, .isundeploying
+                final ModelNode update = task.getUpdate();
+                if (log.isDebugEnabled()) {
+                    log.debugf("Deployment scan of [%s] found update action [%s]", deploymentDir, update);
+                }
+                updates.add(update);
+            }
+
+            while (!updates.isEmpty()) {
+                ModelNode composite = getCompositeUpdate(updates);
+
+                final DeploymentTask deploymentTask = new DeploymentTask(new OperationBuilder(composite).build());
+                final Future<ModelNode> futureResults = scheduledExecutor.submit(deploymentTask);
+                final ModelNode results;
+                try {
+                    results = futureResults.get(deploymentTimeout, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    futureResults.cancel(true);
+                    final ModelNode failure = new ModelNode();
+                    failure.get(OUTCOME).set(FAILED);
+                    failure.get(FAILURE_DESCRIPTION).set("Did not receive a response to the deployment operation within " +
+                            "the allowed timeout period [" + deploymentTimeout + " seconds]. Check the server configuration" +
+                            "file and the server logs to find more about the status of the deployment.");
+                    for (ScannerTask task : scannerTasks) {
+                        task.handleFailureResult(failure);
+                    }
+                    return false;
+                } catch (Exception e) {
+                    log.error("File system deployment service failed", e);
+                    futureResults.cancel(true);
+                    final ModelNode failure = new ModelNode();
+                    failure.get(OUTCOME).set(FAILED);
+                    failure.get(FAILURE_DESCRIPTION).set(e.getMessage());
+                    for (ScannerTask task : scannerTasks) {
+                        task.handleFailureResult(failure);
+                    }
+                    return false;
+                }
+
+                final List<Property> resultList = results.get(RESULT).asPropertyList();
+                final List<ModelNode> toRetry = new ArrayList<ModelNode>();
+                final List<ScannerTask> retryTasks = new ArrayList<ScannerTask>();
+                for (int i = 0; i < resultList.size(); i++) {
+                    final ModelNode result = resultList.get(i).getValue();
+                    final ScannerTask task = scannerTasks.get(i);
+                    final ModelNode outcome = result.get(OUTCOME);
+                    if (outcome.isDefined() && SUCCESS.equals(outcome.asString())) {
+                        task.handleSuccessResult();
+                    } else if (outcome.isDefined() && CANCELLED.equals(outcome.asString())) {
+                        toRetry.add(updates.get(i));
+                        retryTasks.add(task);
+                    } else {
+                        task.handleFailureResult(result);
+                    }
+                }
+                updates = toRetry;
+                scannerTasks = retryTasks;
+            }
+        }
+        return true;
+    }
+
     /**
      * Scan the given directory for content changes.
      *
@@ -476,6 +575,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
      * @param scanContext context of the scan
      */
     private void scanDirectory(final File directory, final String relativePath, final ScanContext scanContext) {
+        final DirectoryChangeWatcher watcher = this.watcher;
+        if (watcher != null) {
+            // register before listing, so nothing changed after the listing goes unnoticed
+            watcher.register(directory);
+        }
         final File[] children = directory.listFiles(filter);
         if (children == null) {
             return;
@@ -533,32 +637,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 boolean autoDeployable = child.isDirectory() ? autoDeployExploded : autoDeployZip;
                 if (autoDeployable) {
                     if (!isAutoDeployDisabled(child)) {
-                        long timestamp = getDeploymentTimestamp(child);
-                        final File failedMarker = new File(directory, fileName + FAILED_DEPLOY);
-                        if(failedMarker.exists() && timestamp <= failedMarker.lastModified()) {
-                            continue;
-                        }
-                        final File undeployedMarker = new File(directory, fileName + UNDEPLOYED);
-                        if(undeployedMarker.exists()  && timestamp <= undeployedMarker.lastModified()) {
-                            continue;
-                        }
-
-                        DeploymentMarker marker = deployed.get(fileName);
-                        if (marker == null || marker.lastModified != timestamp) {
-                            try {
-                                if (isZipComplete(child)) {
-                                    final String path =  relativeTo == null ? child.getAbsolutePath() : relativePath + fileName;
-                                    final boolean archive = child.isFile();
-                                    addContentAddingTask(path, archive, fileName, child, timestamp, scanContext);
-                                }
-                                else {
-                                    scanContext.incompleteFiles.put(child, new IncompleteDeploymentStatus(child, timestamp));
-                                }
-                            } catch (NonScannableZipException e) {
-                                // Track for possible logging in scan()
-                                scanContext.nonscannable.put(child, new NonScannableStatus(e, timestamp));
-                            }
-                        }
+                        // Checking the content can take a while, so it is done for all candidates
+                        // together once the directory tree has been scanned
+                        scanContext.autoDeployCandidates.add(new AutoDeployCandidate(child, relativePath, deployed.get(fileName),
+                                scanContext.scannerTasks.size()));
                     }
                 }
                 else if (!deployed.containsKey(fileName)
@@ -594,13 +676,89 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private long addContentAddingTask(final String path, final boolean archive, final String deploymentName, final File deploymentFile, final long timestamp,
             final ScanContext scanContext) {
+        scanContext.scannerTasks.add(createContentAddingTask(path, archive, deploymentName, deploymentFile, timestamp, scanContext));
+        scanContext.toRemove.remove(deploymentName);
+        return timestamp;
+    }
+
+    private ContentAddingTask createContentAddingTask(final String path, final boolean archive, final String deploymentName,
+            final File deploymentFile, final long timestamp, final ScanContext scanContext) {
         if (scanContext.registeredDeployments.contains(deploymentName)) {
-            scanContext.scannerTasks.add(new ReplaceTask(path, archive, deploymentName, deploymentFile, timestamp));
+            return new ReplaceTask(path, archive, deploymentName, deploymentFile, timestamp);
         } else {
-            scanContext.scannerTasks.add(new DeployTask(path, archive, deploymentName, deploymentFile, timestamp));
+            return new DeployTask(path, archive, deploymentName, deploymentFile, timestamp);
         }
-        scanContext.toRemove.remove(deploymentName);
-        return timestamp;
+    }
+
+    /**
+     * Checks the auto-deploy content found by the scan, in parallel if a content check executor is set, and adds a
+     * task for each changed and complete deployment at the position the content was found at.
+     *
+     * @return {@code false} if the scanning thread was interrupted while waiting for the checks
+     */
+    private boolean checkAutoDeployCandidates(final ScanContext scanContext) {
+        final List<AutoDeployCandidate> candidates = scanContext.autoDeployCandidates;
+        final ExecutorService executor = contentCheckExecutor;
+        if (executor != null && candidates.size() > 1) {
+            final List<Future<?>> futures = new ArrayList<Future<?>>(candidates.size());
+            for (AutoDeployCandidate candidate : candidates) {
+                try {
+                    futures.add(executor.submit(candidate));
+                } catch (RejectedExecutionException e) {
+                    candidate.run();
+                }
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        } else {
+            for (AutoDeployCandidate candidate : candidates) {
+                candidate.run();
+            }
+        }
+
+        // Go backwards so the recorded task positions of the earlier candidates remain valid
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            final AutoDeployCandidate candidate = candidates.get(i);
+            final File child = candidate.file;
+            final String fileName = child.getName();
+            switch (candidate.status) {
+                case COMPLETE: {
+                    final String path =  relativeTo == null ? child.getAbsolutePath() : candidate.relativePath + fileName;
+                    final boolean archive = child.isFile();
+                    scanContext.scannerTasks.add(candidate.taskIndex,
+                            createContentAddingTask(path, archive, fileName, child, candidate.timestamp, scanContext));
+                    scanContext.toRemove.remove(fileName);
+                    break;
+                }
+                case INCOMPLETE: {
+                    scanContext.incompleteFiles.put(child, new IncompleteDeploymentStatus(child, candidate.timestamp));
+                    break;
+                }
+                case NON_SCANNABLE: {
+                    // Track for possible logging in scan()
+                    scanContext.nonscannable.put(child, new NonScannableStatus(candidate.exception, candidate.timestamp));
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+        return true;
     }
 
     private boolean isZipComplete(File file) throws NonScannableZipException {
@@ -777,6 +935,13 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private synchronized void startScan() {
         if (scanEnabled) {
+            if (watchEnabled && watcher == null) {
+                watcher = DirectoryChangeWatcher.create(deploymentDir, watchListener);
+                if (watcher == null) {
+                    log.warnf("Change notification is not available for directory %s, it will be scanned periodically",
+                            deploymentDir.getAbsolutePath());
+                }
+            }
             if (scanInterval > 0) {
                 scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
             } else {
@@ -797,6 +962,27 @@ class FileSystemDeploymentService implements DeploymentScanner {
             scanTask.cancel(false);
             scanTask = null;
         }
+        if (watchScanTask != null) {
+            watchScanTask.cancel(false);
+            watchScanTask = null;
+        }
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Schedules a scan once no change was notified for {@link #WATCH_QUIET_PERIOD}, pushing back an already
+     * scheduled one. This keeps content that is still being copied from being scanned on every write.
+     */
+    private synchronized void scheduleWatchScan() {
+        if (scanEnabled && watcher != null) {
+            if (watchScanTask != null) {
+                watchScanTask.cancel(false);
+            }
+            watchScanTask = scheduledExecutor.schedule(watchScanRunnable, WATCH_QUIET_PERIOD, TimeUnit.MILLISECONDS);
+        }
     }
 
     private Set<String> getDeploymentNames() throws CancellationException {
@@ -1151,6 +1337,57 @@ class FileSystemDeploymentService implements DeploymentScanner {
         private final Map<File, NonScannableStatus> nonscannable = new HashMap<File, NonScannableStatus>();
         /** Timestamp when the scan started */
         private final long scanStartTime = System.currentTimeMillis();
+        /** Auto-deployable content whose status still needs to be checked */
+        private final List<AutoDeployCandidate> autoDeployCandidates = new ArrayList<AutoDeployCandidate>();
+    }
+
+    private enum AutoDeployStatus {
+        UNCHANGED, COMPLETE, INCOMPLETE, NON_SCANNABLE
+    }
+
+    /**
+     * Checks whether auto-deployable content has changed and is completely copied. Only reads the file system,
+     * so candidates can be checked concurrently.
+     */
+    private final class AutoDeployCandidate implements Runnable {
+        private final File file;
+        private final String relativePath;
+        private final DeploymentMarker marker;
+        /** Position in the scan's task list where a task for this content goes */
+        private final int taskIndex;
+        private long timestamp;
+        private AutoDeployStatus status = AutoDeployStatus.UNCHANGED;
+        private NonScannableZipException exception;
+
+        private AutoDeployCandidate(final File file, final String relativePath, final DeploymentMarker marker, final int taskIndex) {
+            this.file = file;
+            this.relativePath = relativePath;
+            this.marker = marker;
+            this.taskIndex = taskIndex;
+        }
+
+        @Override
+        public void run() {
+            final File directory = file.getParentFile();
+            final String fileName = file.getName();
+            timestamp = getDeploymentTimestamp(file);
+            final File failedMarker = new File(directory, fileName + FAILED_DEPLOY);
+            if(failedMarker.exists() && timestamp <= failedMarker.lastModified()) {
+                return;
+            }
+            final File undeployedMarker = new File(directory, fileName + UNDEPLOYED);
+            if(undeployedMarker.exists()  && timestamp <= undeployedMarker.lastModified()) {
+                return;
+            }
+            if (marker == null || marker.lastModified != timestamp) {
+                try {
+                    status = isZipComplete(file) ? AutoDeployStatus.COMPLETE : AutoDeployStatus.INCOMPLETE;
+                } catch (NonScannableZipException e) {
+                    exception = e;
+                    status = AutoDeployStatus.NON_SCANNABLE;
+                }
+            }
+        }
     }
 
     private static class IncompleteDeploymentStatus {
@@ -106,4 +106,36 @@ public interface DeploymentScanner {
      * @param timeout The deployment timeout
      */
     void setDeploymentTimeout(long timeout);
+
+    /**
+     * Gets the maximum number of deployments the scanner executes in a single management operation.
+     *
+     * @return the maximum number of deployments, or a value less than 1 if there is no limit
+     */
+    int getDeploymentBatchSize();
+
+    /**
+     * Sets the maximum number of deployments the scanner executes in a single management operation. If a scan
+     * finds more changes, they are executed in successive operations, one after the other. The batches are never
+     * executed concurrently, the limit only bounds how much a single failure rolls back.
+     *
+     * @param deploymentBatchSize the maximum number of deployments, or a value less than 1 for no limit
+     */
+    void setDeploymentBatchSize(int deploymentBatchSize);
+
+    /**
+     * Gets whether the scanner relies on file system change notifications, where available, to
+     * learn about changes instead of scanning the whole directory on every scan interval.
+     *
+     * @return true if change notification is enabled
+     */
+    boolean isWatchEnabled();
+
+    /**
+     * Sets whether the scanner relies on file system change notifications, where available, to
+     * learn about changes instead of scanning the whole directory on every scan interval.
+     *
+     * @param watchEnabled true if change notification should be enabled
+     */
+    void setWatchEnabled(boolean watchEnabled);
 }
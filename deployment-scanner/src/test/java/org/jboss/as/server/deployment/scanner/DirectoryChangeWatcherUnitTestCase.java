@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DirectoryChangeWatcher}. Tests pass trivially if the JVM offers no file change notification.
+ */
+public class DirectoryChangeWatcherUnitTestCase {
+
+    private static AutoDeployTestSupport testSupport;
+    private static int count;
+
+    private File dir;
+    private final Semaphore notifications = new Semaphore(0);
+    private DirectoryChangeWatcher watcher;
+
+    @BeforeClass
+    public static void setupClass() {
+        testSupport = new AutoDeployTestSupport(DirectoryChangeWatcherUnitTestCase.class.getSimpleName());
+    }
+
+    @AfterClass
+    public static void teardownClass() {
+        if (testSupport != null) {
+            testSupport.cleanupFiles();
+        }
+    }
+
+    @Before
+    public void setup() throws Exception {
+        dir = new File(testSupport.getTempDir(), "watched" + count++);
+        assertTrue(dir.mkdirs());
+        watcher = DirectoryChangeWatcher.create(dir, new DirectoryChangeWatcher.Listener() {
+            @Override
+            public void directoryChanged() {
+                notifications.release();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+        testSupport.cleanupChannels();
+    }
+
+    @Test
+    public void testInitialScanRequired() {
+        if (watcher == null) {
+            return;
+        }
+        assertTrue(watcher.isValid());
+        assertTrue(watcher.consumeChanges());
+        assertFalse(watcher.consumeChanges());
+    }
+
+    @Test
+    public void testFileCreation() throws Exception {
+        if (watcher == null) {
+            return;
+        }
+        watcher.consumeChanges();
+        assertTrue(new File(dir, "foo.war").createNewFile());
+        assertTrue(notifications.tryAcquire(30, TimeUnit.SECONDS));
+        assertTrue(watcher.consumeChanges());
+    }
+
+    @Test
+    public void testNestedDirectory() throws Exception {
+        if (watcher == null) {
+            return;
+        }
+        File nested = new File(dir, "nested");
+        assertTrue(nested.mkdir());
+        assertTrue(notifications.tryAcquire(30, TimeUnit.SECONDS));
+        assertTrue(watcher.register(nested));
+        watcher.consumeChanges();
+        notifications.drainPermits();
+
+        assertTrue(new File(nested, "foo.war" + FileSystemDeploymentService.DO_DEPLOY).createNewFile());
+        assertTrue(notifications.tryAcquire(30, TimeUnit.SECONDS));
+        assertTrue(watcher.consumeChanges());
+    }
+
+    @Test
+    public void testTransientMarkersIgnored() throws Exception {
+        if (watcher == null) {
+            return;
+        }
+        watcher.consumeChanges();
+        assertTrue(new File(dir, "foo.war" + FileSystemDeploymentService.DEPLOYING).createNewFile());
+        assertTrue(new File(dir, "foo.war" + FileSystemDeploymentService.PENDING).createNewFile());
+        assertFalse(notifications.tryAcquire(2, TimeUnit.SECONDS));
+        assertFalse(watcher.consumeChanges());
+
+        assertTrue(new File(dir, "foo.war" + FileSystemDeploymentService.DEPLOYED).createNewFile());
+        assertTrue(notifications.tryAcquire(30, TimeUnit.SECONDS));
+        assertTrue(watcher.consumeChanges());
+    }
+
+    @Test
+    public void testClose() {
+        if (watcher == null) {
+            return;
+        }
+        watcher.consumeChanges();
+        watcher.close();
+        assertFalse(watcher.isValid());
+        assertTrue(watcher.consumeChanges());
+        assertFalse(watcher.register(dir));
+    }
+}
@@ -41,6 +41,8 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -53,6 +55,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.ResultStreamHandler;
 import org.jboss.as.server.deployment.repository.api.ContentRepository;
 import org.jboss.as.server.deployment.repository.api.ServerDeploymentRepository;
 import org.jboss.dmr.ModelNode;
@@ -984,6 +987,68 @@ public class FileSystemDeploymentServiceUnitTestCase {
 
     }
 
+    /**
+     * Tests auto-deploy content checked on a content check executor
+     */
+    @Test
+    public void testParallelAutoDeployCheck() throws Exception {
+
+        File incomplete = new File(tmpDir, "foo.war");
+        File pending = new File(tmpDir, "foo.war" + FileSystemDeploymentService.PENDING);
+        testSupport.createZip(incomplete, 0, false, true, true, false);
+        File[] complete = new File[4];
+        for (int i = 0; i < complete.length; i++) {
+            complete[i] = new File(tmpDir, "complete" + i + ".jar");
+            testSupport.createZip(complete[i], 0, false, false, true, false);
+        }
+
+        ExecutorService contentCheckExecutor = Executors.newFixedThreadPool(2);
+        try {
+            TesteeSet ts = createTestee();
+            ts.testee.setAutoDeployZippedContent(true);
+            ts.testee.setContentCheckExecutor(contentCheckExecutor);
+
+            ts.testee.scan();
+            assertTrue(pending.exists());
+
+            incomplete.delete();
+            testSupport.createZip(incomplete, 0, false, false, false, false);
+
+            ts.controller.addCompositeSuccessResponse(5);
+            ts.testee.scan();
+
+            assertTrue(new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED).exists());
+            assertFalse(pending.exists());
+            for (File file : complete) {
+                assertTrue(new File(tmpDir, file.getName() + FileSystemDeploymentService.DEPLOYED).exists());
+            }
+        } finally {
+            contentCheckExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a scan executes no more than the configured number of deployments in one operation
+     */
+    @Test
+    public void testDeploymentBatchSize() throws Exception {
+        File[] deployed = new File[3];
+        for (int i = 0; i < deployed.length; i++) {
+            createFile("foo" + i + ".war");
+            createFile("foo" + i + ".war" + FileSystemDeploymentService.DO_DEPLOY);
+            deployed[i] = new File(tmpDir, "foo" + i + ".war" + FileSystemDeploymentService.DEPLOYED);
+        }
+        TesteeSet ts = createTestee();
+        ts.testee.setDeploymentBatchSize(2);
+        ts.controller.addCompositeSuccessResponse(2);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        for (File marker : deployed) {
+            assertTrue(marker.exists());
+        }
+        assertTrue(ts.controller.responses.isEmpty());
+    }
+
     /**
      * Tests that an incomplete deployment that makes no progress gets a .failed marker
      */
@@ -1425,6 +1490,28 @@ public class FileSystemDeploymentServiceUnitTestCase {
             throw new RuntimeException("NYI: org.jboss.as.server.deployment.scanner.FileSystemDeploymentServiceUnitTestCase.MockDeploymentRepository.removeContent");
         }
 
+        @Override
+        public void addContentReference(byte[] hash) {
+        }
+
+        @Override
+        public void removeContentReference(byte[] hash) {
+        }
+
+        @Override
+        public void cleanObsoleteContent() {
+        }
+
+        @Override
+        public long getContentSize() {
+            return 0;
+        }
+
+        @Override
+        public long getReclaimedBytes() {
+            return 0;
+        }
+
         /** {@inheritDoc} */
         @Override
         public Closeable mountDeploymentContent(VirtualFile contents, VirtualFile mountPoint, boolean mountExploded) throws IOException {
@@ -1466,6 +1553,16 @@ public class FileSystemDeploymentServiceUnitTestCase {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public ModelNode executeStreaming(ModelNode operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode executeStreaming(Operation operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
             throw new UnsupportedOperationException();
@@ -1476,6 +1573,11 @@ public class FileSystemDeploymentServiceUnitTestCase {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public List<AsyncFuture<ModelNode>> executePipelined(List<ModelNode> operations, OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public void close() throws IOException {
             throw new UnsupportedOperationException();
@@ -95,6 +95,13 @@ public interface DomainController {
      */
     FileRepository getFileRepository();
 
+    /**
+     * Gets the statistics about the propagation of domain model changes to the slave host controllers.
+     *
+     * @return the statistics
+     */
+    HostPropagationStatistics getHostPropagationStatistics();
+
     /**
      * Stops this host controller
      */
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Keeps track of how long it takes to propagate changes of the domain model from the master domain controller to
+ * each of the slave host controllers, both for regular domain wide operations and for the synchronization of the
+ * whole domain model when a slave (re)registers.
+ */
+public class HostPropagationStatistics {
+
+    public static final String OPERATION_COUNT = "operation-count";
+    public static final String LAST_LATENCY = "last-operation-latency";
+    public static final String AVERAGE_LATENCY = "average-operation-latency";
+    public static final String MAX_LATENCY = "max-operation-latency";
+    public static final String FULL_SYNCS = "full-model-syncs";
+    public static final String DELTA_SYNCS = "delta-model-syncs";
+    public static final String LAST_SYNC_TIME = "last-model-sync-time";
+    public static final String LAST_SYNC_RESOURCES = "last-model-sync-resources";
+
+    private final Map<String, HostStatistics> hosts = new ConcurrentHashMap<String, HostStatistics>();
+
+    /**
+     * Record the time it took until a slave prepared a domain wide operation.
+     *
+     * @param hostName the name of the slave host
+     * @param nanos the latency, in nanoseconds
+     */
+    public void operationPropagated(final String hostName, final long nanos) {
+        getHostStatistics(hostName).operationPropagated(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Record the synchronization of the domain model with a slave during its registration.
+     *
+     * @param hostName the name of the slave host
+     * @param nanos the time the synchronization took, in nanoseconds
+     * @param delta {@code true} if only the resources changed since the last synchronization were sent
+     * @param resources the number of resources sent
+     */
+    public void modelSynchronized(final String hostName, final long nanos, final boolean delta, final int resources) {
+        getHostStatistics(hostName).modelSynchronized(TimeUnit.NANOSECONDS.toMillis(nanos), delta, resources);
+    }
+
+    /**
+     * Discard the statistics of a slave which has unregistered.
+     *
+     * @param hostName the name of the slave host
+     */
+    public void hostRemoved(final String hostName) {
+        hosts.remove(hostName);
+    }
+
+    /**
+     * Get the statistics of all hosts, keyed by host name. Times are in milliseconds.
+     *
+     * @return the statistics
+     */
+    public ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        for (Map.Entry<String, HostStatistics> entry : hosts.entrySet()) {
+            result.get(entry.getKey()).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    private HostStatistics getHostStatistics(final String hostName) {
+        HostStatistics statistics = hosts.get(hostName);
+        if (statistics == null) {
+            synchronized (hosts) {
+                statistics = hosts.get(hostName);
+                if (statistics == null) {
+                    statistics = new HostStatistics();
+                    hosts.put(hostName, statistics);
+                }
+            }
+        }
+        return statistics;
+    }
+
+    private static class HostStatistics {
+        private long operationCount;
+        private long lastLatency;
+        private long totalLatency;
+        private long maxLatency;
+        private long fullSyncs;
+        private long deltaSyncs;
+        private long lastSyncTime;
+        private int lastSyncResources;
+
+        synchronized void operationPropagated(final long millis) {
+            operationCount++;
+            lastLatency = millis;
+            totalLatency += millis;
+            if (millis > maxLatency) {
+                maxLatency = millis;
+            }
+        }
+
+        synchronized void modelSynchronized(final long millis, final boolean delta, final int resources) {
+            if (delta) {
+                deltaSyncs++;
+            } else {
+                fullSyncs++;
+            }
+            lastSyncTime = millis;
+            lastSyncResources = resources;
+        }
+
+        synchronized ModelNode toModelNode() {
+            final ModelNode node = new ModelNode();
+            node.get(OPERATION_COUNT).set(operationCount);
+            node.get(LAST_LATENCY).set(lastLatency);
+            node.get(AVERAGE_LATENCY).set(operationCount == 0 ? 0 : totalLatency / operationCount);
+            node.get(MAX_LATENCY).set(maxLatency);
+            node.get(FULL_SYNCS).set(fullSyncs);
+            node.get(DELTA_SYNCS).set(deltaSyncs);
+            node.get(LAST_SYNC_TIME).set(lastSyncTime);
+            node.get(LAST_SYNC_RESOURCES).set(lastSyncResources);
+            return node;
+        }
+    }
+}
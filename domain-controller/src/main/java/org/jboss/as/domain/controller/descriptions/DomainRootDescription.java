@@ -53,6 +53,7 @@ import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
+import org.jboss.as.domain.controller.operations.HostPropagationHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -84,6 +85,10 @@ public class DomainRootDescription {
         root.get(ATTRIBUTES, PROCESS_TYPE, ALLOWED).add("Domain Controller");
         root.get(ATTRIBUTES, PROCESS_TYPE, ALLOWED).add("Host Controller");
 
+        root.get(ATTRIBUTES, HostPropagationHandler.ATTRIBUTE_NAME, DESCRIPTION).set(bundle.getString("domain.host-propagation"));
+        root.get(ATTRIBUTES, HostPropagationHandler.ATTRIBUTE_NAME, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, HostPropagationHandler.ATTRIBUTE_NAME, REQUIRED).set(false);
+
         root.get(OPERATIONS).setEmptyObject();
 
         root.get(CHILDREN, EXTENSION, DESCRIPTION).set(bundle.getString("domain.extension"));
@@ -24,7 +24,10 @@ package org.jboss.as.domain.controller.operations;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_MODEL;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.ExtensionContext;
@@ -32,6 +35,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.Resource;
@@ -42,12 +46,18 @@ import org.jboss.modules.ModuleLoadException;
 
 /**
  * Step handler responsible for taking in a domain model and updating the local domain model to match.
+ * <p>
+ * The master either sends the whole domain model, or, if this slave was already sent the model before, only the
+ * resources which were added, changed or removed since then. If the master no longer has those changes, e.g. because
+ * it was restarted, it sends the whole domain model again, which then replaces the local one.
  *
  * @author John Bailey
  */
 public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler, DescriptionProvider {
     public static final String OPERATION_NAME = "apply-remote-domain-model";
 
+    public static final String DOMAIN_MODEL_CHANGES = "domain-model-changes";
+
     //This is a hack to avoid initializing the extensions again for the case when master is restarted and we reconnect
     private boolean appliedExensions;
 
@@ -58,33 +68,103 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (operation.has(DOMAIN_MODEL_CHANGES)) {
+            applyChanges(context, operation.get(DOMAIN_MODEL_CHANGES));
+            context.completeStep();
+            return;
+        }
+
         final ModelNode domainModel = operation.get(DOMAIN_MODEL);
         // We get the model as a list of resources descriptions
 
         if (!appliedExensions) {
             for(final ModelNode resourceDescription : domainModel.asList()) {
                 appliedExensions = true;
-                final PathAddress resourceAddress = PathAddress.pathAddress(resourceDescription.require("domain-resource-address"));
+                final PathAddress resourceAddress = PathAddress.pathAddress(resourceDescription.require(DomainModelDeltaLog.ADDRESS));
+                final Resource resource = context.createResource(resourceAddress);
+                initializeExtension(resourceAddress);
+                resource.writeModel(resourceDescription.get(DomainModelDeltaLog.MODEL));
+            }
+        } else {
+            replaceModel(context, domainModel);
+        }
+        context.completeStep();
+    }
+
+    /**
+     * Make the local domain model match the full domain model sent by the master when reconnecting to it, e.g. after
+     * the master was restarted and no longer has the changes this slave missed.
+     */
+    private void replaceModel(final OperationContext context, final ModelNode domainModel) {
+        final Resource root = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
+        final List<ModelNode> local = ReadMasterDomainModelHandler.describeAsNodeList(root);
+        final Set<PathAddress> received = new HashSet<PathAddress>();
+        for (final ModelNode resourceDescription : domainModel.asList()) {
+            final PathAddress resourceAddress = PathAddress.pathAddress(resourceDescription.require(DomainModelDeltaLog.ADDRESS));
+            received.add(resourceAddress);
+            if (exists(root, resourceAddress)) {
+                context.readResourceForUpdate(resourceAddress).writeModel(resourceDescription.get(DomainModelDeltaLog.MODEL));
+            } else {
+                final Resource resource = context.createResource(resourceAddress);
+                initializeExtension(resourceAddress);
+                resource.writeModel(resourceDescription.get(DomainModelDeltaLog.MODEL));
+            }
+        }
+        // The local resources are described parents first, so remove them in reverse order
+        for (int i = local.size() - 1; i >= 0; i--) {
+            final PathAddress resourceAddress = PathAddress.pathAddress(local.get(i).require(DomainModelDeltaLog.ADDRESS));
+            if (!received.contains(resourceAddress)) {
+                context.removeResource(resourceAddress);
+            }
+        }
+    }
+
+    private void applyChanges(final OperationContext context, final ModelNode changes) {
+        final Resource root = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
+        for (final ModelNode change : changes.asList()) {
+            final PathAddress resourceAddress = PathAddress.pathAddress(change.require(DomainModelDeltaLog.ADDRESS));
+            final boolean exists = exists(root, resourceAddress);
+            if (change.get(DomainModelDeltaLog.REMOVED).asBoolean(false)) {
+                if (exists) {
+                    context.removeResource(resourceAddress);
+                }
+            } else if (exists) {
+                context.readResourceForUpdate(resourceAddress).writeModel(change.get(DomainModelDeltaLog.MODEL));
+            } else {
                 final Resource resource = context.createResource(resourceAddress);
-                if(resourceAddress.size() == 1 && resourceAddress.getElement(0).getKey().equals(ModelDescriptionConstants.EXTENSION)) {
-                    final String module = resourceAddress.getElement(0).getValue();
+                initializeExtension(resourceAddress);
+                resource.writeModel(change.get(DomainModelDeltaLog.MODEL));
+            }
+        }
+    }
+
+    private void initializeExtension(final PathAddress resourceAddress) {
+        if(resourceAddress.size() == 1 && resourceAddress.getElement(0).getKey().equals(ModelDescriptionConstants.EXTENSION)) {
+            final String module = resourceAddress.getElement(0).getValue();
+            try {
+                for (final Extension extension : Module.loadServiceFromCallerModuleLoader(ModuleIdentifier.fromString(module), Extension.class)) {
+                    ClassLoader oldTccl = SecurityActions.setThreadContextClassLoader(extension.getClass());
                     try {
-                        for (final Extension extension : Module.loadServiceFromCallerModuleLoader(ModuleIdentifier.fromString(module), Extension.class)) {
-                            ClassLoader oldTccl = SecurityActions.setThreadContextClassLoader(extension.getClass());
-                            try {
-                                extension.initialize(extensionContext);
-                            } finally {
-                                SecurityActions.setThreadContextClassLoader(oldTccl);
-                            }
-                        }
-                    } catch (ModuleLoadException e) {
-                        throw new RuntimeException(e);
+                        extension.initialize(extensionContext);
+                    } finally {
+                        SecurityActions.setThreadContextClassLoader(oldTccl);
                     }
                 }
-                resource.writeModel(resourceDescription.get("domain-resource-model"));
+            } catch (ModuleLoadException e) {
+                throw new RuntimeException(e);
             }
         }
-        context.completeStep();
+    }
+
+    private static boolean exists(final Resource root, final PathAddress address) {
+        Resource resource = root;
+        for (final PathElement element : address) {
+            resource = resource.getChild(element);
+            if (resource == null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public ModelNode getModelDescription(Locale locale) {
@@ -0,0 +1,221 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Versioned history of the domain model, as it was pushed to the slave host controllers.
+ * <p>
+ * Every time the model is described for a slave the description is compared with the previous one. If anything
+ * changed a new version is created which remembers the addresses of the changed resources. A slave which has
+ * already been sent version {@code n} of the model can then be brought up to date with just the resources that
+ * were added, changed or removed after {@code n}, as long as the log still reaches back that far.
+ */
+class DomainModelDeltaLog {
+
+    /**
+     * System property setting the number of versions which are remembered.
+     */
+    static final String MAX_VERSIONS_PROPERTY = "org.jboss.as.domain.model-delta-log.max-versions";
+
+    static final String ADDRESS = "domain-resource-address";
+    static final String MODEL = "domain-resource-model";
+    static final String REMOVED = "domain-resource-removed";
+
+    private static final int DEFAULT_MAX_VERSIONS = 64;
+
+    private static final Comparator<PathAddress> DEEPEST_FIRST = new Comparator<PathAddress>() {
+        @Override
+        public int compare(PathAddress o1, PathAddress o2) {
+            return o2.size() - o1.size();
+        }
+    };
+
+    private final int maxVersions;
+    private final LinkedList<Version> versions = new LinkedList<Version>();
+    private final Map<String, SyncedVersion> syncedVersions = new HashMap<String, SyncedVersion>();
+    private Map<PathAddress, ModelNode> current;
+    private long version;
+
+    DomainModelDeltaLog() {
+        this(Integer.getInteger(MAX_VERSIONS_PROPERTY, DEFAULT_MAX_VERSIONS));
+    }
+
+    DomainModelDeltaLog(final int maxVersions) {
+        this.maxVersions = maxVersions;
+    }
+
+    /**
+     * Record the current description of the domain model.
+     *
+     * @param description the model as created by {@link ReadMasterDomainModelHandler#describeAsNodeList}
+     * @return the version of the model
+     */
+    synchronized long update(final List<ModelNode> description) {
+        final Map<PathAddress, ModelNode> updated = new LinkedHashMap<PathAddress, ModelNode>();
+        for (final ModelNode resource : description) {
+            updated.put(PathAddress.pathAddress(resource.require(ADDRESS)), resource.get(MODEL));
+        }
+        if (current == null) {
+            version++;
+        } else {
+            final Set<PathAddress> changed = new HashSet<PathAddress>();
+            for (final Map.Entry<PathAddress, ModelNode> entry : updated.entrySet()) {
+                if (!entry.getValue().equals(current.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (final PathAddress address : current.keySet()) {
+                if (!updated.containsKey(address)) {
+                    changed.add(address);
+                }
+            }
+            if (!changed.isEmpty()) {
+                version++;
+                versions.add(new Version(version, changed));
+                if (versions.size() > maxVersions) {
+                    versions.removeFirst();
+                }
+            }
+        }
+        current = updated;
+        return version;
+    }
+
+    /**
+     * Get the changes needed to bring a copy of the model at the given version up to date. Removed resources come
+     * first, deepest ones first, followed by the added and changed ones in the order of the model description, so
+     * parents always exist before their children are written.
+     *
+     * @param since the version the copy is at
+     * @return the changes, or {@code null} if the log does not reach back far enough
+     */
+    synchronized List<ModelNode> getChangesSince(final long since) {
+        if (current == null || since > version) {
+            return null;
+        }
+        final Set<PathAddress> changed = new HashSet<PathAddress>();
+        long next = since + 1;
+        for (final Version v : versions) {
+            if (v.version < next) {
+                continue;
+            } else if (v.version > next) {
+                // the versions in between have been evicted
+                return null;
+            }
+            changed.addAll(v.changed);
+            next++;
+        }
+        if (next <= version) {
+            return null;
+        }
+
+        final List<PathAddress> removed = new ArrayList<PathAddress>();
+        for (final PathAddress address : changed) {
+            if (!current.containsKey(address)) {
+                removed.add(address);
+            }
+        }
+        Collections.sort(removed, DEEPEST_FIRST);
+
+        final List<ModelNode> changes = new ArrayList<ModelNode>();
+        for (final PathAddress address : removed) {
+            final ModelNode change = new ModelNode();
+            change.get(ADDRESS).set(address.toModelNode());
+            change.get(REMOVED).set(true);
+            changes.add(change);
+        }
+        for (final Map.Entry<PathAddress, ModelNode> entry : current.entrySet()) {
+            if (changed.contains(entry.getKey())) {
+                final ModelNode change = new ModelNode();
+                change.get(ADDRESS).set(entry.getKey().toModelNode());
+                change.get(MODEL).set(entry.getValue());
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Remember the version of the model a slave was sent.
+     *
+     * @param hostName the name of the slave host
+     * @param sessionId the session of the slave, or {@code null} if it does not have one
+     * @param version the version it was sent
+     */
+    synchronized void synced(final String hostName, final String sessionId, final long version) {
+        if (sessionId == null) {
+            syncedVersions.remove(hostName);
+        } else {
+            syncedVersions.put(hostName, new SyncedVersion(sessionId, version));
+        }
+    }
+
+    /**
+     * Get the changes needed to bring the copy of the model a slave was last sent up to date.
+     *
+     * @param hostName the name of the slave host
+     * @param sessionId the session of the slave, or {@code null} if it does not have one
+     * @return the changes, or {@code null} if the slave needs the full model because it was not sent it in the
+     *         same session before or the log does not reach back far enough
+     */
+    synchronized List<ModelNode> getChangesFor(final String hostName, final String sessionId) {
+        final SyncedVersion synced = syncedVersions.get(hostName);
+        if (synced == null || sessionId == null || !sessionId.equals(synced.sessionId)) {
+            return null;
+        }
+        return getChangesSince(synced.version);
+    }
+
+    private static class SyncedVersion {
+        private final String sessionId;
+        private final long version;
+
+        SyncedVersion(final String sessionId, final long version) {
+            this.sessionId = sessionId;
+            this.version = version;
+        }
+    }
+
+    private static class Version {
+        private final long version;
+        private final Set<PathAddress> changed;
+
+        Version(final long version, final Set<PathAddress> changed) {
+            this.version = version;
+            this.changed = changed;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.domain.controller.HostPropagationStatistics;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reports the {@link HostPropagationStatistics} of the master domain controller. A slave reports an empty result.
+ */
+public class HostPropagationHandler implements OperationStepHandler {
+
+    public static final String ATTRIBUTE_NAME = "host-propagation";
+
+    private final HostPropagationStatistics statistics;
+
+    public HostPropagationHandler(final HostPropagationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (statistics != null) {
+            context.getResult().set(statistics.toModelNode());
+        } else {
+            context.getResult().setEmptyObject();
+        }
+        context.completeStep();
+    }
+}
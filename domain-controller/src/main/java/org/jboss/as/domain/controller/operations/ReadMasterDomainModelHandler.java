@@ -47,12 +47,16 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.HostPropagationStatistics;
 import org.jboss.as.domain.controller.UnregisteredHostChannelRegistry;
 import org.jboss.dmr.ModelNode;
 
 /**
  * Step handler responsible for pushing our master domain model to the remote slave
  * as part of the remote slave's registration with this master domain controller.
+ * <p>
+ * A slave which reconnects within the same {@link #SESSION_ID session}, i.e. without having been restarted,
+ * only gets sent the resources which changed since the version of the model it was last sent.
  *
  * @author John Bailey
  */
@@ -61,28 +65,49 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
 
     public static final String FORCE_DIRECT_HACK = "force-direct-hack";
 
+    /**
+     * Identifies the lifetime of the slave host controller process, a new session means the slave has lost the
+     * copy of the domain model it was sent before.
+     */
+    public static final String SESSION_ID = "session-id";
+
     private final DomainController domainController;
     private final UnregisteredHostChannelRegistry registry;
+    private final HostPropagationStatistics statistics;
+    private final DomainModelDeltaLog deltaLog = new DomainModelDeltaLog();
 
-    public ReadMasterDomainModelHandler(final DomainController domainController, final UnregisteredHostChannelRegistry registry) {
+    public ReadMasterDomainModelHandler(final DomainController domainController, final UnregisteredHostChannelRegistry registry,
+                                        final HostPropagationStatistics statistics) {
         this.domainController = domainController;
         this.registry = registry;
+        this.statistics = statistics;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
         //Lock the model here
         final Resource root = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
         final String hostName = operation.get(HOST).asString();
+        final String sessionId = operation.hasDefined(SESSION_ID) ? operation.get(SESSION_ID).asString() : null;
 
         // Get the list of all resources registered in this model
         final List<ModelNode> modelDescription = describeAsNodeList(root);
+        final long version = deltaLog.update(modelDescription);
+
+        final List<ModelNode> changes = deltaLog.getChangesFor(hostName, sessionId);
 
         ModelNode op = new ModelNode();
         op.get(OP).set(ApplyRemoteMasterDomainModelHandler.OPERATION_NAME);
         //FIXME this makes the op work after boot (i.e. slave connects to restarted master), but does not make the slave resync the servers
         op.get(OPERATION_HEADERS, "execute-for-coordinator").set(true);
         op.get(OP_ADDR).setEmptyList();
-        op.get(DOMAIN_MODEL).set(modelDescription);
+        if (changes != null) {
+            op.get(ApplyRemoteMasterDomainModelHandler.DOMAIN_MODEL_CHANGES).setEmptyList();
+            for (ModelNode change : changes) {
+                op.get(ApplyRemoteMasterDomainModelHandler.DOMAIN_MODEL_CHANGES).add(change);
+            }
+        } else {
+            op.get(DOMAIN_MODEL).set(modelDescription);
+        }
 
         //TODO get this from somewhere
         final ProxyController proxy = registry.popChannelAndCreateProxy(hostName);
@@ -107,7 +132,9 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
             public void operationCompleted(ModelNode response) {
             }
         };
+        final long start = System.nanoTime();
         proxy.execute(op, OperationMessageHandler.logging, control, null);
+        final long elapsed = System.nanoTime() - start;
 
         if (failedRef.get() != null) {
             final ModelNode failed = failedRef.get();
@@ -126,6 +153,8 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
             if (tx != null) {
                 if (resultAction == OperationContext.ResultAction.KEEP) {
                     tx.commit();
+                    deltaLog.synced(hostName, sessionId, version);
+                    statistics.modelSynchronized(hostName, elapsed, changes != null, changes != null ? changes.size() : modelDescription.size());
                     domainController.registerRemoteHost(proxy);
                 } else {
                     tx.rollback();
@@ -156,8 +185,8 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
             return; // ignore hosts
         }
         final ModelNode description = new ModelNode();
-        description.get("domain-resource-address").set(base.toModelNode());
-        description.get("domain-resource-model").set(resource.getModel());
+        description.get(DomainModelDeltaLog.ADDRESS).set(base.toModelNode());
+        description.get(DomainModelDeltaLog.MODEL).set(resource.getModel());
         nodes.add(description);
         for(final String childType : resource.getChildTypes()) {
             for(final Resource.ResourceEntry entry : resource.getChildren(childType)) {
@@ -213,7 +213,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                     // TODO this seems a bit convoluted. It's already an executor service thread calling this method
                     // But now we use another thread to actually make the invocation, so the first can read
                     // the result and decide how it fits in the overall rollout plan
-                    ProxyTask task = new ProxyTask(server.getHostName(), operation, context, proxy);
+                    ProxyTask task = new ProxyTask(server.getHostName(), operation, context, proxy, null);
                     tasks.put(server, task);
 
                     boolean interrupted = false;
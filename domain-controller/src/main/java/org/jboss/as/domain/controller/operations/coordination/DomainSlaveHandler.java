@@ -37,6 +37,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.domain.controller.HostPropagationStatistics;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
 
@@ -52,13 +53,16 @@ public class DomainSlaveHandler implements OperationStepHandler {
     private final ExecutorService executorService;
     private final DomainOperationContext domainOperationContext;
     private final Map<String, ProxyController> hostProxies;
+    private final HostPropagationStatistics hostPropagationStatistics;
 
     public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
                               final DomainOperationContext domainOperationContext,
-                              final ExecutorService executorService) {
+                              final ExecutorService executorService,
+                              final HostPropagationStatistics hostPropagationStatistics) {
         this.hostProxies = hostProxies;
         this.domainOperationContext = domainOperationContext;
         this.executorService = executorService;
+        this.hostPropagationStatistics = hostPropagationStatistics;
     }
 
     @Override
@@ -76,7 +80,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
 
         for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
             String host = entry.getKey();
-            ProxyTask task = new ProxyTask(host, operation.clone(), context, entry.getValue());
+            ProxyTask task = new ProxyTask(host, operation.clone(), context, entry.getValue(), hostPropagationStatistics);
             tasks.put(host, task);
             futures.put(host, executorService.submit(task));
         }
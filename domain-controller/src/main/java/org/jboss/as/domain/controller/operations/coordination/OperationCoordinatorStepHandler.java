@@ -52,6 +52,7 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.domain.controller.HostPropagationStatistics;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentFullReplaceHandler;
 import org.jboss.as.domain.controller.operations.deployment.NewDeploymentUploadUtil;
@@ -68,16 +69,19 @@ public class OperationCoordinatorStepHandler {
     private final Map<String, ProxyController> hostProxies;
     private final Map<String, ProxyController> serverProxies;
     private final OperationSlaveStepHandler localSlaveHandler;
+    private final HostPropagationStatistics hostPropagationStatistics;
     private volatile ExecutorService executorService;
 
     OperationCoordinatorStepHandler(final LocalHostControllerInfo localHostControllerInfo,
                                     final Map<String, ProxyController> hostProxies,
                                     final Map<String, ProxyController> serverProxies,
-                                    final OperationSlaveStepHandler localSlaveHandler) {
+                                    final OperationSlaveStepHandler localSlaveHandler,
+                                    final HostPropagationStatistics hostPropagationStatistics) {
         this.localHostControllerInfo = localHostControllerInfo;
         this.hostProxies = hostProxies;
         this.serverProxies = serverProxies;
         this.localSlaveHandler = localSlaveHandler;
+        this.hostPropagationStatistics = hostPropagationStatistics;
     }
 
     void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -208,7 +212,7 @@ public class OperationCoordinatorStepHandler {
                     }
                 }
 
-                context.addStep(slaveOp, new DomainSlaveHandler(remoteProxies, overallContext, executorService), OperationContext.Stage.DOMAIN);
+                context.addStep(slaveOp, new DomainSlaveHandler(remoteProxies, overallContext, executorService, hostPropagationStatistics), OperationContext.Stage.DOMAIN);
 
             }
         }
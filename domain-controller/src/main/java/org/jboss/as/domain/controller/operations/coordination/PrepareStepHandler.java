@@ -37,6 +37,7 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.domain.controller.HostPropagationStatistics;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
@@ -64,10 +65,11 @@ public class PrepareStepHandler  implements OperationStepHandler {
 
     public PrepareStepHandler(final LocalHostControllerInfo localHostControllerInfo,
                               final Map<String, ProxyController> hostProxies,
-                              final Map<String, ProxyController> serverProxies) {
+                              final Map<String, ProxyController> serverProxies,
+                              final HostPropagationStatistics hostPropagationStatistics) {
         this.localHostControllerInfo = localHostControllerInfo;
         this.slaveHandler = new OperationSlaveStepHandler(localHostControllerInfo);
-        this.coordinatorHandler = new OperationCoordinatorStepHandler(localHostControllerInfo, hostProxies, serverProxies, slaveHandler);
+        this.coordinatorHandler = new OperationCoordinatorStepHandler(localHostControllerInfo, hostProxies, serverProxies, slaveHandler, hostPropagationStatistics);
     }
 
     @Override
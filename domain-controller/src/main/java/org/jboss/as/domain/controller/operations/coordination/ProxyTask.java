@@ -34,6 +34,7 @@ import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.client.MessageSeverity;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.domain.controller.HostPropagationStatistics;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -47,16 +48,22 @@ class ProxyTask implements Callable<ModelNode> {
     private final String host;
     private final ModelNode operation;
     private final OperationContext context;
+    private final HostPropagationStatistics statistics;
 
     private final AtomicReference<Boolean> transactionAction = new AtomicReference<Boolean>();
     private final AtomicReference<ModelNode> uncommittedResultRef = new AtomicReference<ModelNode>();
     private boolean cancelRemoteTransaction;
 
-    public ProxyTask(String host, ModelNode operation, OperationContext context, ProxyController proxyController) {
+    /**
+     * @param statistics the statistics to record the time until the proxy prepared the operation in, or {@code null}
+     */
+    public ProxyTask(String host, ModelNode operation, OperationContext context, ProxyController proxyController,
+                     HostPropagationStatistics statistics) {
         this.host = host;
         this.operation = operation;
         this.context = context;
         this.proxyController = proxyController;
+        this.statistics = statistics;
     }
 
     @Override
@@ -90,7 +97,11 @@ class ProxyTask implements Callable<ModelNode> {
             }
         };
 
+        final long start = System.nanoTime();
         proxyController.execute(operation, messageHandler, proxyControl, new DelegatingOperationAttachments(context));
+        if (statistics != null) {
+            statistics.operationPropagated(host, System.nanoTime() - start);
+        }
 
         ModelController.OperationTransaction remoteTransaction = null;
         ModelNode result = finalResultRef.get();
@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class DomainModelDeltaLogUnitTestCase {
+
+    private static final PathAddress ROOT = PathAddress.EMPTY_ADDRESS;
+    private static final PathAddress A = PathAddress.pathAddress(PathElement.pathElement("a", "1"));
+    private static final PathAddress A_B = A.append(PathElement.pathElement("b", "1"));
+    private static final PathAddress C = PathAddress.pathAddress(PathElement.pathElement("c", "1"));
+
+    @Test
+    public void testNoChangesForCurrentVersion() {
+        final DomainModelDeltaLog log = new DomainModelDeltaLog(10);
+        final long version = log.update(description(ROOT, "r", A, "a"));
+        assertEquals(version, log.update(description(ROOT, "r", A, "a")));
+        final List<ModelNode> changes = log.getChangesSince(version);
+        assertNotNull(changes);
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testChangesSince() {
+        final DomainModelDeltaLog log = new DomainModelDeltaLog(10);
+        final long first = log.update(description(ROOT, "r", A, "a", A_B, "b"));
+        log.update(description(ROOT, "r", A, "a2", A_B, "b"));
+        final long third = log.update(description(ROOT, "r", A, "a2", C, "c"));
+        assertEquals(first + 2, third);
+
+        final List<ModelNode> changes = log.getChangesSince(first);
+        assertNotNull(changes);
+        assertEquals(3, changes.size());
+        assertRemoved(A_B, changes.get(0));
+        assertChanged(A, "a2", changes.get(1));
+        assertChanged(C, "c", changes.get(2));
+
+        final List<ModelNode> lastChanges = log.getChangesSince(first + 1);
+        assertNotNull(lastChanges);
+        assertEquals(2, lastChanges.size());
+        assertRemoved(A_B, lastChanges.get(0));
+        assertChanged(C, "c", lastChanges.get(1));
+    }
+
+    @Test
+    public void testRemovalsDeepestFirst() {
+        final DomainModelDeltaLog log = new DomainModelDeltaLog(10);
+        final long first = log.update(description(ROOT, "r", A, "a", A_B, "b", C, "c"));
+        log.update(description(ROOT, "r", C, "c"));
+
+        final List<ModelNode> changes = log.getChangesSince(first);
+        assertNotNull(changes);
+        assertEquals(2, changes.size());
+        assertRemoved(A_B, changes.get(0));
+        assertRemoved(A, changes.get(1));
+    }
+
+    @Test
+    public void testEvictedVersionsNeedFullModel() {
+        final DomainModelDeltaLog log = new DomainModelDeltaLog(2);
+        final long first = log.update(description(ROOT, "r1"));
+        log.update(description(ROOT, "r2"));
+        log.update(description(ROOT, "r3"));
+        final long last = log.update(description(ROOT, "r4"));
+
+        assertNull(log.getChangesSince(first));
+        final List<ModelNode> changes = log.getChangesSince(last - 2);
+        assertNotNull(changes);
+        assertEquals(1, changes.size());
+        assertChanged(ROOT, "r4", changes.get(0));
+    }
+
+    @Test
+    public void testUnknownVersionNeedsFullModel() {
+        final DomainModelDeltaLog log = new DomainModelDeltaLog(10);
+        assertNull(log.getChangesSince(0));
+        final long version = log.update(description(ROOT, "r"));
+        assertNull(log.getChangesSince(version + 1));
+    }
+
+    @Test
+    public void testSessionMismatchNeedsFullModel() {
+        final DomainModelDeltaLog log = new DomainModelDeltaLog(10);
+        final long version = log.update(description(ROOT, "r", A, "a"));
+        log.synced("slave", "session-1", version);
+        log.update(description(ROOT, "r", A, "a2"));
+
+        final List<ModelNode> changes = log.getChangesFor("slave", "session-1");
+        assertNotNull(changes);
+        assertEquals(1, changes.size());
+        assertChanged(A, "a2", changes.get(0));
+
+        assertNull(log.getChangesFor("slave", "session-2"));
+        assertNull(log.getChangesFor("slave", null));
+        assertNull(log.getChangesFor("other", "session-1"));
+
+        log.synced("slave", null, version);
+        assertNull(log.getChangesFor("slave", "session-1"));
+    }
+
+    @Test
+    public void testEvictedSyncedVersionNeedsFullModel() {
+        final DomainModelDeltaLog log = new DomainModelDeltaLog(1);
+        final long version = log.update(description(ROOT, "r1"));
+        log.synced("slave", "session-1", version);
+        log.update(description(ROOT, "r2"));
+        assertNotNull(log.getChangesFor("slave", "session-1"));
+        log.update(description(ROOT, "r3"));
+        assertNull(log.getChangesFor("slave", "session-1"));
+    }
+
+    private static List<ModelNode> description(final Object... addressesAndValues) {
+        final List<ModelNode> description = new ArrayList<ModelNode>();
+        for (int i = 0; i < addressesAndValues.length; i += 2) {
+            final ModelNode resource = new ModelNode();
+            resource.get(DomainModelDeltaLog.ADDRESS).set(((PathAddress) addressesAndValues[i]).toModelNode());
+            resource.get(DomainModelDeltaLog.MODEL, "value").set((String) addressesAndValues[i + 1]);
+            description.add(resource);
+        }
+        return description;
+    }
+
+    private static void assertChanged(final PathAddress address, final String value, final ModelNode change) {
+        assertEquals(address, PathAddress.pathAddress(change.get(DomainModelDeltaLog.ADDRESS)));
+        assertFalse(change.hasDefined(DomainModelDeltaLog.REMOVED));
+        assertEquals(value, change.get(DomainModelDeltaLog.MODEL, "value").asString());
+    }
+
+    private static void assertRemoved(final PathAddress address, final ModelNode change) {
+        assertEquals(address, PathAddress.pathAddress(change.get(DomainModelDeltaLog.ADDRESS)));
+        assertTrue(change.get(DomainModelDeltaLog.REMOVED).asBoolean());
+    }
+}
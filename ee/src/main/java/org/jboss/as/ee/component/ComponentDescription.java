@@ -488,6 +488,16 @@ public class ComponentDescription {
         return false;
     }
 
+    /**
+     * Whether instances of this component can be passivated, in which case the pre-passivate and post-activate
+     * interceptor chains are built for it.
+     *
+     * @return true if passivation interceptor chains should be built for this component
+     */
+    public boolean isPassivationApplicable() {
+        return false;
+    }
+
     /**
      * Get the configurators for this component.
      *
@@ -542,6 +552,8 @@ public class ComponentDescription {
 
             final Map<String, List<InterceptorFactory>> userPostConstructByInterceptorClass = new HashMap<String, List<InterceptorFactory>>();
             final Map<String, List<InterceptorFactory>> userPreDestroyByInterceptorClass = new HashMap<String, List<InterceptorFactory>>();
+            final Map<String, List<InterceptorFactory>> userPrePassivateByInterceptorClass = new HashMap<String, List<InterceptorFactory>>();
+            final Map<String, List<InterceptorFactory>> userPostActivateByInterceptorClass = new HashMap<String, List<InterceptorFactory>>();
 
             if (description.isTimerServiceApplicable()) {
                 componentUserAroundTimeout = new ArrayList<InterceptorFactory>();
@@ -645,6 +657,32 @@ public class ComponentDescription {
                                     userPreDestroy.add(interceptorFactory);
                                 }
                             }
+                            if (description.isPassivationApplicable()) {
+                                final MethodIdentifier prePassivateMethodIdentifier = classDescription.getPrePassivateMethod();
+                                if (prePassivateMethodIdentifier != null) {
+                                    final Method method = ClassReflectionIndexUtil.findRequiredMethod(deploymentReflectionIndex, interceptorClassIndex, prePassivateMethodIdentifier);
+                                    if (isNotOverriden(interceptorClassConfiguration, method, interceptorIndex, deploymentReflectionIndex)) {
+                                        InterceptorFactory interceptorFactory = new ManagedReferenceLifecycleMethodInterceptorFactory(contextKey, method, true);
+                                        List<InterceptorFactory> userPrePassivate = userPrePassivateByInterceptorClass.get(interceptorClassName);
+                                        if (userPrePassivate == null) {
+                                            userPrePassivateByInterceptorClass.put(interceptorClassName, userPrePassivate = new ArrayList<InterceptorFactory>());
+                                        }
+                                        userPrePassivate.add(interceptorFactory);
+                                    }
+                                }
+                                final MethodIdentifier postActivateMethodIdentifier = classDescription.getPostActivateMethod();
+                                if (postActivateMethodIdentifier != null) {
+                                    final Method method = ClassReflectionIndexUtil.findRequiredMethod(deploymentReflectionIndex, interceptorClassIndex, postActivateMethodIdentifier);
+                                    if (isNotOverriden(interceptorClassConfiguration, method, interceptorIndex, deploymentReflectionIndex)) {
+                                        InterceptorFactory interceptorFactory = new ManagedReferenceLifecycleMethodInterceptorFactory(contextKey, method, true);
+                                        List<InterceptorFactory> userPostActivate = userPostActivateByInterceptorClass.get(interceptorClassName);
+                                        if (userPostActivate == null) {
+                                            userPostActivateByInterceptorClass.put(interceptorClassName, userPostActivate = new ArrayList<InterceptorFactory>());
+                                        }
+                                        userPostActivate.add(interceptorFactory);
+                                    }
+                                }
+                            }
                         }
                         final MethodIdentifier aroundInvokeMethodIdentifier = classDescription.getAroundInvokeMethod();
                         if (aroundInvokeMethodIdentifier != null) {
@@ -676,6 +714,8 @@ public class ComponentDescription {
 
             final Deque<InterceptorFactory> userPostConstruct = new ArrayDeque<InterceptorFactory>();
             final Deque<InterceptorFactory> userPreDestroy = new ArrayDeque<InterceptorFactory>();
+            final Deque<InterceptorFactory> userPrePassivate = new ArrayDeque<InterceptorFactory>();
+            final Deque<InterceptorFactory> userPostActivate = new ArrayDeque<InterceptorFactory>();
 
             //now add the lifecycle interceptors in the correct order
 
@@ -687,6 +727,12 @@ public class ComponentDescription {
                 if (userPreDestroyByInterceptorClass.containsKey(interceptorClass.getInterceptorClassName())) {
                     userPreDestroy.addAll(userPreDestroyByInterceptorClass.get(interceptorClass.getInterceptorClassName()));
                 }
+                if (userPrePassivateByInterceptorClass.containsKey(interceptorClass.getInterceptorClassName())) {
+                    userPrePassivate.addAll(userPrePassivateByInterceptorClass.get(interceptorClass.getInterceptorClassName()));
+                }
+                if (userPostActivateByInterceptorClass.containsKey(interceptorClass.getInterceptorClassName())) {
+                    userPostActivate.addAll(userPostActivateByInterceptorClass.get(interceptorClass.getInterceptorClassName()));
+                }
             }
 
 
@@ -710,6 +756,22 @@ public class ComponentDescription {
                             userPreDestroy.addLast(interceptorFactory);
                         }
                     }
+                    if (description.isPassivationApplicable()) {
+                        final MethodIdentifier componentPrePassivateMethodIdentifier = classDescription.getPrePassivateMethod();
+                        if (componentPrePassivateMethodIdentifier != null) {
+                            final Method method = ClassReflectionIndexUtil.findRequiredMethod(deploymentReflectionIndex, classReflectionIndex, componentPrePassivateMethodIdentifier);
+                            if (isNotOverriden(configuration, method, componentClassIndex, deploymentReflectionIndex)) {
+                                userPrePassivate.addLast(new ManagedReferenceLifecycleMethodInterceptorFactory(instanceKey, method, true));
+                            }
+                        }
+                        final MethodIdentifier componentPostActivateMethodIdentifier = classDescription.getPostActivateMethod();
+                        if (componentPostActivateMethodIdentifier != null) {
+                            final Method method = ClassReflectionIndexUtil.findRequiredMethod(deploymentReflectionIndex, classReflectionIndex, componentPostActivateMethodIdentifier);
+                            if (isNotOverriden(configuration, method, componentClassIndex, deploymentReflectionIndex)) {
+                                userPostActivate.addLast(new ManagedReferenceLifecycleMethodInterceptorFactory(instanceKey, method, true));
+                            }
+                        }
+                    }
                     final MethodIdentifier componentAroundInvokeMethodIdentifier = classDescription.getAroundInvokeMethod();
                     if (componentAroundInvokeMethodIdentifier != null) {
                         final Method method = ClassReflectionIndexUtil.findRequiredMethod(deploymentReflectionIndex, classReflectionIndex, componentAroundInvokeMethodIdentifier);
@@ -760,6 +822,21 @@ public class ComponentDescription {
             configuration.addPreDestroyInterceptor(Interceptors.getTerminalInterceptorFactory(), InterceptorOrder.ComponentPreDestroy.TERMINAL_INTERCEPTOR);
             configuration.addPreDestroyInterceptor(tcclInterceptor, InterceptorOrder.ComponentPreDestroy.TCCL_INTERCEPTOR);
 
+            // Apply pre-passivate and post-activate
+            if (description.isPassivationApplicable()) {
+                if (!userPrePassivate.isEmpty()) {
+                    configuration.addPrePassivateInterceptor(weaved(userPrePassivate), InterceptorOrder.ComponentPassivation.USER_INTERCEPTORS);
+                }
+                configuration.addPrePassivateInterceptor(Interceptors.getTerminalInterceptorFactory(), InterceptorOrder.ComponentPassivation.TERMINAL_INTERCEPTOR);
+                configuration.addPrePassivateInterceptor(tcclInterceptor, InterceptorOrder.ComponentPassivation.TCCL_INTERCEPTOR);
+
+                if (!userPostActivate.isEmpty()) {
+                    configuration.addPostActivateInterceptor(weaved(userPostActivate), InterceptorOrder.ComponentPassivation.USER_INTERCEPTORS);
+                }
+                configuration.addPostActivateInterceptor(Interceptors.getTerminalInterceptorFactory(), InterceptorOrder.ComponentPassivation.TERMINAL_INTERCEPTOR);
+                configuration.addPostActivateInterceptor(tcclInterceptor, InterceptorOrder.ComponentPassivation.TCCL_INTERCEPTOR);
+            }
+
             // @AroundInvoke interceptors
             final List<InterceptorDescription> classInterceptors = description.getClassInterceptors();
             final Map<MethodIdentifier, List<InterceptorDescription>> methodInterceptors = description.getMethodInterceptors();
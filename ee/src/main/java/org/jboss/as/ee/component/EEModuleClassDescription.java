@@ -59,6 +59,8 @@ public final class EEModuleClassDescription {
     private MethodIdentifier preDestroyMethod;
     private MethodIdentifier aroundInvokeMethod;
     private MethodIdentifier aroundTimeoutMethod;
+    private MethodIdentifier prePassivateMethod;
+    private MethodIdentifier postActivateMethod;
     private boolean invalid;
     private StringBuilder invalidMessageBuilder;
     private final Map<Class<? extends Annotation>, ClassAnnotationInformation<?,?>> annotationInformation = Collections.synchronizedMap(new HashMap<Class<? extends Annotation>, ClassAnnotationInformation<?, ?>>());
@@ -149,6 +151,42 @@ public final class EEModuleClassDescription {
         this.preDestroyMethod = preDestroyMethod;
     }
 
+    /**
+     * Get the method, if any, which has been marked as a pre-passivate interceptor.
+     *
+     * @return the pre-passivate method or {@code null} for none
+     */
+    public MethodIdentifier getPrePassivateMethod() {
+        return prePassivateMethod;
+    }
+
+    /**
+     * Set the method which has been marked as a pre-passivate interceptor.
+     *
+     * @param prePassivateMethod the pre-passivate method or {@code null} for none
+     */
+    public void setPrePassivateMethod(final MethodIdentifier prePassivateMethod) {
+        this.prePassivateMethod = prePassivateMethod;
+    }
+
+    /**
+     * Get the method, if any, which has been marked as a post-activate interceptor.
+     *
+     * @return the post-activate method or {@code null} for none
+     */
+    public MethodIdentifier getPostActivateMethod() {
+        return postActivateMethod;
+    }
+
+    /**
+     * Set the method which has been marked as a post-activate interceptor.
+     *
+     * @param postActivateMethod the post-activate method or {@code null} for none
+     */
+    public void setPostActivateMethod(final MethodIdentifier postActivateMethod) {
+        this.postActivateMethod = postActivateMethod;
+    }
+
     /**
      * Get the configurators for this class.
      *
@@ -46,7 +46,8 @@ import javax.interceptor.InvocationContext;
 import java.util.List;
 
 /**
- * Deployment processor responsible for finding @PostConstruct and @PreDestroy annotated methods.
+ * Deployment processor responsible for finding @PostConstruct, @PreDestroy, @PrePassivate and @PostActivate annotated
+ * methods.
  *
  * @author John Bailey
  * @author Stuart Douglas
@@ -55,7 +56,10 @@ public class LifecycleAnnotationParsingProcessor implements DeploymentUnitProces
     private static Logger log = Logger.getLogger(LifecycleAnnotationParsingProcessor.class);
     private static final DotName POST_CONSTRUCT_ANNOTATION = DotName.createSimple(PostConstruct.class.getName());
     private static final DotName PRE_DESTROY_ANNOTATION = DotName.createSimple(PreDestroy.class.getName());
-    private static DotName[] LIFE_CYCLE_ANNOTATIONS = {POST_CONSTRUCT_ANNOTATION, PRE_DESTROY_ANNOTATION};
+    // the EJB API is not a dependency of this module
+    private static final DotName PRE_PASSIVATE_ANNOTATION = DotName.createSimple("javax.ejb.PrePassivate");
+    private static final DotName POST_ACTIVATE_ANNOTATION = DotName.createSimple("javax.ejb.PostActivate");
+    private static DotName[] LIFE_CYCLE_ANNOTATIONS = {POST_CONSTRUCT_ANNOTATION, PRE_DESTROY_ANNOTATION, PRE_PASSIVATE_ANNOTATION, POST_ACTIVATE_ANNOTATION};
 
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -99,8 +103,12 @@ public class LifecycleAnnotationParsingProcessor implements DeploymentUnitProces
         }
         if (annotationType == POST_CONSTRUCT_ANNOTATION) {
             classDescription.setPostConstructMethod(methodIdentifier);
-        } else {
+        } else if (annotationType == PRE_DESTROY_ANNOTATION) {
             classDescription.setPreDestroyMethod(methodIdentifier);
+        } else if (annotationType == PRE_PASSIVATE_ANNOTATION) {
+            classDescription.setPrePassivateMethod(methodIdentifier);
+        } else {
+            classDescription.setPostActivateMethod(methodIdentifier);
         }
     }
 }
@@ -99,6 +99,19 @@ public class InterceptorOrder {
 
     }
 
+    public static final class ComponentPassivation {
+
+        public static final int TCCL_INTERCEPTOR = 0x100;
+        public static final int EJB_SESSION_CONTEXT_INTERCEPTOR = 0x200;
+        public static final int JNDI_NAMESPACE_INTERCEPTOR = 0x300;
+        public static final int USER_INTERCEPTORS = 0x400;
+        public static final int TERMINAL_INTERCEPTOR = 0x500;
+
+        private ComponentPassivation() {
+        }
+
+    }
+
     public static final class View {
 
         public static final int NOT_BUSINESS_METHOD                                     = 0x000;
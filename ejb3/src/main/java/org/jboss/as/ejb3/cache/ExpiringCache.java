@@ -25,82 +25,42 @@ import org.jboss.logging.Logger;
 
 import javax.ejb.NoSuchEJBException;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Cache that handles EJB expiration. This cache can be wrapped around an existing cache to
  * provide expiration functionality.
+ * <p/>
+ * Entries are held in a segmented concurrent map, so there is no cache wide lock. Expiry is driven by a
+ * {@link TimingWheel} which is shared between all stateful components. Every entry has at most one pending
+ * timeout on the wheel; accessing an entry only updates its last used time, and when the timeout fires the
+ * entry is either expired or rescheduled for the remainder of its idle time.
  *
  * @author Stuart Douglas
  */
 public class ExpiringCache<T extends Identifiable> implements Cache<T> {
 
-    private static final long SLEEP_TIME = 500;
+    private static final int STATE_IN_USE = 0;
+    private static final int STATE_INACTIVE = 1;
+    private static final int STATE_EXPIRED = 2;
 
     private final long millisecondTimeout;
     private final String beanName;
-    private final Map<Object, Entry> cache;
+    private final ConcurrentMap<Object, Entry> cache;
+    private final TimingWheel timingWheel;
 
     private volatile StatefulObjectFactory<T> factory;
-    private volatile ExpirationTask expiryThread;
+    private volatile boolean running;
 
     private static final Logger logger = Logger.getLogger(ExpiringCache.class);
 
-    private class ExpirationTask extends Thread {
-
-        private volatile boolean running = true;
-
-        @Override
-        public void run() {
-            while (running) {
-
-                final List<Entry> queue = new ArrayList<Entry>();
-                final long time = System.currentTimeMillis();
-                synchronized (cache) {
-                    Iterator<Map.Entry<Object, Entry>> iterator = cache.entrySet().iterator();
-                    while (iterator.hasNext()) {
-                        final Map.Entry<Object, Entry> entry = iterator.next();
-                        if (entry.getValue().isExpired(time)) {
-                            queue.add(entry.getValue());
-                            iterator.remove();
-                        }
-                    }
-                }
-                for (Entry value : queue) {
-                    try {
-                        logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, value.getKey(), millisecondTimeout);
-                        factory.destroyInstance(value.getValue());
-                    } catch (Exception e) {
-                        logger.error("Exception removing stateful bean " + value.getKey(), e);
-                    }
-                }
-
-                try {
-                    sleep(SLEEP_TIME);
-                } catch (InterruptedException e) {
-                    running = false;
-                    return;
-                }
-            }
-        }
-
-        public void stopTask() {
-            running = false;
-        }
-    }
-
-    private enum State {
-        IN_USE, INACTIVE
-    }
-
-    private final class Entry {
-        private long lastUsed;
-        private State state = State.IN_USE;
+    private final class Entry implements Runnable {
+        private volatile long lastUsed;
+        private final AtomicInteger state = new AtomicInteger(STATE_IN_USE);
+        private volatile TimingWheel.Timeout timeout;
         private final T value;
 
         public Entry(final T value) {
@@ -108,10 +68,6 @@ public class ExpiringCache<T extends Identifiable> implements Cache<T> {
             this.lastUsed = System.currentTimeMillis();
         }
 
-        public void setLastUsed(final long lastUsed) {
-            this.lastUsed = lastUsed;
-        }
-
         public Serializable getKey() {
             return value.getId();
         }
@@ -120,75 +76,148 @@ public class ExpiringCache<T extends Identifiable> implements Cache<T> {
             return lastUsed;
         }
 
-        public boolean isExpired(long currentTimeInMillis) {
-            return state == State.INACTIVE && currentTimeInMillis > lastUsed + millisecondTimeout;
-        }
-
         public T getValue() {
             return value;
         }
+
+        /**
+         * Marks the entry as in use.
+         *
+         * @return false if the entry has already expired
+         */
+        boolean use() {
+            for (; ; ) {
+                final int current = state.get();
+                if (current == STATE_EXPIRED) {
+                    return false;
+                }
+                if (current == STATE_IN_USE || state.compareAndSet(current, STATE_IN_USE)) {
+                    lastUsed = System.currentTimeMillis();
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            lastUsed = System.currentTimeMillis();
+            state.compareAndSet(STATE_IN_USE, STATE_INACTIVE);
+        }
+
+        void schedule(final long delay) {
+            if (running) {
+                timeout = timingWheel.schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Marks the entry as expired and drops its pending timeout, if any.
+         */
+        void invalidate() {
+            state.set(STATE_EXPIRED);
+            final TimingWheel.Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        /**
+         * Invoked by the timing wheel when the idle timeout of this entry may have elapsed.
+         */
+        @Override
+        public void run() {
+            if (state.get() == STATE_EXPIRED || cache.get(getKey()) != this) {
+                // already removed, nothing to do
+                return;
+            }
+            final long remaining = lastUsed + millisecondTimeout - System.currentTimeMillis();
+            if (remaining >= 0) {
+                // the entry has been used since it was scheduled
+                schedule(remaining);
+                return;
+            }
+            if (!state.compareAndSet(STATE_INACTIVE, STATE_EXPIRED)) {
+                // the entry is in use right now, check again once it could have expired at the earliest
+                schedule(millisecondTimeout);
+                return;
+            }
+            if (cache.remove(getKey(), this)) {
+                // the pre-destroy callbacks are user code, they must not run on the shared wheel thread
+                timingWheel.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, getKey(), millisecondTimeout);
+                            factory.destroyInstance(value);
+                        } catch (Exception e) {
+                            logger.error("Exception removing stateful bean " + getKey(), e);
+                        }
+                    }
+                });
+            }
+        }
     }
 
-    public ExpiringCache(long value, TimeUnit timeUnit, final String beanName) {
+    /**
+     * @param value       the idle timeout, a negative value means beans never expire
+     * @param timeUnit    the unit of the idle timeout
+     * @param beanName    the name of the bean, used for logging
+     * @param timingWheel the timing wheel which drives expiry, may be null if beans never expire
+     */
+    public ExpiringCache(long value, TimeUnit timeUnit, final String beanName, final TimingWheel timingWheel) {
         this.beanName = beanName;
-        millisecondTimeout = TimeUnit.MILLISECONDS.convert(value, timeUnit);
-        cache = new HashMap<Object, Entry>();
+        millisecondTimeout = value < 0 ? -1 : TimeUnit.MILLISECONDS.convert(value, timeUnit);
+        if (millisecondTimeout >= 0 && timingWheel == null) {
+            throw new IllegalArgumentException("A timing wheel is required to expire beans of " + beanName);
+        }
+        this.timingWheel = timingWheel;
+        cache = new ConcurrentHashMap<Object, Entry>(128, 0.75f, Runtime.getRuntime().availableProcessors() * 4);
     }
 
     @Override
     public T create() {
         T obj = factory.createInstance();
         Entry entry = new Entry(obj);
-        synchronized (cache) {
-            cache.put(obj.getId(), entry);
+        cache.put(obj.getId(), entry);
+        if (millisecondTimeout >= 0) {
+            entry.schedule(millisecondTimeout);
         }
         return obj;
     }
 
     @Override
     public void discard(final Serializable key) {
-        synchronized (cache) {
-            cache.remove(key);
+        final Entry entry = cache.remove(key);
+        if (entry != null) {
+            entry.invalidate();
         }
     }
 
     @Override
     public T get(final Serializable key) throws NoSuchEJBException {
-        synchronized (cache) {
-            Entry val = cache.get(key);
-            if (val == null) {
-                throw new NoSuchEJBException("Could not find EJB with id " + key);
-            }
-            val.lastUsed = System.currentTimeMillis();
-            val.state = State.IN_USE;
-            return val.getValue();
+        final Entry val = cache.get(key);
+        if (val == null || !val.use()) {
+            throw new NoSuchEJBException("Could not find EJB with id " + key);
         }
+        return val.getValue();
     }
 
     @Override
     public void release(final T obj) {
-        synchronized (cache) {
-            Entry entry = cache.get(obj.getId());
-
-            if (entry == null) {
-                logger.warn("Could not find stateful bean to release " + obj.getId());
-                return;
-            }
-            //this must stay within the synchronized block so the changes are visible to other threads
-            entry.lastUsed = System.currentTimeMillis();
-            entry.state = State.INACTIVE;
+        final Entry entry = cache.get(obj.getId());
+        if (entry == null) {
+            logger.warn("Could not find stateful bean to release " + obj.getId());
+            return;
         }
+        entry.release();
     }
 
     @Override
     public void remove(final Serializable key) {
-        Entry object;
-        synchronized (cache) {
-            object = cache.remove(key);
-        }
+        final Entry object = cache.remove(key);
         // EJBTHREE-1218: throw NoSuchEJBException if the bean can not be found
         if (object == null)
             throw new NoSuchEJBException(String.valueOf(key));
+        object.invalidate();
 
         factory.destroyInstance(object.value);
     }
@@ -198,23 +227,24 @@ public class ExpiringCache<T extends Identifiable> implements Cache<T> {
         this.factory = tStatefulObjectFactory;
     }
 
+    /**
+     * @return the number of beans currently held by this cache
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
     @Override
-    public synchronized void start() {
-        if (millisecondTimeout >= 0) {
-            expiryThread = new ExpirationTask();
-            expiryThread.setDaemon(true);
-            expiryThread.start();
-            expiryThread.setName("Expiry Thread for SFSB " + beanName);
-        }
+    public void start() {
+        running = true;
     }
 
     @Override
-    public synchronized void stop() {
-        if(expiryThread != null) {
-            expiryThread.stopTask();
-        }
-        synchronized (cache) {
-            cache.clear();
+    public void stop() {
+        running = false;
+        for (Entry entry : cache.values()) {
+            entry.invalidate();
         }
+        cache.clear();
     }
 }
@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * A {@link PassivationStore} which marshals every object into its own file.
+ * <p/>
+ * Passivated state does not survive a restart, so the files are not synced to disk.
+ */
+public class FilePassivationStore implements PassivationStore {
+
+    private static final Logger logger = Logger.getLogger(FilePassivationStore.class);
+
+    private final File directory;
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    /**
+     * @param directory   the directory which holds the files, created if it does not exist
+     * @param classLoader the class loader used to resolve the classes of the stored objects
+     */
+    public FilePassivationStore(final File directory, final ClassLoader classLoader) {
+        this.directory = directory;
+        this.factory = new RiverMarshallerFactory();
+        this.configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(new SimpleClassResolver(classLoader));
+    }
+
+    @Override
+    public void store(final Serializable id, final Object state) throws IOException {
+        if (!directory.exists() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create passivation directory " + directory);
+        }
+        final OutputStream out = new BufferedOutputStream(new FileOutputStream(fileOf(id), false));
+        try {
+            final Marshaller marshaller = factory.createMarshaller(configuration);
+            marshaller.start(new OutputStreamByteOutput(out));
+            marshaller.writeObject(state);
+            marshaller.finish();
+        } finally {
+            safeClose(out);
+        }
+    }
+
+    @Override
+    public Object load(final Serializable id) throws IOException, ClassNotFoundException {
+        final File file = fileOf(id);
+        final InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+            unmarshaller.start(new InputStreamByteInput(in));
+            final Object state = unmarshaller.readObject();
+            unmarshaller.finish();
+            return state;
+        } finally {
+            safeClose(in);
+            delete(file);
+        }
+    }
+
+    @Override
+    public void remove(final Serializable id) {
+        final File file = fileOf(id);
+        if (file.exists()) {
+            delete(file);
+        }
+    }
+
+    @Override
+    public void clear() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                delete(file);
+            }
+        }
+        directory.delete();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private File fileOf(final Serializable id) {
+        return new File(directory, fileName(id.toString()));
+    }
+
+    /**
+     * Maps an arbitrary string onto a name which is safe to use as a file name.
+     */
+    static String fileName(final String name) {
+        final StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.') {
+                builder.append(c);
+            } else {
+                builder.append('_');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void delete(final File file) {
+        if (!file.delete() && file.exists()) {
+            logger.warn("Could not delete passivation file " + file);
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.error("IOException closing passivation file ", e);
+        }
+    }
+}
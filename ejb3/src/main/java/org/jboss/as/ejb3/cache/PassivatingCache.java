@@ -0,0 +1,520 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.logging.Logger;
+
+import javax.ejb.EJBException;
+import javax.ejb.NoSuchEJBException;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache which bounds the number of objects whose state is held in memory.
+ * <p/>
+ * Objects which are not in use are kept in least recently used order. Once more than <code>maxSize</code> objects
+ * are in memory the least recently used ones are passivated: their state is detached by the
+ * {@link PassivationManager} and written to the {@link PassivationStore}. The state is read back, and the object
+ * activated, the next time it is looked up. Objects which are in use are never passivated, so the limit may be
+ * exceeded temporarily while more than <code>maxSize</code> objects are in use. Passivation runs on the eviction
+ * executor rather than on the thread which pushed the cache over its limit, so business calls do not wait for the
+ * store. The state is written to the store without holding any lock, a thread which looks up an object while it is
+ * being passivated waits for the write to finish. If the write fails the object simply stays in memory.
+ * <p/>
+ * Idle timeouts are handled like in {@link ExpiringCache}. An object which times out while it is passivated is
+ * discarded without being activated.
+ */
+public class PassivatingCache<T extends Identifiable> implements Cache<T> {
+
+    private static final Logger logger = Logger.getLogger(PassivatingCache.class);
+
+    private static final int STATE_IN_USE = 0;
+    private static final int STATE_INACTIVE = 1;
+    private static final int STATE_PASSIVATED = 2;
+    private static final int STATE_REMOVED = 3;
+    private static final int STATE_PASSIVATING = 4;
+
+    private final long millisecondTimeout;
+    private final String beanName;
+    private final TimingWheel timingWheel;
+    private final int maxSize;
+    private final PassivationStore store;
+    private final PassivationManager<T> passivationManager;
+    private final PassivationStatistics statistics;
+    private final Executor evictionExecutor;
+
+    private final ConcurrentMap<Object, Entry> cache;
+    /**
+     * The entries which are in memory but not in use, least recently used first. Guarded by itself.
+     */
+    private final LinkedHashMap<Object, Entry> inactive = new LinkedHashMap<Object, Entry>();
+    /**
+     * The number of entries whose state is in memory
+     */
+    private final AtomicInteger inMemory = new AtomicInteger();
+    /**
+     * Whether an eviction run has been handed to the eviction executor and has not finished yet
+     */
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final Runnable evictor = new Runnable() {
+        @Override
+        public void run() {
+            final boolean stored = evictIfNeeded();
+            evictionScheduled.set(false);
+            // an entry released just before the flag was cleared did not schedule a run of its own
+            if (stored && hasInactive()) {
+                scheduleEviction();
+            }
+        }
+    };
+
+    private volatile StatefulObjectFactory<T> factory;
+    private volatile boolean running;
+
+    /**
+     * The state of an entry is guarded by the entry itself.
+     */
+    private final class Entry implements Runnable {
+        private final T value;
+        private int state = STATE_INACTIVE;
+        private int uses;
+        private volatile long lastUsed;
+        private volatile TimingWheel.Timeout timeout;
+
+        Entry(final T value) {
+            this.value = value;
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        Serializable getKey() {
+            return value.getId();
+        }
+
+        void schedule(final long delay) {
+            if (running) {
+                timeout = timingWheel.schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        void cancel() {
+            final TimingWheel.Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        /**
+         * Invoked by the timing wheel when the idle timeout of this entry may have elapsed.
+         */
+        @Override
+        public void run() {
+            final boolean passivated;
+            synchronized (this) {
+                if (state == STATE_REMOVED || cache.get(getKey()) != this) {
+                    return;
+                }
+                final long remaining = lastUsed + millisecondTimeout - System.currentTimeMillis();
+                if (remaining >= 0) {
+                    schedule(remaining);
+                    return;
+                }
+                if (state == STATE_IN_USE || state == STATE_PASSIVATING) {
+                    schedule(millisecondTimeout);
+                    return;
+                }
+                passivated = state == STATE_PASSIVATED;
+                markRemoved(this);
+                cache.remove(getKey(), this);
+            }
+            // neither the store nor the pre-destroy callbacks may hold up the shared wheel thread
+            timingWheel.execute(new Runnable() {
+                @Override
+                public void run() {
+                    logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, getKey(), millisecondTimeout);
+                    if (passivated) {
+                        store.remove(getKey());
+                    } else {
+                        try {
+                            factory.destroyInstance(value);
+                        } catch (Exception e) {
+                            logger.error("Exception removing stateful bean " + getKey(), e);
+                        }
+                    }
+                }
+            });
+        }
+
+        /**
+         * Waits until a concurrent passivation of this entry has finished. Must be called with the entry lock held.
+         */
+        void awaitPassivation() {
+            boolean interrupted = false;
+            try {
+                while (state == STATE_PASSIVATING) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param value              the idle timeout, a negative value means beans never expire
+     * @param timeUnit           the unit of the idle timeout
+     * @param beanName           the name of the bean, used for logging
+     * @param timingWheel        the timing wheel which drives expiry, may be null if beans never expire
+     * @param maxSize            the maximum number of objects to keep in memory
+     * @param store              the store which holds the passivated state
+     * @param passivationManager moves the state of the objects in and out of memory
+     * @param statistics         receives the passivation and activation counts
+     * @param evictionExecutor   runs the passivation of the beans beyond <code>maxSize</code>
+     */
+    public PassivatingCache(final long value, final TimeUnit timeUnit, final String beanName, final TimingWheel timingWheel,
+                            final int maxSize, final PassivationStore store, final PassivationManager<T> passivationManager,
+                            final PassivationStatistics statistics, final Executor evictionExecutor) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid max size " + maxSize + " for passivating cache of " + beanName);
+        }
+        this.beanName = beanName;
+        this.millisecondTimeout = value < 0 ? -1 : TimeUnit.MILLISECONDS.convert(value, timeUnit);
+        if (millisecondTimeout >= 0 && timingWheel == null) {
+            throw new IllegalArgumentException("A timing wheel is required to expire beans of " + beanName);
+        }
+        this.timingWheel = timingWheel;
+        this.maxSize = maxSize;
+        this.store = store;
+        this.passivationManager = passivationManager;
+        this.statistics = statistics;
+        this.evictionExecutor = evictionExecutor;
+        this.cache = new ConcurrentHashMap<Object, Entry>(128, 0.75f, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    @Override
+    public T create() {
+        final T obj = factory.createInstance();
+        final Entry entry = new Entry(obj);
+        inMemory.incrementAndGet();
+        cache.put(obj.getId(), entry);
+        addInactive(entry);
+        if (millisecondTimeout >= 0) {
+            entry.schedule(millisecondTimeout);
+        }
+        scheduleEviction();
+        return obj;
+    }
+
+    @Override
+    public void discard(final Serializable key) {
+        final Entry entry = cache.remove(key);
+        if (entry == null) {
+            return;
+        }
+        final boolean passivated;
+        synchronized (entry) {
+            passivated = entry.state == STATE_PASSIVATED;
+            markRemoved(entry);
+        }
+        if (passivated) {
+            store.remove(key);
+        }
+    }
+
+    @Override
+    public T get(final Serializable key) throws NoSuchEJBException {
+        final Entry entry = cache.get(key);
+        if (entry == null) {
+            throw new NoSuchEJBException("Could not find EJB with id " + key);
+        }
+        synchronized (entry) {
+            entry.awaitPassivation();
+            switch (entry.state) {
+                case STATE_REMOVED:
+                    throw new NoSuchEJBException("Could not find EJB with id " + key);
+                case STATE_PASSIVATED:
+                    activate(entry);
+                    break;
+                case STATE_INACTIVE:
+                    removeInactive(entry);
+                    break;
+            }
+            entry.state = STATE_IN_USE;
+            entry.uses++;
+            entry.lastUsed = System.currentTimeMillis();
+        }
+        scheduleEviction();
+        return entry.value;
+    }
+
+    @Override
+    public void release(final T obj) {
+        final Entry entry = cache.get(obj.getId());
+        if (entry == null) {
+            logger.warn("Could not find stateful bean to release " + obj.getId());
+            return;
+        }
+        synchronized (entry) {
+            entry.lastUsed = System.currentTimeMillis();
+            if (entry.state == STATE_IN_USE && --entry.uses == 0) {
+                entry.state = STATE_INACTIVE;
+                addInactive(entry);
+            }
+        }
+        scheduleEviction();
+    }
+
+    @Override
+    public void remove(final Serializable key) {
+        final Entry entry = cache.remove(key);
+        // EJBTHREE-1218: throw NoSuchEJBException if the bean can not be found
+        if (entry == null)
+            throw new NoSuchEJBException(String.valueOf(key));
+        synchronized (entry) {
+            entry.awaitPassivation();
+            if (entry.state == STATE_REMOVED) {
+                throw new NoSuchEJBException(String.valueOf(key));
+            }
+            if (entry.state == STATE_PASSIVATED) {
+                // the bean has to be active for its pre-destroy callbacks
+                activate(entry);
+            }
+            markRemoved(entry);
+        }
+        factory.destroyInstance(entry.value);
+    }
+
+    @Override
+    public void setStatefulObjectFactory(final StatefulObjectFactory<T> tStatefulObjectFactory) {
+        this.factory = tStatefulObjectFactory;
+    }
+
+    /**
+     * @return the number of beans currently held by this cache, including the passivated ones
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of beans whose state is currently held in memory
+     */
+    public int getInMemoryCount() {
+        return inMemory.get();
+    }
+
+    /**
+     * @return the number of beans which are currently passivated
+     */
+    public int getPassivatedCount() {
+        return cache.size() - inMemory.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Entry entry : cache.values()) {
+            synchronized (entry) {
+                markRemoved(entry);
+            }
+        }
+        cache.clear();
+        store.clear();
+    }
+
+    /**
+     * Hands an eviction run to the eviction executor if there are too many entries in memory and no run is
+     * pending already.
+     */
+    private void scheduleEviction() {
+        if (inMemory.get() > maxSize && evictionScheduled.compareAndSet(false, true)) {
+            try {
+                evictionExecutor.execute(evictor);
+            } catch (RejectedExecutionException e) {
+                // shutting down, the entries are dropped anyway
+                evictionScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Passivates least recently used entries until the number of entries in memory is within bounds, or no
+     * inactive entries are left. Only the pre-passivate callback runs with the entry lock held, the state is
+     * written to the store without holding any lock.
+     *
+     * @return false if the run stopped because the store failed
+     */
+    private boolean evictIfNeeded() {
+        while (inMemory.get() > maxSize) {
+            final Entry victim;
+            synchronized (inactive) {
+                final Iterator<Entry> iterator = inactive.values().iterator();
+                if (!iterator.hasNext()) {
+                    return true;
+                }
+                victim = iterator.next();
+                iterator.remove();
+            }
+            final long start = System.nanoTime();
+            final Object state;
+            synchronized (victim) {
+                // the entry may have been picked up again since it was taken off the list
+                if (victim.state != STATE_INACTIVE) {
+                    continue;
+                }
+                try {
+                    state = passivationManager.passivate(victim.value);
+                } catch (Throwable t) {
+                    // a bean whose pre-passivate callback fails is discarded, without invoking its pre-destroy callbacks
+                    logger.error("Pre-passivate callback of stateful bean " + beanName + " - " + victim.getKey() + " failed, discarding the bean", t);
+                    markRemoved(victim);
+                    cache.remove(victim.getKey(), victim);
+                    continue;
+                }
+                victim.state = STATE_PASSIVATING;
+                inMemory.decrementAndGet();
+            }
+            Throwable failure = null;
+            try {
+                store.store(victim.getKey(), state);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            if (!passivated(victim, state, failure, System.nanoTime() - start)) {
+                // leave the rest for the next attempt rather than spinning on a failing store
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Completes the passivation of an entry once its state has been written, or the write has failed.
+     *
+     * @return false if the state could not be written
+     */
+    private boolean passivated(final Entry entry, final Object state, final Throwable failure, final long elapsed) {
+        final boolean removed;
+        synchronized (entry) {
+            try {
+                removed = entry.state == STATE_REMOVED;
+                if (failure != null) {
+                    if (!removed) {
+                        // the state is still at hand, so only this bean stays in memory
+                        passivationManager.activate(entry.value, state);
+                        entry.state = STATE_INACTIVE;
+                        inMemory.incrementAndGet();
+                        addInactive(entry);
+                    }
+                } else if (!removed) {
+                    entry.state = STATE_PASSIVATED;
+                    statistics.passivated(elapsed);
+                }
+            } finally {
+                entry.notifyAll();
+            }
+        }
+        if (failure != null) {
+            logger.warn("Failed to passivate stateful bean " + beanName + " - " + entry.getKey() + ", keeping it in memory", failure);
+            return false;
+        }
+        if (removed) {
+            // discarded while its state was being written
+            store.remove(entry.getKey());
+        }
+        return true;
+    }
+
+    /**
+     * Must be called with the entry lock held.
+     */
+    private void activate(final Entry entry) {
+        final long start = System.nanoTime();
+        final Object state;
+        try {
+            state = store.load(entry.getKey());
+        } catch (Exception e) {
+            entry.state = STATE_REMOVED;
+            entry.cancel();
+            cache.remove(entry.getKey(), entry);
+            throw new EJBException("Failed to activate stateful bean " + beanName + " - " + entry.getKey(), e);
+        }
+        passivationManager.activate(entry.value, state);
+        entry.state = STATE_INACTIVE;
+        inMemory.incrementAndGet();
+        statistics.activated(System.nanoTime() - start);
+    }
+
+    /**
+     * Must be called with the entry lock held.
+     */
+    private void markRemoved(final Entry entry) {
+        if (entry.state == STATE_REMOVED) {
+            return;
+        }
+        if (entry.state == STATE_INACTIVE) {
+            removeInactive(entry);
+        }
+        if (entry.state != STATE_PASSIVATED && entry.state != STATE_PASSIVATING) {
+            inMemory.decrementAndGet();
+        }
+        entry.state = STATE_REMOVED;
+        entry.cancel();
+    }
+
+    private void addInactive(final Entry entry) {
+        synchronized (inactive) {
+            inactive.put(entry.getKey(), entry);
+        }
+    }
+
+    private boolean hasInactive() {
+        synchronized (inactive) {
+            return !inactive.isEmpty();
+        }
+    }
+
+    private void removeInactive(final Entry entry) {
+        synchronized (inactive) {
+            inactive.remove(entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+/**
+ * Moves the state of a cached object in and out of memory.
+ * <p/>
+ * The object itself stays in the cache, only the state returned by {@link #passivate(Object)} is written to
+ * the {@link PassivationStore}.
+ */
+public interface PassivationManager<T> {
+
+    /**
+     * Invokes the pre-passivate callbacks on <code>obj</code> and detaches its state.
+     *
+     * @param obj the object to passivate
+     * @return the state which must be stored
+     */
+    Object passivate(T obj);
+
+    /**
+     * Reattaches previously passivated state to <code>obj</code> and invokes the post-activate callbacks.
+     *
+     * @param obj   the object to activate
+     * @param state the state returned by {@link #passivate(Object)}
+     */
+    void activate(T obj, Object state);
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Passivation and activation counters, shared between all caches which use the same passivation store.
+ */
+public class PassivationStatistics {
+
+    private final AtomicLong passivationCount = new AtomicLong();
+    private final AtomicLong passivationTime = new AtomicLong();
+    private final AtomicLong activationCount = new AtomicLong();
+    private final AtomicLong activationTime = new AtomicLong();
+
+    void passivated(final long nanos) {
+        passivationCount.incrementAndGet();
+        passivationTime.addAndGet(nanos);
+    }
+
+    void activated(final long nanos) {
+        activationCount.incrementAndGet();
+        activationTime.addAndGet(nanos);
+    }
+
+    public long getPassivationCount() {
+        return passivationCount.get();
+    }
+
+    public long getActivationCount() {
+        return activationCount.get();
+    }
+
+    /**
+     * @return the average time spent passivating an object, in milliseconds
+     */
+    public long getAveragePassivationTime() {
+        return average(passivationTime.get(), passivationCount.get());
+    }
+
+    /**
+     * @return the average time spent activating an object, in milliseconds
+     */
+    public long getAverageActivationTime() {
+        return average(activationTime.get(), activationCount.get());
+    }
+
+    private static long average(final long nanos, final long count) {
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos / count);
+    }
+}
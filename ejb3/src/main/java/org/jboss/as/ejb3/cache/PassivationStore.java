@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Secondary storage for the state of passivated objects.
+ */
+public interface PassivationStore {
+
+    /**
+     * Writes the state of the object with the given id.
+     *
+     * @param id    the id of the object
+     * @param state the state
+     * @throws IOException if the state could not be written
+     */
+    void store(Serializable id, Object state) throws IOException;
+
+    /**
+     * Reads and removes the state of the object with the given id.
+     *
+     * @param id the id of the object
+     * @return the state
+     * @throws IOException            if the state could not be read
+     * @throws ClassNotFoundException if a class of the state can not be loaded
+     */
+    Object load(Serializable id) throws IOException, ClassNotFoundException;
+
+    /**
+     * Discards the state of the object with the given id, if any.
+     *
+     * @param id the id of the object
+     */
+    void remove(Serializable id);
+
+    /**
+     * Discards all stored state.
+     */
+    void clear();
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+import java.io.File;
+
+/**
+ * Service which holds the configuration of stateful session bean passivation. Stateful components which depend
+ * on this service keep at most {@link #getMaxSize()} beans in memory and passivate the others to a directory
+ * below {@link #PATH_SERVICE_NAME}.
+ */
+public class PassivationStoreService implements Service<PassivationStoreService> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb").append("passivation-store");
+
+    public static final ServiceName PATH_SERVICE_NAME = SERVICE_NAME.append("path");
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final int maxSize;
+    private final InjectedValue<String> path = new InjectedValue<String>();
+    private final PassivationStatistics statistics = new PassivationStatistics();
+    private volatile File directory;
+
+    public PassivationStoreService(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        final File directory = new File(path.getValue());
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new StartException("Could not create passivation directory " + directory);
+        }
+        this.directory = directory;
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        directory = null;
+    }
+
+    @Override
+    public PassivationStoreService getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    /**
+     * Creates the store for the beans of a single component.
+     *
+     * @param name        a name which uniquely identifies the component
+     * @param classLoader the class loader of the component
+     * @return the store
+     */
+    public PassivationStore createStore(final String name, final ClassLoader classLoader) {
+        final File directory = this.directory;
+        if (directory == null) {
+            throw new IllegalStateException("Service " + SERVICE_NAME + " is not started");
+        }
+        return new FilePassivationStore(new File(directory, FilePassivationStore.fileName(name)), classLoader);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public PassivationStatistics getStatistics() {
+        return statistics;
+    }
+
+    public InjectedValue<String> getPathInjector() {
+        return path;
+    }
+}
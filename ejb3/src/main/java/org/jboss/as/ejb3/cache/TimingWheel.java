@@ -0,0 +1,290 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timing wheel which runs coarse grained timeouts on a single thread.
+ * <p/>
+ * Scheduling a timeout is O(1) and lock free: the timeout is put on a queue which the worker thread drains into
+ * the wheel once per tick. Each slot of the wheel covers one tick, timeouts further away than one revolution
+ * carry the number of remaining rounds. Timeouts fire at most one tick late, which is more than accurate enough
+ * for things like <code>@StatefulTimeout</code>.
+ * <p/>
+ * A single wheel is meant to be shared between many users, the expiry tasks are run on the wheel thread and must
+ * therefore be short. Anything which may block, such as invoking callbacks of user code, has to be handed off
+ * through {@link #execute(Runnable)}, which runs it on a small pool of worker threads owned by the wheel.
+ */
+public class TimingWheel {
+
+    private static final Logger logger = Logger.getLogger(TimingWheel.class);
+
+    public static final long DEFAULT_TICK_MILLIS = 100;
+
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final String name;
+    private final long tickMillis;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<Timeout>();
+
+    private volatile Thread worker;
+    private volatile ThreadPoolExecutor executor;
+    private volatile boolean running;
+    private volatile long startTime;
+
+    public TimingWheel(final String name) {
+        this(name, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(final String name, final long tickDuration, final TimeUnit unit, final int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Invalid tick duration " + tickDuration);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("Invalid wheel size " + wheelSize);
+        }
+        this.name = name;
+        this.tickMillis = Math.max(1, unit.toMillis(tickDuration));
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new List[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayList<Timeout>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Schedules <code>task</code> to run once after <code>delay</code> has elapsed.
+     *
+     * @param task  the task to run
+     * @param delay the delay
+     * @param unit  the unit of the delay
+     * @return a handle which can be used to cancel the task
+     */
+    public Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel " + name + " is not running");
+        }
+        final Timeout timeout = new Timeout(task, System.currentTimeMillis() + Math.max(0, unit.toMillis(delay)));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Runs <code>task</code> on one of the worker threads of this wheel. Expiry tasks use this for any work which
+     * must not hold up the wheel thread. If the wheel is not running the task is run on the calling thread.
+     *
+     * @param task the task to run
+     */
+    public void execute(final Runnable task) {
+        final ThreadPoolExecutor executor = this.executor;
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the wheel has been stopped concurrently
+            }
+        }
+        task.run();
+    }
+
+    /**
+     * @return the number of timeouts which have been scheduled but not yet transferred to the wheel
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startTime = System.currentTimeMillis();
+        final int workers = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new WorkerThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+        final Thread thread = new Thread(new Worker(), name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        final Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(tickMillis * 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        pending.clear();
+        for (List<Timeout> bucket : wheel) {
+            bucket.clear();
+        }
+        final ThreadPoolExecutor executor = this.executor;
+        this.executor = null;
+        if (executor != null) {
+            // work which has already been handed off is still run
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A handle to a scheduled task.
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        Timeout(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task. Cancellation is lazy, the handle is discarded when its slot is next visited.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    private final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, name + " worker " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        private long tick;
+
+        @Override
+        public void run() {
+            while (running) {
+                final long deadline = startTime + (tick + 1) * tickMillis;
+                long sleep = deadline - System.currentTimeMillis();
+                while (sleep > 0) {
+                    try {
+                        Thread.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        if (!running) {
+                            return;
+                        }
+                    }
+                    sleep = deadline - System.currentTimeMillis();
+                }
+                transferPending();
+                expire(wheel[(int) (tick & mask)], deadline);
+                tick++;
+            }
+        }
+
+        private void transferPending() {
+            Timeout timeout;
+            while ((timeout = pending.poll()) != null) {
+                if (timeout.cancelled) {
+                    continue;
+                }
+                // never schedule into a slot which has already been processed
+                final long ticks = Math.max(tick, (timeout.deadline - startTime) / tickMillis);
+                timeout.remainingRounds = (ticks - tick) / wheel.length;
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+
+        private void expire(final List<Timeout> bucket, final long deadline) {
+            final Iterator<Timeout> iterator = bucket.iterator();
+            List<Timeout> expired = null;
+            while (iterator.hasNext()) {
+                final Timeout timeout = iterator.next();
+                if (timeout.cancelled) {
+                    iterator.remove();
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    iterator.remove();
+                    if (expired == null) {
+                        expired = new ArrayList<Timeout>();
+                    }
+                    expired.add(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+            }
+            if (expired != null) {
+                // run after the iteration, a task is free to schedule new timeouts
+                for (Timeout timeout : expired) {
+                    try {
+                        timeout.task.run();
+                    } catch (Throwable t) {
+                        logger.error("Failed to run timeout task " + timeout.task + " on " + name, t);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Service which provides the {@link TimingWheel} shared by the caches of all stateful session beans.
+ */
+public class TimingWheelService implements Service<TimingWheel> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb").append("stateful-expiration-timing-wheel");
+
+    private volatile TimingWheel timingWheel;
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        final TimingWheel timingWheel = new TimingWheel("EJB stateful session bean expiration");
+        timingWheel.start();
+        this.timingWheel = timingWheel;
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        final TimingWheel timingWheel = this.timingWheel;
+        this.timingWheel = null;
+        if (timingWheel != null) {
+            timingWheel.stop();
+        }
+    }
+
+    @Override
+    public TimingWheel getValue() throws IllegalStateException, IllegalArgumentException {
+        final TimingWheel timingWheel = this.timingWheel;
+        if (timingWheel == null) {
+            throw new IllegalStateException("Service " + SERVICE_NAME + " is not started");
+        }
+        return timingWheel;
+    }
+}
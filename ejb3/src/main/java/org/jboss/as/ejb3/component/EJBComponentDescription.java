@@ -147,6 +147,8 @@ public abstract class EJBComponentDescription extends ComponentDescription {
     private final List<String> aroundInvokeDDMethods = new ArrayList<String>(0);
     private final List<String> preDestroyDDMethods = new ArrayList<String>(0);
     private final List<String> postConstructDDMethods = new ArrayList<String>(0);
+    private final List<String> prePassivateDDMethods = new ArrayList<String>(0);
+    private final List<String> postActivateDDMethods = new ArrayList<String>(0);
 
     /**
      * TODO: this should not be part of the description
@@ -747,6 +749,14 @@ public abstract class EJBComponentDescription extends ComponentDescription {
         return preDestroyDDMethods;
     }
 
+    public List<String> getPrePassivateDDMethods() {
+        return prePassivateDDMethods;
+    }
+
+    public List<String> getPostActivateDDMethods() {
+        return postActivateDDMethods;
+    }
+
     public TimerService getTimerService() {
         return timerService;
     }
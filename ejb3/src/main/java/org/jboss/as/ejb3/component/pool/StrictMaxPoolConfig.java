@@ -25,7 +25,13 @@ package org.jboss.as.ejb3.component.pool;
 import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
 import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
+import org.jboss.as.ejb3.pool.strictmax.StripedStrictMaxPool;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -46,22 +52,62 @@ public class StrictMaxPoolConfig extends PoolConfig {
 
     private final long timeout;
 
+    /**
+     * The number of free list stripes. If this is zero the single-lock {@link StrictMaxPool} is used, otherwise
+     * a {@link StripedStrictMaxPool} with (at most) this many stripes is created.
+     */
+    private final int stripes;
+
+    /**
+     * The pools created from this config. Components do not stop their pool when they are undeployed, so the
+     * pools are only weakly held and drop out once the component is collected.
+     */
+    private final Set<Pool<?>> pools = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Pool<?>, Boolean>()));
+
     public StrictMaxPoolConfig(final String poolName, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(poolName, maxSize, timeout, timeUnit, 0);
+    }
+
+    public StrictMaxPoolConfig(final String poolName, int maxSize, long timeout, TimeUnit timeUnit, int stripes) {
         super(poolName);
+        if (stripes < 0) {
+            throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+        }
         this.maxPoolSize = maxSize;
         this.timeout = timeout;
         this.timeoutUnit = timeUnit;
+        this.stripes = stripes;
     }
 
     @Override
     public Pool<?> createPool(final StatelessObjectFactory statelessObjectFactory) {
-        return new StrictMaxPool(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        final Pool<?> pool;
+        if (this.stripes > 0) {
+            pool = new StripedStrictMaxPool(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit, this.stripes);
+        } else {
+            pool = new StrictMaxPool(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        }
+        pools.add(pool);
+        return pool;
+    }
+
+    /**
+     * @return the pools which have been created from this config and are still referenced by their component
+     */
+    public List<Pool<?>> getPools() {
+        synchronized (pools) {
+            return new ArrayList<Pool<?>>(pools);
+        }
     }
 
     public int getMaxPoolSize() {
         return maxPoolSize;
     }
 
+    public int getStripes() {
+        return stripes;
+    }
+
     @Override
     public String toString() {
         return "StrictMaxPoolConfig{" +
@@ -69,6 +115,7 @@ public class StrictMaxPoolConfig extends PoolConfig {
                 "maxPoolSize=" + maxPoolSize +
                 ", timeoutUnit=" + timeoutUnit +
                 ", timeout=" + timeout +
+                ", stripes=" + stripes +
                 '}';
     }
 }
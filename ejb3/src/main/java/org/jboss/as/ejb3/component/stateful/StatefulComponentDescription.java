@@ -28,12 +28,17 @@ import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.ComponentConfigurator;
 import org.jboss.as.ee.component.ComponentDescription;
 import org.jboss.as.ee.component.ComponentInstanceInterceptorFactory;
+import org.jboss.as.ee.component.DependencyConfigurator;
 import org.jboss.as.ee.component.EEApplicationDescription;
 import org.jboss.as.ee.component.ViewConfiguration;
 import org.jboss.as.ee.component.ViewConfigurator;
 import org.jboss.as.ee.component.ViewDescription;
 import org.jboss.as.ee.component.interceptors.InterceptorOrder;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
+import org.jboss.as.ejb3.cache.TimingWheel;
+import org.jboss.as.ejb3.cache.TimingWheelService;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
+import org.jboss.as.ejb3.component.session.SessionInvocationContextInterceptor;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -43,6 +48,8 @@ import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
 import org.jboss.invocation.proxy.MethodIdentifier;
 import org.jboss.logging.Logger;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
 
 import javax.ejb.TransactionManagementType;
@@ -114,6 +121,18 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         super(componentName, componentClassName, ejbJarDescription, deploymentUnitServiceName);
 
         addStatefulSessionSynchronizationInterceptor();
+        addPassivationInvocationContextInterceptor();
+    }
+
+    private void addPassivationInvocationContextInterceptor() {
+        // the pre-passivate and post-activate callbacks run in the same invocation context as the other lifecycle callbacks
+        getConfigurators().add(new ComponentConfigurator() {
+            @Override
+            public void configure(DeploymentPhaseContext context, ComponentDescription description, ComponentConfiguration configuration) throws DeploymentUnitProcessingException {
+                configuration.addPrePassivateInterceptor(SessionInvocationContextInterceptor.LIFECYCLE_FACTORY, InterceptorOrder.ComponentPassivation.EJB_SESSION_CONTEXT_INTERCEPTOR);
+                configuration.addPostActivateInterceptor(SessionInvocationContextInterceptor.LIFECYCLE_FACTORY, InterceptorOrder.ComponentPassivation.EJB_SESSION_CONTEXT_INTERCEPTOR);
+            }
+        });
     }
 
     private void addStatefulSessionSynchronizationInterceptor() {
@@ -139,6 +158,16 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         final ComponentConfiguration statefulComponentConfiguration = new ComponentConfiguration(this, applicationDescription.getClassConfiguration(getComponentClassName()));
         // setup the component create service
         statefulComponentConfiguration.setComponentCreateServiceFactory(new StatefulComponentCreateServiceFactory());
+        // inject the timing wheel which expires the beans of all stateful components, and the passivation store if
+        // passivation is configured
+        statefulComponentConfiguration.getCreateDependencies().add(new DependencyConfigurator<Service<Component>>() {
+            @Override
+            public void configureDependency(final ServiceBuilder<?> serviceBuilder, final Service<Component> service) throws DeploymentUnitProcessingException {
+                final StatefulSessionComponentCreateService statefulSessionComponentCreateService = (StatefulSessionComponentCreateService) service;
+                serviceBuilder.addDependency(TimingWheelService.SERVICE_NAME, TimingWheel.class, statefulSessionComponentCreateService.getTimingWheelInjector());
+                serviceBuilder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, PassivationStoreService.SERVICE_NAME, PassivationStoreService.class, statefulSessionComponentCreateService.getPassivationStoreInjector());
+            }
+        });
 
         if(getTransactionManagementType() == TransactionManagementType.BEAN) {
             getConfigurators().add(new ComponentConfigurator() {
@@ -167,6 +196,11 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         return true;
     }
 
+    @Override
+    public boolean isPassivationApplicable() {
+        return true;
+    }
+
     public MethodDescription getAfterBegin() {
         return afterBegin;
     }
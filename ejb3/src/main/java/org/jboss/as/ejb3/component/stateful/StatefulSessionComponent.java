@@ -25,12 +25,17 @@ import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.cache.Cache;
 import org.jboss.as.ejb3.cache.ExpiringCache;
+import org.jboss.as.ejb3.cache.PassivatingCache;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
 import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.cache.TimingWheel;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
 import org.jboss.as.ejb3.context.spi.SessionContext;
 import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
@@ -49,6 +54,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -69,6 +75,8 @@ public class StatefulSessionComponent extends SessionBeanComponent {
     private final InterceptorFactory afterBegin;
     private final InterceptorFactory afterCompletion;
     private final InterceptorFactory beforeCompletion;
+    private final InterceptorFactory prePassivate;
+    private final InterceptorFactory postActivate;
     private final Map<EJBBusinessMethod, AccessTimeoutDetails> methodAccessTimeouts;
 
     /**
@@ -84,11 +92,40 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         this.beforeCompletion = ejbComponentCreateService.getBeforeCompletion();
         this.methodAccessTimeouts = ejbComponentCreateService.getMethodApplicableAccessTimeouts();
 
+        this.prePassivate = ejbComponentCreateService.getPrePassivate();
+        this.postActivate = ejbComponentCreateService.getPostActivate();
+
         final StatefulTimeoutInfo statefulTimeout = ejbComponentCreateService.getStatefulTimeout();
-        if (statefulTimeout != null) {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(statefulTimeout.getValue(), statefulTimeout.getTimeUnit(), ejbComponentCreateService.getComponentClass().getName());
+        final long timeout = statefulTimeout != null ? statefulTimeout.getValue() : -1;
+        final TimeUnit timeUnit = statefulTimeout != null ? statefulTimeout.getTimeUnit() : TimeUnit.MILLISECONDS;
+        final TimingWheel timingWheel = ejbComponentCreateService.getTimingWheel();
+        final String beanName = ejbComponentCreateService.getComponentClass().getName();
+        final PassivationStoreService passivationStore = ejbComponentCreateService.getPassivationStore();
+        if (passivationStore != null) {
+            final DeploymentUnit deploymentUnit = ejbComponentCreateService.getDeploymentUnitInjector().getValue();
+            final String deploymentName = deploymentUnit.getParent() == null ? deploymentUnit.getName() : deploymentUnit.getParent().getName() + "." + deploymentUnit.getName();
+            final String storeName = deploymentName + "-" + ejbComponentCreateService.getComponentName();
+            cache = new PassivatingCache<StatefulSessionComponentInstance>(timeout, timeUnit, beanName, timingWheel, passivationStore.getMaxSize(),
+                    passivationStore.createStore(storeName, ejbComponentCreateService.getComponentClass().getClassLoader()),
+                    new PassivationManager<StatefulSessionComponentInstance>() {
+                        @Override
+                        public Object passivate(final StatefulSessionComponentInstance instance) {
+                            return instance.passivate();
+                        }
+
+                        @Override
+                        public void activate(final StatefulSessionComponentInstance instance, final Object state) {
+                            instance.activate(state);
+                        }
+                    }, passivationStore.getStatistics(), new Executor() {
+                        @Override
+                        public void execute(final Runnable command) {
+                            // passivation shares the worker threads of the wheel with the expiry of the beans
+                            timingWheel.execute(command);
+                        }
+                    });
         } else {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(-1, TimeUnit.MILLISECONDS, ejbComponentCreateService.getComponentClass().getName());
+            cache = new ExpiringCache<StatefulSessionComponentInstance>(timeout, timeUnit, beanName, timingWheel);
         }
         cache.setStatefulObjectFactory(new StatefulObjectFactory<StatefulSessionComponentInstance>() {
             @Override
@@ -191,7 +228,7 @@ public class StatefulSessionComponent extends SessionBeanComponent {
 
     @Override
     protected BasicComponentInstance instantiateComponentInstance(AtomicReference<ManagedReference> instanceReference, Interceptor preDestroyInterceptor, Map<Method, Interceptor> methodInterceptors, final InterceptorFactoryContext interceptorContext) {
-        return new StatefulSessionComponentInstance(this, instanceReference, preDestroyInterceptor, methodInterceptors);
+        return new StatefulSessionComponentInstance(this, instanceReference, preDestroyInterceptor, methodInterceptors, interceptorContext);
     }
 
     /**
@@ -236,6 +273,14 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         return beforeCompletion;
     }
 
+    public InterceptorFactory getPrePassivate() {
+        return prePassivate;
+    }
+
+    public InterceptorFactory getPostActivate() {
+        return postActivate;
+    }
+
     /**
  * A {@link javax.transaction.Synchronization} which removes a stateful session in it's {@link javax.transaction.Synchronization#afterCompletion(int)}
  * callback.
@@ -26,12 +26,15 @@ import org.jboss.as.ee.component.BasicComponent;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.TCCLInterceptor;
 import org.jboss.as.ejb3.PrimitiveClassLoaderUtil;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
+import org.jboss.as.ejb3.cache.TimingWheel;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentCreateService;
 import org.jboss.as.ejb3.component.session.SessionInvocationContextInterceptor;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.Interceptors;
+import org.jboss.msc.value.InjectedValue;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
@@ -43,7 +46,11 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
     private final InterceptorFactory afterBegin;
     private final InterceptorFactory afterCompletion;
     private final InterceptorFactory beforeCompletion;
+    private final InterceptorFactory prePassivate;
+    private final InterceptorFactory postActivate;
     private final StatefulTimeoutInfo statefulTimeout;
+    private final InjectedValue<TimingWheel> timingWheel = new InjectedValue<TimingWheel>();
+    private final InjectedValue<PassivationStoreService> passivationStore = new InjectedValue<PassivationStoreService>();
 
     /**
      * Construct a new instance.
@@ -60,6 +67,10 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
         this.afterBegin = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getAfterBegin()));
         this.afterCompletion = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getAfterCompletion()));
         this.beforeCompletion = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getBeforeCompletion()));
+        // resolved like the post-construct and pre-destroy callbacks, so they include the callbacks of the interceptor
+        // classes and those declared in ejb-jar.xml
+        this.prePassivate = Interceptors.getChainedInterceptorFactory(componentConfiguration.getPrePassivateInterceptors());
+        this.postActivate = Interceptors.getChainedInterceptorFactory(componentConfiguration.getPostActivateInterceptors());
         this.statefulTimeout = componentDescription.getStatefulTimeout();
     }
 
@@ -127,7 +138,31 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
         return beforeCompletion;
     }
 
+    public InterceptorFactory getPrePassivate() {
+        return prePassivate;
+    }
+
+    public InterceptorFactory getPostActivate() {
+        return postActivate;
+    }
+
     public StatefulTimeoutInfo getStatefulTimeout() {
         return statefulTimeout;
     }
+
+    public InjectedValue<TimingWheel> getTimingWheelInjector() {
+        return timingWheel;
+    }
+
+    TimingWheel getTimingWheel() {
+        return timingWheel.getOptionalValue();
+    }
+
+    public InjectedValue<PassivationStoreService> getPassivationStoreInjector() {
+        return passivationStore;
+    }
+
+    PassivationStoreService getPassivationStore() {
+        return passivationStore.getOptionalValue();
+    }
 }
@@ -25,9 +25,12 @@ import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentInstance;
 import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ValueManagedReference;
 import org.jboss.as.ejb3.cache.Identifiable;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.InterceptorFactoryContext;
+import org.jboss.msc.value.ImmediateValue;
 import org.jboss.util.id.GUID;
 
 import javax.ejb.EJBException;
@@ -45,6 +48,9 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
     private final Interceptor afterBegin;
     private final Interceptor afterCompletion;
     private final Interceptor beforeCompletion;
+    private final Interceptor prePassivate;
+    private final Interceptor postActivate;
+    private final AtomicReference<ManagedReference> instanceReference;
 
     private boolean isDiscarded = false;
 
@@ -52,14 +58,19 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
      * Construct a new instance.
      *
      * @param component the component
+     * @param interceptorContext the context the interceptor instances of this component instance were created in
      */
-    protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors) {
+    protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors, final InterceptorFactoryContext interceptorContext) {
         super(component, instanceReference, preDestroyInterceptor, methodInterceptors);
         this.id = new GUID();
 
         this.afterBegin = component.createInterceptor(component.getAfterBegin());
         this.afterCompletion = component.createInterceptor(component.getAfterCompletion());
         this.beforeCompletion = component.createInterceptor(component.getBeforeCompletion());
+        // like the pre-destroy chain, these invoke the callbacks of this instance's interceptors
+        this.prePassivate = component.getPrePassivate().create(interceptorContext);
+        this.postActivate = component.getPostActivate().create(interceptorContext);
+        this.instanceReference = instanceReference;
     }
 
     protected void afterBegin() {
@@ -74,6 +85,29 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
         execute(beforeCompletion);
     }
 
+    /**
+     * Invokes the pre-passivate callbacks and detaches the bean instance. Only the bean instance itself is
+     * passivated, this component instance and its interceptors stay in memory.
+     *
+     * @return the bean instance
+     */
+    Object passivate() {
+        execute(prePassivate);
+        final Object instance = getInstance();
+        instanceReference.set(null);
+        return instance;
+    }
+
+    /**
+     * Reattaches a previously passivated bean instance and invokes the post-activate callbacks.
+     *
+     * @param instance the bean instance
+     */
+    void activate(final Object instance) {
+        instanceReference.set(new ValueManagedReference(new ImmediateValue<Object>(instance)));
+        execute(postActivate);
+    }
+
     protected void discard() {
         if (!isDiscarded) {
             isDiscarded = true;
@@ -34,8 +34,10 @@ import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.component.session.SessionInvocationContextInterceptor;
 import org.jboss.as.ejb3.component.singleton.SingletonComponentDescription;
 import org.jboss.as.ejb3.component.stateless.StatelessComponentDescription;
+import org.jboss.as.ejb3.timerservice.TimeoutSchedulerService;
 import org.jboss.as.ejb3.timerservice.TimerServiceFactoryService;
 import org.jboss.as.ejb3.timerservice.TimerServiceService;
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
 import org.jboss.as.ejb3.timerservice.spi.TimerServiceFactory;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -64,12 +66,14 @@ public class TimerServiceDeploymentProcessor implements DeploymentUnitProcessor
 
     private final int coreThreads;
     private final int maxThreads;
+    private final boolean journal;
 
     private final boolean enabled;
 
-    public TimerServiceDeploymentProcessor(final int coreThreads, final int maxThreads, boolean enabled) {
+    public TimerServiceDeploymentProcessor(final int coreThreads, final int maxThreads, final boolean journal, boolean enabled) {
         this.coreThreads = coreThreads;
         this.maxThreads = maxThreads;
+        this.journal = journal;
         this.enabled = enabled;
     }
 
@@ -140,11 +144,12 @@ public class TimerServiceDeploymentProcessor implements DeploymentUnitProcessor
             name = deploymentUnit.getParent().getName() + "--" + deploymentUnit.getName();
         }
 
-        final TimerServiceFactoryService factoryService = new TimerServiceFactoryService(coreThreads, maxThreads, name, module);
+        final TimerServiceFactoryService factoryService = new TimerServiceFactoryService(coreThreads, maxThreads, journal, name, module);
         final ServiceBuilder<TimerServiceFactory> factoryBuilder = serviceTarget.addService(deploymentUnit.getServiceName().append(TimerServiceFactoryService.SERVICE_NAME), factoryService);
         factoryBuilder.addDependency(TransactionManagerService.SERVICE_NAME, TransactionManager.class, factoryService.getTransactionManagerInjectedValue());
         factoryBuilder.addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, factoryService.getTransactionSynchronizationRegistryInjectedValue());
         factoryBuilder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, TimerServiceFactoryService.PATH_SERVICE_NAME, String.class, factoryService.getPath());
+        factoryBuilder.addDependency(TimeoutSchedulerService.SERVICE_NAME, TimeoutScheduler.class, factoryService.getScheduler());
         factoryBuilder.install();
     }
 
@@ -56,7 +56,8 @@ public class DeploymentDescriptorMethodProcessor implements DeploymentUnitProces
         for (final ComponentDescription component : eeModuleDescription.getComponentDescriptions()) {
             if (component instanceof EJBComponentDescription) {
                 final EJBComponentDescription ejb = (EJBComponentDescription) component;
-                if (!ejb.getAroundInvokeDDMethods().isEmpty() || !ejb.getPostConstructDDMethods().isEmpty() || !ejb.getPreDestroyDDMethods().isEmpty()) {
+                if (!ejb.getAroundInvokeDDMethods().isEmpty() || !ejb.getPostConstructDDMethods().isEmpty() || !ejb.getPreDestroyDDMethods().isEmpty()
+                        || !ejb.getPrePassivateDDMethods().isEmpty() || !ejb.getPostActivateDDMethods().isEmpty()) {
                     try {
                         final Class<?> clazz = module.getClassLoader().loadClass(ejb.getComponentClassName());
                         for (String aroundInvoke : ejb.getAroundInvokeDDMethods()) {
@@ -74,6 +75,16 @@ public class DeploymentDescriptorMethodProcessor implements DeploymentUnitProces
                             final Method method = ClassReflectionIndexUtil.findRequiredMethod(index, index.getClassIndex(clazz), postConstructIdentifier);
                             applicationClassesDescription.getOrAddClassByName(method.getDeclaringClass().getName()).setPostConstructMethod(postConstructIdentifier);
                         }
+                        for (String prePassivate : ejb.getPrePassivateDDMethods()) {
+                            final MethodIdentifier prePassivateIdentifier = MethodIdentifier.getIdentifier(void.class, prePassivate);
+                            final Method method = ClassReflectionIndexUtil.findRequiredMethod(index, index.getClassIndex(clazz), prePassivateIdentifier);
+                            applicationClassesDescription.getOrAddClassByName(method.getDeclaringClass().getName()).setPrePassivateMethod(prePassivateIdentifier);
+                        }
+                        for (String postActivate : ejb.getPostActivateDDMethods()) {
+                            final MethodIdentifier postActivateIdentifier = MethodIdentifier.getIdentifier(void.class, postActivate);
+                            final Method method = ClassReflectionIndexUtil.findRequiredMethod(index, index.getClassIndex(clazz), postActivateIdentifier);
+                            applicationClassesDescription.getOrAddClassByName(method.getDeclaringClass().getName()).setPostActivateMethod(postActivateIdentifier);
+                        }
 
                     } catch (ClassNotFoundException e) {
                         throw new DeploymentUnitProcessingException("Could not load component class " + ejb.getComponentClassName());
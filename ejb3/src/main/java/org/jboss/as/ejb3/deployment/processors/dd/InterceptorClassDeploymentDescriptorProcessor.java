@@ -101,6 +101,28 @@ public class InterceptorClassDeploymentDescriptorProcessor implements Deployment
                     interceptorModuleClassDescription.setPreDestroyMethod(methodIdentifier);
                 }
             }
+
+            // pre-passivate(s) of the interceptor configured (if any) in the deployment descriptor
+            LifecycleCallbacksMetaData prePassivates = interceptor.getPrePassivates();
+            if (prePassivates != null) {
+                for (LifecycleCallbackMetaData prePassivate : prePassivates) {
+                    String methodName = prePassivate.getMethodName();
+                    MethodIdentifier methodIdentifier = MethodIdentifier.getIdentifier(Void.TYPE, methodName, InvocationContext.class);
+                    // add it to the interceptor description
+                    interceptorModuleClassDescription.setPrePassivateMethod(methodIdentifier);
+                }
+            }
+
+            // post-activate(s) of the interceptor configured (if any) in the deployment descriptor
+            LifecycleCallbacksMetaData postActivates = interceptor.getPostActivates();
+            if (postActivates != null) {
+                for (LifecycleCallbackMetaData postActivate : postActivates) {
+                    String methodName = postActivate.getMethodName();
+                    MethodIdentifier methodIdentifier = MethodIdentifier.getIdentifier(Void.TYPE, methodName, InvocationContext.class);
+                    // add it to the interceptor description
+                    interceptorModuleClassDescription.setPostActivateMethod(methodIdentifier);
+                }
+            }
         }
 
     }
@@ -147,6 +147,30 @@ public class SessionBeanXmlDescriptorProcessor extends AbstractEjbXmlDescriptorP
             }
         }
 
+        if (enterpriseBean.getPrePassivates() != null) {
+            for (LifecycleCallbackMetaData interceptor : enterpriseBean.getPrePassivates()) {
+                if (interceptor.getClassName() == null) {
+                    ejbComponentDescription.getPrePassivateDDMethods().add(interceptor.getMethodName());
+                } else {
+                    final EEModuleClassDescription interceptorModuleClassDescription = applicationClassesDescription.getOrAddClassByName(interceptor.getClassName());
+                    final MethodIdentifier identifier = MethodIdentifier.getIdentifier(Object.class, interceptor.getMethodName(), InvocationContext.class);
+                    interceptorModuleClassDescription.setPrePassivateMethod(identifier);
+                }
+            }
+        }
+
+        if (enterpriseBean.getPostActivates() != null) {
+            for (LifecycleCallbackMetaData interceptor : enterpriseBean.getPostActivates()) {
+                if (interceptor.getClassName() == null) {
+                    ejbComponentDescription.getPostActivateDDMethods().add(interceptor.getMethodName());
+                } else {
+                    final EEModuleClassDescription interceptorModuleClassDescription = applicationClassesDescription.getOrAddClassByName(interceptor.getClassName());
+                    final MethodIdentifier identifier = MethodIdentifier.getIdentifier(Object.class, interceptor.getMethodName(), InvocationContext.class);
+                    interceptorModuleClassDescription.setPostActivateMethod(identifier);
+                }
+            }
+        }
+
     }
 
 
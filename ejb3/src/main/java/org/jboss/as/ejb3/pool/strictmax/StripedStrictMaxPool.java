@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.logging.Logger;
+
+import javax.ejb.EJBException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool with a maximum size which, unlike {@link StrictMaxPool}, does not serialize callers on a single
+ * monitor.
+ * <p/>
+ * Free instances are kept in a number of striped, lock-free queues. A thread first looks in the stripe it
+ * hashes to and only then steals from the other stripes. The strict upper limit is enforced by a non-fair
+ * semaphore, whose uncontended acquire is a single CAS; callers only park when all {@link #getMaxSize()}
+ * instances are in use, in which case they wait for at most the configured timeout.
+ */
+public class StripedStrictMaxPool<T> extends AbstractPool<T> {
+    private static final Logger log = Logger.getLogger(StripedStrictMaxPool.class);
+
+    /**
+     * Limits the number of instances that may be in use at the same time.
+     */
+    private final ResizableSemaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private volatile int maxSize;
+    /**
+     * The time to wait for the semaphore.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The free lists. The length is always a power of two.
+     */
+    private final ConcurrentLinkedQueue<T>[] stripes;
+    private final int stripeMask;
+    /**
+     * The number of instances currently sitting in the free lists
+     */
+    private final AtomicInteger pooled = new AtomicInteger(0);
+    /**
+     * The number of instances currently handed out to callers
+     */
+    private final AtomicInteger inUse = new AtomicInteger(0);
+
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int stripes) {
+        super(factory);
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid max pool size: " + maxSize);
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+        }
+
+        this.maxSize = maxSize;
+        this.semaphore = new ResizableSemaphore(maxSize);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+
+        // there is no point in having more stripes than instances
+        int size = 1;
+        while (size < stripes && size < maxSize) {
+            size <<= 1;
+        }
+        this.stripes = new ConcurrentLinkedQueue[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentLinkedQueue<T>();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    public void discard(T ctx) {
+        if (log.isTraceEnabled()) {
+            log.trace("Discard instance:" + this + "#" + ctx);
+        }
+
+        inUse.decrementAndGet();
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return maxSize - inUse.get();
+    }
+
+    /**
+     * @return the number of instances that are currently handed out
+     */
+    public int getInUseCount() {
+        return inUse.get();
+    }
+
+    /**
+     * @return the number of idle instances currently held in the free lists
+     */
+    public int getPooledCount() {
+        return pooled.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid max pool size: " + maxSize);
+        }
+        final int delta = maxSize - this.maxSize;
+        if (delta > 0) {
+            semaphore.release(delta);
+        } else if (delta < 0) {
+            semaphore.reducePermits(-delta);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        if (!semaphore.tryAcquire()) {
+            try {
+                boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+                if (!acquired)
+                    throw new EJBException("Failed to acquire a permit within " + timeout + " " + timeUnit);
+            } catch (InterruptedException e) {
+                throw new EJBException("Acquire semaphore was interrupted");
+            }
+        }
+        inUse.incrementAndGet();
+
+        final T pooledInstance = poll();
+        if (pooledInstance != null) {
+            return pooledInstance;
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                inUse.decrementAndGet();
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (log.isTraceEnabled()) {
+            log.trace(pooled.get() + "/" + maxSize + " Free instance:" + this);
+        }
+
+        if (pooled.incrementAndGet() <= maxSize) {
+            stripes[stripeIndex()].offer(obj);
+        } else {
+            pooled.decrementAndGet();
+            destroy(obj);
+        }
+        inUse.decrementAndGet();
+        semaphore.release();
+    }
+
+    @Override
+    public void remove(T ctx) {
+        if (log.isTraceEnabled()) {
+            log.trace("Removing instance:" + this + "#" + ctx);
+        }
+
+        inUse.decrementAndGet();
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (ConcurrentLinkedQueue<T> stripe : stripes) {
+            T obj;
+            while ((obj = stripe.poll()) != null) {
+                pooled.decrementAndGet();
+                destroy(obj);
+            }
+        }
+    }
+
+    private T poll() {
+        final int start = stripeIndex();
+        for (int i = 0; i <= stripeMask; i++) {
+            final T obj = stripes[(start + i) & stripeMask].poll();
+            if (obj != null) {
+                pooled.decrementAndGet();
+                return obj;
+            }
+        }
+        return null;
+    }
+
+    private int stripeIndex() {
+        final long id = Thread.currentThread().getId();
+        // spread the (usually sequential) thread ids over the stripes
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return h & stripeMask;
+    }
+
+    /**
+     * Exposes {@link Semaphore#reducePermits(int)} so the pool can be shrunk without replacing the semaphore
+     * out from under threads which currently hold a permit.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(final int permits) {
+            super(permits, false);
+        }
+
+        @Override
+        protected void reducePermits(final int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -88,6 +88,9 @@ public class EJB3Extension implements Extension {
         // register ADD and REMOVE operations for strict-max-pool
         strictMaxPoolRegistration.registerOperationHandler(ADD, StrictMaxPoolAdd.INSTANCE, StrictMaxPoolAdd.INSTANCE, false);
         strictMaxPoolRegistration.registerOperationHandler(REMOVE, StrictMaxPoolRemove.INSTANCE, StrictMaxPoolRemove.INSTANCE, false);
+        for (String metric : StrictMaxPoolMetrics.ATTRIBUTES) {
+            strictMaxPoolRegistration.registerMetric(metric, StrictMaxPoolMetrics.INSTANCE);
+        }
 
 
         final ManagementResourceRegistration timerService = subsystemRegistration.registerSubModel(
@@ -99,9 +102,25 @@ public class EJB3Extension implements Extension {
 
         timerService.registerReadWriteAttribute(EJB3SubsystemModel.PATH, null,  WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
         timerService.registerReadWriteAttribute(EJB3SubsystemModel.RELATIVE_TO, null,  WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
+        timerService.registerReadWriteAttribute(EJB3SubsystemModel.DATA_STORE_TYPE, null,  WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
         timerService.registerReadWriteAttribute(EJB3SubsystemModel.CORE_THREADS, null,  WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
         timerService.registerReadWriteAttribute(EJB3SubsystemModel.MAX_THREADS, null,  WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
+        for (String metric : TimerServiceMetrics.ATTRIBUTES) {
+            timerService.registerMetric(metric, TimerServiceMetrics.INSTANCE);
+        }
 
+        // subsystem=ejb3/service=passivation-store
+        final ManagementResourceRegistration passivationStore = subsystemRegistration.registerSubModel(
+                EJB3SubsystemModel.PASSIVATION_STORE_PATH, EJB3SubsystemProviders.PASSIVATION_STORE);
+        passivationStore.registerOperationHandler(ADD, PassivationStoreAdd.INSTANCE, PassivationStoreAdd.INSTANCE, false);
+        passivationStore.registerOperationHandler(REMOVE, PassivationStoreRemove.INSTANCE, PassivationStoreRemove.INSTANCE, false);
+
+        passivationStore.registerReadWriteAttribute(EJB3SubsystemModel.MAX_SIZE, null, WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
+        passivationStore.registerReadWriteAttribute(EJB3SubsystemModel.PATH, null, WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
+        passivationStore.registerReadWriteAttribute(EJB3SubsystemModel.RELATIVE_TO, null, WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, AttributeAccess.Storage.CONFIGURATION);
+        for (String metric : PassivationStoreMetrics.ATTRIBUTES) {
+            passivationStore.registerMetric(metric, PassivationStoreMetrics.INSTANCE);
+        }
     }
 
     /**
@@ -133,6 +152,13 @@ public class EJB3Extension implements Extension {
         return org.jboss.as.controller.operations.common.Util.getOperation(ADD, address, model);
     }
 
+    private static ModelNode createPassivationStoreOperation(final ModelNode model) {
+        final ModelNode address = new ModelNode();
+        address.add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+        address.add(EJB3SubsystemModel.SERVICE, EJB3SubsystemModel.PASSIVATION_STORE);
+        return org.jboss.as.controller.operations.common.Util.getOperation(ADD, address, model);
+    }
+
     private static class SubsystemDescribeHandler implements OperationStepHandler, DescriptionProvider {
         static final SubsystemDescribeHandler INSTANCE = new SubsystemDescribeHandler();
 
@@ -147,6 +173,10 @@ public class EJB3Extension implements Extension {
             if (timerService != null) {
                 result.add(createTimerServiceOperation(timerService.getModel()));
             }
+            final Resource passivationStore = root.getChild(EJB3SubsystemModel.PASSIVATION_STORE_PATH);
+            if (passivationStore != null) {
+                result.add(createPassivationStoreOperation(passivationStore.getModel()));
+            }
 
             context.completeStep();
         }
@@ -62,12 +62,15 @@ import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DEFAULT_SLSB_INSTAN
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT_UNIT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_POOL_SIZE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_SIZE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_THREADS;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.NAME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PASSIVATION_STORE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PATH;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.RELATIVE_TO;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SERVICE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRIPES;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.TIMER_SERVICE;
 
 /**
@@ -132,6 +135,14 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
             // </timer-service>
             writer.writeEndElement();
         }
+        // passivation-store
+        if (model.hasDefined(SERVICE) && model.get(SERVICE).hasDefined(PASSIVATION_STORE)) {
+            // <passivation-store>
+            writer.writeStartElement(EJB3SubsystemXMLElement.PASSIVATION_STORE.getLocalName());
+            this.writePassivationStore(writer, model.get(SERVICE, PASSIVATION_STORE));
+            // </passivation-store>
+            writer.writeEndElement();
+        }
 
         // write the subsystem end element
         writer.writeEndElement();
@@ -182,6 +193,10 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                             parseTimerService(reader, operations);
                             break;
                         }
+                        case PASSIVATION_STORE: {
+                            parsePassivationStore(reader, operations);
+                            break;
+                        }
                         default: {
                             throw unexpectedElement(reader);
                         }
@@ -306,6 +321,11 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
             final ModelNode unit = strictMaxPoolModelNode.get(EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT_UNIT);
             writer.writeAttribute(EJB3SubsystemXMLAttribute.INSTANCE_AQUISITION_TIMEOUT_UNIT.getLocalName(), unit.asString());
         }
+        if (strictMaxPoolModelNode.hasDefined(EJB3SubsystemModel.STRIPES)) {
+            // value of stripes attribute
+            final ModelNode stripes = strictMaxPoolModelNode.get(EJB3SubsystemModel.STRIPES);
+            writer.writeAttribute(EJB3SubsystemXMLAttribute.STRIPES.getLocalName(), stripes.asString());
+        }
     }
 
     private void writeTimerService(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
@@ -338,11 +358,31 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
             // write the relative-to attribute
             writer.writeAttribute(EJB3SubsystemXMLAttribute.RELATIVE_TO.getLocalName(), relativeTo.asString());
         }
+        final ModelNode type = timerServiceModel.get(EJB3SubsystemModel.DATA_STORE_TYPE);
+        if (type.isDefined()) {
+            // write the type attribute
+            writer.writeAttribute(EJB3SubsystemXMLAttribute.TYPE.getLocalName(), type.asString());
+        }
         // </data-store>
         writer.writeEndElement();
 
     }
 
+    private void writePassivationStore(final XMLExtendedStreamWriter writer, final ModelNode passivationStoreModel) throws XMLStreamException {
+        final ModelNode maxSize = passivationStoreModel.get(MAX_SIZE);
+        if (maxSize.isDefined()) {
+            writer.writeAttribute(EJB3SubsystemXMLAttribute.MAX_SIZE.getLocalName(), "" + maxSize.asInt());
+        }
+        final ModelNode path = passivationStoreModel.get(PATH);
+        if (path.isDefined()) {
+            writer.writeAttribute(EJB3SubsystemXMLAttribute.PATH.getLocalName(), path.asString());
+        }
+        final ModelNode relativeTo = passivationStoreModel.get(RELATIVE_TO);
+        if (relativeTo.isDefined()) {
+            writer.writeAttribute(EJB3SubsystemXMLAttribute.RELATIVE_TO.getLocalName(), relativeTo.asString());
+        }
+    }
+
     private ModelNode parseMDB(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         ModelNode mdbModelNode = new ModelNode();
         // no attributes expected
@@ -446,6 +486,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         Integer maxPoolSize = null;
         Long timeout = null;
         String unit = null;
+        Integer stripes = null;
         for (int i = 0; i < count; i++) {
             requireNoNamespaceAttribute(reader, i);
             final String value = reader.getAttributeValue(i);
@@ -472,6 +513,12 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                     }
                     unit = value.trim().toUpperCase(Locale.ENGLISH);
                     break;
+                case STRIPES:
+                    if (!"0".equals(value.trim()) && !isPositiveInt(value.trim())) {
+                        throw new XMLStreamException("Illegal value: " + value + " for " + EJB3SubsystemXMLAttribute.STRIPES.getLocalName(), reader.getLocation());
+                    }
+                    stripes = new Integer(value.trim());
+                    break;
 
                 default:
                     throw unexpectedAttribute(reader, i);
@@ -482,7 +529,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
             throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
         }
         // create and add the operation
-        operations.add(this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit));
+        operations.add(this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit, stripes));
     }
 
     private void parseTimerService(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
@@ -500,6 +547,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         Integer maxThreads = null;
         String dataStorePath = null;
         String dataStorePathRelativeTo = null;
+        String dataStoreType = null;
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
             switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
                 case THREAD_POOL: {
@@ -553,6 +601,15 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                                 }
                                 dataStorePathRelativeTo = value;
                                 break;
+                            case TYPE:
+                                if (dataStoreType != null) {
+                                    throw unexpectedAttribute(reader, i);
+                                }
+                                if (!EJB3SubsystemModel.FILE_DATA_STORE.equals(value) && !EJB3SubsystemModel.JOURNAL_DATA_STORE.equals(value)) {
+                                    throw new XMLStreamException("Illegal value: " + value + " for " + EJB3SubsystemXMLAttribute.TYPE.getLocalName(), reader.getLocation());
+                                }
+                                dataStoreType = value;
+                                break;
                             default:
                                 throw unexpectedAttribute(reader, i);
                         }
@@ -564,6 +621,9 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                     if (dataStorePathRelativeTo != null) {
                         timerServiceAdd.get(RELATIVE_TO).set(dataStorePathRelativeTo);
                     }
+                    if (dataStoreType != null) {
+                        timerServiceAdd.get(EJB3SubsystemModel.DATA_STORE_TYPE).set(dataStoreType);
+                    }
                     requireNoContent(reader);
                     break;
                 }
@@ -575,6 +635,40 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         operations.add(timerServiceAdd);
     }
 
+    private void parsePassivationStore(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        final ModelNode address = new ModelNode();
+        address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        address.add(SERVICE, PASSIVATION_STORE);
+        final ModelNode passivationStoreAdd = new ModelNode();
+        passivationStoreAdd.get(OP).set(ADD);
+        passivationStoreAdd.get(OP_ADDR).set(address);
+
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final EJB3SubsystemXMLAttribute attribute = EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case MAX_SIZE:
+                    if (!isPositiveInt(value.trim())) {
+                        throw new XMLStreamException("Illegal value: " + value + " for " + EJB3SubsystemXMLAttribute.MAX_SIZE.getLocalName(), reader.getLocation());
+                    }
+                    passivationStoreAdd.get(MAX_SIZE).set(Integer.parseInt(value.trim()));
+                    break;
+                case PATH:
+                    passivationStoreAdd.get(PATH).set(value);
+                    break;
+                case RELATIVE_TO:
+                    passivationStoreAdd.get(RELATIVE_TO).set(value);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        requireNoContent(reader);
+        operations.add(passivationStoreAdd);
+    }
+
 
     private boolean isPositiveInt(String val) {
         if (val == null || val.trim().isEmpty()) {
@@ -690,7 +784,8 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         return setDefaultRAName;
     }
 
-    private ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit) {
+    private ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit,
+                                                                  final Integer stripes) {
         // create /subsystem=ejb3/strict-max-bean-instance-pool=name:add(...)
         final ModelNode addStrictMaxPoolOperation = new ModelNode();
         addStrictMaxPoolOperation.get(OP).set(ADD);
@@ -707,6 +802,9 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         if (timeoutUnit != null) {
             addStrictMaxPoolOperation.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).set(timeoutUnit);
         }
+        if (stripes != null) {
+            addStrictMaxPoolOperation.get(STRIPES).set(stripes);
+        }
 
         return addStrictMaxPoolOperation;
     }
@@ -27,6 +27,7 @@ import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.ejb3.cache.TimingWheelService;
 import org.jboss.as.ejb3.component.EJBUtilities;
 import org.jboss.as.ejb3.deployment.processors.ApplicationExceptionAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.BusinessViewAnnotationProcessor;
@@ -204,6 +205,11 @@ class EJB3SubsystemAdd extends AbstractBoottimeAddStepHandler implements Descrip
                 .setInitialMode(ServiceController.Mode.ACTIVE)
                 .install());
 
+        // the timing wheel shared by all stateful session bean caches for @StatefulTimeout expiry
+        newControllers.add(serviceTarget.addService(TimingWheelService.SERVICE_NAME, new TimingWheelService())
+                .setInitialMode(ServiceController.Mode.ON_DEMAND)
+                .install());
+
     }
 
 }
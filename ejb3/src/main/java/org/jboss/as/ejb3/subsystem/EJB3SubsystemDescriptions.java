@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.subsystem;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
 import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -33,19 +34,33 @@ import java.util.ResourceBundle;
 import java.util.concurrent.TimeUnit;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.*;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.ACTIVATION_COUNT;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVERAGE_ACTIVATION_TIME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVERAGE_PASSIVATION_TIME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVERAGE_SCHEDULING_LAG;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVAILABLE_COUNT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.CORE_THREADS;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.CREATE_COUNT;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DATA_STORE_TYPE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DEFAULT_MDB_INSTANCE_POOL;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DEFAULT_RESOURCE_ADAPTER_NAME;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DEFAULT_SLSB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.FILE_DATA_STORE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.IN_USE_COUNT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT_UNIT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.LITE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_POOL_SIZE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_SCHEDULING_LAG;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_SIZE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_THREADS;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PASSIVATION_COUNT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PATH;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.RELATIVE_TO;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SERVICE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRIPES;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.TIMEOUT_COUNT;
 
 /**
  * Static utilities containing subsystem resource and operation descriptions. Separated from the
@@ -152,6 +167,19 @@ public class EJB3SubsystemDescriptions {
         description.get(ATTRIBUTES, RELATIVE_TO, TYPE).set(ModelType.STRING);
         description.get(ATTRIBUTES, RELATIVE_TO, REQUIRED).set(false);
 
+        description.get(ATTRIBUTES, DATA_STORE_TYPE, DESCRIPTION).set(bundle.getString("ejb3.timerservice.dataStoreType"));
+        description.get(ATTRIBUTES, DATA_STORE_TYPE, TYPE).set(ModelType.STRING);
+        description.get(ATTRIBUTES, DATA_STORE_TYPE, REQUIRED).set(false);
+        description.get(ATTRIBUTES, DATA_STORE_TYPE, DEFAULT).set(FILE_DATA_STORE);
+
+        // runtime metrics
+        description.get(ATTRIBUTES, TIMEOUT_COUNT, DESCRIPTION).set(bundle.getString("ejb3.timerservice.timeout-count"));
+        description.get(ATTRIBUTES, TIMEOUT_COUNT, TYPE).set(ModelType.LONG);
+        description.get(ATTRIBUTES, AVERAGE_SCHEDULING_LAG, DESCRIPTION).set(bundle.getString("ejb3.timerservice.average-scheduling-lag"));
+        description.get(ATTRIBUTES, AVERAGE_SCHEDULING_LAG, TYPE).set(ModelType.LONG);
+        description.get(ATTRIBUTES, MAX_SCHEDULING_LAG, DESCRIPTION).set(bundle.getString("ejb3.timerservice.max-scheduling-lag"));
+        description.get(ATTRIBUTES, MAX_SCHEDULING_LAG, TYPE).set(ModelType.LONG);
+
         description.get(OPERATIONS); // placeholder
 
         description.get(CHILDREN).setEmptyObject();
@@ -187,6 +215,11 @@ public class EJB3SubsystemDescriptions {
         description.get(REQUEST_PROPERTIES, RELATIVE_TO, TYPE).set(ModelType.STRING);
         description.get(REQUEST_PROPERTIES, RELATIVE_TO, REQUIRED).set(false);
 
+        description.get(REQUEST_PROPERTIES, DATA_STORE_TYPE, DESCRIPTION).set(bundle.getString("ejb3.timerservice.dataStoreType"));
+        description.get(REQUEST_PROPERTIES, DATA_STORE_TYPE, TYPE).set(ModelType.STRING);
+        description.get(REQUEST_PROPERTIES, DATA_STORE_TYPE, REQUIRED).set(false);
+        description.get(REQUEST_PROPERTIES, DATA_STORE_TYPE, DEFAULT).set(FILE_DATA_STORE);
+
         return description;
     }
 
@@ -198,6 +231,73 @@ public class EJB3SubsystemDescriptions {
         return description;
     }
 
+    static ModelNode getPassivationStoreDescription(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode description = new ModelNode();
+        description.get(DESCRIPTION).set(bundle.getString("ejb3.passivation-store"));
+
+        description.get(ATTRIBUTES, MAX_SIZE, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.max-size"));
+        description.get(ATTRIBUTES, MAX_SIZE, TYPE).set(ModelType.INT);
+        description.get(ATTRIBUTES, MAX_SIZE, REQUIRED).set(false);
+        description.get(ATTRIBUTES, MAX_SIZE, DEFAULT).set(PassivationStoreService.DEFAULT_MAX_SIZE);
+        description.get(ATTRIBUTES, MAX_SIZE, MIN_VALUE).set(1);
+
+        description.get(ATTRIBUTES, PATH, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.path"));
+        description.get(ATTRIBUTES, PATH, TYPE).set(ModelType.STRING);
+        description.get(ATTRIBUTES, PATH, REQUIRED).set(false);
+
+        description.get(ATTRIBUTES, RELATIVE_TO, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.relative-to"));
+        description.get(ATTRIBUTES, RELATIVE_TO, TYPE).set(ModelType.STRING);
+        description.get(ATTRIBUTES, RELATIVE_TO, REQUIRED).set(false);
+
+        // runtime metrics
+        description.get(ATTRIBUTES, PASSIVATION_COUNT, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.passivation-count"));
+        description.get(ATTRIBUTES, PASSIVATION_COUNT, TYPE).set(ModelType.LONG);
+        description.get(ATTRIBUTES, ACTIVATION_COUNT, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.activation-count"));
+        description.get(ATTRIBUTES, ACTIVATION_COUNT, TYPE).set(ModelType.LONG);
+        description.get(ATTRIBUTES, AVERAGE_PASSIVATION_TIME, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.average-passivation-time"));
+        description.get(ATTRIBUTES, AVERAGE_PASSIVATION_TIME, TYPE).set(ModelType.LONG);
+        description.get(ATTRIBUTES, AVERAGE_ACTIVATION_TIME, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.average-activation-time"));
+        description.get(ATTRIBUTES, AVERAGE_ACTIVATION_TIME, TYPE).set(ModelType.LONG);
+
+        description.get(OPERATIONS); // placeholder
+
+        description.get(CHILDREN).setEmptyObject();
+
+        return description;
+    }
+
+    /**
+     * Description provider for the passivation-store add operation
+     */
+    static ModelNode getPassivationStoreAddDescription(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode description = new ModelNode();
+        description.get(DESCRIPTION).set(bundle.getString("ejb3.passivation-store.add"));
+
+        description.get(REQUEST_PROPERTIES, MAX_SIZE, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.max-size"));
+        description.get(REQUEST_PROPERTIES, MAX_SIZE, TYPE).set(ModelType.INT);
+        description.get(REQUEST_PROPERTIES, MAX_SIZE, REQUIRED).set(false);
+        description.get(REQUEST_PROPERTIES, MAX_SIZE, DEFAULT).set(PassivationStoreService.DEFAULT_MAX_SIZE);
+
+        description.get(REQUEST_PROPERTIES, PATH, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.path"));
+        description.get(REQUEST_PROPERTIES, PATH, TYPE).set(ModelType.STRING);
+        description.get(REQUEST_PROPERTIES, PATH, REQUIRED).set(false);
+
+        description.get(REQUEST_PROPERTIES, RELATIVE_TO, DESCRIPTION).set(bundle.getString("ejb3.passivation-store.relative-to"));
+        description.get(REQUEST_PROPERTIES, RELATIVE_TO, TYPE).set(ModelType.STRING);
+        description.get(REQUEST_PROPERTIES, RELATIVE_TO, REQUIRED).set(false);
+
+        return description;
+    }
+
+    static ModelNode getPassivationStoreRemoveDescription(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode description = new ModelNode();
+        description.get(DESCRIPTION).set(bundle.getString("ejb3.passivation-store.remove"));
+        return description;
+    }
+
     static ModelNode getStrictMaxBeanInstancePoolDescription(Locale locale) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode description = new ModelNode();
@@ -226,6 +326,20 @@ public class EJB3SubsystemDescriptions {
         description.get(ATTRIBUTES, INSTANCE_ACQUISITION_TIMEOUT_UNIT, ALLOWED).set(TimeUnit.SECONDS.name());
         description.get(ATTRIBUTES, INSTANCE_ACQUISITION_TIMEOUT_UNIT, ALLOWED).set(TimeUnit.MILLISECONDS.name());
 
+        // setup the "stripes" param description
+        description.get(ATTRIBUTES, STRIPES, DESCRIPTION).set(bundle.getString("ejb3.strict-max-bean-instance-pool.stripes"));
+        description.get(ATTRIBUTES, STRIPES, TYPE).set(ModelType.INT);
+        description.get(ATTRIBUTES, STRIPES, REQUIRED).set(false);
+        description.get(ATTRIBUTES, STRIPES, DEFAULT).set(0);
+
+        // runtime metrics
+        description.get(ATTRIBUTES, IN_USE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.strict-max-bean-instance-pool.in-use-count"));
+        description.get(ATTRIBUTES, IN_USE_COUNT, TYPE).set(ModelType.INT);
+        description.get(ATTRIBUTES, AVAILABLE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.strict-max-bean-instance-pool.available-count"));
+        description.get(ATTRIBUTES, AVAILABLE_COUNT, TYPE).set(ModelType.INT);
+        description.get(ATTRIBUTES, CREATE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.strict-max-bean-instance-pool.create-count"));
+        description.get(ATTRIBUTES, CREATE_COUNT, TYPE).set(ModelType.INT);
+
         description.get(OPERATIONS); // placeholder
 
         description.get(CHILDREN).setEmptyObject();
@@ -261,6 +375,12 @@ public class EJB3SubsystemDescriptions {
         description.get(REQUEST_PROPERTIES, INSTANCE_ACQUISITION_TIMEOUT_UNIT, ALLOWED).set(TimeUnit.SECONDS.name());
         description.get(REQUEST_PROPERTIES, INSTANCE_ACQUISITION_TIMEOUT_UNIT, ALLOWED).set(TimeUnit.MILLISECONDS.name());
 
+        // setup the "stripes" param description
+        description.get(REQUEST_PROPERTIES, STRIPES, DESCRIPTION).set(bundle.getString("ejb3.strict-max-bean-instance-pool.stripes"));
+        description.get(REQUEST_PROPERTIES, STRIPES, TYPE).set(ModelType.INT);
+        description.get(REQUEST_PROPERTIES, STRIPES, REQUIRED).set(false);
+        description.get(REQUEST_PROPERTIES, STRIPES, DEFAULT).set(0);
+
         return description;
     }
 
@@ -38,18 +38,38 @@ public interface EJB3SubsystemModel {
     String INSTANCE_ACQUISITION_TIMEOUT_UNIT = "timeout-unit";
 
     String MAX_POOL_SIZE = "max-pool-size";
+    String MAX_SIZE = "max-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPES = "stripes";
+    String IN_USE_COUNT = "in-use-count";
+    String AVAILABLE_COUNT = "available-count";
+    String CREATE_COUNT = "create-count";
 
     String CORE_THREADS = "core-threads";
     String MAX_THREADS = "max-threads";
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String DATA_STORE_TYPE = "data-store-type";
+
+    String FILE_DATA_STORE = "file";
+    String JOURNAL_DATA_STORE = "journal";
 
     String SERVICE = "service";
     String TIMER_SERVICE = "timer-service";
+    String PASSIVATION_STORE = "passivation-store";
     String DEFAULT = "default";
 
     PathElement TIMER_SERVICE_PATH = PathElement.pathElement(SERVICE, TIMER_SERVICE);
+    PathElement PASSIVATION_STORE_PATH = PathElement.pathElement(SERVICE, PASSIVATION_STORE);
+
+    String PASSIVATION_COUNT = "passivation-count";
+    String ACTIVATION_COUNT = "activation-count";
+    String AVERAGE_PASSIVATION_TIME = "average-passivation-time";
+    String AVERAGE_ACTIVATION_TIME = "average-activation-time";
+
+    String TIMEOUT_COUNT = "timeout-count";
+    String AVERAGE_SCHEDULING_LAG = "average-scheduling-lag";
+    String MAX_SCHEDULING_LAG = "max-scheduling-lag";
 
 
 }
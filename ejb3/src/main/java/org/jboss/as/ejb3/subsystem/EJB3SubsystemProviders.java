@@ -73,4 +73,11 @@ class EJB3SubsystemProviders {
             return EJB3SubsystemDescriptions.getTimerServiceDescription(locale);
         }
     };
+
+    public static final DescriptionProvider PASSIVATION_STORE = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            return EJB3SubsystemDescriptions.getPassivationStoreDescription(locale);
+        }
+    };
 }
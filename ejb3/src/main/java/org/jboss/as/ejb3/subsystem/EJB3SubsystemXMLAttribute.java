@@ -37,6 +37,7 @@ public enum EJB3SubsystemXMLAttribute {
 
 
     MAX_POOL_SIZE("max-pool-size"),
+    MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
 
     NAME("name"),
@@ -46,6 +47,10 @@ public enum EJB3SubsystemXMLAttribute {
 
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
+
+    STRIPES("stripes"),
+
+    TYPE("type"),
     ;
 
     private final String name;
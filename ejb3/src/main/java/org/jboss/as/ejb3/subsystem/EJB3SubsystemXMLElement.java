@@ -41,6 +41,7 @@ public enum EJB3SubsystemXMLElement {
 
     MDB("mdb"),
 
+    PASSIVATION_STORE("passivation-store"),
     POOLS("pools"),
 
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
+import org.jboss.as.server.services.path.AbsolutePathService;
+import org.jboss.as.server.services.path.RelativePathService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_SIZE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PATH;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.RELATIVE_TO;
+
+/**
+ * Adds the passivation store. Stateful components which are installed while the store is present passivate
+ * their least recently used beans once more than <code>max-size</code> of them are held in memory.
+ */
+public class PassivationStoreAdd extends AbstractAddStepHandler implements DescriptionProvider {
+
+    public static final PassivationStoreAdd INSTANCE = new PassivationStoreAdd();
+
+    static final String DEFAULT_PATH = "ejb3-passivation";
+
+    static final String DEFAULT_RELATIVE_TO = "jboss.server.data.dir";
+
+    @Override
+    protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+        if (operation.hasDefined(MAX_SIZE)) {
+            int maxSize = operation.get(MAX_SIZE).asInt();
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("Invalid value: " + maxSize + " for " + MAX_SIZE);
+            }
+            model.get(MAX_SIZE).set(maxSize);
+        }
+        if (operation.hasDefined(PATH)) {
+            model.get(PATH).set(operation.get(PATH).asString());
+        }
+        if (operation.hasDefined(RELATIVE_TO)) {
+            model.get(RELATIVE_TO).set(operation.get(RELATIVE_TO).asString());
+        }
+    }
+
+    @Override
+    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model,
+                                  ServiceVerificationHandler verificationHandler,
+                                  List<ServiceController<?>> newControllers) throws OperationFailedException {
+        final int maxSize = model.get(MAX_SIZE).asInt(PassivationStoreService.DEFAULT_MAX_SIZE);
+        final String path = model.hasDefined(PATH) ? model.get(PATH).asString() : DEFAULT_PATH;
+        final String relativeTo = model.hasDefined(RELATIVE_TO) ? model.get(RELATIVE_TO).asString() : (model.hasDefined(PATH) ? null : DEFAULT_RELATIVE_TO);
+
+        if (relativeTo != null) {
+            newControllers.add(RelativePathService.addService(PassivationStoreService.PATH_SERVICE_NAME, path, relativeTo, context.getServiceTarget()));
+        } else {
+            newControllers.add(AbsolutePathService.addService(PassivationStoreService.PATH_SERVICE_NAME, path, context.getServiceTarget()));
+        }
+
+        final PassivationStoreService service = new PassivationStoreService(maxSize);
+        newControllers.add(context.getServiceTarget().addService(PassivationStoreService.SERVICE_NAME, service)
+                .addDependency(PassivationStoreService.PATH_SERVICE_NAME, String.class, service.getPathInjector())
+                .addListener(verificationHandler)
+                .install());
+    }
+
+    @Override
+    public ModelNode getModelDescription(Locale locale) {
+        return EJB3SubsystemDescriptions.getPassivationStoreAddDescription(locale);
+    }
+}
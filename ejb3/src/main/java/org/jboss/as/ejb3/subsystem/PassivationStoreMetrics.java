@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.ejb3.cache.PassivationStatistics;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.ACTIVATION_COUNT;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVERAGE_ACTIVATION_TIME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVERAGE_PASSIVATION_TIME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PASSIVATION_COUNT;
+
+/**
+ * Reads the passivation and activation metrics of the passivation store.
+ */
+class PassivationStoreMetrics implements OperationStepHandler {
+
+    static final PassivationStoreMetrics INSTANCE = new PassivationStoreMetrics();
+
+    static final String[] ATTRIBUTES = new String[] {PASSIVATION_COUNT, ACTIVATION_COUNT, AVERAGE_PASSIVATION_TIME, AVERAGE_ACTIVATION_TIME};
+
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (context.getType() == OperationContext.Type.SERVER) {
+            context.addStep(new OperationStepHandler() {
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final String attributeName = operation.require(NAME).asString();
+                    final ServiceController<?> controller = context.getServiceRegistry(false).getService(PassivationStoreService.SERVICE_NAME);
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final PassivationStatistics statistics = ((PassivationStoreService) controller.getValue()).getStatistics();
+                        final ModelNode result = context.getResult();
+                        if (PASSIVATION_COUNT.equals(attributeName)) {
+                            result.set(statistics.getPassivationCount());
+                        } else if (ACTIVATION_COUNT.equals(attributeName)) {
+                            result.set(statistics.getActivationCount());
+                        } else if (AVERAGE_PASSIVATION_TIME.equals(attributeName)) {
+                            result.set(statistics.getAveragePassivationTime());
+                        } else if (AVERAGE_ACTIVATION_TIME.equals(attributeName)) {
+                            result.set(statistics.getAverageActivationTime());
+                        }
+                    } else {
+                        context.getResult().set("no metrics available");
+                    }
+                    context.completeStep();
+                }
+            }, OperationContext.Stage.RUNTIME);
+        } else {
+            context.getResult().set("no metrics available");
+        }
+        context.completeStep();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
+import org.jboss.dmr.ModelNode;
+
+import java.util.Locale;
+
+/**
+ * Removes the passivation store. Stateful components which are already running keep the store they were
+ * installed with until they are restarted.
+ */
+public class PassivationStoreRemove extends AbstractRemoveStepHandler implements DescriptionProvider {
+
+    public static final PassivationStoreRemove INSTANCE = new PassivationStoreRemove();
+
+    @Override
+    public ModelNode getModelDescription(Locale locale) {
+        return EJB3SubsystemDescriptions.getPassivationStoreRemoveDescription(locale);
+    }
+
+    @Override
+    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+        context.removeService(PassivationStoreService.SERVICE_NAME);
+        context.removeService(PassivationStoreService.PATH_SERVICE_NAME);
+    }
+}
@@ -50,6 +50,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYP
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT_UNIT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_POOL_SIZE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRIPES;
 
 /**
  * Adds a strict-max-pool to the EJB3 subsystem's bean-instance-pools. The {#performRuntime runtime action}
@@ -109,6 +110,15 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler implements Descript
             strictMaxPoolModel.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).set(instanceAcquisitionTimeoutUnit.trim().toUpperCase(Locale.ENGLISH));
         }
 
+        // stripes
+        if (operation.hasDefined(STRIPES)) {
+            int stripes = operation.get(STRIPES).asInt();
+            if (stripes < 0) {
+                throw new IllegalArgumentException("Invalid value: " + stripes + " for " + STRIPES);
+            }
+            strictMaxPoolModel.get(STRIPES).set(stripes);
+        }
+
     }
 
     @Override
@@ -122,8 +132,9 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler implements Descript
         final String unit = strictMaxPoolModel.hasDefined(EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT_UNIT)
                 ? strictMaxPoolModel.get(EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT_UNIT).asString()
                 : StrictMaxPoolConfig.DEFAULT_TIMEOUT_UNIT.name();
+        final int stripes = strictMaxPoolModel.get(EJB3SubsystemModel.STRIPES).asInt(0);
         // create the pool config
-        final PoolConfig strictMaxPoolConfig = new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
+        final PoolConfig strictMaxPoolConfig = new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit), stripes);
         // create and install the service
         final PoolConfigService poolConfigService = new PoolConfigService(strictMaxPoolConfig);
         final ServiceName serviceName = PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
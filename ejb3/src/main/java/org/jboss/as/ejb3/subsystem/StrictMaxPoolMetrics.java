@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.ejb3.component.pool.PoolConfigService;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVAILABLE_COUNT;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.CREATE_COUNT;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.IN_USE_COUNT;
+
+/**
+ * Reads the instance metrics of a strict max bean instance pool, summed over the pools of all the components
+ * which use it.
+ */
+class StrictMaxPoolMetrics implements OperationStepHandler {
+
+    static final StrictMaxPoolMetrics INSTANCE = new StrictMaxPoolMetrics();
+
+    static final String[] ATTRIBUTES = new String[] {IN_USE_COUNT, AVAILABLE_COUNT, CREATE_COUNT};
+
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (context.getType() == OperationContext.Type.SERVER) {
+            final String poolName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            context.addStep(new OperationStepHandler() {
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final String attributeName = operation.require(NAME).asString();
+                    final ServiceController<?> controller = context.getServiceRegistry(false).getService(PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName));
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final StrictMaxPoolConfig poolConfig = (StrictMaxPoolConfig) controller.getValue();
+                        int count = 0;
+                        for (Pool<?> pool : poolConfig.getPools()) {
+                            if (IN_USE_COUNT.equals(attributeName)) {
+                                count += pool.getMaxSize() - pool.getAvailableCount();
+                            } else if (AVAILABLE_COUNT.equals(attributeName)) {
+                                count += pool.getAvailableCount();
+                            } else if (CREATE_COUNT.equals(attributeName)) {
+                                count += pool.getCreateCount();
+                            }
+                        }
+                        context.getResult().set(count);
+                    } else {
+                        context.getResult().set("no metrics available");
+                    }
+                    context.completeStep();
+                }
+            }, OperationContext.Stage.RUNTIME);
+        } else {
+            context.getResult().set("no metrics available");
+        }
+        context.completeStep();
+    }
+}
@@ -33,6 +33,7 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.TimeoutSchedulerService;
 import org.jboss.as.ejb3.timerservice.TimerServiceFactoryService;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
@@ -47,6 +48,8 @@ import java.util.List;
 import java.util.Locale;
 
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.CORE_THREADS;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DATA_STORE_TYPE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.JOURNAL_DATA_STORE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_THREADS;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PATH;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.RELATIVE_TO;
@@ -100,6 +103,14 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler implements D
             String dataDir = operation.get(EJB3SubsystemModel.PATH).asString();
             timerServiceModel.get(PATH).set(dataDir);
         }
+
+        if (operation.hasDefined(EJB3SubsystemModel.DATA_STORE_TYPE)) {
+            String type = operation.get(EJB3SubsystemModel.DATA_STORE_TYPE).asString();
+            if (!EJB3SubsystemModel.FILE_DATA_STORE.equals(type) && !EJB3SubsystemModel.JOURNAL_DATA_STORE.equals(type)) {
+                throw new IllegalArgumentException("Invalid value: " + type + " for " + EJB3SubsystemModel.DATA_STORE_TYPE);
+            }
+            timerServiceModel.get(DATA_STORE_TYPE).set(type);
+        }
     }
 
     protected void performBoottime(final OperationContext context, ModelNode operation, final ModelNode model, ServiceVerificationHandler verificationHandler, List<ServiceController<?>> newControllers) {
@@ -128,14 +139,20 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler implements D
                         }
                     }
 
+                    //install the scheduler which is shared by the timer services of all deployments
+                    context.getServiceTarget().addService(TimeoutSchedulerService.SERVICE_NAME, new TimeoutSchedulerService())
+                            .install();
+
                     int coreThreadCount = timerServiceModel.get(CORE_THREADS).asInt(0);
                     int maxThreadCount = timerServiceModel.get(MAX_THREADS).asInt(Runtime.getRuntime().availableProcessors());
+                    final ModelNode typeNode = timerServiceModel.get(DATA_STORE_TYPE);
+                    final boolean journal = typeNode.isDefined() && JOURNAL_DATA_STORE.equals(typeNode.asString());
 
                     //we only add the timer service DUP's when the timer service in enabled in XML
                     processorTarget.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_TIMEOUT_ANNOTATION, new TimerServiceAnnotationProcessor());
                     processorTarget.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_AROUNDTIMEOUT_ANNOTATION, new AroundTimeoutAnnotationParsingProcessor());
                     processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_METADATA_MERGE, new TimerMethodMergingProcessor());
-                    processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_SERVICE, new TimerServiceDeploymentProcessor(coreThreadCount, maxThreadCount, true));
+                    processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_SERVICE, new TimerServiceDeploymentProcessor(coreThreadCount, maxThreadCount, journal, true));
                 }
             }, OperationContext.Stage.RUNTIME);
         }
@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.ejb3.timerservice.TimeoutSchedulerService;
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.AVERAGE_SCHEDULING_LAG;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_SCHEDULING_LAG;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.TIMEOUT_COUNT;
+
+/**
+ * Reads the scheduling metrics of the timer service.
+ */
+class TimerServiceMetrics implements OperationStepHandler {
+
+    static final TimerServiceMetrics INSTANCE = new TimerServiceMetrics();
+
+    static final String[] ATTRIBUTES = new String[] {TIMEOUT_COUNT, AVERAGE_SCHEDULING_LAG, MAX_SCHEDULING_LAG};
+
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (context.getType() == OperationContext.Type.SERVER) {
+            context.addStep(new OperationStepHandler() {
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final String attributeName = operation.require(NAME).asString();
+                    final ServiceController<?> controller = context.getServiceRegistry(false).getService(TimeoutSchedulerService.SERVICE_NAME);
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final TimeoutScheduler scheduler = (TimeoutScheduler) controller.getValue();
+                        final ModelNode result = context.getResult();
+                        if (TIMEOUT_COUNT.equals(attributeName)) {
+                            result.set(scheduler.getExecutionCount());
+                        } else if (AVERAGE_SCHEDULING_LAG.equals(attributeName)) {
+                            result.set(scheduler.getAverageLag());
+                        } else if (MAX_SCHEDULING_LAG.equals(attributeName)) {
+                            result.set(scheduler.getMaxLag());
+                        }
+                    } else {
+                        context.getResult().set("no metrics available");
+                    }
+                    context.completeStep();
+                }
+            }, OperationContext.Stage.RUNTIME);
+        } else {
+            context.getResult().set("no metrics available");
+        }
+        context.completeStep();
+    }
+}
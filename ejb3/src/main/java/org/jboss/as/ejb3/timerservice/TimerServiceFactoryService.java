@@ -21,8 +21,11 @@
  */
 package org.jboss.as.ejb3.timerservice;
 
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
 import org.jboss.as.ejb3.timerservice.mk2.TimerServiceFactoryImpl;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.mk2.persistence.filestore.FileTimerPersistence;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.journal.JournalTimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.TimerServiceFactory;
 import org.jboss.modules.Module;
 import org.jboss.msc.service.Service;
@@ -55,20 +58,23 @@ public class TimerServiceFactoryService implements Service<TimerServiceFactory>
 
     private volatile TimerServiceFactory timerServiceFactory;
     private volatile ExecutorService executorService;
-    private volatile FileTimerPersistence timerPersistence;
+    private volatile TimerPersistence timerPersistence;
 
     private final InjectedValue<TransactionManager> transactionManagerInjectedValue = new InjectedValue<TransactionManager>();
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistryInjectedValue = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<String> path = new InjectedValue<String>();
+    private final InjectedValue<TimeoutScheduler> scheduler = new InjectedValue<TimeoutScheduler>();
     private final int maxThreads;
     private final int coreThreads;
+    private final boolean journal;
     private final String name;
     private final Module module;
 
-    public TimerServiceFactoryService(final int coreThreads, final int maxThreads, final String name, final Module module) {
+    public TimerServiceFactoryService(final int coreThreads, final int maxThreads, final boolean journal, final String name, final Module module) {
         this.name = name;
         this.coreThreads = coreThreads;
         this.maxThreads = maxThreads;
+        this.journal = journal;
         this.module = module;
     }
 
@@ -80,16 +86,21 @@ public class TimerServiceFactoryService implements Service<TimerServiceFactory>
         //only start the persistence service if it has been configured
         final String path = this.path.getOptionalValue();
         if (path != null) {
-            timerPersistence = new FileTimerPersistence(transactionManagerInjectedValue.getValue(), transactionSynchronizationRegistryInjectedValue.getValue(), new File(path + File.separatorChar + name), true, module.getModuleLoader());
+            final File dataDir = new File(path + File.separatorChar + name);
+            if (journal) {
+                timerPersistence = new JournalTimerPersistence(transactionManagerInjectedValue.getValue(), transactionSynchronizationRegistryInjectedValue.getValue(), dataDir, true, module.getModuleLoader());
+            } else {
+                timerPersistence = new FileTimerPersistence(transactionManagerInjectedValue.getValue(), transactionSynchronizationRegistryInjectedValue.getValue(), dataDir, true, module.getModuleLoader());
+            }
             timerPersistence.start();
         }
-        timerServiceFactory = new TimerServiceFactoryImpl(timerPersistence, transactionManagerInjectedValue.getValue(), executorService);
+        timerServiceFactory = new TimerServiceFactoryImpl(timerPersistence, transactionManagerInjectedValue.getValue(), executorService, scheduler.getValue());
     }
 
     @Override
     public void stop(final StopContext context) {
         executorService.shutdownNow();
-        if (path == null) {
+        if (timerPersistence != null) {
             timerPersistence.stop();
             timerPersistence = null;
         }
@@ -117,4 +128,8 @@ public class TimerServiceFactoryService implements Service<TimerServiceFactory>
     public InjectedValue<String> getPath() {
         return path;
     }
+
+    public InjectedValue<TimeoutScheduler> getScheduler() {
+        return scheduler;
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.mk2;
+
+import org.jboss.logging.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link TimeoutScheduler} which spreads the timers over a number of single threaded
+ * {@link ScheduledThreadPoolExecutor}s.
+ * <p/>
+ * A timer always hashes to the same shard. The shard threads never run the timeout tasks themselves, they only
+ * hand them over to the executor of the timer service, so a shard keeps up even when timeout methods are slow.
+ * Executions of the same timer are chained: if the previous execution is still queued or running when the next
+ * one becomes due, the next one runs on the same thread right after it instead of being submitted separately.
+ */
+public class ShardedTimeoutScheduler implements TimeoutScheduler {
+
+    private static final Logger logger = Logger.getLogger(ShardedTimeoutScheduler.class);
+
+    /**
+     * Cancelled tasks stay in the queue of a {@link ScheduledThreadPoolExecutor} until they are due, so the queue is
+     * purged after this many cancellations.
+     */
+    private static final int PURGE_THRESHOLD = 1024;
+
+    private final ScheduledThreadPoolExecutor[] shards;
+    private final AtomicInteger[] cancellations;
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong totalLag = new AtomicLong();
+    private final AtomicLong maxLag = new AtomicLong();
+
+    public ShardedTimeoutScheduler(final String name) {
+        this(name, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public ShardedTimeoutScheduler(final String name, final int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Invalid number of shards " + shardCount);
+        }
+        shards = new ScheduledThreadPoolExecutor[shardCount];
+        cancellations = new AtomicInteger[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            final String threadName = name + "-" + i;
+            shards[i] = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = new Thread(r, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            cancellations[i] = new AtomicInteger();
+        }
+    }
+
+    @Override
+    public ScheduledTimeout schedule(final Object key, final Runnable task, final Executor executor, final long delay, final long interval) {
+        final int shard = shardOf(key);
+        final SerialTimeout timeout = new SerialTimeout(task, executor, shard, System.currentTimeMillis() + delay, interval);
+        if (interval > 0) {
+            timeout.future = shards[shard].scheduleAtFixedRate(timeout, delay, interval, TimeUnit.MILLISECONDS);
+        } else {
+            timeout.future = shards[shard].schedule(timeout, delay, TimeUnit.MILLISECONDS);
+        }
+        return timeout;
+    }
+
+    @Override
+    public long getExecutionCount() {
+        return executions.get();
+    }
+
+    @Override
+    public long getAverageLag() {
+        final long count = executions.get();
+        return count == 0 ? 0 : totalLag.get() / count;
+    }
+
+    @Override
+    public long getMaxLag() {
+        return maxLag.get();
+    }
+
+    public void shutdown() {
+        for (ScheduledThreadPoolExecutor shard : shards) {
+            shard.shutdownNow();
+        }
+    }
+
+    private int shardOf(final Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return (h & 0x7fffffff) % shards.length;
+    }
+
+    private void recordLag(final long lag) {
+        executions.incrementAndGet();
+        totalLag.addAndGet(lag);
+        long max;
+        while (lag > (max = maxLag.get())) {
+            if (maxLag.compareAndSet(max, lag)) {
+                break;
+            }
+        }
+    }
+
+    private final class SerialTimeout implements Runnable, ScheduledTimeout {
+        private final Runnable task;
+        private final Executor executor;
+        private final int shard;
+        private final long interval;
+        /**
+         * Only accessed by the shard thread
+         */
+        private long nextDeadline;
+        /**
+         * The deadlines of the executions which have become due but have not started yet
+         */
+        private final Queue<Long> due = new ConcurrentLinkedQueue<Long>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+
+        private final Runnable drain = new Runnable() {
+            @Override
+            public void run() {
+                do {
+                    final Long deadline = due.poll();
+                    if (cancelled) {
+                        continue;
+                    }
+                    recordLag(Math.max(0, System.currentTimeMillis() - deadline));
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        logger.error("Error running timeout task " + task, t);
+                    }
+                } while (pending.decrementAndGet() > 0);
+            }
+        };
+
+        SerialTimeout(final Runnable task, final Executor executor, final int shard, final long firstDeadline, final long interval) {
+            this.task = task;
+            this.executor = executor;
+            this.shard = shard;
+            this.nextDeadline = firstDeadline;
+            this.interval = interval;
+        }
+
+        /**
+         * Invoked on the shard thread when an execution becomes due
+         */
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            due.add(nextDeadline);
+            nextDeadline += interval;
+            if (pending.incrementAndGet() == 1) {
+                try {
+                    executor.execute(drain);
+                } catch (RejectedExecutionException e) {
+                    due.clear();
+                    pending.set(0);
+                    logger.warn("Could not run timeout task " + task + ", the executor rejected it", e);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            final ScheduledFuture<?> future = this.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+            if (cancellations[shard].incrementAndGet() % PURGE_THRESHOLD == 0) {
+                shards[shard].purge();
+            }
+        }
+    }
+}
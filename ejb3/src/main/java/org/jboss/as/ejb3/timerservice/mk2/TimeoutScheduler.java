@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.mk2;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Schedules the timeouts of the timers of one or more {@link TimerServiceImpl timer services}.
+ * <p/>
+ * The scheduler only decides when a timeout is due, the timeout task itself is run on the executor which is passed
+ * in when it is scheduled. Implementations must never run two executions of the same scheduled timeout concurrently
+ * and must run them in the order they became due.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * Schedules <code>task</code>.
+     *
+     * @param key      identifies the timer, timeouts of the same timer are always handled by the same scheduling thread
+     * @param task     the task to run
+     * @param executor the executor which runs the task
+     * @param delay    the delay, in milliseconds, until the first execution
+     * @param interval the interval, in milliseconds, between executions or 0 for a single execution
+     * @return a handle which can be used to cancel the timeout
+     */
+    ScheduledTimeout schedule(Object key, Runnable task, Executor executor, long delay, long interval);
+
+    /**
+     * @return the number of timeout executions which have been started
+     */
+    long getExecutionCount();
+
+    /**
+     * @return the average time, in milliseconds, between a timeout becoming due and its task starting to run
+     */
+    long getAverageLag();
+
+    /**
+     * @return the longest time, in milliseconds, between a timeout becoming due and its task starting to run
+     */
+    long getMaxLag();
+
+    /**
+     * A handle to a scheduled timeout.
+     */
+    interface ScheduledTimeout {
+
+        /**
+         * Cancels all further executions of the timeout. An execution which is already running is not interrupted.
+         */
+        void cancel();
+    }
+}
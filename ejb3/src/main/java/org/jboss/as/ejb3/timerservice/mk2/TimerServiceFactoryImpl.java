@@ -30,7 +30,6 @@ import org.jboss.logging.Logger;
 import javax.ejb.TimerService;
 import javax.transaction.TransactionManager;
 import java.util.List;
-import java.util.Timer;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -63,15 +62,15 @@ public class TimerServiceFactoryImpl implements TimerServiceFactory {
     private final ExecutorService executor;
 
     /**
-     * The timer to use
+     * The scheduler which decides when the timeouts are due
      */
-    private final Timer timer;
+    private final TimeoutScheduler scheduler;
 
-    public TimerServiceFactoryImpl(final TimerPersistence timerPersistence, final TransactionManager transactionManager, final ExecutorService executor) {
+    public TimerServiceFactoryImpl(final TimerPersistence timerPersistence, final TransactionManager transactionManager, final ExecutorService executor, final TimeoutScheduler scheduler) {
         this.timerPersistence = timerPersistence;
         this.transactionManager = transactionManager;
         this.executor = executor;
-        this.timer = new Timer("EJB Timer Thread", true);
+        this.scheduler = scheduler;
     }
 
     /**
@@ -83,7 +82,7 @@ public class TimerServiceFactoryImpl implements TimerServiceFactory {
      */
     public TimerService createTimerService(TimedObjectInvoker invoker) {
         // create the timer service
-        TimerServiceImpl timerService = new TimerServiceImpl(timer, invoker, timerPersistence, transactionManager, executor);
+        TimerServiceImpl timerService = new TimerServiceImpl(scheduler, invoker, timerPersistence, transactionManager, executor);
 
         String timedObjectId = invoker.getTimedObjectId();
         // EJBTHREE-2209 I'm not too happy with this "fix". Ideally,
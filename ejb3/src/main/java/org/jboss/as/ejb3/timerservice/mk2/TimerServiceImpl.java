@@ -100,9 +100,9 @@ public class TimerServiceImpl implements TimerService {
     private final ExecutorService executorService;
 
     /**
-     * The timer
+     * Decides when the timeouts are due
      */
-    private final java.util.Timer timer;
+    private final TimeoutScheduler scheduler;
 
     /**
      * All non-persistent timers which were created by this {@link TimerService}
@@ -112,21 +112,25 @@ public class TimerServiceImpl implements TimerService {
     private final Map<TimerHandle, TimerImpl> persistentWaitingOnTxCompletionTimers = new ConcurrentHashMap<TimerHandle, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the {@link TimeoutScheduler.ScheduledTimeout} of each of the timer tasks that have been scheduled
      */
-    private final Map<TimerHandle, java.util.TimerTask> scheduledTimerFutures = new ConcurrentHashMap<TimerHandle, java.util.TimerTask>();
+    private final Map<TimerHandle, TimeoutScheduler.ScheduledTimeout> scheduledTimerFutures = new ConcurrentHashMap<TimerHandle, TimeoutScheduler.ScheduledTimeout>();
 
     /**
      * Creates a {@link TimerServiceImpl}
      *
+     * @param scheduler          The {@link TimeoutScheduler} which decides when the timeouts are due
      * @param invoker            The {@link TimedObjectInvoker} responsible for invoking the timeout method
      * @param timerPersistence   The persistent timer store
      * @param transactionManager Transaction manager responsible for managing the transactional timer service
      * @param executor           Executor service responsible for creating scheduled timer tasks
      * @throws IllegalArgumentException If either of the passed param is null
      */
-    public TimerServiceImpl(final java.util.Timer timer, TimedObjectInvoker invoker, final TimerPersistence timerPersistence, TransactionManager transactionManager,
+    public TimerServiceImpl(final TimeoutScheduler scheduler, TimedObjectInvoker invoker, final TimerPersistence timerPersistence, TransactionManager transactionManager,
                             ExecutorService executor) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
         if (invoker == null) {
             throw new IllegalArgumentException("Invoker cannot be null");
         }
@@ -141,7 +145,7 @@ public class TimerServiceImpl implements TimerService {
         this.timerPersistence = timerPersistence;
         this.transactionManager = transactionManager;
         this.executorService = executor;
-        this.timer = timer;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -731,31 +735,26 @@ public class TimerServiceImpl implements TimerService {
         if (intervalDuration > 0) {
             logger.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
                     + " milli seconds from now with repeated interval=" + intervalDuration);
-            // schedule the task
-            final Task task = new Task(timerTask);
-            this.timer.scheduleAtFixedRate(task, delay, intervalDuration);
-            // maintain it in timerservice for future use (like cancellation)
-            this.scheduledTimerFutures.put(timer.getTimerHandle(), task);
         } else {
             logger.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milli seconds from now");
-            // schedule the task
-            this.timer.schedule(new Task(timerTask), delay);
-            // maintain it in timerservice for future use (like cancellation)
-            final Task task = new Task(timerTask);
-            this.scheduledTimerFutures.put(timer.getTimerHandle(), task);
+            intervalDuration = 0;
         }
+        // schedule the task
+        final TimeoutScheduler.ScheduledTimeout timeout = this.scheduler.schedule(timer.getId(), timerTask, executorService, delay, intervalDuration);
+        // maintain it in timerservice for future use (like cancellation)
+        this.scheduledTimerFutures.put(timer.getTimerHandle(), timeout);
     }
 
     /**
-     * Cancels any scheduled {@link java.util.concurrent.Future} corresponding to the passed <code>timer</code>
+     * Cancels any {@link TimeoutScheduler.ScheduledTimeout} corresponding to the passed <code>timer</code>
      *
      * @param timer
      */
     protected void cancelTimeout(TimerImpl timer) {
         TimerHandle handle = timer.getTimerHandle();
-        java.util.TimerTask timerTask = this.scheduledTimerFutures.get(handle);
-        if (timerTask != null) {
-            timerTask.cancel();
+        TimeoutScheduler.ScheduledTimeout timeout = this.scheduledTimerFutures.remove(handle);
+        if (timeout != null) {
+            timeout.cancel();
         }
 
     }
@@ -1025,18 +1024,4 @@ public class TimerServiceImpl implements TimerService {
 
     }
 
-    private class Task extends java.util.TimerTask {
-
-        private final Runnable delegate;
-
-        public Task(final Runnable delegate) {
-            this.delegate = delegate;
-        }
-
-        @Override
-        public void run() {
-            executorService.submit(delegate);
-        }
-    }
-
 }
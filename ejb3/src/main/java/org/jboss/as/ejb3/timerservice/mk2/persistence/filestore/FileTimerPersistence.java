@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.timerservice.mk2.persistence.filestore;
 import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerEntity;
 import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
 import org.jboss.logging.Logger;
+import org.jboss.marshalling.ClassResolver;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
@@ -80,13 +81,17 @@ public class FileTimerPersistence implements TimerPersistence {
     private volatile boolean started = false;
 
     public FileTimerPersistence(final TransactionManager transactionManager, final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final File baseDir, final boolean createIfNotExists, final ModuleLoader moduleLoader) {
+        this(transactionManager, transactionSynchronizationRegistry, baseDir, createIfNotExists, ModularClassResolver.getInstance(moduleLoader));
+    }
+
+    public FileTimerPersistence(final TransactionManager transactionManager, final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final File baseDir, final boolean createIfNotExists, final ClassResolver classResolver) {
         this.transactionManager = transactionManager;
         this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
         this.baseDir = baseDir;
         this.createIfNotExists = createIfNotExists;
         RiverMarshallerFactory factory = new RiverMarshallerFactory();
         MarshallingConfiguration configuration = new MarshallingConfiguration();
-        configuration.setClassResolver(ModularClassResolver.getInstance(moduleLoader));
+        configuration.setClassResolver(classResolver);
 
         this.configuration = configuration;
         this.factory = factory;
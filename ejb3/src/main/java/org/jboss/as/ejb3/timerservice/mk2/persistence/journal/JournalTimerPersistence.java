@@ -0,0 +1,764 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.mk2.persistence.journal;
+
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.ClassResolver;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent timer store which appends every change to a single journal file.
+ * <p/>
+ * Each record carries a CRC32 checksum. Concurrent writers are group committed: the first writer which finds no
+ * write in progress writes the records of all waiting writers and forces them to disk with a single sync, the
+ * others wait until their record is durable. A change only becomes visible once its record is durable, and a failed
+ * write only fails the changes of that batch: the partially written records are truncated again, and if even that
+ * fails the next batch rewrites the journal. When the journal holds more than twice as many records as there are
+ * live timers it is compacted, by writing the live timers to a new file which then replaces the journal.
+ * <p/>
+ * On start the journal is replayed without unmarshalling anything, only the last record of each timer is kept.
+ * A torn or corrupt record at the end of the journal, left behind by a crash during a write, is truncated. The
+ * timers of a timed object are unmarshalled the first time they are asked for.
+ */
+public class JournalTimerPersistence implements TimerPersistence {
+
+    private static final Logger logger = Logger.getLogger(JournalTimerPersistence.class);
+
+    static final String JOURNAL_FILE = "timers.journal";
+
+    private static final int MAGIC = 0x454a544a;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte PERSIST = 1;
+    private static final byte REMOVE = 2;
+
+    /**
+     * The journal is not compacted before it holds this many records
+     */
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final TransactionManager transactionManager;
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+    private final File baseDir;
+    private final boolean createIfNotExists;
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    /**
+     * map of timed object id : timer id : timer, only holds changes which are durable. Guarded by this.
+     */
+    private final Map<String, Map<String, Entry>> timers = new HashMap<String, Map<String, Entry>>();
+
+    /**
+     * Changes which have not been written yet. Guarded by this.
+     */
+    private Batch pending = new Batch();
+    private boolean writing;
+    private int liveCount;
+    private int journalRecords;
+    /**
+     * Set if a failed write could not be undone, so the end of the journal may hold garbage. Only accessed by the
+     * thread which is writing.
+     */
+    private boolean damaged;
+
+    private File journal;
+    private FileChannel channel;
+    private volatile boolean started = false;
+
+    public JournalTimerPersistence(final TransactionManager transactionManager, final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final File baseDir, final boolean createIfNotExists, final ModuleLoader moduleLoader) {
+        this(transactionManager, transactionSynchronizationRegistry, baseDir, createIfNotExists, ModularClassResolver.getInstance(moduleLoader));
+    }
+
+    public JournalTimerPersistence(final TransactionManager transactionManager, final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final File baseDir, final boolean createIfNotExists, final ClassResolver classResolver) {
+        this.transactionManager = transactionManager;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        this.baseDir = baseDir;
+        this.createIfNotExists = createIfNotExists;
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(classResolver);
+        this.configuration = configuration;
+        this.factory = new RiverMarshallerFactory();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!baseDir.exists()) {
+            if (createIfNotExists) {
+                if (!baseDir.mkdirs()) {
+                    throw new RuntimeException("Could not create timer journal directory " + baseDir);
+                }
+            } else {
+                throw new RuntimeException("Timer journal directory " + baseDir + " does not exist");
+            }
+        }
+        if (!baseDir.isDirectory()) {
+            throw new RuntimeException("Timer journal directory " + baseDir + " is not a directory");
+        }
+        journal = new File(baseDir, JOURNAL_FILE);
+        try {
+            final long validLength = replay();
+            final RandomAccessFile file = new RandomAccessFile(journal, "rw");
+            if (validLength == 0) {
+                file.setLength(0);
+                file.writeInt(MAGIC);
+                file.writeInt(VERSION);
+                file.getFD().sync();
+            } else if (file.length() > validLength) {
+                logger.warn("Truncating " + (file.length() - validLength) + " bytes of incomplete records from timer journal " + journal);
+                file.setLength(validLength);
+            }
+            channel = file.getChannel();
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open timer journal " + journal, e);
+        }
+        damaged = false;
+        started = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        started = false;
+        while (writing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (channel != null) {
+            if (!pending.changes.isEmpty()) {
+                final Batch batch = pending;
+                pending = new Batch();
+                final List<byte[]> snapshot = damaged ? liveRecords(batch) : null;
+                completed(batch, writeBatch(batch, snapshot), snapshot == null ? -1 : snapshot.size());
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Could not close timer journal " + journal, e);
+            }
+            channel = null;
+        }
+        timers.clear();
+        pending = new Batch();
+        liveCount = 0;
+        journalRecords = 0;
+    }
+
+    @Override
+    public void persistTimer(final TimerEntity timerEntity) {
+        try {
+            final int status = transactionManager.getStatus();
+            if (status == Status.STATUS_NO_TRANSACTION ||
+                    status == Status.STATUS_UNKNOWN) {
+                writePersist(timerEntity);
+            } else {
+                transactionSynchronizationRegistry.registerInterposedSynchronization(new PersistTransactionSynchronization(timerEntity));
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public TimerEntity loadTimer(final String id, final String timedObjectId) {
+        synchronized (this) {
+            final Map<String, Entry> entries = timers.get(timedObjectId);
+            if (entries == null) {
+                return null;
+            }
+            final Entry entry = entries.get(id);
+            return entry == null ? null : entry.getEntity();
+        }
+    }
+
+    @Override
+    public void removeTimer(final TimerEntity timerEntity) {
+        //remove is not a transactional operation, as it only happens once the timer has expired
+        final byte[] record = record(REMOVE, timerEntity.getTimedObjectId(), timerEntity.getId(), null);
+        final Batch batch;
+        synchronized (this) {
+            final Map<String, Entry> entries = timers.get(timerEntity.getTimedObjectId());
+            if (entries == null || !entries.containsKey(timerEntity.getId())) {
+                return;
+            }
+            batch = enqueue(new Change(timerEntity.getTimedObjectId(), timerEntity.getId(), record, null));
+        }
+        awaitWritten(batch);
+    }
+
+    @Override
+    public List<TimerEntity> loadActiveTimers(final String timedObjectId) {
+        synchronized (this) {
+            final Map<String, Entry> entries = timers.get(timedObjectId);
+            if (entries == null) {
+                return new ArrayList<TimerEntity>();
+            }
+            final List<TimerEntity> result = new ArrayList<TimerEntity>(entries.size());
+            for (Entry entry : entries.values()) {
+                final TimerEntity entity = entry.getEntity();
+                if (entity != null) {
+                    result.add(entity);
+                }
+            }
+            return result;
+        }
+    }
+
+    private void writePersist(final TimerEntity timerEntity) {
+        // marshal outside of the lock, so writers only serialize on the actual disk write
+        final byte[] state = marshal(timerEntity);
+        final byte[] record = record(PERSIST, timerEntity.getTimedObjectId(), timerEntity.getId(), state);
+        final Batch batch;
+        synchronized (this) {
+            batch = enqueue(new Change(timerEntity.getTimedObjectId(), timerEntity.getId(), record, new Entry(timerEntity, state)));
+        }
+        awaitWritten(batch);
+    }
+
+    /**
+     * Queues a change for writing. Must be called while holding the lock.
+     *
+     * @return the batch the change will be written with
+     */
+    private Batch enqueue(final Change change) {
+        if (!started) {
+            throw new IllegalStateException("Timer journal " + journal + " is not started");
+        }
+        pending.changes.add(change);
+        return pending;
+    }
+
+    /**
+     * Blocks until the given batch is on disk. If no write is in progress the calling thread writes the batch
+     * itself, together with the changes of all other threads which are waiting for it.
+     *
+     * @throws RuntimeException if the batch could not be written
+     */
+    private void awaitWritten(final Batch batch) {
+        final List<byte[]> snapshot;
+        synchronized (this) {
+            while (!batch.done && writing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for the timer journal to be written", e);
+                }
+            }
+            if (batch.done) {
+                batch.check();
+                return;
+            }
+            // only the pending batch can be neither written nor in progress
+            writing = true;
+            pending = new Batch();
+            final int records = journalRecords + batch.changes.size();
+            if (damaged || records > MIN_COMPACTION_RECORDS && records > liveCount * 2) {
+                snapshot = liveRecords(batch);
+            } else {
+                snapshot = null;
+            }
+        }
+        final IOException failure = writeBatch(batch, snapshot);
+        synchronized (this) {
+            writing = false;
+            completed(batch, failure, snapshot == null ? -1 : snapshot.size());
+        }
+        batch.check();
+    }
+
+    /**
+     * Writes a batch, by appending it or by compacting the journal.
+     *
+     * @param snapshot the live records including the changes of the batch if the journal is compacted, null otherwise
+     * @return the failure, or null if the batch is durable
+     */
+    private IOException writeBatch(final Batch batch, final List<byte[]> snapshot) {
+        try {
+            if (snapshot != null) {
+                compact(snapshot);
+            } else {
+                append(batch.records());
+            }
+            return null;
+        } catch (IOException e) {
+            logger.error("Could not write to timer journal " + journal, e);
+            return e;
+        }
+    }
+
+    /**
+     * Makes the changes of a written batch visible and wakes up its writers. Must be called while holding the lock.
+     *
+     * @param compactedSize the number of records in the journal if it has been compacted, -1 otherwise
+     */
+    private void completed(final Batch batch, final IOException failure, final int compactedSize) {
+        if (failure == null) {
+            for (Change change : batch.changes) {
+                apply(change);
+            }
+            journalRecords = compactedSize >= 0 ? compactedSize : journalRecords + batch.changes.size();
+        }
+        batch.failure = failure;
+        batch.done = true;
+        notifyAll();
+    }
+
+    private void apply(final Change change) {
+        if (change.entry != null) {
+            Map<String, Entry> entries = timers.get(change.timedObjectId);
+            if (entries == null) {
+                timers.put(change.timedObjectId, entries = new HashMap<String, Entry>());
+            }
+            if (entries.put(change.id, change.entry) == null) {
+                liveCount++;
+            }
+        } else {
+            final Map<String, Entry> entries = timers.get(change.timedObjectId);
+            if (entries != null && entries.remove(change.id) != null) {
+                liveCount--;
+            }
+        }
+    }
+
+    /**
+     * Appends records to the journal. If the write fails the journal is truncated to its previous length, so a
+     * later batch is not appended after a partial record.
+     */
+    private void append(final List<byte[]> records) throws IOException {
+        final long start = channel.position();
+        try {
+            write(channel, records);
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException t) {
+                logger.error("Could not truncate timer journal " + journal + " after a failed write, it will be rewritten", t);
+                damaged = true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the records and forces them to disk.
+     */
+    protected void write(final FileChannel channel, final List<byte[]> batch) throws IOException {
+        final ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(batch.get(i));
+            remaining += buffers[i].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Writes the given records to a new file and atomically replaces the journal with it
+     */
+    private void compact(final List<byte[]> records) throws IOException {
+        final File compacted = new File(baseDir, JOURNAL_FILE + ".compact");
+        final FileOutputStream out = new FileOutputStream(compacted, false);
+        try {
+            final FileChannel compactedChannel = out.getChannel();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                compactedChannel.write(header);
+            }
+            write(compactedChannel, records);
+        } finally {
+            out.close();
+        }
+        final FileChannel old = channel;
+        if (!compacted.renameTo(journal)) {
+            // some platforms can not rename over an existing file
+            old.close();
+            if (journal.exists() && !journal.delete() || !compacted.renameTo(journal)) {
+                throw new IOException("Could not replace " + journal + " with " + compacted);
+            }
+        }
+        // the rename itself has to be durable as well
+        DirectorySync.sync(baseDir);
+        final FileChannel reopened = new RandomAccessFile(journal, "rw").getChannel();
+        reopened.position(reopened.size());
+        channel = reopened;
+        try {
+            old.close();
+        } catch (IOException e) {
+            logger.error("Could not close timer journal " + journal, e);
+        }
+        damaged = false;
+        logger.debug("Compacted timer journal " + journal + " to " + records.size() + " records");
+    }
+
+    /**
+     * @return a record for every timer which is live once the given batch has been applied, must be called while
+     *         holding the lock
+     */
+    private List<byte[]> liveRecords(final Batch batch) {
+        final Map<String, Map<String, byte[]>> states = new HashMap<String, Map<String, byte[]>>();
+        for (Map.Entry<String, Map<String, Entry>> timedObject : timers.entrySet()) {
+            final Map<String, byte[]> timerStates = new HashMap<String, byte[]>();
+            for (Map.Entry<String, Entry> timer : timedObject.getValue().entrySet()) {
+                timerStates.put(timer.getKey(), timer.getValue().state);
+            }
+            states.put(timedObject.getKey(), timerStates);
+        }
+        for (Change change : batch.changes) {
+            Map<String, byte[]> timerStates = states.get(change.timedObjectId);
+            if (change.entry != null) {
+                if (timerStates == null) {
+                    states.put(change.timedObjectId, timerStates = new HashMap<String, byte[]>());
+                }
+                timerStates.put(change.id, change.entry.state);
+            } else if (timerStates != null) {
+                timerStates.remove(change.id);
+            }
+        }
+        final List<byte[]> records = new ArrayList<byte[]>(liveCount + batch.changes.size());
+        for (Map.Entry<String, Map<String, byte[]>> timedObject : states.entrySet()) {
+            for (Map.Entry<String, byte[]> timer : timedObject.getValue().entrySet()) {
+                records.add(record(PERSIST, timedObject.getKey(), timer.getKey(), timer.getValue()));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads the journal into {@link #timers}, without unmarshalling the timers.
+     *
+     * @return the length of the valid part of the journal, or 0 if it has to be (re)initialized
+     */
+    private long replay() throws IOException {
+        if (!journal.exists() || journal.length() < HEADER_SIZE) {
+            return 0;
+        }
+        final long start = System.currentTimeMillis();
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal), 64 * 1024));
+        long position = HEADER_SIZE;
+        int records = 0;
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("File " + journal + " is not a timer journal");
+            }
+            final CRC32 crc = new CRC32();
+            while (true) {
+                final int length;
+                final int checksum;
+                final byte[] body;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > journal.length() - position - RECORD_HEADER_SIZE) {
+                        break;
+                    }
+                    body = new byte[length];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                apply(body);
+                position += RECORD_HEADER_SIZE + length;
+                records++;
+            }
+        } finally {
+            in.close();
+        }
+        journalRecords = records;
+        logger.debug("Replayed " + records + " records of timer journal " + journal + " in " + (System.currentTimeMillis() - start) + "ms, " + liveCount + " timers are active");
+        return position;
+    }
+
+    private void apply(final byte[] body) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        final byte type = in.readByte();
+        final String timedObjectId = in.readUTF();
+        final String id = in.readUTF();
+        if (type == PERSIST) {
+            final byte[] state = new byte[in.available()];
+            in.readFully(state);
+            Map<String, Entry> entries = timers.get(timedObjectId);
+            if (entries == null) {
+                timers.put(timedObjectId, entries = new HashMap<String, Entry>());
+            }
+            if (entries.put(id, new Entry(null, state)) == null) {
+                liveCount++;
+            }
+        } else if (type == REMOVE) {
+            final Map<String, Entry> entries = timers.get(timedObjectId);
+            if (entries != null && entries.remove(id) != null) {
+                liveCount--;
+            }
+        } else {
+            throw new IOException("Unknown record type " + type + " in timer journal " + journal);
+        }
+    }
+
+    private static byte[] record(final byte type, final String timedObjectId, final String id, final byte[] state) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_HEADER_SIZE + 64 + (state == null ? 0 : state.length));
+            final DataOutputStream out = new DataOutputStream(bytes);
+            // placeholder for the length and checksum
+            out.writeLong(0);
+            out.writeByte(type);
+            out.writeUTF(timedObjectId);
+            out.writeUTF(id);
+            if (state != null) {
+                out.write(state);
+            }
+            out.close();
+            final byte[] record = bytes.toByteArray();
+            final CRC32 crc = new CRC32();
+            crc.update(record, RECORD_HEADER_SIZE, record.length - RECORD_HEADER_SIZE);
+            final ByteBuffer buffer = ByteBuffer.wrap(record);
+            buffer.putInt(record.length - RECORD_HEADER_SIZE);
+            buffer.putInt((int) crc.getValue());
+            return record;
+        } catch (IOException e) {
+            // can not happen for an in memory stream
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] marshal(final TimerEntity entity) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            final Marshaller marshaller = factory.createMarshaller(configuration);
+            marshaller.start(new OutputStreamByteOutput(bytes));
+            marshaller.writeObject(entity);
+            marshaller.finish();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not marshal timer " + entity.getId(), e);
+        }
+    }
+
+    private TimerEntity unmarshal(final byte[] state) {
+        try {
+            final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+            unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(state)));
+            final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+            unmarshaller.finish();
+            return entity;
+        } catch (Exception e) {
+            logger.error("Could not restore timer from timer journal " + journal, e);
+            return null;
+        }
+    }
+
+    /**
+     * A live timer. The marshalled state is kept so compaction never has to marshal and always writes exactly
+     * what was committed, the entity is only unmarshalled on demand after a replay.
+     */
+    private final class Entry {
+        private final byte[] state;
+        private TimerEntity entity;
+
+        Entry(final TimerEntity entity, final byte[] state) {
+            this.entity = entity;
+            this.state = state;
+        }
+
+        /**
+         * Must be called while holding the lock
+         */
+        TimerEntity getEntity() {
+            if (entity == null) {
+                entity = unmarshal(state);
+            }
+            return entity;
+        }
+    }
+
+    /**
+     * A change of a single timer, which is applied to {@link #timers} once its record is durable.
+     */
+    private static final class Change {
+        private final String timedObjectId;
+        private final String id;
+        private final byte[] record;
+        /**
+         * The new timer, or null if the timer is removed
+         */
+        private final Entry entry;
+
+        Change(final String timedObjectId, final String id, final byte[] record, final Entry entry) {
+            this.timedObjectId = timedObjectId;
+            this.id = id;
+            this.record = record;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * The changes which are written, and succeed or fail, together. Guarded by the persistence lock.
+     */
+    private static final class Batch {
+        private final List<Change> changes = new ArrayList<Change>();
+        private boolean done;
+        private IOException failure;
+
+        List<byte[]> records() {
+            final List<byte[]> records = new ArrayList<byte[]>(changes.size());
+            for (Change change : changes) {
+                records.add(change.record);
+            }
+            return records;
+        }
+
+        /**
+         * Must be called once the batch is done
+         */
+        void check() {
+            if (failure != null) {
+                throw new RuntimeException("Timer journal could not be written", failure);
+            }
+        }
+    }
+
+    /**
+     * Forces the entries of a directory to disk, so that the compacted journal which was renamed into it survives a
+     * crash. Only the JDK 7 {@code FileChannel.open(Path, OpenOption...)} can open a directory, it is accessed
+     * reflectively. On an older JDK, or on a platform which does not allow directories to be opened, nothing is done.
+     */
+    private static final class DirectorySync {
+        private static final Method TO_PATH;
+        private static final Method OPEN;
+        private static final Object READ;
+
+        static {
+            Method toPath = null;
+            Method open = null;
+            Object read = null;
+            try {
+                final Class<?> path = Class.forName("java.nio.file.Path");
+                final Class<?> openOption = Class.forName("java.nio.file.OpenOption");
+                read = Array.newInstance(openOption, 1);
+                Array.set(read, 0, Class.forName("java.nio.file.StandardOpenOption").getField("READ").get(null));
+                toPath = File.class.getMethod("toPath");
+                open = FileChannel.class.getMethod("open", path, read.getClass());
+            } catch (Exception e) {
+                logger.debug("Directories can not be synced on this JDK: " + e);
+                toPath = null;
+                open = null;
+            }
+            TO_PATH = toPath;
+            OPEN = open;
+            READ = read;
+        }
+
+        static void sync(final File directory) throws IOException {
+            if (OPEN == null) {
+                return;
+            }
+            final FileChannel channel;
+            try {
+                channel = (FileChannel) OPEN.invoke(null, TO_PATH.invoke(directory), READ);
+            } catch (InvocationTargetException e) {
+                // e.g. Windows, which does not allow a directory to be opened
+                logger.debug("Could not open directory " + directory + " to sync it: " + e.getCause());
+                return;
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            try {
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private final class PersistTransactionSynchronization implements Synchronization {
+
+        private final TimerEntity timer;
+
+        public PersistTransactionSynchronization(final TimerEntity timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public void beforeCompletion() {
+
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status == Status.STATUS_COMMITTED) {
+                writePersist(timer);
+            }
+        }
+    }
+}
@@ -23,13 +23,12 @@ package org.jboss.as.ejb3.timerservice.mk2.task;
 
 import org.jboss.as.ejb3.timerservice.mk2.CalendarTimer;
 import org.jboss.as.ejb3.timerservice.mk2.TimerState;
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
 import org.jboss.as.ejb3.timerservice.spi.MultiTimeoutMethodTimedObjectInvoker;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.logging.Logger;
 
-import java.util.Calendar;
 import java.util.Date;
-import java.util.GregorianCalendar;
 
 /**
  * CalendarTimerTask
@@ -84,12 +83,10 @@ public class CalendarTimerTask extends TimerTask<CalendarTimer> {
         if (currentTimeout == null) {
             return null;
         }
-        Calendar cal = new GregorianCalendar();
-        cal.setTime(currentTimeout);
         // now compute the next timeout date
-        Calendar nextTimeout = this.getTimer().getCalendarTimeout().getNextTimeout(cal);
-        if (nextTimeout != null) {
-            return nextTimeout.getTime();
+        long nextTimeout = this.getTimer().getCalendarTimeout().getNextTimeout(currentTimeout.getTime());
+        if (nextTimeout != CalendarBasedTimeout.NO_MORE_TIMEOUTS) {
+            return new Date(nextTimeout);
         }
         return null;
     }
@@ -28,28 +28,49 @@ import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+import org.jboss.as.ejb3.timerservice.schedule.util.CalendarUtil;
 import org.jboss.logging.Logger;
 
 import javax.ejb.ScheduleExpression;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.TimeZone;
 
 /**
  * CalendarBasedTimeout
+ * <p>
+ * The schedule expression is compiled into bit masks when the {@link CalendarBasedTimeout} is created. The next
+ * timeout is then searched field by field on the local date and time in the timezone of the schedule, using
+ * only bit operations and day arithmetic, and finally converted to an instant. Nothing is allocated apart from
+ * the returned {@link Calendar}, and not even that by {@link #getNextTimeout(long)}.
+ * </p>
  *
  * @author Jaikiran Pai
  * @version $Revision: $
  */
 public class CalendarBasedTimeout {
 
+    /**
+     * Returned by {@link #getNextTimeout(long)} if there are no more timeouts
+     */
+    public static final long NO_MORE_TIMEOUTS = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
     /**
      * Logger
      */
     private static final Logger logger = Logger.getLogger(CalendarBasedTimeout.class);
 
+    private static final Set<String> AVAILABLE_TIMEZONE_IDS = new HashSet<String>(Arrays.asList(TimeZone.getAvailableIDs()));
+
     /**
      * The {@link javax.ejb.ScheduleExpression} from which this {@link CalendarBasedTimeout}
      * was created
@@ -57,39 +78,36 @@ public class CalendarBasedTimeout {
     private ScheduleExpression scheduleExpression;
 
     /**
-     * The {@link Second} created out of the {@link javax.ejb.ScheduleExpression#getSecond()} value
+     * The matching seconds, minutes, hours, months ({@link Calendar#MONTH} values) and days of the
+     * week ({@link Calendar#DAY_OF_WEEK} values - 1) as bit masks
      */
-    private Second second;
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long months;
+    private final long daysOfWeek;
 
     /**
-     * The {@link org.jboss.as.ejb3.timerservice.schedule.attribute.Minute} created out of the {@link javax.ejb.ScheduleExpression#getMinute()} value
+     * The matching years
      */
-    private Minute minute;
+    private final BitSet years;
 
     /**
-     * The {@link org.jboss.as.ejb3.timerservice.schedule.attribute.Hour} created out of the {@link javax.ejb.ScheduleExpression#getHour()} value
+     * The {@link org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth} created out of the {@link javax.ejb.ScheduleExpression#getDayOfMonth()} value,
+     * which resolves its relative values for each month
      */
-    private Hour hour;
+    private final DayOfMonth dayOfMonth;
 
-    /**
-     * The {@link DayOfWeek} created out of the {@link javax.ejb.ScheduleExpression#getDayOfWeek()} value
-     */
-    private DayOfWeek dayOfWeek;
-
-    /**
-     * The {@link org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth} created out of the {@link javax.ejb.ScheduleExpression#getDayOfMonth()} value
-     */
-    private DayOfMonth dayOfMonth;
+    private final boolean dayOfMonthWildcard;
 
-    /**
-     * The {@link Month} created out of the {@link javax.ejb.ScheduleExpression#getMonth()} value
-     */
-    private Month month;
+    private final boolean dayOfWeekWildcard;
 
     /**
-     * The {@link org.jboss.as.ejb3.timerservice.schedule.attribute.Year} created out of the {@link javax.ejb.ScheduleExpression#getYear()} value
+     * The start and end of the schedule in milliseconds, {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} if
+     * the schedule doesn't have a start or end
      */
-    private Year year;
+    private final long start;
+    private final long end;
 
     /**
      * The first timeout relative to the time when this {@link CalendarBasedTimeout} was created
@@ -126,14 +144,23 @@ public class CalendarBasedTimeout {
         // do not affect this internal schedule expression.
         this.scheduleExpression = this.clone(schedule);
 
-        // Start parsing the values in the ScheduleExpression
-        this.second = new Second(schedule.getSecond());
-        this.minute = new Minute(schedule.getMinute());
-        this.hour = new Hour(schedule.getHour());
-        this.dayOfWeek = new DayOfWeek(schedule.getDayOfWeek());
+        // Start parsing the values in the ScheduleExpression and compile them
+        this.seconds = new Second(schedule.getSecond()).getBitMask();
+        this.minutes = new Minute(schedule.getMinute()).getBitMask();
+        this.hours = new Hour(schedule.getHour()).getBitMask();
+        DayOfWeek dayOfWeek = new DayOfWeek(schedule.getDayOfWeek());
+        this.daysOfWeek = dayOfWeek.getBitMask();
+        this.dayOfWeekWildcard = dayOfWeek.isWildcard();
         this.dayOfMonth = new DayOfMonth(schedule.getDayOfMonth());
-        this.month = new Month(schedule.getMonth());
-        this.year = new Year(schedule.getYear());
+        this.dayOfMonthWildcard = this.dayOfMonth.isWildcard();
+        this.months = new Month(schedule.getMonth()).getBitMask();
+        this.years = new Year(schedule.getYear()).getBitSet();
+
+        Date startDate = this.scheduleExpression.getStart();
+        this.start = startDate == null ? Long.MIN_VALUE : startDate.getTime();
+        Date endDate = this.scheduleExpression.getEnd();
+        this.end = endDate == null ? Long.MAX_VALUE : endDate.getTime();
+
         if (schedule.getTimezone() != null && schedule.getTimezone().trim().isEmpty() == false) {
             // If the timezone ID wasn't valid, then Timezone.getTimeZone returns
             // GMT, which may not always be desirable.
@@ -141,8 +168,7 @@ public class CalendarBasedTimeout {
             // timezone ids in the system. If it's available then we log a WARN message
             // and fallback on the server's timezone.
             String timezoneId = schedule.getTimezone();
-            String[] availableTimeZoneIDs = TimeZone.getAvailableIDs();
-            if (availableTimeZoneIDs != null && Arrays.asList(availableTimeZoneIDs).contains(timezoneId)) {
+            if (AVAILABLE_TIMEZONE_IDS.contains(timezoneId)) {
                 this.timezone = TimeZone.getTimeZone(timezoneId);
             } else {
                 logger.warn("Unknown timezone id: " + timezoneId
@@ -163,10 +189,7 @@ public class CalendarBasedTimeout {
     }
 
     public Calendar getNextTimeout() {
-        Calendar now = new GregorianCalendar(this.timezone);
-        now.setTime(new Date());
-
-        return this.getNextTimeout(now);
+        return this.getNextTimeout(new GregorianCalendar(this.timezone));
     }
 
     /**
@@ -178,50 +201,18 @@ public class CalendarBasedTimeout {
 
 
     private void setFirstTimeout() {
-        this.firstTimeout = new GregorianCalendar(this.timezone);
-        Date start = this.scheduleExpression.getStart();
-        if (start != null) {
-            this.firstTimeout.setTime(start);
+        long from;
+        if (this.scheduleExpression.getStart() != null) {
+            from = roundUp(this.start);
         } else {
-            this.firstTimeout.set(Calendar.SECOND, this.second.getFirst());
-            this.firstTimeout.set(Calendar.MINUTE, this.minute.getFirst());
-            this.firstTimeout.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            this.firstTimeout.set(Calendar.MILLISECOND, 0);
-        }
-        this.firstTimeout.setFirstDayOfWeek(Calendar.SUNDAY);
-
-        this.firstTimeout = this.computeNextSecond(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextMinute(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextHour(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextMonth(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextDate(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextYear(this.firstTimeout);
-
-        // one final check
-        if (this.firstTimeout != null && this.noMoreTimeouts(this.firstTimeout)) {
-            this.firstTimeout = null;
-        }
-
+            // the first timeout is searched from the beginning of the current day
+            long now = System.currentTimeMillis();
+            long localSecond = floorDiv(now + this.timezone.getOffset(now), MILLIS_PER_SECOND);
+            from = now - (localSecond - floorDiv(localSecond, SECONDS_PER_DAY) * SECONDS_PER_DAY) * MILLIS_PER_SECOND;
+            from = roundUp(from);
+        }
+        long timeout = this.nextTimeout(from);
+        this.firstTimeout = timeout == NO_MORE_TIMEOUTS || timeout > this.end ? null : this.toCalendar(timeout);
     }
 
     /**
@@ -235,531 +226,218 @@ public class CalendarBasedTimeout {
     }
 
     public Calendar getNextTimeout(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-        Calendar nextCal = this.copy(currentCal);
-
-        Date start = this.scheduleExpression.getStart();
-        if (start != null && currentCal.getTime().before(start)) {
-            nextCal.setTime(start);
-        } else {
-            // increment the current second by 1
-            nextCal.add(Calendar.SECOND, 1);
-            nextCal.set(Calendar.MILLISECOND, 0);
-        }
-        nextCal.setFirstDayOfWeek(Calendar.SUNDAY);
-
-        nextCal = this.computeNextSecond(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextMinute(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextHour(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextMonth(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextDate(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextYear(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        // one final check
-        if (this.noMoreTimeouts(nextCal)) {
-            return null;
-        }
-        return nextCal;
-    }
-
-    private Calendar computeNextSecond(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextSecond = this.second.getNextMatch(currentCal);
-
-        if (nextSecond == null) {
-            return null;
-        }
-        int currentSecond = currentCal.get(Calendar.SECOND);
-        // if the current second is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentSecond == nextSecond) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" second has been identified.
-        // There can be 2 cases
-        // 1) The "next" second is greater than the current second : This
-        // implies that the next second is within the "current" minute.
-        // 2) The "next" second is lesser than the current second : This implies
-        // that the next second is in the next minute (i.e. current minute needs to
-        // be advanced to next minute).
-
-        // handle case#1
-        if (nextSecond > currentSecond) {
-            nextCal.set(Calendar.SECOND, nextSecond);
-            return nextCal;
-        }
-
-        // case#2
-        if (nextSecond < currentSecond) {
-            nextCal.set(Calendar.SECOND, nextSecond);
-            // advance the minute to next minute
-            nextCal.add(Calendar.MINUTE, 1);
-
-            return nextCal;
-        }
-
-        return null;
-    }
-
-    private Calendar computeNextMinute(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextMinute = this.minute.getNextMatch(currentCal);
-
-        if (nextMinute == null) {
+        long timeout = this.getNextTimeout(currentCal.getTimeInMillis());
+        if (timeout == NO_MORE_TIMEOUTS) {
             return null;
         }
-        int currentMinute = currentCal.get(Calendar.MINUTE);
-        // if the current minute is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentMinute == nextMinute) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" minute has been identified.
-        // There can be 2 cases
-        // 1) The "next" minute is greater than the current minute : This
-        // implies that the next minute is within the "current" hour.
-        // 2) The "next" minute is lesser than the current minute : This implies
-        // that the next minute is in the next hour (i.e. current hour needs to
-        // be advanced to next hour).
-
-        // handle case#1
-        if (nextMinute > currentMinute) {
-            // set the chosen minute
-            nextCal.set(Calendar.MINUTE, nextMinute);
-            // since we are moving to a different minute (as compared to the current minute),
-            // we should reset the second, to its first possible value
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-
-            return nextCal;
-        }
-
-        // case#2
-        if (nextMinute < currentMinute) {
-            // since we are advancing the hour, we should
-            // restart from the first eligible second
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            // set the chosen minute
-            nextCal.set(Calendar.MINUTE, nextMinute);
-            // advance the hour to next hour
-            nextCal.add(Calendar.HOUR_OF_DAY, 1);
-
-            return nextCal;
-        }
-
-        return null;
+        return this.toCalendar(timeout);
     }
 
-    private Calendar computeNextHour(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextHour = this.hour.getNextMatch(currentCal);
-
-        if (nextHour == null) {
-            return null;
-        }
-        int currentHour = currentCal.get(Calendar.HOUR_OF_DAY);
-        // if the current hour is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentHour == nextHour) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" hour has been identified.
-        // There can be 2 cases
-        // 1) The "next" hour is greater than the current hour : This
-        // implies that the next hour is within the "current" day.
-        // 2) The "next" hour is lesser than the current hour : This implies
-        // that the next hour is in the next day (i.e. current day needs to
-        // be advanced to next day).
-
-        // handle case#1
-        if (nextHour > currentHour) {
-            // set the chosen day of hour
-            nextCal.set(Calendar.HOUR_OF_DAY, nextHour);
-            // since we are moving to a different hour (as compared to the current hour),
-            // we should reset the second and minute appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-
-            return nextCal;
-        }
-
-        // case#2
-        if (nextHour < currentHour) {
-            // set the chosen hour
-            nextCal.set(Calendar.HOUR_OF_DAY, nextHour);
-
-            // since we are moving to a different hour (as compared to the current hour),
-            // we should reset the second and minute appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-
-            // advance to next day
-            nextCal.add(Calendar.DATE, 1);
-
-            return nextCal;
-        }
-
-        return null;
-    }
-
-    private Calendar computeNextDayOfWeek(Calendar currentCal) {
-
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextDayOfWeek = this.dayOfWeek.getNextMatch(currentCal);
-
-        if (nextDayOfWeek == null) {
-            return null;
-        }
-        int currentDayOfWeek = currentCal.get(Calendar.DAY_OF_WEEK);
-        // if the current day-of-week is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentDayOfWeek == nextDayOfWeek) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" day-of-week has been identified.
-        // There can be 2 cases
-        // 1) The "next" day-of-week is greater than the current day-of-week : This
-        // implies that the next day-of-week is within the "current" week.
-        // 2) The "next" day-of-week is lesser than the current day-of-week : This implies
-        // that the next day-of-week is in the next week (i.e. current week needs to
-        // be advanced to next week).
-
-        // handle case#1
-        if (nextDayOfWeek > currentDayOfWeek) {
-            // set the chosen day-of-week
-            int dayDiff = nextDayOfWeek - currentDayOfWeek;
-            nextCal.add(Calendar.DAY_OF_MONTH, dayDiff);
-            // since we are moving to a different day-of-week (as compared to the current day-of-week),
-            // we should reset the second, minute and hour appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            return nextCal;
-        }
-
-        // case#2
-        if (nextDayOfWeek < currentDayOfWeek) {
-            // set the chosen day-of-week
-            nextCal.set(Calendar.DAY_OF_WEEK, nextDayOfWeek);
-            // advance to next week
-            nextCal.add(Calendar.WEEK_OF_MONTH, 1);
-
-            // since we are moving to a different day-of-week (as compared to the current day-of-week),
-            // we should reset the second, minute and hour appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-
-            return nextCal;
-        }
-        return null;
-    }
-
-    private Calendar computeNextMonth(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextMonth = this.month.getNextMatch(currentCal);
-
-        if (nextMonth == null) {
-            return null;
-        }
-        int currentMonth = currentCal.get(Calendar.MONTH);
-        // if the current month is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentMonth == nextMonth) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" month has been identified.
-        // There can be 2 cases
-        // 1) The "next" month is greater than the current month : This
-        // implies that the next month is within the "current" year.
-        // 2) The "next" month is lesser than the current month : This implies
-        // that the next month is in the next year (i.e. current year needs to
-        // be advanced to next year).
-
-        // handle case#1
-        if (nextMonth > currentMonth) {
-            // since we are moving to a different month (as compared to the current month),
-            // we should reset the second, minute, hour, day-of-week and dayofmonth appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            nextCal.set(Calendar.DAY_OF_WEEK, this.dayOfWeek.getFirst());
-            nextCal.set(Calendar.DAY_OF_MONTH, 1);
-
-            // set the chosen month
-            nextCal.set(Calendar.MONTH, nextMonth);
-            return nextCal;
-        }
-
-        // case#2
-        if (nextMonth < currentMonth) {
-            // set the chosen month
-            nextCal.set(Calendar.MONTH, nextMonth);
-            // since we are moving to a different month (as compared to the current month),
-            // we should reset the second, minute, hour, day-of-week and dayofmonth appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            nextCal.set(Calendar.DAY_OF_WEEK, this.dayOfWeek.getFirst());
-            nextCal.set(Calendar.DAY_OF_MONTH, 1);
-
-            // advance to next year
-            nextCal.add(Calendar.YEAR, 1);
-
-            return nextCal;
-        }
-
-        return null;
-    }
-
-    private Calendar computeNextDate(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
+    /**
+     * Returns the first timeout after <code>currentTime</code>, or the first timeout at or after the start of the
+     * schedule if <code>currentTime</code> is before the start.
+     *
+     * @param currentTime The current time in milliseconds since the epoch
+     * @return the next timeout in milliseconds since the epoch, or {@link #NO_MORE_TIMEOUTS}
+     */
+    public long getNextTimeout(long currentTime) {
+        long from;
+        if (currentTime < this.start) {
+            from = roundUp(this.start);
+        } else {
+            // the next whole second
+            from = floorDiv(currentTime, MILLIS_PER_SECOND) * MILLIS_PER_SECOND + MILLIS_PER_SECOND;
         }
-
-        if (this.isDayOfMonthWildcard()) {
-            return this.computeNextDayOfWeek(currentCal);
+        if (from > this.end) {
+            return NO_MORE_TIMEOUTS;
         }
-
-        if (this.isDayOfWeekWildcard()) {
-            return this.computeNextDayOfMonth(currentCal);
+        long timeout = this.nextTimeout(from);
+        if (timeout == NO_MORE_TIMEOUTS || timeout > this.end) {
+            return NO_MORE_TIMEOUTS;
         }
-
-        // both day-of-month and day-of-week are *non-wildcards*
-        Calendar nextDayOfMonthCal = this.computeNextDayOfMonth(currentCal);
-        Calendar nextDayOfWeekCal = this.computeNextDayOfWeek(currentCal);
-
-        if (nextDayOfMonthCal == null) {
-            return nextDayOfWeekCal;
-        }
-        if (nextDayOfWeekCal == null) {
-            return nextDayOfMonthCal;
-        }
-
-        return nextDayOfWeekCal.getTime().before(nextDayOfMonthCal.getTime()) ? nextDayOfWeekCal : nextDayOfMonthCal;
-
+        return timeout;
     }
 
-    private Calendar computeNextDayOfMonth(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextDayOfMonth = this.dayOfMonth.getNextMatch(currentCal);
-
-        if (nextDayOfMonth == null) {
-            return null;
-        }
-        int currentDayOfMonth = currentCal.get(Calendar.DAY_OF_MONTH);
-        // if the current day-of-month is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentDayOfMonth == nextDayOfMonth) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-
-        if (nextDayOfMonth > currentDayOfMonth) {
-            if (this.monthHasDate(nextCal, nextDayOfMonth)) {
-                // set the chosen day-of-month
-                nextCal.set(Calendar.DAY_OF_MONTH, nextDayOfMonth);
-                // since we are moving to a different day-of-month (as compared to the current day-of-month),
-                // we should reset the second, minute and hour appropriately, to their first possible
-                // values
-                nextCal.set(Calendar.SECOND, this.second.getFirst());
-                nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-                nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            } else {
-                nextCal = this.advanceTillMonthHasDate(nextCal, nextDayOfMonth);
+    /**
+     * Returns the first instant at or after <code>time</code>, which is a whole second, whose local time matches
+     * the schedule.
+     * <p>
+     * Across a daylight saving time transition the search is restarted at the transition, so that local times
+     * which occur twice are matched twice. A matching local time which falls into the gap of a transition (and
+     * so doesn't exist) is shifted by the length of the gap, the same as a lenient {@link Calendar} would do.
+     * </p>
+     */
+    private long nextTimeout(long time) {
+        long skipped = NO_MORE_TIMEOUTS;
+        while (true) {
+            int offset = this.timezone.getOffset(time);
+            long localSecond = this.nextMatch(floorDiv(time + offset, MILLIS_PER_SECOND));
+            if (localSecond == NO_MORE_TIMEOUTS) {
+                return skipped;
             }
-        } else if (nextDayOfMonth < currentDayOfMonth) {
-            nextCal.add(Calendar.MONTH, 1);
-            nextCal = this.computeNextMonth(nextCal);
-            if (nextCal == null) {
-                return null;
+            long local = localSecond * MILLIS_PER_SECOND;
+            long candidate = local - offset;
+            if (this.timezone.getOffset(candidate) == offset) {
+                return skipped == NO_MORE_TIMEOUTS ? candidate : Math.min(skipped, candidate);
             }
-            nextDayOfMonth = this.dayOfMonth.getFirstMatch(nextCal);
-            if (nextDayOfMonth == null) {
-                return null;
+            // the offset changes somewhere between time and the candidate, find the first second with the new offset
+            long before = time;
+            long after = candidate;
+            while (after - before > MILLIS_PER_SECOND) {
+                long middle = before + (after - before) / (2 * MILLIS_PER_SECOND) * MILLIS_PER_SECOND;
+                if (this.timezone.getOffset(middle) == offset) {
+                    before = middle;
+                } else {
+                    after = middle;
+                }
             }
-            // make sure the month can handle the date
-            nextCal = this.advanceTillMonthHasDate(nextCal, nextDayOfMonth);
-        }
-
-        return nextCal;
-    }
-
-
-    private Calendar computeNextYear(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextYear = this.year.getNextMatch(currentCal);
-
-        if (nextYear == null || nextYear > Year.MAX_YEAR) {
-            return null;
-        }
-        int currentYear = currentCal.get(Calendar.YEAR);
-        // if the current year is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentYear == nextYear) {
-            return currentCal;
-        }
-        // If the next year is lesser than the current year, then
-        // we have no more timeouts for the calendar expression
-        if (nextYear < currentYear) {
-            return null;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // at this point we have chosen a year which is greater than the current
-        // year.
-        // set the chosen year
-        nextCal.set(Calendar.YEAR, nextYear);
-        // since we are moving to a different year (as compared to the current year),
-        // we should reset all other calendar attribute expressions appropriately, to their first possible
-        // values
-        nextCal.set(Calendar.SECOND, this.second.getFirst());
-        nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-        nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-        nextCal.set(Calendar.MONTH, this.month.getFirstMatch());
-        nextCal.set(Calendar.DAY_OF_MONTH, 1);
-
-        nextCal = this.computeNextDate(nextCal);
-        if (nextCal == null) {
-            return null;
+            if (local < after + this.timezone.getOffset(after)) {
+                // the local time falls into the gap, but a later local time may still come first
+                skipped = skipped == NO_MORE_TIMEOUTS ? candidate : Math.min(skipped, candidate);
+            }
+            if (skipped != NO_MORE_TIMEOUTS && skipped <= after) {
+                return skipped;
+            }
+            // search again from the transition, with the new offset
+            time = after;
         }
-
-        return nextCal;
     }
 
-    private Calendar advanceTillMonthHasDate(Calendar cal, Integer date) {
-        Calendar copy = this.copy(cal);
-        // make sure the month can handle the date
-        while (monthHasDate(copy, date) == false) {
-            if (copy.get(Calendar.YEAR) > Year.MAX_YEAR) {
-                return null;
+    /**
+     * Returns the first local second at or after <code>localSecond</code> which matches the schedule, or
+     * {@link #NO_MORE_TIMEOUTS} if there is none up to {@link Year#MAX_YEAR}.
+     *
+     * @param localSecond The local date and time, as the seconds since 1970-01-01T00:00:00 on the local clock
+     */
+    private long nextMatch(long localSecond) {
+        long epochDay = floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) (localSecond - epochDay * SECONDS_PER_DAY);
+        int packedDate = CalendarUtil.fromEpochDay(epochDay);
+        int year = CalendarUtil.getYear(packedDate);
+        int month = CalendarUtil.getMonth(packedDate);
+        int date = CalendarUtil.getDate(packedDate);
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+
+        // every field which doesn't match moves on to the next match and resets the smaller fields, a field
+        // which runs out of matches advances the next larger field and starts over
+        while (true) {
+            int nextYear = this.years.nextSetBit(year);
+            if (nextYear < 0 || nextYear > Year.MAX_YEAR) {
+                return NO_MORE_TIMEOUTS;
             }
-            // this month can't handle the date, so advance month to next month
-            // and get the next suitable matching month
-            copy.add(Calendar.MONTH, 1);
-            copy = this.computeNextMonth(copy);
-            if (copy == null) {
-                return null;
+            if (nextYear != year) {
+                year = nextYear;
+                month = Calendar.JANUARY;
+                date = 1;
+                hour = minute = second = 0;
             }
-            date = this.dayOfMonth.getFirstMatch(copy);
-            if (date == null) {
-                return null;
+            int nextMonth = nextBit(this.months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = Calendar.JANUARY;
+                date = 1;
+                hour = minute = second = 0;
+                continue;
             }
-
-            copy.set(Calendar.SECOND, this.second.getFirst());
-            copy.set(Calendar.MINUTE, this.minute.getFirst());
-            copy.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-
+            if (nextMonth != month) {
+                month = nextMonth;
+                date = 1;
+                hour = minute = second = 0;
+            }
+            int nextDate = nextBit(this.getDays(year, month), date);
+            if (nextDate < 0) {
+                month++;
+                date = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextDate != date) {
+                date = nextDate;
+                hour = minute = second = 0;
+            }
+            int nextHour = nextBit(this.hours, hour);
+            if (nextHour < 0) {
+                date++;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = second = 0;
+            }
+            int nextMinute = nextBit(this.minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+            int nextSecond = nextBit(this.seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            return CalendarUtil.toEpochDay(year, month, date) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + nextSecond;
         }
-        copy.set(Calendar.DAY_OF_MONTH, date);
-        return copy;
     }
 
-    private Calendar copy(Calendar cal) {
-        Calendar copy = new GregorianCalendar(cal.getTimeZone());
-        copy.setTime(cal.getTime());
-
-        return copy;
-    }
-
-    private boolean monthHasDate(Calendar cal, int date) {
-        Calendar tmpCal = new GregorianCalendar(cal.getTimeZone());
-        tmpCal.set(Calendar.YEAR, cal.get(Calendar.YEAR));
-        tmpCal.set(Calendar.MONTH, cal.get(Calendar.MONTH));
-        tmpCal.set(Calendar.DAY_OF_MONTH, 1);
-        int maximumPossibleDateForTheMonth = tmpCal.getActualMaximum(Calendar.DAY_OF_MONTH);
-
-        if (date > maximumPossibleDateForTheMonth) {
-            return false;
-        }
-        return true;
-
+    /**
+     * Returns the matching days of a month as a bit mask. If both day-of-month and day-of-week are restricted,
+     * a day matches if either of them matches.
+     */
+    private long getDays(int year, int month) {
+        int lastDate = CalendarUtil.getLastDateOfMonth(year, month);
+        int firstDayOfWeek = CalendarUtil.getDayOfWeek(CalendarUtil.toEpochDay(year, month, 1));
+        if (this.dayOfWeekWildcard) {
+            return this.dayOfMonth.getBitMask(lastDate, firstDayOfWeek);
+        }
+        // rotate the days of the week so that bit 0 is the first of the month, and repeat it for all weeks
+        int shift = firstDayOfWeek - Calendar.SUNDAY;
+        long week = ((this.daysOfWeek >>> shift) | (this.daysOfWeek << (7 - shift))) & 0x7F;
+        week |= week << 7;
+        week |= week << 14;
+        week |= week << 28;
+        long days = (week << 1) & (-1L >>> (63 - lastDate));
+        if (this.dayOfMonthWildcard) {
+            return days;
+        }
+        return days | this.dayOfMonth.getBitMask(lastDate, firstDayOfWeek);
     }
 
-    private boolean isAfterEnd(Calendar cal) {
-        Date end = this.scheduleExpression.getEnd();
-        if (end == null) {
-            return false;
-        }
-        // check that the next timeout isn't past the end date
-        return cal.getTime().after(end);
+    private Calendar toCalendar(long time) {
+        Calendar cal = new GregorianCalendar(this.timezone);
+        cal.setTimeInMillis(time);
+        cal.setFirstDayOfWeek(Calendar.SUNDAY);
+        return cal;
     }
 
-    private boolean noMoreTimeouts(Calendar cal) {
-        if (cal.get(Calendar.YEAR) > Year.MAX_YEAR || isAfterEnd(cal)) {
-            return true;
+    /**
+     * Returns the index of the lowest bit at or above <code>from</code> which is set in <code>mask</code>, or -1
+     */
+    private static int nextBit(long mask, int from) {
+        if (from > 63) {
+            return -1;
         }
-        return false;
+        long bits = mask & (-1L << from);
+        return bits == 0 ? -1 : Long.numberOfTrailingZeros(bits);
     }
 
-    private boolean isDayOfWeekWildcard() {
-        return this.scheduleExpression.getDayOfWeek().equals("*");
+    private static long roundUp(long time) {
+        return -floorDiv(-time, MILLIS_PER_SECOND) * MILLIS_PER_SECOND;
     }
 
-    private boolean isDayOfMonthWildcard() {
-        return this.scheduleExpression.getDayOfMonth().equals("*");
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            q--;
+        }
+        return q;
     }
 
     private void nullCheckScheduleAttributes(ScheduleExpression schedule) {
@@ -28,6 +28,7 @@ import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleValue;
 import org.jboss.as.ejb3.timerservice.schedule.value.SingleValue;
 import org.jboss.logging.Logger;
 
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -91,6 +92,16 @@ public class DayOfMonth extends IntegerBasedExpression {
      */
     public static final Integer MIN_DAY_OF_MONTH = -7;
 
+    /**
+     * The absolute values as a bit mask, bit <code>n</code> is set if date <code>n</code> matches
+     */
+    private final long absoluteDays;
+
+    /**
+     * The relative values, compiled by {@link #compileRelativeValues()}
+     */
+    private final int[] relativeRanges;
+
     /**
      * A {@link DayOfMonth} can be represented as a {@link String} too (for example "1st", "Sun" etc...).
      * Internally, we map all allowed {@link String} values to their {@link Integer} equivalents.
@@ -109,6 +120,21 @@ public class DayOfMonth extends IntegerBasedExpression {
 
     }
 
+    /**
+     * Bits 1 to 31
+     */
+    private static final long ALL_DAYS = 0xFFFFFFFEL;
+
+    /**
+     * Marks a compiled day of month which is relative to a day of the week, for example "2nd Fri"
+     */
+    private static final int DAY_OF_WEEK_BASED = 100;
+
+    /**
+     * The week number used for "last" in day of week based values
+     */
+    private static final int LAST_WEEK = 6;
+
     private static final Set<String> ORDINALS = new HashSet<String>();
 
     private static final Map<String, Integer> ORDINAL_TO_WEEK_NUMBER_MAPPING = new HashMap<String, Integer>();
@@ -144,6 +170,113 @@ public class DayOfMonth extends IntegerBasedExpression {
      */
     public DayOfMonth(String value) {
         super(value);
+        this.absoluteDays = this.toBitMask(0) & ALL_DAYS;
+        this.relativeRanges = this.compileRelativeValues();
+    }
+
+    /**
+     * Returns the days which match in a month as a bit mask, bit <code>n</code> is set if date <code>n</code>
+     * of the month matches.
+     * <p>
+     * The relative values have been compiled when this {@link DayOfMonth} was created, so this doesn't allocate
+     * anything.
+     * </p>
+     *
+     * @param lastDateOfMonth The last date of the month
+     * @param firstDayOfWeek  The {@link Calendar#DAY_OF_WEEK} of the first date of the month
+     * @return the bit mask
+     */
+    public long getBitMask(int lastDateOfMonth, int firstDayOfWeek) {
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            return daysUpTo(lastDateOfMonth);
+        }
+        long mask = this.absoluteDays;
+        for (int i = 0; i < this.relativeRanges.length; i += 2) {
+            int start = resolve(this.relativeRanges[i], lastDateOfMonth, firstDayOfWeek);
+            int end = resolve(this.relativeRanges[i + 1], lastDateOfMonth, firstDayOfWeek);
+            if (start <= end) {
+                mask |= daysBetween(start, end);
+            } else {
+                // "x-y" with x larger than y is equivalent to "x-max, min-y"
+                mask |= daysBetween(start, MAX_DAY_OF_MONTH) | daysBetween(1, end);
+            }
+        }
+        return mask & daysUpTo(lastDateOfMonth);
+    }
+
+    /**
+     * Compiles the relative values into pairs of range start and end. Single values are ranges which start and
+     * end at the same day. See {@link #resolve(int, int, int)} for the encoding of the individual days.
+     */
+    private int[] compileRelativeValues() {
+        int[] ranges = new int[this.relativeValues.size() * 2];
+        int i = 0;
+        for (ScheduleValue relativeValue : this.relativeValues) {
+            if (relativeValue instanceof SingleValue) {
+                int day = this.compileDayOfMonth(((SingleValue) relativeValue).getValue());
+                ranges[i++] = day;
+                ranges[i++] = day;
+            } else if (relativeValue instanceof RangeValue) {
+                RangeValue range = (RangeValue) relativeValue;
+                ranges[i++] = this.compileDayOfMonth(range.getStart());
+                ranges[i++] = this.compileDayOfMonth(range.getEnd());
+            }
+        }
+        return i == ranges.length ? ranges : Arrays.copyOf(ranges, i);
+    }
+
+    private int compileDayOfMonth(String dayOfMonth) {
+        String trimmed = dayOfMonth.trim();
+        if (trimmed.equalsIgnoreCase("last")) {
+            return 0;
+        }
+        if (this.isValidNegativeDayOfMonth(trimmed)) {
+            return Integer.parseInt(trimmed);
+        }
+        if (this.isDayOfWeekBased(trimmed)) {
+            String[] parts = trimmed.split("\\s+");
+            String ordinal = parts[0].toLowerCase(Locale.ENGLISH);
+            int dayOfWeek = DAY_OF_MONTH_ALIAS.get(parts[1].toLowerCase(Locale.ENGLISH));
+            int weekNumber = ordinal.equals("last") ? LAST_WEEK : ORDINAL_TO_WEEK_NUMBER_MAPPING.get(ordinal);
+            return DAY_OF_WEEK_BASED + weekNumber * 10 + dayOfWeek;
+        }
+        Integer value = this.parseInt(trimmed);
+        this.assertValid(value);
+        return value;
+    }
+
+    /**
+     * Resolves a compiled day of month to a date in a month. Positive values up to {@link #MAX_DAY_OF_MONTH}
+     * are absolute dates, "last" and the negative values are encoded as the offset from the last date of the
+     * month and day of week based values as {@link #DAY_OF_WEEK_BASED} + week number * 10 + day of week.
+     */
+    private static int resolve(int day, int lastDateOfMonth, int firstDayOfWeek) {
+        if (day < DAY_OF_WEEK_BASED) {
+            return day > 0 ? day : lastDateOfMonth + day;
+        }
+        int weekNumber = (day - DAY_OF_WEEK_BASED) / 10;
+        int dayOfWeek = (day - DAY_OF_WEEK_BASED) % 10;
+        int first = 1 + (dayOfWeek - firstDayOfWeek + 7) % 7;
+        if (weekNumber == LAST_WEEK) {
+            return first + (lastDateOfMonth - first) / 7 * 7;
+        }
+        int date = first + (weekNumber - 1) * 7;
+        // same as getAbsoluteDayOfMonth, a 5th week which the month doesn't have falls back to the last date
+        return date > lastDateOfMonth ? lastDateOfMonth : date;
+    }
+
+    private static long daysUpTo(int lastDate) {
+        return daysBetween(1, lastDate);
+    }
+
+    private static long daysBetween(int start, int end) {
+        if (start < 1) {
+            start = 1;
+        }
+        if (end < start) {
+            return 0;
+        }
+        return (-1L << start) & (-1L >>> (63 - end));
     }
 
     /**
@@ -77,6 +77,15 @@ public class DayOfWeek extends IntegerBasedExpression {
     }
 
 
+    /**
+     * @return the matching days of the week as a bit mask, bit <code>n</code> is set if the day with the
+     *         {@link Calendar#DAY_OF_WEEK} value <code>n + 1</code> matches
+     */
+    public long getBitMask() {
+        // 7 and 0 both are sunday
+        return this.toBitMask(0) & 0x7F;
+    }
+
     @Override
     protected Integer getMaxValue() {
         return MAX_DAY_OF_WEEK;
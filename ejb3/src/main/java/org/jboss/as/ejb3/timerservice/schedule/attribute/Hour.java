@@ -72,6 +72,13 @@ public class Hour extends IntegerBasedExpression {
         super(value);
     }
 
+    /**
+     * @return the matching hours as a bit mask, bit <code>n</code> is set if hour <code>n</code> matches
+     */
+    public long getBitMask() {
+        return this.toBitMask(0);
+    }
+
     public int getFirst() {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
             return 0;
@@ -214,4 +214,37 @@ public abstract class IntegerBasedExpression {
 
     public abstract boolean isRelativeValue(String value);
 
+    /**
+     * @return true if this expression is a {@link ScheduleExpressionType#WILDCARD}
+     */
+    public boolean isWildcard() {
+        return this.scheduleExpressionType == ScheduleExpressionType.WILDCARD;
+    }
+
+    /**
+     * Compiles the absolute values of this expression into a bit mask, in which bit <code>n - shift</code>
+     * is set if <code>n</code> is a matching value. A wildcard matches every allowed value. Values which don't
+     * fit into the mask are ignored.
+     *
+     * @param shift The value which is represented by the lowest bit of the mask
+     * @return the bit mask
+     */
+    protected long toBitMask(int shift) {
+        long mask = 0;
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            for (int i = this.getMinValue(); i <= this.getMaxValue(); i++) {
+                mask |= bit(i - shift);
+            }
+        } else {
+            for (Integer value : this.absoluteValues) {
+                mask |= bit(value - shift);
+            }
+        }
+        return mask;
+    }
+
+    private static long bit(int index) {
+        return index < 0 || index > 63 ? 0 : 1L << index;
+    }
+
 }
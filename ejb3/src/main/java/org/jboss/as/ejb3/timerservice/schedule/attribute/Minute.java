@@ -74,6 +74,13 @@ public class Minute extends IntegerBasedExpression {
         super(value);
     }
 
+    /**
+     * @return the matching minutes as a bit mask, bit <code>n</code> is set if minute <code>n</code> matches
+     */
+    public long getBitMask() {
+        return this.toBitMask(0);
+    }
+
     public int getFirst() {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
             return 0;
@@ -75,6 +75,14 @@ public class Month extends IntegerBasedExpression {
         }
     }
 
+    /**
+     * @return the matching months as a bit mask, bit <code>n</code> is set if the month with the {@link Calendar#MONTH}
+     *         value <code>n</code> matches
+     */
+    public long getBitMask() {
+        return this.toBitMask(MIN_MONTH - Calendar.JANUARY);
+    }
+
     @Override
     protected Integer getMaxValue() {
         return MAX_MONTH;
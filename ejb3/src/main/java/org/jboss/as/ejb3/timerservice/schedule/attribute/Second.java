@@ -73,6 +73,13 @@ public class Second extends IntegerBasedExpression {
         super(value);
     }
 
+    /**
+     * @return the matching seconds as a bit mask, bit <code>n</code> is set if second <code>n</code> matches
+     */
+    public long getBitMask() {
+        return this.toBitMask(0);
+    }
+
 
     public Integer getNextMatch(Calendar currentCal) {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
@@ -23,6 +23,7 @@ package org.jboss.as.ejb3.timerservice.schedule.attribute;
 
 import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
 
+import java.util.BitSet;
 import java.util.Calendar;
 
 /**
@@ -72,6 +73,21 @@ public class Year extends IntegerBasedExpression {
         super(value);
     }
 
+    /**
+     * @return the matching years, a wildcard matches every year between {@link #MIN_YEAR} and {@link #MAX_YEAR}
+     */
+    public BitSet getBitSet() {
+        BitSet years = new BitSet(MAX_YEAR + 1);
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            years.set(MIN_YEAR, MAX_YEAR + 1);
+        } else {
+            for (Integer year : this.absoluteValues) {
+                years.set(year);
+            }
+        }
+        return years;
+    }
+
     /**
      * Returns the maximum possible value for a {@link Year}
      *
@@ -32,6 +32,100 @@ import java.util.GregorianCalendar;
  */
 public class CalendarUtil {
 
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * The number of days from 0000-03-01 to 1970-01-01
+     */
+    private static final long DAYS_0000_TO_1970 = 719468;
+
+    private static final long DAYS_PER_400_YEARS = 146097;
+
+    /**
+     * Returns the last date of a month in the (proleptic) gregorian calendar
+     *
+     * @param year  The year
+     * @param month The month, as a {@link java.util.Calendar#MONTH} value
+     * @return
+     */
+    public static int getLastDateOfMonth(int year, int month) {
+        if (month == Calendar.FEBRUARY && isLeapYear(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month];
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Returns the number of days since 1970-01-01 of a date in the (proleptic) gregorian calendar
+     *
+     * @param year  The year
+     * @param month The month, as a {@link java.util.Calendar#MONTH} value
+     * @param date  The day of the month
+     * @return
+     */
+    public static long toEpochDay(int year, int month, int date) {
+        // count the years from march, so that the leap day is the last day of a year
+        final long y = month < Calendar.MARCH ? year - 1 : year;
+        final long era = (y >= 0 ? y : y - 399) / 400;
+        final long yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month < Calendar.MARCH ? month + 10 : month - 2) + 2) / 5 + date - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Returns the {@link java.util.Calendar#DAY_OF_WEEK} of a day since 1970-01-01
+     *
+     * @param epochDay The number of days since 1970-01-01
+     * @return
+     */
+    public static int getDayOfWeek(long epochDay) {
+        // 1970-01-01 was a thursday
+        int day = (int) ((epochDay + 4) % 7);
+        if (day < 0) {
+            day += 7;
+        }
+        return Calendar.SUNDAY + day;
+    }
+
+    /**
+     * Returns the year, month and date of a day since 1970-01-01, packed into a single int as
+     * <code>year &lt;&lt; 9 | month &lt;&lt; 5 | date</code>, so that it can be computed without allocating.
+     * Use {@link #getYear(int)}, {@link #getMonth(int)} and {@link #getDate(int)} to unpack it.
+     *
+     * @param epochDay The number of days since 1970-01-01
+     * @return
+     */
+    public static int fromEpochDay(long epochDay) {
+        final long z = epochDay + DAYS_0000_TO_1970;
+        final long era = (z >= 0 ? z : z - DAYS_PER_400_YEARS + 1) / DAYS_PER_400_YEARS;
+        final int dayOfEra = (int) (z - era * DAYS_PER_400_YEARS);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        // month counted from march
+        final int mp = (5 * dayOfYear + 2) / 153;
+        final int date = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 2 : mp - 10;
+        final int year = (int) (yearOfEra + era * 400) + (month < Calendar.MARCH ? 1 : 0);
+        return year << 9 | month << 5 | date;
+    }
+
+    public static int getYear(int packedDate) {
+        return packedDate >> 9;
+    }
+
+    public static int getMonth(int packedDate) {
+        return (packedDate >> 5) & 0xF;
+    }
+
+    public static int getDate(int packedDate) {
+        return packedDate & 0x1F;
+    }
+
 
     /**
      * Returns the last date of the month represented by the passed <code>cal</code>
@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import junit.framework.TestCase;
+
+import javax.ejb.NoSuchEJBException;
+import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests expiry of {@link ExpiringCache} entries through a {@link TimingWheel}.
+ */
+public class ExpiringCacheTestCase extends TestCase {
+
+    private TimingWheel timingWheel;
+    private final AtomicInteger destroyed = new AtomicInteger();
+    private volatile CountDownLatch destroyGate;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        timingWheel = new TimingWheel("test", 10, TimeUnit.MILLISECONDS, 8);
+        timingWheel.start();
+        destroyed.set(0);
+        destroyGate = null;
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        timingWheel.stop();
+        super.tearDown();
+    }
+
+    public void testInactiveBeanExpires() throws Exception {
+        final ExpiringCache<Bean> cache = createCache(100);
+        final Bean bean = cache.create();
+        cache.release(bean);
+        assertSame(bean, cache.get(bean.getId()));
+        cache.release(bean);
+
+        waitForDestroyed(1, 2000);
+        try {
+            cache.get(bean.getId());
+            fail("bean should have expired");
+        } catch (NoSuchEJBException expected) {
+        }
+        assertEquals(0, cache.getCacheSize());
+        cache.stop();
+    }
+
+    public void testBeanInUseDoesNotExpire() throws Exception {
+        final ExpiringCache<Bean> cache = createCache(50);
+        final Bean bean = cache.create();
+        // never released, so it must survive several expiry periods
+        Thread.sleep(300);
+        assertEquals(0, destroyed.get());
+        assertSame(bean, cache.get(bean.getId()));
+
+        cache.release(bean);
+        waitForDestroyed(1, 2000);
+        cache.stop();
+    }
+
+    public void testAccessPostponesExpiry() throws Exception {
+        final ExpiringCache<Bean> cache = createCache(200);
+        final Bean bean = cache.create();
+        cache.release(bean);
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(100);
+            cache.get(bean.getId());
+            cache.release(bean);
+        }
+        assertEquals(0, destroyed.get());
+        waitForDestroyed(1, 2000);
+        cache.stop();
+    }
+
+    public void testSlowDestroyDoesNotBlockWheel() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        destroyGate = gate;
+        try {
+            final ExpiringCache<Bean> cache = createCache(20);
+            final Bean bean = cache.create();
+            cache.release(bean);
+            final long end = System.currentTimeMillis() + 2000;
+            while (cache.getCacheSize() > 0 && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, cache.getCacheSize());
+
+            // the destroy callback is still blocked, yet other timeouts on the wheel must keep firing
+            final CountDownLatch fired = new CountDownLatch(1);
+            timingWheel.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    fired.countDown();
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            assertTrue(fired.await(2, TimeUnit.SECONDS));
+            assertEquals(0, destroyed.get());
+
+            gate.countDown();
+            waitForDestroyed(1, 2000);
+            cache.stop();
+        } finally {
+            gate.countDown();
+        }
+    }
+
+    public void testRemove() {
+        final ExpiringCache<Bean> cache = createCache(-1);
+        final Bean bean = cache.create();
+        cache.remove(bean.getId());
+        assertEquals(1, destroyed.get());
+        try {
+            cache.remove(bean.getId());
+            fail("bean should have been removed");
+        } catch (NoSuchEJBException expected) {
+        }
+        cache.stop();
+    }
+
+    private void waitForDestroyed(final int expected, final long timeout) throws InterruptedException {
+        final long end = System.currentTimeMillis() + timeout;
+        while (destroyed.get() < expected && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, destroyed.get());
+    }
+
+    private ExpiringCache<Bean> createCache(final long timeout) {
+        final ExpiringCache<Bean> cache = new ExpiringCache<Bean>(timeout, TimeUnit.MILLISECONDS, "test", timingWheel);
+        cache.setStatefulObjectFactory(new StatefulObjectFactory<Bean>() {
+            private final AtomicInteger ids = new AtomicInteger();
+
+            @Override
+            public Bean createInstance() {
+                return new Bean(ids.incrementAndGet());
+            }
+
+            @Override
+            public void destroyInstance(final Bean instance) {
+                final CountDownLatch gate = destroyGate;
+                if (gate != null) {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                destroyed.incrementAndGet();
+            }
+        });
+        cache.start();
+        return cache;
+    }
+
+    private static final class Bean implements Identifiable {
+        private final Integer id;
+
+        Bean(final int id) {
+            this.id = id;
+        }
+
+        @Override
+        public Serializable getId() {
+            return id;
+        }
+    }
+}
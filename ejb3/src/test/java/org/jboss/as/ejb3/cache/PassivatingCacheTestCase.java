@@ -0,0 +1,337 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import junit.framework.TestCase;
+
+import javax.ejb.NoSuchEJBException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests passivation and activation of {@link PassivatingCache} entries.
+ */
+public class PassivatingCacheTestCase extends TestCase {
+
+    /**
+     * Runs eviction on the calling thread, so that the tests can check the outcome straight away
+     */
+    private static final Executor CALLER = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private TimingWheel timingWheel;
+    private MemoryStore store;
+    private PassivationStatistics statistics;
+    private final AtomicInteger destroyed = new AtomicInteger();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        timingWheel = new TimingWheel("test", 10, TimeUnit.MILLISECONDS, 8);
+        timingWheel.start();
+        store = new MemoryStore();
+        statistics = new PassivationStatistics();
+        destroyed.set(0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        timingWheel.stop();
+        super.tearDown();
+    }
+
+    public void testLeastRecentlyUsedIsPassivated() {
+        final PassivatingCache<Bean> cache = createCache(-1, 2);
+        final Bean first = cache.create();
+        final Bean second = cache.create();
+        assertEquals(0, statistics.getPassivationCount());
+
+        cache.get(first.getId());
+        cache.release(first);
+        // second is now the least recently used bean
+        final Bean third = cache.create();
+        assertEquals(1, statistics.getPassivationCount());
+        assertTrue(second.passivated);
+        assertFalse(first.passivated);
+        assertFalse(third.passivated);
+        assertEquals(2, cache.getInMemoryCount());
+        assertEquals(1, cache.getPassivatedCount());
+        assertEquals(1, store.states.size());
+
+        assertSame(second, cache.get(second.getId()));
+        assertFalse(second.passivated);
+        assertEquals("state-" + second.getId(), second.state);
+        assertEquals(1, statistics.getActivationCount());
+        // activating second pushes the next least recently used bean out
+        assertEquals(2, statistics.getPassivationCount());
+        assertTrue(first.passivated);
+        cache.release(second);
+        cache.stop();
+        assertTrue(store.states.isEmpty());
+    }
+
+    public void testBeanInUseIsNotPassivated() {
+        final PassivatingCache<Bean> cache = createCache(-1, 1);
+        final Bean first = cache.create();
+        cache.get(first.getId());
+        final Bean second = cache.create();
+        // first is in use, so only second can go
+        assertFalse(first.passivated);
+        assertTrue(second.passivated);
+        cache.release(first);
+        assertEquals(1, cache.getInMemoryCount());
+        cache.stop();
+    }
+
+    public void testRemovePassivatedBean() {
+        final PassivatingCache<Bean> cache = createCache(-1, 1);
+        final Bean first = cache.create();
+        cache.create();
+        assertTrue(first.passivated);
+        cache.remove(first.getId());
+        // the bean is activated so that it can be destroyed
+        assertFalse(first.passivated);
+        assertEquals(1, destroyed.get());
+        assertEquals(1, cache.getCacheSize());
+        try {
+            cache.get(first.getId());
+            fail("bean should have been removed");
+        } catch (NoSuchEJBException expected) {
+        }
+        cache.stop();
+    }
+
+    public void testPassivatedBeanExpires() throws Exception {
+        final PassivatingCache<Bean> cache = createCache(100, 1);
+        final Bean first = cache.create();
+        cache.create();
+        assertTrue(first.passivated);
+
+        final long end = System.currentTimeMillis() + 2000;
+        // the cleanup is handed off by the wheel thread, so wait for it as well
+        while ((cache.getCacheSize() > 0 || destroyed.get() < 1 || !store.states.isEmpty()) && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, cache.getCacheSize());
+        // only the bean which was in memory is destroyed
+        assertEquals(1, destroyed.get());
+        assertTrue(store.states.isEmpty());
+        cache.stop();
+    }
+
+    public void testStoreFailureKeepsBeanInMemory() {
+        final PassivatingCache<Bean> cache = createCache(-1, 1);
+        store.fail = true;
+        final Bean first = cache.create();
+        final Bean second = cache.create();
+        assertFalse(first.passivated);
+        assertFalse(second.passivated);
+        assertEquals("state-" + first.getId(), first.state);
+        assertEquals(2, cache.getInMemoryCount());
+
+        // a failure only affects the bean concerned, passivation carries on once the store recovers
+        store.fail = false;
+        final Bean third = cache.create();
+        assertTrue(first.passivated);
+        assertTrue(second.passivated);
+        assertFalse(third.passivated);
+        assertEquals(1, cache.getInMemoryCount());
+        assertEquals(2, statistics.getPassivationCount());
+        cache.stop();
+    }
+
+    public void testLookupWaitsForPassivation() throws Exception {
+        final PassivatingCache<Bean> cache = createCache(-1, 1);
+        final Bean first = cache.create();
+        final CountDownLatch gate = new CountDownLatch(1);
+        store.gate = gate;
+        final Bean[] created = new Bean[1];
+        final Thread creator = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                created[0] = cache.create();
+            }
+        });
+        final Bean[] found = new Bean[1];
+        final Thread lookup = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                found[0] = cache.get(first.getId());
+            }
+        });
+        try {
+            creator.start();
+            assertTrue(store.entered.await(2, TimeUnit.SECONDS));
+            lookup.start();
+            lookup.join(200);
+            // the state of first is still being written
+            assertTrue(lookup.isAlive());
+            assertEquals(1, cache.getInMemoryCount());
+        } finally {
+            gate.countDown();
+        }
+        creator.join(2000);
+        lookup.join(2000);
+        assertSame(first, found[0]);
+        assertFalse(first.passivated);
+        assertEquals("state-" + first.getId(), first.state);
+        assertEquals(1, statistics.getActivationCount());
+        cache.release(first);
+        cache.release(created[0]);
+        cache.stop();
+    }
+
+    public void testEvictionDoesNotRunOnCaller() {
+        final Queue<Runnable> tasks = new LinkedList<Runnable>();
+        final PassivatingCache<Bean> cache = createCache(-1, 1, new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                tasks.add(command);
+            }
+        });
+        final Bean first = cache.create();
+        cache.release(first);
+        final Bean second = cache.create();
+        cache.release(second);
+        cache.create();
+        // the cache went over its limit twice, but only one run is pending
+        assertEquals(1, tasks.size());
+        assertFalse(first.passivated);
+        assertEquals(3, cache.getInMemoryCount());
+
+        tasks.poll().run();
+        assertTrue(first.passivated);
+        assertTrue(second.passivated);
+        assertEquals(1, cache.getInMemoryCount());
+        assertEquals(2, statistics.getPassivationCount());
+        assertTrue(tasks.isEmpty());
+        cache.stop();
+    }
+
+    private PassivatingCache<Bean> createCache(final long timeout, final int maxSize) {
+        return createCache(timeout, maxSize, CALLER);
+    }
+
+    private PassivatingCache<Bean> createCache(final long timeout, final int maxSize, final Executor evictionExecutor) {
+        final PassivatingCache<Bean> cache = new PassivatingCache<Bean>(timeout, TimeUnit.MILLISECONDS, "test", timingWheel, maxSize, store, new PassivationManager<Bean>() {
+            @Override
+            public Object passivate(final Bean obj) {
+                final Object state = obj.state;
+                obj.state = null;
+                obj.passivated = true;
+                return state;
+            }
+
+            @Override
+            public void activate(final Bean obj, final Object state) {
+                obj.state = state;
+                obj.passivated = false;
+            }
+        }, statistics, evictionExecutor);
+        cache.setStatefulObjectFactory(new StatefulObjectFactory<Bean>() {
+            private final AtomicInteger ids = new AtomicInteger();
+
+            @Override
+            public Bean createInstance() {
+                return new Bean(ids.incrementAndGet());
+            }
+
+            @Override
+            public void destroyInstance(final Bean instance) {
+                destroyed.incrementAndGet();
+            }
+        });
+        cache.start();
+        return cache;
+    }
+
+    private static final class Bean implements Identifiable {
+        private final Integer id;
+        volatile Object state;
+        volatile boolean passivated;
+
+        Bean(final int id) {
+            this.id = id;
+            this.state = "state-" + id;
+        }
+
+        @Override
+        public Serializable getId() {
+            return id;
+        }
+    }
+
+    private static final class MemoryStore implements PassivationStore {
+        final Map<Serializable, Object> states = new ConcurrentHashMap<Serializable, Object>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile boolean fail;
+        volatile CountDownLatch gate;
+
+        @Override
+        public void store(final Serializable id, final Object state) throws IOException {
+            final CountDownLatch gate = this.gate;
+            if (gate != null) {
+                entered.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw new IOException("interrupted");
+                }
+            }
+            if (fail) {
+                throw new IOException("test failure");
+            }
+            states.put(id, state);
+        }
+
+        @Override
+        public Object load(final Serializable id) throws IOException {
+            final Object state = states.remove(id);
+            if (state == null) {
+                throw new IOException("no state for " + id);
+            }
+            return state;
+        }
+
+        @Override
+        public void remove(final Serializable id) {
+            states.remove(id);
+        }
+
+        @Override
+        public void clear() {
+            states.clear();
+        }
+    }
+}
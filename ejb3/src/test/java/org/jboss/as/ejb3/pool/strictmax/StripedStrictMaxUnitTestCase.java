@@ -0,0 +1,215 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+  *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import junit.framework.TestCase;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the strict max semantics of {@link StripedStrictMaxPool}.
+ */
+public class StripedStrictMaxUnitTestCase extends TestCase {
+    AtomicInteger used = new AtomicInteger(0);
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        MockBean.reset();
+        used = new AtomicInteger(0);
+    }
+
+    public void test1() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        StripedStrictMaxPool<MockBean> pool = new StripedStrictMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        MockBean beans[] = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(10, pool.getInUseCount());
+        assertEquals(0, pool.getAvailableCount());
+        assertEquals(10, pool.getCreateCount());
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+        assertEquals(0, pool.getInUseCount());
+        assertEquals(10, pool.getAvailableCount());
+        assertEquals(10, pool.getPooledCount());
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    /**
+     * More threads than the pool size.
+     */
+    public void testMultiThread() throws Exception {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final StripedStrictMaxPool<MockBean> pool = new StripedStrictMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        final AtomicInteger active = new AtomicInteger(0);
+        final AtomicInteger maxActive = new AtomicInteger(0);
+        Callable<Void> task = new Callable<Void>() {
+            public Void call() throws Exception {
+                for (int i = 0; i < 20; i++) {
+                    MockBean bean = pool.get();
+
+                    final int current = active.incrementAndGet();
+                    int max;
+                    while ((max = maxActive.get()) < current && !maxActive.compareAndSet(max, current)) {
+                    }
+
+                    Thread.sleep(50);
+
+                    active.decrementAndGet();
+
+                    pool.release(bean);
+
+                    bean = null;
+
+                    used.incrementAndGet();
+                }
+
+                return null;
+            }
+        };
+
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        Future<?> results[] = new Future<?>[20];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = service.submit(task);
+        }
+
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        service.shutdown();
+
+        assertEquals(0, pool.getInUseCount());
+        assertTrue("more than 10 instances in use at once: " + maxActive.get(), maxActive.get() <= 10);
+        assertTrue(pool.getPooledCount() <= 10);
+
+        pool.stop();
+
+        assertEquals(400, used.intValue());
+        // a thread may occasionally miss an instance which is being moved between stripes and create
+        // a new one, the surplus is destroyed on release so every created instance must be destroyed
+        assertTrue(MockBean.getPostConstructs() >= 10);
+        assertEquals(MockBean.getPostConstructs(), MockBean.getPreDestroys());
+    }
+
+    public void testTooMany() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        StripedStrictMaxPool<MockBean> pool = new StripedStrictMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        MockBean beans[] = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals("Failed to acquire a permit within 1 SECONDS", e.getMessage());
+        }
+        assertEquals(10, pool.getInUseCount());
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    public void testShrink() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        StripedStrictMaxPool<MockBean> pool = new StripedStrictMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        MockBean beans[] = new MockBean[5];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        pool.setMaxSize(5);
+        assertEquals(0, pool.getAvailableCount());
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals("Failed to acquire a permit within 1 SECONDS", e.getMessage());
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+        assertEquals(5, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(5, MockBean.getPostConstructs());
+        assertEquals(5, MockBean.getPreDestroys());
+    }
+
+    /**
+     * The pool metrics of the management model are read from the pools a config has created.
+     */
+    @SuppressWarnings("unchecked")
+    public void testConfigTracksPools() {
+        StrictMaxPoolConfig config = new StrictMaxPoolConfig("test", 10, 1, TimeUnit.SECONDS, 4);
+        StripedStrictMaxPool<MockBean> pool = (StripedStrictMaxPool<MockBean>) config.createPool(new MockFactory());
+        pool.start();
+
+        MockBean bean = pool.get();
+        assertEquals(1, config.getPools().size());
+        assertSame(pool, config.getPools().get(0));
+        assertEquals(1, pool.getMaxSize() - pool.getAvailableCount());
+
+        pool.release(bean);
+        pool.stop();
+    }
+}
@@ -23,10 +23,12 @@
 package org.jboss.as.ejb3.subsystem;
 
 import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.subsystem.test.AbstractSubsystemTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.KernelServices;
 import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -41,8 +43,19 @@ public class SubsystemParsingUnitTestCase extends AbstractSubsystemTest {
 
     @Test
     public void testParseAndMarshalModel() throws Exception {
+        final ModelNode model = parseAndMarshal("subsystem.xml");
+        Assert.assertFalse(timerService(model).hasDefined(EJB3SubsystemModel.DATA_STORE_TYPE));
+    }
+
+    @Test
+    public void testParseAndMarshalJournalDataStore() throws Exception {
+        final ModelNode model = parseAndMarshal("subsystem-journal.xml");
+        Assert.assertEquals(EJB3SubsystemModel.JOURNAL_DATA_STORE, timerService(model).get(EJB3SubsystemModel.DATA_STORE_TYPE).asString());
+    }
+
+    private ModelNode parseAndMarshal(final String resource) throws Exception {
         //Parse the subsystem xml and install into the first controller
-        String subsystemXml = readResource("subsystem.xml");
+        String subsystemXml = readResource(resource);
 
         AdditionalInitialization additionalInit = new AdditionalInitialization() {
 
@@ -66,5 +79,10 @@ public class SubsystemParsingUnitTestCase extends AbstractSubsystemTest {
 
         //Make sure the models from the two controllers are identical
         super.compare(modelA, modelB);
+        return modelB;
+    }
+
+    private static ModelNode timerService(final ModelNode model) {
+        return model.get(ModelDescriptionConstants.SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME, EJB3SubsystemModel.SERVICE, EJB3SubsystemModel.TIMER_SERVICE);
     }
 }
@@ -0,0 +1,226 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer;
+
+import junit.framework.Assert;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.journal.JournalTimerPersistence;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link JournalTimerPersistence}
+ */
+public class JournalTimerPersistenceTestCase {
+
+    private File dir;
+    private JournalTimerPersistence persistence;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("timer-journal", "");
+        dir.delete();
+        persistence = create();
+        persistence.start();
+    }
+
+    @After
+    public void tearDown() {
+        persistence.stop();
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testTimersSurviveRestart() {
+        persistence.persistTimer(new TestTimerEntity("bean", "a", 1000, "info-a"));
+        persistence.persistTimer(new TestTimerEntity("bean", "b", 2000, null));
+        persistence.persistTimer(new TestTimerEntity("other", "c", 3000, null));
+        final TimerEntity updated = new TestTimerEntity("bean", "a", 1000, "info-a");
+        updated.setPreviousRun(new Date(42));
+        persistence.persistTimer(updated);
+
+        restart();
+
+        Assert.assertEquals(2, persistence.loadActiveTimers("bean").size());
+        Assert.assertEquals(1, persistence.loadActiveTimers("other").size());
+        final TimerEntity a = persistence.loadTimer("a", "bean");
+        Assert.assertEquals("info-a", a.getInfo());
+        Assert.assertEquals(1000, a.getInterval());
+        Assert.assertEquals(42, a.getPreviousRun().getTime());
+    }
+
+    @Test
+    public void testRemovedTimersAreNotReplayed() {
+        final TimerEntity a = new TestTimerEntity("bean", "a", 1000, null);
+        persistence.persistTimer(a);
+        persistence.persistTimer(new TestTimerEntity("bean", "b", 1000, null));
+        persistence.removeTimer(a);
+
+        restart();
+
+        final List<TimerEntity> timers = persistence.loadActiveTimers("bean");
+        Assert.assertEquals(1, timers.size());
+        Assert.assertEquals("b", timers.get(0).getId());
+        Assert.assertNull(persistence.loadTimer("a", "bean"));
+    }
+
+    @Test
+    public void testTornRecordIsTruncated() throws Exception {
+        persistence.persistTimer(new TestTimerEntity("bean", "a", 1000, null));
+        persistence.stop();
+
+        final File journal = new File(dir, "timers.journal");
+        final long length = journal.length();
+        // a record header which claims more bytes than follow, as left behind by a crash
+        final FileOutputStream out = new FileOutputStream(journal, true);
+        out.write(new byte[] {0, 0, 1, 0, 1, 2, 3, 4, 5, 6});
+        out.close();
+
+        persistence.start();
+        Assert.assertEquals(length, journal.length());
+        Assert.assertNotNull(persistence.loadTimer("a", "bean"));
+
+        persistence.persistTimer(new TestTimerEntity("bean", "b", 1000, null));
+        restart();
+        Assert.assertEquals(2, persistence.loadActiveTimers("bean").size());
+    }
+
+    @Test
+    public void testJournalIsCompacted() {
+        final TimerEntity timer = new TestTimerEntity("bean", "a", 1000, null);
+        persistence.persistTimer(timer);
+        final long length = new File(dir, "timers.journal").length();
+        for (int i = 0; i < 5000; i++) {
+            timer.setPreviousRun(new Date(i));
+            persistence.persistTimer(timer);
+        }
+        Assert.assertTrue(new File(dir, "timers.journal").length() < length * 1100);
+
+        restart();
+        Assert.assertEquals(4999, persistence.loadTimer("a", "bean").getPreviousRun().getTime());
+    }
+
+    @Test
+    public void testFailedWriteOnlyFailsItsBatch() {
+        persistence.stop();
+        final FailingJournalTimerPersistence failing = new FailingJournalTimerPersistence(dir);
+        persistence = failing;
+        failing.start();
+
+        failing.persistTimer(new TestTimerEntity("bean", "a", 1000, null));
+        failing.fail = true;
+        try {
+            failing.persistTimer(new TestTimerEntity("bean", "b", 1000, null));
+            Assert.fail("the write should have failed");
+        } catch (RuntimeException expected) {
+        }
+        // a change which is not durable is not visible either
+        Assert.assertNull(failing.loadTimer("b", "bean"));
+
+        failing.fail = false;
+        failing.persistTimer(new TestTimerEntity("bean", "c", 1000, null));
+        Assert.assertNotNull(failing.loadTimer("c", "bean"));
+
+        // the partial record of the failed write must not hide the later one
+        restart();
+        Assert.assertEquals(2, persistence.loadActiveTimers("bean").size());
+        Assert.assertNotNull(persistence.loadTimer("a", "bean"));
+        Assert.assertNull(persistence.loadTimer("b", "bean"));
+        Assert.assertNotNull(persistence.loadTimer("c", "bean"));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final int threads = 8;
+        final int timers = 200;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < timers; i++) {
+                            persistence.persistTimer(new TestTimerEntity("bean", thread + "-" + i, 1000, null));
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        restart();
+        Assert.assertEquals(threads * timers, persistence.loadActiveTimers("bean").size());
+    }
+
+    private void restart() {
+        persistence.stop();
+        persistence = create();
+        persistence.start();
+    }
+
+    private JournalTimerPersistence create() {
+        return new JournalTimerPersistence(new NoTransactionManager(), null, dir, true, new SimpleClassResolver(getClass().getClassLoader()));
+    }
+
+    /**
+     * Writes half a record and then fails, as long as {@link #fail} is set
+     */
+    private static final class FailingJournalTimerPersistence extends JournalTimerPersistence {
+
+        volatile boolean fail;
+
+        FailingJournalTimerPersistence(final File dir) {
+            super(new NoTransactionManager(), null, dir, true, new SimpleClassResolver(FailingJournalTimerPersistence.class.getClassLoader()));
+        }
+
+        @Override
+        protected void write(final FileChannel channel, final List<byte[]> batch) throws IOException {
+            if (fail) {
+                final byte[] record = batch.get(0);
+                channel.write(ByteBuffer.wrap(record, 0, record.length / 2));
+                throw new IOException("test failure");
+            }
+            super.write(channel, batch);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer;
+
+import javax.transaction.HeuristicMixedException;
+import javax.transaction.HeuristicRollbackException;
+import javax.transaction.InvalidTransactionException;
+import javax.transaction.NotSupportedException;
+import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+/**
+ * A {@link TransactionManager} which never has a transaction, so the timer stores write straight away.
+ */
+class NoTransactionManager implements TransactionManager {
+
+    @Override
+    public void begin() throws NotSupportedException, SystemException {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public void commit() throws RollbackException, HeuristicMixedException, HeuristicRollbackException, SecurityException, IllegalStateException, SystemException {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public int getStatus() throws SystemException {
+        return Status.STATUS_NO_TRANSACTION;
+    }
+
+    @Override
+    public Transaction getTransaction() throws SystemException {
+        return null;
+    }
+
+    @Override
+    public void resume(final Transaction tobj) throws InvalidTransactionException, IllegalStateException, SystemException {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public void rollback() throws IllegalStateException, SecurityException, SystemException {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public void setRollbackOnly() throws IllegalStateException, SystemException {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public void setTransactionTimeout(final int seconds) throws SystemException {
+    }
+
+    @Override
+    public Transaction suspend() throws SystemException {
+        return null;
+    }
+}
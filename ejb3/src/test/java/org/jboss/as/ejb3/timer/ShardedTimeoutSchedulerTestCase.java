@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer;
+
+import junit.framework.Assert;
+import org.jboss.as.ejb3.timerservice.mk2.ShardedTimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link ShardedTimeoutScheduler}
+ */
+public class ShardedTimeoutSchedulerTestCase {
+
+    private ShardedTimeoutScheduler scheduler;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        scheduler = new ShardedTimeoutScheduler("test", 2);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSingleAction() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        scheduler.schedule("single", new Runnable() {
+            public void run() {
+                runs.incrementAndGet();
+                latch.countDown();
+            }
+        }, executor, 20, 0);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        Assert.assertEquals(1, runs.get());
+        Assert.assertEquals(1, scheduler.getExecutionCount());
+        Assert.assertTrue(scheduler.getMaxLag() >= scheduler.getAverageLag());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final TimeoutScheduler.ScheduledTimeout timeout = scheduler.schedule("cancelled", new Runnable() {
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, executor, 100, 0);
+        timeout.cancel();
+        Thread.sleep(300);
+        Assert.assertEquals(0, runs.get());
+        Assert.assertEquals(0, scheduler.getExecutionCount());
+    }
+
+    /**
+     * A slow interval timer must not run concurrently with itself, the executions which became due while it was
+     * running are run afterwards, in order.
+     */
+    @Test
+    public void testIntervalExecutionsDoNotOverlap() throws Exception {
+        final AtomicBoolean running = new AtomicBoolean();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final List<Integer> executions = new CopyOnWriteArrayList<Integer>();
+        final CountDownLatch latch = new CountDownLatch(5);
+        final TimeoutScheduler.ScheduledTimeout timeout = scheduler.schedule("interval", new Runnable() {
+            public void run() {
+                if (!running.compareAndSet(false, true)) {
+                    overlapped.set(true);
+                }
+                try {
+                    executions.add(executions.size());
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.set(false);
+                }
+                latch.countDown();
+            }
+        }, executor, 0, 10);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        timeout.cancel();
+        Assert.assertFalse(overlapped.get());
+        Assert.assertTrue(scheduler.getMaxLag() > 0);
+    }
+}
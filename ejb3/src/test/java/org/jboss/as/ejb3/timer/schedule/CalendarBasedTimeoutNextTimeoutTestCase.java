@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.schedule;
+
+import junit.framework.Assert;
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.junit.Test;
+
+import javax.ejb.ScheduleExpression;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Tests the next timeouts of a {@link CalendarBasedTimeout} against fixed dates, including the daylight saving
+ * time transitions of Europe/Prague in 2012 (2012-03-25 02:00 CET to 03:00 CEST and 2012-10-28 03:00 CEST to
+ * 02:00 CET, both at 01:00 UTC).
+ */
+public class CalendarBasedTimeoutNextTimeoutTestCase {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final String PRAGUE = "Europe/Prague";
+
+    @Test
+    public void testEveryFiveSeconds() {
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule("UTC").second("*/5").minute("*").hour("*"));
+        long time = utc(2012, Calendar.DECEMBER, 31, 23, 59, 47) + 123;
+        long[] expected = {utc(2012, Calendar.DECEMBER, 31, 23, 59, 50), utc(2012, Calendar.DECEMBER, 31, 23, 59, 55),
+                utc(2013, Calendar.JANUARY, 1, 0, 0, 0), utc(2013, Calendar.JANUARY, 1, 0, 0, 5)};
+        for (long next : expected) {
+            time = timeout.getNextTimeout(time);
+            Assert.assertEquals(next, time);
+        }
+    }
+
+    @Test
+    public void testLastDayOfMonth() {
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule("UTC").dayOfMonth("Last").hour(23).minute(59));
+        long time = utc(2012, Calendar.JANUARY, 15, 0, 0, 0);
+        int[][] expected = {{2012, Calendar.JANUARY, 31}, {2012, Calendar.FEBRUARY, 29}, {2012, Calendar.MARCH, 31},
+                {2012, Calendar.APRIL, 30}};
+        for (int[] date : expected) {
+            time = timeout.getNextTimeout(time);
+            Assert.assertEquals(utc(date[0], date[1], date[2], 23, 59, 0), time);
+        }
+    }
+
+    @Test
+    public void testRelativeDaysOfMonth() {
+        CalendarBasedTimeout secondToLast = new CalendarBasedTimeout(schedule("UTC").dayOfMonth("-1"));
+        Assert.assertEquals(utc(2013, Calendar.FEBRUARY, 27, 0, 0, 0),
+                secondToLast.getNextTimeout(utc(2013, Calendar.FEBRUARY, 1, 0, 0, 0)));
+
+        CalendarBasedTimeout lastFriday = new CalendarBasedTimeout(schedule("UTC").dayOfMonth("last Fri"));
+        Assert.assertEquals(utc(2012, Calendar.AUGUST, 31, 0, 0, 0),
+                lastFriday.getNextTimeout(utc(2012, Calendar.AUGUST, 1, 0, 0, 0)));
+
+        CalendarBasedTimeout secondTuesday = new CalendarBasedTimeout(schedule("UTC").dayOfMonth("2nd Tue"));
+        Assert.assertEquals(utc(2012, Calendar.MAY, 8, 0, 0, 0),
+                secondTuesday.getNextTimeout(utc(2012, Calendar.MAY, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void testDayOfMonthOrDayOfWeek() {
+        // both are restricted, so either of them has to match
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule("UTC").dayOfMonth("15").dayOfWeek("Mon"));
+        // 2012-10-01 is a monday
+        long time = utc(2012, Calendar.OCTOBER, 1, 0, 0, 0);
+        int[] expected = {8, 15, 22, 29};
+        for (int date : expected) {
+            time = timeout.getNextTimeout(time);
+            Assert.assertEquals(utc(2012, Calendar.OCTOBER, date, 0, 0, 0), time);
+        }
+    }
+
+    @Test
+    public void testNonExistentDate() {
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule("UTC").dayOfMonth("31").month("Apr"));
+        Assert.assertEquals(CalendarBasedTimeout.NO_MORE_TIMEOUTS, timeout.getNextTimeout(System.currentTimeMillis()));
+        Assert.assertNull(timeout.getFirstTimeout());
+
+        CalendarBasedTimeout leapDay = new CalendarBasedTimeout(schedule("UTC").dayOfMonth("29").month("Feb"));
+        Assert.assertEquals(utc(2016, Calendar.FEBRUARY, 29, 0, 0, 0),
+                leapDay.getNextTimeout(utc(2012, Calendar.MARCH, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void testStartAndEnd() {
+        ScheduleExpression schedule = schedule("UTC").hour(12);
+        schedule.start(new Date(utc(2012, Calendar.JUNE, 10, 12, 0, 0)));
+        schedule.end(new Date(utc(2012, Calendar.JUNE, 11, 12, 0, 0)));
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule);
+        Assert.assertEquals(utc(2012, Calendar.JUNE, 10, 12, 0, 0), timeout.getFirstTimeout().getTimeInMillis());
+        Assert.assertEquals(utc(2012, Calendar.JUNE, 10, 12, 0, 0), timeout.getNextTimeout(utc(2012, Calendar.JANUARY, 1, 0, 0, 0)));
+        Assert.assertEquals(utc(2012, Calendar.JUNE, 11, 12, 0, 0), timeout.getNextTimeout(utc(2012, Calendar.JUNE, 10, 12, 0, 0)));
+        Assert.assertEquals(CalendarBasedTimeout.NO_MORE_TIMEOUTS, timeout.getNextTimeout(utc(2012, Calendar.JUNE, 11, 12, 0, 0)));
+    }
+
+    @Test
+    public void testTimeInSpringForwardGap() {
+        // 02:30 doesn't exist on 2012-03-25, the timeout is shifted to 03:30 CEST
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule(PRAGUE).hour(2).minute(30));
+        long time = timeout.getNextTimeout(utc(2012, Calendar.MARCH, 24, 12, 0, 0));
+        Assert.assertEquals(utc(2012, Calendar.MARCH, 25, 1, 30, 0), time);
+        time = timeout.getNextTimeout(time);
+        Assert.assertEquals(utc(2012, Calendar.MARCH, 26, 0, 30, 0), time);
+    }
+
+    @Test
+    public void testEveryHalfHourAcrossSpringForward() {
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule(PRAGUE).hour("*").minute("*/30"));
+        // 01:30 CET, 03:00 CEST, 03:30 CEST
+        long time = timeout.getNextTimeout(utc(2012, Calendar.MARCH, 25, 0, 15, 0));
+        Assert.assertEquals(utc(2012, Calendar.MARCH, 25, 0, 30, 0), time);
+        time = timeout.getNextTimeout(time);
+        Assert.assertEquals(utc(2012, Calendar.MARCH, 25, 1, 0, 0), time);
+        time = timeout.getNextTimeout(time);
+        Assert.assertEquals(utc(2012, Calendar.MARCH, 25, 1, 30, 0), time);
+    }
+
+    @Test
+    public void testRepeatedHourAtFallBack() {
+        // 02:30 happens twice on 2012-10-28, first in CEST and then in CET
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule(PRAGUE).hour(2).minute(30));
+        long time = timeout.getNextTimeout(utc(2012, Calendar.OCTOBER, 27, 12, 0, 0));
+        Assert.assertEquals(utc(2012, Calendar.OCTOBER, 28, 0, 30, 0), time);
+        time = timeout.getNextTimeout(time);
+        Assert.assertEquals(utc(2012, Calendar.OCTOBER, 28, 1, 30, 0), time);
+        time = timeout.getNextTimeout(time);
+        Assert.assertEquals(utc(2012, Calendar.OCTOBER, 29, 1, 30, 0), time);
+    }
+
+    @Test
+    public void testCalendarAndMillisecondsAgree() {
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(schedule(PRAGUE).second("15").minute("*/7").hour("*"));
+        Calendar current = new GregorianCalendar(TimeZone.getTimeZone(PRAGUE));
+        current.setTimeInMillis(utc(2012, Calendar.OCTOBER, 28, 0, 55, 0));
+        for (int i = 0; i < 20; i++) {
+            Calendar next = timeout.getNextTimeout(current);
+            Assert.assertEquals(timeout.getNextTimeout(current.getTimeInMillis()), next.getTimeInMillis());
+            Assert.assertEquals(15, next.get(Calendar.SECOND));
+            Assert.assertEquals(0, next.get(Calendar.MINUTE) % 7);
+            current = next;
+        }
+    }
+
+    private static ScheduleExpression schedule(String timezone) {
+        return new ScheduleExpression().second(0).minute(0).hour(0).dayOfMonth("*").month("*").dayOfWeek("*")
+                .year("*").timezone(timezone);
+    }
+
+    private static long utc(int year, int month, int date, int hour, int minute, int second) {
+        Calendar cal = new GregorianCalendar(UTC);
+        cal.clear();
+        cal.set(year, month, date, hour, minute, second);
+        return cal.getTimeInMillis();
+    }
+}
@@ -67,6 +67,7 @@ import org.jboss.as.controller.remote.RemoteProxyController;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.DomainModelUtil;
 import org.jboss.as.domain.controller.FileRepository;
+import org.jboss.as.domain.controller.HostPropagationStatistics;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.MasterDomainControllerClient;
 import org.jboss.as.domain.controller.UnregisteredHostChannelRegistry;
@@ -118,6 +119,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     private final Map<String, ProxyController> hostProxies;
     private final Map<String, ProxyController> serverProxies;
     private final PrepareStepHandler prepareStepHandler;
+    private final HostPropagationStatistics hostPropagationStatistics;
     private ManagementResourceRegistration modelNodeRegistration;
     private volatile MasterDomainControllerClient masterDomainControllerClient;
 
@@ -134,10 +136,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
         final Map<String, ProxyController> hostProxies = new ConcurrentHashMap<String, ProxyController>();
         final Map<String, ProxyController> serverProxies = new ConcurrentHashMap<String, ProxyController>();
         final LocalHostControllerInfoImpl hostControllerInfo = new LocalHostControllerInfoImpl(processState);
-        final PrepareStepHandler prepareStepHandler = new PrepareStepHandler(hostControllerInfo, hostProxies, serverProxies);
+        final HostPropagationStatistics hostPropagationStatistics = new HostPropagationStatistics();
+        final PrepareStepHandler prepareStepHandler = new PrepareStepHandler(hostControllerInfo, hostProxies, serverProxies, hostPropagationStatistics);
         DomainModelControllerService service = new DomainModelControllerService(environment, processState,
                 hostControllerInfo, new HostControllerConfigurationPersister(environment, hostControllerInfo),
-                hostProxies, serverProxies, prepareStepHandler);
+                hostProxies, serverProxies, prepareStepHandler, hostPropagationStatistics);
         return serviceTarget.addService(SERVICE_NAME, service)
                 .addDependency(HostControllerBootstrap.SERVICE_NAME_BASE.append("executor"), ExecutorService.class, service.injectedExecutorService)
                 .addDependency(ProcessControllerConnectionService.SERVICE_NAME, ProcessControllerConnectionService.class, service.injectedProcessControllerConnection)
@@ -151,7 +154,8 @@ public class DomainModelControllerService extends AbstractControllerService impl
                                          final HostControllerConfigurationPersister configurationPersister,
                                          final Map<String, ProxyController> hostProxies,
                                          final Map<String, ProxyController> serverProxies,
-                                         final PrepareStepHandler prepareStepHandler) {
+                                         final PrepareStepHandler prepareStepHandler,
+                                         final HostPropagationStatistics hostPropagationStatistics) {
         super(OperationContext.Type.HOST, configurationPersister, processState, DomainDescriptionProviders.ROOT_PROVIDER,
                 prepareStepHandler);
         this.configurationPersister = configurationPersister;
@@ -162,6 +166,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         this.hostProxies = hostProxies;
         this.serverProxies = serverProxies;
         this.prepareStepHandler = prepareStepHandler;
+        this.hostPropagationStatistics = hostPropagationStatistics;
     }
 
     @Override
@@ -198,6 +203,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         if (hostProxies.remove(id) != null) {
             Logger.getLogger("org.jboss.domain").info("Unregistered remote slave host " + id);
         }
+        hostPropagationStatistics.hostRemoved(id);
         modelNodeRegistration.unregisterProxyController(PathElement.pathElement(HOST, id));
     }
 
@@ -245,6 +251,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
         return localFileRepository;
     }
 
+    @Override
+    public HostPropagationStatistics getHostPropagationStatistics() {
+        return hostPropagationStatistics;
+    }
+
     @Override
     protected void initModel(Resource rootResource, ManagementResourceRegistration rootRegistration) {
         DomainModelUtil.updateCoreModel(rootResource.getModel());
@@ -114,7 +114,7 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
             }
         }
 
-        return new PersistenceResource() {
+        return new SynchronousPersistenceResource() {
             @Override
             public void commit() {
                 if (delegates[0] != null) {
@@ -125,6 +125,17 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
                 }
             }
 
+            @Override
+            public void commitSynchronously() throws ConfigurationPersistenceException {
+                for (PersistenceResource delegate : delegates) {
+                    if (delegate instanceof SynchronousPersistenceResource) {
+                        ((SynchronousPersistenceResource) delegate).commitSynchronously();
+                    } else if (delegate != null) {
+                        delegate.commit();
+                    }
+                }
+            }
+
             @Override
             public void rollback() {
                 if (delegates[0] != null) {
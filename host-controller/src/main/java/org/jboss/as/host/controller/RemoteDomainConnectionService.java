@@ -36,6 +36,8 @@ import java.net.UnknownHostException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.Security;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -48,6 +50,7 @@ import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.ResultStreamHandler;
 import org.jboss.as.controller.remote.ExistingChannelModelControllerClient;
 import org.jboss.as.controller.remote.TransactionalModelControllerOperationHandler;
 import org.jboss.as.domain.controller.FileRepository;
@@ -98,6 +101,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final int port;
     private final String name;
     private final RemoteFileRepository remoteFileRepository;
+    /** Lets the master know whether we still have the domain model it sent us when reconnecting */
+    private final String sessionId = UUID.randomUUID().toString();
 
     private volatile ProtocolChannelClient<ManagementChannel> channelClient;
     /** Used to invoke ModelController ops on the master */
@@ -286,6 +291,16 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         return masterProxy.execute(operation, messageHandler);
     }
 
+    @Override
+    public ModelNode executeStreaming(ModelNode operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+        return masterProxy.executeStreaming(operation, messageHandler, resultHandler);
+    }
+
+    @Override
+    public ModelNode executeStreaming(Operation operation, OperationMessageHandler messageHandler, ResultStreamHandler resultHandler) throws IOException {
+        return masterProxy.executeStreaming(operation, messageHandler, resultHandler);
+    }
+
     @Override
     public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
         return masterProxy.executeAsync(operation, messageHandler);
@@ -296,6 +311,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         return masterProxy.executeAsync(operation, messageHandler);
     }
 
+    @Override
+    public List<AsyncFuture<ModelNode>> executePipelined(List<ModelNode> operations, OperationMessageHandler messageHandler) {
+        return masterProxy.executePipelined(operations, messageHandler);
+    }
+
     @Override
     public void close() throws IOException {
         throw new UnsupportedOperationException("Close should be managed by the service");
@@ -370,7 +390,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
         @Override
         protected byte getRequestCode() {
-            return DomainControllerProtocol.REGISTER_HOST_CONTROLLER_REQUEST;
+            return DomainControllerProtocol.REGISTER_HOST_CONTROLLER_SESSION_REQUEST;
         }
 
         /** {@inheritDoc} */
@@ -378,6 +398,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         protected void writeRequest(final int protocolVersion, final FlushableDataOutput output) throws IOException {
             output.write(DomainControllerProtocol.PARAM_HOST_ID);
             output.writeUTF(name);
+            output.write(DomainControllerProtocol.PARAM_SESSION_ID);
+            output.writeUTF(sessionId);
         }
 
         protected ManagementResponseHandler<String> getResponseHandler() {
@@ -85,7 +85,9 @@ public class MasterDomainControllerOperationHandlerImpl extends AbstractModelCon
         }
         switch (id) {
         case DomainControllerProtocol.REGISTER_HOST_CONTROLLER_REQUEST:
-            return new RegisterOperation();
+            return new RegisterOperation(false);
+        case DomainControllerProtocol.REGISTER_HOST_CONTROLLER_SESSION_REQUEST:
+            return new RegisterOperation(true);
         case DomainControllerProtocol.UNREGISTER_HOST_CONTROLLER_REQUEST:
             return new UnregisterOperation();
         case DomainControllerProtocol.GET_FILE_REQUEST:
@@ -108,11 +110,26 @@ public class MasterDomainControllerOperationHandlerImpl extends AbstractModelCon
     }
 
     private class RegisterOperation extends RegistryOperation {
+        final boolean withSession;
+        String sessionId;
         String error;
+
+        /**
+         * @param withSession whether the slave sends its session id, so that it can be sent the changes it missed.
+         *                    Slaves which do not are always sent the full domain model.
+         */
+        RegisterOperation(final boolean withSession) {
+            this.withSession = withSession;
+        }
+
         @Override
         protected void readRequest(final DataInput input) throws IOException {
             expectHeader(input, DomainControllerProtocol.PARAM_HOST_ID);
             hostId = input.readUTF();
+            if (withSession) {
+                expectHeader(input, DomainControllerProtocol.PARAM_SESSION_ID);
+                sessionId = input.readUTF();
+            }
         }
 
 
@@ -130,6 +147,9 @@ public class MasterDomainControllerOperationHandlerImpl extends AbstractModelCon
                 op.get(OP).set(ReadMasterDomainModelHandler.OPERATION_NAME);
                 op.get(OP_ADDR).setEmptyList();
                 op.get(HOST).set(hostId);
+                if (sessionId != null) {
+                    op.get(ReadMasterDomainModelHandler.SESSION_ID).set(sessionId);
+                }
                 ModelNode result = controller.execute(op, OperationMessageHandler.logging, OperationTransactionControl.COMMIT, null);
                 if (result.hasDefined(FAILURE_DESCRIPTION)) {
                     error = result.get(FAILURE_DESCRIPTION).asString();
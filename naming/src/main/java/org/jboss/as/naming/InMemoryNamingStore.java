@@ -41,6 +41,8 @@ import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import static org.jboss.as.naming.util.NamingUtils.cannotProceedException;
 import static org.jboss.as.naming.util.NamingUtils.emptyNameException;
@@ -69,6 +71,12 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
     private final ReentrantLock writeLock = new ReentrantLock();
 
+    /*
+     * The objects of names which have been looked up before. Replaced by an empty map on every change to the
+     * tree, so a lookup which races with a change at worst writes into a map which is already discarded.
+     */
+    private volatile ConcurrentMap<Name, Object> resolvedNames = new ConcurrentHashMap<Name, Object>();
+
     /**
      * Construct instance with no event support.
      */
@@ -101,6 +109,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         try {
             root.accept(new BindVisitor(true, name, object, bindType.getName()));
         } finally {
+            resolvedNames = new ConcurrentHashMap<Name, Object>();
             writeLock.unlock();
         }
     }
@@ -121,6 +130,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         try {
             root.accept(new RebindVisitor(name, object, bindType.getName()));
         } finally {
+            resolvedNames = new ConcurrentHashMap<Name, Object>();
             writeLock.unlock();
         }
     }
@@ -141,6 +151,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         try {
             root.accept(new UnbindVisitor(name));
         } finally {
+            resolvedNames = new ConcurrentHashMap<Name, Object>();
             writeLock.unlock();
         }
     }
@@ -159,7 +170,16 @@ public class InMemoryNamingStore implements WritableNamingStore {
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
         checkPermissions(name, JndiPermission.Action.LOOKUP);
-        return root.accept(new LookupVisitor(name));
+        final ConcurrentMap<Name, Object> resolvedNames = this.resolvedNames;
+        Object object = resolvedNames.get(name);
+        if (object == null) {
+            object = root.accept(new LookupVisitor(name));
+            // a reference in the middle of the name has to be resolved by the caller each time
+            if (!(object instanceof ResolveResult)) {
+                resolvedNames.put((Name) name.clone(), object);
+            }
+        }
+        return object;
     }
 
     /**
@@ -198,6 +218,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
         try {
             root.clear();
         } finally {
+            resolvedNames = new ConcurrentHashMap<Name, Object>();
             writeLock.unlock();
         }
     }
@@ -331,14 +352,13 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
     private abstract class NodeTraversingVisitor<T> implements NodeVisitor<T> {
         private final boolean createIfMissing;
-        private Name currentName;
-        private Name traversedName;
+        /* The number of components of targetName which have been traversed */
+        private int position;
         protected final Name targetName;
 
         protected NodeTraversingVisitor(final boolean createIfMissing, final Name targetName) {
             this.createIfMissing = createIfMissing;
-            this.targetName = currentName = targetName;
-            this.traversedName = new CompositeName();
+            this.targetName = targetName;
         }
 
         protected NodeTraversingVisitor(final Name targetName) {
@@ -346,24 +366,23 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
 
         public final T visit(final BindingNode bindingNode) throws NamingException {
-            if (isEmpty(currentName)) {
+            if (isTraversed()) {
                 return found(bindingNode);
             }
             return foundReferenceInsteadOfContext(bindingNode);
         }
 
         public final T visit(final ContextNode contextNode) throws NamingException {
-            if (isEmpty(currentName)) {
+            if (isTraversed()) {
                 return found(contextNode);
             }
-            final String childName = currentName.get(0);
-            traversedName.add(childName);
-            currentName = currentName.getSuffix(1);
+            final String childName = targetName.get(position++);
             final TreeNode node = contextNode.children.get(childName);
             if (node == null) {
                 if (createIfMissing) {
+                    final Name traversedName = targetName.getPrefix(position);
                     final NamingContext subContext = new NamingContext((Name)traversedName.clone(), InMemoryNamingStore.this, new Hashtable<String, Object>());
-                    return contextNode.addOrGetChild(childName, new ContextNode(contextNode, childName, (Name)traversedName.clone(), subContext)).accept(this);
+                    return contextNode.addOrGetChild(childName, new ContextNode(contextNode, childName, traversedName, subContext)).accept(this);
                 } else {
                     throw nameNotFoundException(childName, contextNode.fullName);
                 }
@@ -377,9 +396,15 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
         protected T foundReferenceInsteadOfContext(BindingNode bindingNode) throws NamingException {
             final Object object = bindingNode.binding.getObject();
-            checkReferenceForContinuation(currentName, object);
+            checkReferenceForContinuation(targetName.getSuffix(position), object);
             throw notAContextException(bindingNode.fullName);
         }
+
+        /* Same as isEmpty() on the remaining name, which is no longer created for each component */
+        private boolean isTraversed() {
+            final int remaining = targetName.size() - position;
+            return remaining == 0 || (remaining == 1 && "".equals(targetName.get(position)));
+        }
     }
 
     private abstract class BindingContextVisitor<T> extends NodeTraversingVisitor<T> {
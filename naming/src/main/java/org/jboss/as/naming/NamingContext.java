@@ -167,7 +167,10 @@ public class NamingContext implements EventContext {
             return new NamingContext(prefix, namingStore, environment);
         }
 
-        final Name absoluteName = getAbsoluteName(name);
+        return lookupAbsolute(getAbsoluteName(name));
+    }
+
+    private Object lookupAbsolute(final Name absoluteName) throws NamingException {
         Object result;
         try {
             result = namingStore.lookup(absoluteName);
@@ -204,6 +207,9 @@ public class NamingContext implements EventContext {
 
     /** {@inheritDoc} */
     public Object lookup(final String name) throws NamingException {
+        if (isSimpleName(name)) {
+            return lookupAbsolute(parseAbsoluteName(name));
+        }
         return lookup(parseName(name));
     }
 
@@ -393,6 +399,51 @@ public class NamingContext implements EventContext {
         return getNameParser(name).parse(name);
     }
 
+    /**
+     * Determine whether a string name can be parsed by {@link #parseAbsoluteName(String)}. That is the case unless it
+     * is empty, consists only of separators, or contains quotes or escapes.
+     */
+    private static boolean isSimpleName(final String name) {
+        boolean onlySeparators = true;
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == '\\' || c == '"' || c == '\'') {
+                return false;
+            }
+            if (c != '/') {
+                onlySeparators = false;
+            }
+        }
+        return !onlySeparators;
+    }
+
+    /**
+     * Parse a simple string name straight into the name {@link #getAbsoluteName(Name)} would return for it, without
+     * creating the intermediate names on the way.
+     */
+    private Name parseAbsoluteName(final String name) throws NamingException {
+        int end = name.indexOf('/');
+        final String firstComponent = end < 0 ? name : name.substring(0, end);
+        final Name absoluteName;
+        if(firstComponent.startsWith("java:")) {
+            absoluteName = new CompositeName();
+            if(firstComponent.length() > 5) {
+                absoluteName.add(firstComponent.substring(5));
+            }
+        } else if(firstComponent.isEmpty()) {
+            absoluteName = new CompositeName();
+        } else {
+            absoluteName = (Name) prefix.clone();
+            absoluteName.add(firstComponent);
+        }
+        while (end >= 0) {
+            final int start = end + 1;
+            end = name.indexOf('/', start);
+            absoluteName.add(end < 0 ? name.substring(start) : name.substring(start, end));
+        }
+        return absoluteName;
+    }
+
     private Name getAbsoluteName(final Name name) throws NamingException {
         if(name.isEmpty()) {
             return composeName(name, prefix);
@@ -29,6 +29,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import javax.naming.Binding;
 import javax.naming.CompositeName;
@@ -54,6 +56,12 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    /*
+     * The controllers of bound services which have been looked up before, so that a repeated lookup neither builds
+     * the service name nor goes to the registry. Replaced by an empty map whenever a service is added or removed.
+     */
+    private volatile ConcurrentMap<Name, ServiceController<?>> resolvedNames = new ConcurrentHashMap<Name, ServiceController<?>>();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -63,8 +71,20 @@ public class ServiceBasedNamingStore implements NamingStore {
         if(name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final ConcurrentMap<Name, ServiceController<?>> resolvedNames = this.resolvedNames;
+        final ServiceController<?> resolved = resolvedNames.get(name);
+        if (resolved != null) {
+            final Object value = getValue(resolved);
+            if (value != null) {
+                return value;
+            }
+        }
         final ServiceName lookupName = buildServiceName(name);
-        final Object obj = lookup(lookupName);
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        if (controller != null && boundServices.contains(lookupName)) {
+            resolvedNames.put((Name) name.clone(), controller);
+        }
+        final Object obj = controller != null ? getValue(controller) : null;
         if (obj == null) {
             final ServiceName ceiling = boundServices.ceiling(lookupName);
             if (ceiling != null && lookupName.isParentOf(ceiling)) {
@@ -78,15 +98,19 @@ public class ServiceBasedNamingStore implements NamingStore {
     private Object lookup(final ServiceName lookupName) {
         final ServiceController<?> controller = serviceRegistry.getService(lookupName);
         if (controller != null) {
-            final Object object = controller.getValue();
-            if (object instanceof ManagedReferenceFactory) {
-                return ManagedReferenceFactory.class.cast(object).getReference().getInstance();
-            }
-            return object;
+            return getValue(controller);
         }
         return null;
     }
 
+    private Object getValue(final ServiceController<?> controller) {
+        final Object object = controller.getValue();
+        if (object instanceof ManagedReferenceFactory) {
+            return ManagedReferenceFactory.class.cast(object).getReference().getInstance();
+        }
+        return object;
+    }
+
     public List<NameClassPair> list(final Name name) throws NamingException {
         final ServiceName lookupName = buildServiceName(name);
         final List<ServiceName> children = listChildren(lookupName);
@@ -148,6 +172,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        resolvedNames = new ConcurrentHashMap<Name, ServiceController<?>>();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -162,10 +187,12 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw new IllegalArgumentException("Service with name [" + serviceName + "] already bound.");
         }
         boundServices.add(serviceName);
+        resolvedNames = new ConcurrentHashMap<Name, ServiceController<?>>();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        resolvedNames = new ConcurrentHashMap<Name, ServiceController<?>>();
     }
 
     private ServiceName buildServiceName(final Name name) {
@@ -265,4 +265,41 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testLookupNameModifiedAfterLookup() throws Exception {
+        final Object object = new Object();
+        nameStore.bind(new CompositeName("test"), object);
+        nameStore.bind(new CompositeName("other"), "other");
+
+        final Name name = new CompositeName("test");
+        assertEquals(object, nameStore.lookup(name));
+        name.remove(0);
+        name.add("other");
+        assertEquals("other", nameStore.lookup(name));
+        assertEquals(object, nameStore.lookup(new CompositeName("test")));
+    }
+
+    @Test
+    public void testLookupAfterFailedLookup() throws Exception {
+        final Name name = new CompositeName("test/item");
+        try {
+            nameStore.lookup(name);
+            fail("Should have thrown and NameNotFoundException");
+        } catch(NameNotFoundException expected) {}
+
+        final Object object = new Object();
+        nameStore.bind(name, object);
+        assertEquals(object, nameStore.lookup(name));
+    }
+
+    @Test
+    public void testLookupAfterRebindOfContext() throws Exception {
+        nameStore.bind(new CompositeName("test/item"), "value");
+        assertTrue(nameStore.lookup(new CompositeName("test")) instanceof NamingContext);
+
+        nameStore.unbind(new CompositeName("test/item"));
+        nameStore.bind(new CompositeName("test"), "test");
+        assertEquals("test", nameStore.lookup(new CompositeName("test")));
+    }
 }
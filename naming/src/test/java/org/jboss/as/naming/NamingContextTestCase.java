@@ -141,6 +141,20 @@ public class NamingContextTestCase {
     }
 
 
+    @Test
+    public void testLookupString() throws Exception {
+        final Object object = new Object();
+        namingStore.bind(new CompositeName("test/nested"), object);
+
+        assertEquals(object, namingContext.lookup("test/nested"));
+        assertEquals(object, namingContext.lookup("/test/nested"));
+        assertEquals(object, namingContext.lookup("\"test\"/nested"));
+        assertTrue(namingContext.lookup("test") instanceof NamingContext);
+        assertTrue(namingContext.lookup("/") instanceof NamingContext);
+        assertTrue(namingContext.lookup("") instanceof NamingContext);
+        assertEquals(object, ((Context) namingContext.lookup("test")).lookup("nested"));
+    }
+
     @Test
     public void testLookupNameNotFound() throws Exception {
         try {
@@ -35,7 +35,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -55,7 +57,8 @@ import org.xnio.Options;
 import org.xnio.Xnio;
 
 /**
- * This class is not thread safe and should only be used by one thread
+ * Connecting and closing is not thread safe and should only be done by one thread. The channels opened by the
+ * client may be shared between threads, see {@link org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy#createShared}
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  * @version $Revision: 1.1 $
@@ -156,11 +159,18 @@ public class ProtocolChannelClient<T extends ProtocolChannel> implements Closeab
         }
         Channel channel = connection.openChannel(channelName, OptionMap.EMPTY).get();
         T wrapped = channelFactory.create(channelName, channel);
-        channels.add(wrapped);
+        synchronized (channels) {
+            channels.add(wrapped);
+        }
         return wrapped;
     }
 
     public void close() {
+        final List<T> channels;
+        synchronized (this.channels) {
+            channels = new ArrayList<T>(this.channels);
+            this.channels.clear();
+        }
         for (T channel : channels) {
             try {
                 channel.writeShutdown();
@@ -172,7 +182,6 @@ public class ProtocolChannelClient<T extends ProtocolChannel> implements Closeab
 //                Thread.currentThread().interrupt();
 //            }
         }
-        channels.clear();
 
         IoUtils.safeClose(connection);
         if (startedEndpoint) {
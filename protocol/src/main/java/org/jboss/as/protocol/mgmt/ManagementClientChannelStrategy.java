@@ -21,6 +21,7 @@
 */
 package org.jboss.as.protocol.mgmt;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.ConnectException;
 import java.net.URI;
@@ -35,6 +36,8 @@ import javax.security.auth.callback.CallbackHandler;
 
 import org.jboss.as.protocol.ProtocolChannelClient;
 import org.jboss.as.protocol.ProtocolChannelClient.Configuration;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.Endpoint;
 import org.jboss.sasl.JBossSaslProvider;
 import org.xnio.IoUtils;
@@ -62,6 +65,31 @@ public abstract class ManagementClientChannelStrategy {
         return new EstablishingWithExistingEndpoint(hostName, port, endpoint, handler, cbHandler);
     }
 
+    /**
+     * Creates a strategy which establishes a single connection on first use and then hands out the same channel to
+     * all requests, so that many requests can be in flight on it at the same time. Responses are matched to their
+     * requests by request id, so callers do not need to serialize on the channel. If the channel gets closed a new
+     * connection is established for the next request. The returned strategy must be closed once it is no longer
+     * needed.
+     *
+     * @return the shared strategy
+     */
+    public static SharedManagementClientChannelStrategy createShared(String hostName, int port, final ExecutorService executorService, final ManagementOperationHandler handler, final CallbackHandler cbHandler) {
+        return createShared(new EstablishingWithNewEndpoint(hostName, port, executorService, handler, cbHandler));
+    }
+
+    /**
+     * Creates a strategy sharing the channels established by another strategy. The other strategy is asked for a new
+     * channel whenever the previous one was closed, and told that the channel is no longer needed once it was closed
+     * or the shared strategy is closed.
+     *
+     * @param establishing the strategy establishing the channels
+     * @return the shared strategy
+     */
+    static SharedManagementClientChannelStrategy createShared(final ManagementClientChannelStrategy establishing) {
+        return new SharedManagementClientChannelStrategy(establishing);
+    }
+
     private static class Existing extends ManagementClientChannelStrategy {
         private final ManagementChannel channel;
 
@@ -179,4 +207,55 @@ public abstract class ManagementClientChannelStrategy {
             configuration.setEndpoint(endpoint);
         }
     }
+
+    /**
+     * A strategy sharing one established channel between all requests.
+     */
+    public static final class SharedManagementClientChannelStrategy extends ManagementClientChannelStrategy implements Closeable {
+        private final ManagementClientChannelStrategy establishing;
+        private ManagementChannel channel;
+        private boolean closed;
+
+        private SharedManagementClientChannelStrategy(final ManagementClientChannelStrategy establishing) {
+            this.establishing = establishing;
+        }
+
+        @Override
+        public synchronized ManagementChannel getChannel() throws IOException {
+            if (closed) {
+                throw new IOException("Channel strategy is closed");
+            }
+            if (channel == null) {
+                final ManagementChannel established = establishing.getChannel();
+                established.addCloseHandler(new CloseHandler<Channel>() {
+                    public void handleClose(final Channel closedChannel, final IOException exception) {
+                        disconnected(established);
+                    }
+                });
+                channel = established;
+            }
+            return channel;
+        }
+
+        @Override
+        public void requestDone() {
+            // The channel stays open for the other requests
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            if (channel != null) {
+                channel = null;
+                establishing.requestDone();
+            }
+        }
+
+        private synchronized void disconnected(final ManagementChannel established) {
+            if (channel == established) {
+                channel = null;
+                establishing.requestDone();
+            }
+        }
+    }
 }
@@ -50,4 +50,7 @@ public interface ManagementProtocol {
     byte RESPONSE_BODY = 0x22;
     byte RESPONSE_ERROR = 0x23;
     byte RESPONSE_END = 0x24;
+
+    byte MODEL_NODE_CHUNK = 0x30;
+    byte MODEL_NODE_END = 0x31;
 }
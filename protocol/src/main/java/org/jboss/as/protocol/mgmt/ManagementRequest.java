@@ -96,23 +96,41 @@ public abstract class ManagementRequest<T> {
         executor.execute(new Runnable() {
             @Override
             public void run() {
-
-                try {
-                    final ManagementChannel channel = channelStrategy.getChannel();
-                    log.tracef("Got channel %s from request %s for %d", channel, ManagementRequest.this, getCurrentRequestId());
-
-                    //Ends up in writeRequest(ProtocolChannel, FlushableDataOutput)
-                    channel.executeRequest(ManagementRequest.this, new DelegatingResponseHandler(channelStrategy));
-                } catch (Exception e) {
-                    log.tracef(e, "Could not get channel for request %s, failing %s for %d", ManagementRequest.this, future, getCurrentRequestId());
-                    future.failed(e);
-                }
+                sendRequest(channelStrategy);
             }
         });
 
         return future;
     }
 
+    /**
+     * Send the request on the calling thread and return a future used to get the response when complete. Unlike
+     * {@link #execute(ExecutorService, ManagementClientChannelStrategy)} this only returns once the request has been
+     * written, so a caller can pipeline a number of requests over a shared channel in order without waiting for
+     * the responses.
+     *
+     * @param channelStrategy The channel strategy
+     * @return A future to retrieve the result when the request is complete
+     */
+    public AsyncFuture<T> send(final ManagementClientChannelStrategy channelStrategy) {
+        log.tracef("Sending request %s with future %s - %d (%d)", this, future, getBatchId(), getCurrentRequestId());
+        sendRequest(channelStrategy);
+        return future;
+    }
+
+    private void sendRequest(final ManagementClientChannelStrategy channelStrategy) {
+        try {
+            final ManagementChannel channel = channelStrategy.getChannel();
+            log.tracef("Got channel %s from request %s for %d", channel, ManagementRequest.this, getCurrentRequestId());
+
+            //Ends up in writeRequest(ProtocolChannel, FlushableDataOutput)
+            channel.executeRequest(ManagementRequest.this, new DelegatingResponseHandler(channelStrategy));
+        } catch (Exception e) {
+            log.tracef(e, "Could not get channel for request %s, failing %s for %d", ManagementRequest.this, future, getCurrentRequestId());
+            future.failed(e);
+        }
+    }
+
     void writeRequest(ProtocolChannel channel, FlushableDataOutput output) throws IOException {
         //Body
         writeRequest(ManagementProtocol.VERSION, output);
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * Reads the chunks written by a {@link ModelNodeStreamWriter} one at a time, so that the caller only ever needs to
+ * hold a single chunk rather than the whole tree.
+ */
+public class ModelNodeStreamReader {
+
+    private final DataInput input;
+    private ModelNode address;
+    private ModelNode node;
+    private boolean done;
+
+    public ModelNodeStreamReader(final DataInput input) {
+        this.input = input;
+    }
+
+    /**
+     * Read the next chunk.
+     *
+     * @return {@code true} if a chunk was read, {@code false} if the end marker has been reached
+     * @throws IOException if an error occurs reading from the input
+     */
+    public boolean next() throws IOException {
+        if (done) {
+            return false;
+        }
+        final byte type = input.readByte();
+        if (type == ManagementProtocol.MODEL_NODE_END) {
+            done = true;
+            address = null;
+            node = null;
+            return false;
+        }
+        if (type != ManagementProtocol.MODEL_NODE_CHUNK) {
+            throw new IOException("Invalid model node chunk type " + Integer.toHexString(type));
+        }
+        address = new ModelNode();
+        address.readExternal(input);
+        node = new ModelNode();
+        node.readExternal(input);
+        return true;
+    }
+
+    /**
+     * Get the address of the current chunk relative to the written node.
+     *
+     * @return the address, a list of properties which is empty for the written node itself
+     */
+    public ModelNode getAddress() {
+        return address;
+    }
+
+    /**
+     * Get the current chunk.
+     *
+     * @return the chunk
+     */
+    public ModelNode getNode() {
+        return node;
+    }
+
+    /**
+     * Read all remaining chunks and reassemble them into a single node.
+     *
+     * @return the node, undefined if nothing but the end marker was written
+     * @throws IOException if an error occurs reading from the input
+     */
+    public ModelNode readAll() throws IOException {
+        final ModelNode result = new ModelNode();
+        while (next()) {
+            getTarget(result, address).set(node);
+        }
+        return result;
+    }
+
+    /**
+     * Navigate to the place of a chunk within the reassembled node.
+     *
+     * @param root the reassembled node
+     * @param address the address of the chunk
+     * @return the node to set the chunk on
+     */
+    public static ModelNode getTarget(final ModelNode root, final ModelNode address) {
+        ModelNode target = root;
+        for (Property element : address.asPropertyList()) {
+            target = target.get(element.getName()).get(element.getValue().asString());
+        }
+        return target;
+    }
+}
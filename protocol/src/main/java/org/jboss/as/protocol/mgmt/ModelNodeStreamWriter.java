@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Writes a {@link ModelNode} as a sequence of independently encoded chunks rather than as a single value.
+ * <p/>
+ * An object whose values are all objects, e.g. the {@code subsystem} entry of a recursive {@code read-resource}
+ * result, is treated as a set of child resources. Each child is written as a chunk of its own along with its address
+ * relative to the written node, while its parent only retains an undefined placeholder for it. The size of a chunk is
+ * thus bounded by the size of a single resource rather than by the size of the whole tree, and a
+ * {@link ModelNodeStreamReader} can hand out the chunks one by one as they arrive. Putting the chunks back at their
+ * addresses yields a node equal to the one that was written.
+ * <p/>
+ * If {@code release} is set, each child is detached from the written node as soon as it has been written so that it
+ * can be garbage collected while the rest of the tree is still being sent.
+ */
+public class ModelNodeStreamWriter {
+
+    private final DataOutput output;
+    private final boolean release;
+
+    /**
+     * Create a writer which leaves the written node untouched.
+     *
+     * @param output the output to write the chunks to
+     */
+    public ModelNodeStreamWriter(final DataOutput output) {
+        this(output, false);
+    }
+
+    /**
+     * Create a writer.
+     *
+     * @param output the output to write the chunks to
+     * @param release {@code true} if the written node may be emptied while it is being written
+     */
+    public ModelNodeStreamWriter(final DataOutput output, final boolean release) {
+        this.output = output;
+        this.release = release;
+    }
+
+    /**
+     * Constructor for subclasses which consume the chunks themselves by overriding {@link #writeChunk(ModelNode, ModelNode)}
+     * and {@link #writeEnd()}.
+     *
+     * @param release {@code true} if the written node may be emptied while it is being written
+     */
+    protected ModelNodeStreamWriter(final boolean release) {
+        this(null, release);
+    }
+
+    /**
+     * Write a node followed by the end marker. Nothing but the end marker is written for an undefined node.
+     *
+     * @param node the node
+     * @throws IOException if an error occurs writing to the output
+     */
+    public void write(final ModelNode node) throws IOException {
+        if (node.isDefined()) {
+            final ModelNode address = new ModelNode();
+            address.setEmptyList();
+            writeTree(address, node);
+        }
+        writeEnd();
+    }
+
+    private void writeTree(final ModelNode address, final ModelNode node) throws IOException {
+        final List<String> childTypes = getChildTypes(node);
+        if (childTypes == null) {
+            writeChunk(address, node);
+            return;
+        }
+
+        final ModelNode chunk = new ModelNode();
+        chunk.setEmptyObject();
+        for (String key : node.keys()) {
+            final ModelNode value = node.get(key);
+            if (childTypes.contains(key)) {
+                final ModelNode placeholders = chunk.get(key);
+                for (String name : value.keys()) {
+                    placeholders.get(name);
+                }
+            } else {
+                chunk.get(key).set(value);
+            }
+        }
+        writeChunk(address, chunk);
+
+        for (String type : childTypes) {
+            final ModelNode children = node.get(type);
+            for (String name : children.keys()) {
+                final ModelNode child = children.get(name);
+                final ModelNode childAddress = address.clone();
+                childAddress.add(type, name);
+                writeTree(childAddress, child);
+                if (release) {
+                    child.set(new ModelNode());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a single chunk.
+     *
+     * @param address the address of the chunk relative to the written node, a list of properties
+     * @param node the chunk, with undefined placeholders in place of the children which are written separately
+     * @throws IOException if an error occurs writing to the output
+     */
+    protected void writeChunk(final ModelNode address, final ModelNode node) throws IOException {
+        output.writeByte(ManagementProtocol.MODEL_NODE_CHUNK);
+        address.writeExternal(output);
+        node.writeExternal(output);
+    }
+
+    /**
+     * Write the marker following the last chunk.
+     *
+     * @throws IOException if an error occurs writing to the output
+     */
+    protected void writeEnd() throws IOException {
+        output.writeByte(ManagementProtocol.MODEL_NODE_END);
+    }
+
+    private static List<String> getChildTypes(final ModelNode node) {
+        if (node.getType() != ModelType.OBJECT) {
+            return null;
+        }
+        List<String> types = null;
+        for (String key : node.keys()) {
+            if (isChildType(node.get(key))) {
+                if (types == null) {
+                    types = new ArrayList<String>();
+                }
+                types.add(key);
+            }
+        }
+        return types;
+    }
+
+    private static boolean isChildType(final ModelNode node) {
+        if (node.getType() != ModelType.OBJECT || node.keys().isEmpty()) {
+            return false;
+        }
+        for (String name : node.keys()) {
+            if (node.get(name).getType() != ModelType.OBJECT) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ModelNodeStreamTestCase {
+
+    @Test
+    public void testChunks() throws Exception {
+        final ModelNode model = createModel();
+        final ModelNodeStreamReader reader = new ModelNodeStreamReader(write(model, false));
+
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(0, reader.getAddress().asList().size());
+        Assert.assertEquals("value", reader.getNode().get("attr").asString());
+        Assert.assertTrue(reader.getNode().get("subsystem").has("a"));
+        Assert.assertFalse(reader.getNode().get("subsystem", "a").isDefined());
+        Assert.assertEquals("x", reader.getNode().get("complex", "x").asString());
+
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(1, reader.getAddress().asList().size());
+        Assert.assertEquals("subsystem", reader.getAddress().asPropertyList().get(0).getName());
+        Assert.assertEquals("a", reader.getAddress().asPropertyList().get(0).getValue().asString());
+        Assert.assertFalse(reader.getNode().get("child", "c").isDefined());
+
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(2, reader.getAddress().asList().size());
+        Assert.assertEquals("c-value", reader.getNode().get("c-attr").asString());
+
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals("b", reader.getAddress().asPropertyList().get(0).getValue().asString());
+
+        Assert.assertFalse(reader.next());
+        Assert.assertFalse(reader.next());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final ModelNode model = createModel();
+        Assert.assertEquals(model, new ModelNodeStreamReader(write(model, false)).readAll());
+        Assert.assertEquals(createModel(), model);
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        final ModelNode model = createModel();
+        Assert.assertEquals(createModel(), new ModelNodeStreamReader(write(model, true)).readAll());
+        Assert.assertFalse(model.get("subsystem", "a").isDefined());
+        Assert.assertFalse(model.get("subsystem", "b").isDefined());
+    }
+
+    @Test
+    public void testUndefined() throws Exception {
+        final ModelNodeStreamReader reader = new ModelNodeStreamReader(write(new ModelNode(), false));
+        Assert.assertFalse(reader.next());
+    }
+
+    private static ModelNode createModel() {
+        final ModelNode model = new ModelNode();
+        model.get("attr").set("value");
+        model.get("complex", "x").set("x");
+        model.get("subsystem", "a", "a-attr").set("a-value");
+        model.get("subsystem", "a", "child", "c", "c-attr").set("c-value");
+        model.get("subsystem", "b").setEmptyObject();
+        return model;
+    }
+
+    private static DataInputStream write(final ModelNode node, final boolean release) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        new ModelNodeStreamWriter(output, release).write(node);
+        output.close();
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
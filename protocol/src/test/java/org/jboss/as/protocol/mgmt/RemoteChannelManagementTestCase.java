@@ -26,13 +26,17 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.Provider;
 import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.Assert;
 
+import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy.SharedManagementClientChannelStrategy;
 import org.jboss.as.protocol.mgmt.support.ConcurrentRequestOperationHandler;
 import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
 import org.jboss.as.protocol.mgmt.support.RemotingChannelPairSetup;
@@ -117,6 +121,85 @@ public class RemoteChannelManagementTestCase {
         Assert.assertEquals(Integer.valueOf(1200), future1.get());
     }
 
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        //The handler only lets the requests through once all three are in flight
+        channel.setOperationHandler(new ConcurrentRequestOperationHandler(3));
+
+        ManagementClientChannelStrategy strategy =  ManagementClientChannelStrategy.create(channels.getClientChannel());
+
+        Future<Integer> future1 = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 600).send(strategy);
+        Future<Integer> future2 = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 650).send(strategy);
+        Future<Integer> future3 = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 700).send(strategy);
+        Assert.assertEquals(Integer.valueOf(1400), future3.get());
+        Assert.assertEquals(Integer.valueOf(1300), future2.get());
+        Assert.assertEquals(Integer.valueOf(1200), future1.get());
+    }
+
+    @Test
+    public void testManyPipelinedRequests() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        channel.setOperationHandler(new SimpleHandlers.OperationHandler());
+
+        ManagementClientChannelStrategy strategy =  ManagementClientChannelStrategy.create(channels.getClientChannel());
+
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int i = 0 ; i < 200 ; i++) {
+            futures.add(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i).send(strategy));
+        }
+        for (int i = 0 ; i < 200 ; i++) {
+            Assert.assertEquals(Integer.valueOf(i * 2), futures.get(i).get());
+        }
+    }
+
+    @Test
+    public void testSharedStrategyReconnects() throws Exception {
+        channels.getClientChannel().startReceiving();
+        channels.getServerChannel().setOperationHandler(new SimpleHandlers.OperationHandler());
+        final AtomicInteger established = new AtomicInteger();
+        final ManagementClientChannelStrategy establishing = new ManagementClientChannelStrategy() {
+            @Override
+            public ManagementChannel getChannel() throws IOException {
+                if (established.getAndIncrement() == 0) {
+                    return channels.getClientChannel();
+                }
+                final ManagementChannel channel = channels.openClientChannel();
+                channel.startReceiving();
+                channels.getServerChannel().setOperationHandler(new SimpleHandlers.OperationHandler());
+                return channel;
+            }
+
+            @Override
+            public void requestDone() {
+                //The connection belongs to the channel setup
+            }
+        };
+
+        SharedManagementClientChannelStrategy strategy = ManagementClientChannelStrategy.createShared(establishing);
+        try {
+            Assert.assertEquals(Integer.valueOf(1200), new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 600).executeForResult(channels.getExecutorService(), strategy));
+            Assert.assertEquals(Integer.valueOf(1400), new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 700).executeForResult(channels.getExecutorService(), strategy));
+            Assert.assertEquals(1, established.get());
+
+            final ManagementChannel first = strategy.getChannel();
+            first.close();
+            //The strategy notices the closed channel asynchronously, and then establishes a new one
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (strategy.getChannel() == first && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertNotSame(first, strategy.getChannel());
+            Assert.assertEquals(2, established.get());
+            Assert.assertEquals(Integer.valueOf(1600), new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 800).executeForResult(channels.getExecutorService(), strategy));
+            Assert.assertEquals(2, established.get());
+        } finally {
+            strategy.close();
+        }
+    }
+
     @Test
     public void testMissingOperationHandler() throws Exception {
         ManagementChannel channel = channels.getServerChannel();
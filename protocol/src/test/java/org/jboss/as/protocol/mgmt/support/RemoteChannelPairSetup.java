@@ -63,8 +63,9 @@ public class RemoteChannelPairSetup implements RemotingChannelPairSetup {
     protected ExecutorService executorService;
     protected ManagementChannel serverChannel;
     protected ManagementChannel clientChannel;
+    private ProtocolChannelClient<ManagementChannel> client;
 
-    final CountDownLatch clientConnectedLatch = new CountDownLatch(1);
+    volatile CountDownLatch clientConnectedLatch = new CountDownLatch(1);
 
     public ManagementChannel getServerChannel() {
         return serverChannel;
@@ -115,7 +116,7 @@ public class RemoteChannelPairSetup implements RemotingChannelPairSetup {
         configuration.setChannelFactory(new ManagementChannelFactory());
         configuration.setOptionMap(OptionMap.create(Options.SASL_POLICY_NOANONYMOUS, Boolean.FALSE));
 
-        ProtocolChannelClient<ManagementChannel> client = ProtocolChannelClient.create(configuration);
+        client = ProtocolChannelClient.create(configuration);
         client.connect(new PasswordClientCallbackHandler("TestUser", "localhost.localdomain", "TestUserPassword".toCharArray()));
         clientChannel = client.openChannel(TEST_CHANNEL);
         try {
@@ -125,6 +126,23 @@ public class RemoteChannelPairSetup implements RemotingChannelPairSetup {
         }
     }
 
+    /**
+     * Open another channel on the client connection, which replaces the current client and server channels.
+     *
+     * @return the new client channel
+     */
+    public ManagementChannel openClientChannel() throws IOException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        clientConnectedLatch = latch;
+        clientChannel = client.openChannel(TEST_CHANNEL);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return clientChannel;
+    }
+
     public void stopChannels() {
         IoUtils.safeClose(clientChannel);
         IoUtils.safeClose(serverChannel);
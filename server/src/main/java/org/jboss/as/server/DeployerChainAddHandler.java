@@ -49,22 +49,51 @@ public class DeployerChainAddHandler implements OperationStepHandler, Descriptio
     static final String NAME = "add-deployer-chains";
     static final DeployerChainAddHandler INSTANCE = new DeployerChainAddHandler();
 
-    static final ThreadLocal<EnumMap<Phase, Set<RegisteredProcessor>>> DEPLOYERS = new ThreadLocal<EnumMap<Phase, Set<RegisteredProcessor>>>() {
-        protected EnumMap<Phase, Set<RegisteredProcessor>> initialValue() {
-            final EnumMap<Phase, Set<RegisteredProcessor>> deployers = new EnumMap<Phase, Set<RegisteredProcessor>>(Phase.class);
-            for (Phase phase : Phase.values()) {
-                deployers.put(phase, new TreeSet<RegisteredProcessor>());
-            }
-            return deployers;
+    /**
+     * The processors registered during the boot, {@code null} outside of it. The map is handed over by the server for
+     * the duration of its boot rather than bound to a thread, since subsystems are booted by several threads; access
+     * to it must be synchronized on it.
+     */
+    private static volatile EnumMap<Phase, Set<RegisteredProcessor>> deployers;
+
+    /**
+     * Create the map collecting the processors registered during a boot.
+     *
+     * @return the map
+     */
+    static EnumMap<Phase, Set<RegisteredProcessor>> createDeployers() {
+        final EnumMap<Phase, Set<RegisteredProcessor>> deployers = new EnumMap<Phase, Set<RegisteredProcessor>>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            deployers.put(phase, new TreeSet<RegisteredProcessor>());
         }
-    };
+        return deployers;
+    }
+
+    /**
+     * Set the map collecting the processors registered during the boot, or clear it once the boot is complete.
+     *
+     * @param deployerMap the map, or {@code null}
+     */
+    static void setDeployers(final EnumMap<Phase, Set<RegisteredProcessor>> deployerMap) {
+        deployers = deployerMap;
+    }
 
     static void addDeploymentProcessor(Phase phase, int priority, DeploymentUnitProcessor processor) {
-        final EnumMap<Phase, Set<RegisteredProcessor>> deployerMap = DEPLOYERS.get();
+        final EnumMap<Phase, Set<RegisteredProcessor>> deployerMap = deployers;
+        if (deployerMap == null) {
+            // the deployment chains are only assembled during boot
+            return;
+        }
+        addDeploymentProcessor(deployerMap, phase, priority, processor);
+    }
+
+    static void addDeploymentProcessor(EnumMap<Phase, Set<RegisteredProcessor>> deployerMap, Phase phase, int priority, DeploymentUnitProcessor processor) {
         if (deployerMap == null) {
             throw new IllegalStateException("No deployers set");
         }
-        deployerMap.get(phase).add(new RegisteredProcessor(priority, processor));
+        synchronized (deployerMap) {
+            deployerMap.get(phase).add(new RegisteredProcessor(priority, processor));
+        }
     }
 
     static ModelNode OPERATION = new ModelNode();
@@ -77,19 +106,21 @@ public class DeployerChainAddHandler implements OperationStepHandler, Descriptio
         if(context.getType() == OperationContext.Type.SERVER) {
             context.addStep(new OperationStepHandler() {
                 public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
-                    final EnumMap<Phase, Set<RegisteredProcessor>> deployerMap = DEPLOYERS.get();
+                    final EnumMap<Phase, Set<RegisteredProcessor>> deployerMap = deployers;
                     if (deployerMap == null) {
                         throw new IllegalStateException("No deployers set");
                     }
                     final EnumMap<Phase, List<DeploymentUnitProcessor>> finalDeployers = new EnumMap<Phase, List<DeploymentUnitProcessor>>(Phase.class);
                     final List<DeploymentUnitProcessor> processorList = new ArrayList<DeploymentUnitProcessor>(256);
-                    for (Phase phase : Phase.values()) {
-                        processorList.clear();
-                        final Set<RegisteredProcessor> processorSet = deployerMap.get(phase);
-                        for (RegisteredProcessor processor : processorSet) {
-                            processorList.add(processor.getProcessor());
+                    synchronized (deployerMap) {
+                        for (Phase phase : Phase.values()) {
+                            processorList.clear();
+                            final Set<RegisteredProcessor> processorSet = deployerMap.get(phase);
+                            for (RegisteredProcessor processor : processorSet) {
+                                processorList.add(processor.getProcessor());
+                            }
+                            finalDeployers.put(phase, Arrays.asList(processorList.toArray(new DeploymentUnitProcessor[processorList.size()])));
                         }
-                        finalDeployers.put(phase, Arrays.asList(processorList.toArray(new DeploymentUnitProcessor[processorList.size()])));
                     }
                     final ServiceVerificationHandler verificationHandler = new ServiceVerificationHandler();
                     DeployerChainsService.addService(context.getServiceTarget(), finalDeployers, verificationHandler);
@@ -35,4 +35,8 @@ public final class ServerDescriptionConstants {
     public static final String PROCESS_TYPE = "process-type";
 
     public static final String LAUNCH_TYPE = "launch-type";
+
+    public static final String CONTENT_REPOSITORY_SIZE = "content-repository-size";
+
+    public static final String CONTENT_REPOSITORY_RECLAIMED_BYTES = "content-repository-reclaimed-bytes";
 }
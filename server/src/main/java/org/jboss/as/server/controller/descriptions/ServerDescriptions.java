@@ -18,16 +18,22 @@
  */
 package org.jboss.as.server.controller.descriptions;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
+import org.jboss.as.controller.descriptions.common.DeploymentDescription;
+import org.jboss.as.server.deployment.DeploymentAnnotationIndexCacheHandler;
+import org.jboss.as.server.deployment.DeploymentTimingsHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
 import org.jboss.as.server.operations.ServerReloadHandler;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * Model descriptions for deployment resources.
@@ -41,6 +47,18 @@ public class ServerDescriptions {
     private ServerDescriptions() {
     }
 
+    public static final ModelNode getDeploymentDescription(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode root = DeploymentDescription.getDeploymentDescription(locale, true, true);
+        root.get(ATTRIBUTES, DeploymentAnnotationIndexCacheHandler.HITS, DESCRIPTION).set(bundle.getString("deployment.annotation-index-cache-hits"));
+        root.get(ATTRIBUTES, DeploymentAnnotationIndexCacheHandler.HITS, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, DeploymentAnnotationIndexCacheHandler.MISSES, DESCRIPTION).set(bundle.getString("deployment.annotation-index-cache-misses"));
+        root.get(ATTRIBUTES, DeploymentAnnotationIndexCacheHandler.MISSES, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, DeploymentTimingsHandler.ATTRIBUTE_NAME, DESCRIPTION).set(bundle.getString("deployment.deployment-timings"));
+        root.get(ATTRIBUTES, DeploymentTimingsHandler.ATTRIBUTE_NAME, TYPE).set(ModelType.OBJECT);
+        return root;
+    }
+
     public static final ModelNode getRemoveDeploymentOperation(Locale locale) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
@@ -21,6 +21,8 @@
  */package org.jboss.as.server.controller.descriptions;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.*;
+import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.CONTENT_REPOSITORY_RECLAIMED_BYTES;
+import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.CONTENT_REPOSITORY_SIZE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.LAUNCH_TYPE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.PROCESS_TYPE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.PROFILE_NAME;
@@ -89,6 +91,14 @@ public class ServerRootDescription {
         root.get(ATTRIBUTES, LAUNCH_TYPE, ALLOWED).add(ServerEnvironment.LaunchType.STANDALONE.toString());
         root.get(ATTRIBUTES, LAUNCH_TYPE, ALLOWED).add(ServerEnvironment.LaunchType.EMBEDDED.toString());
 
+        root.get(ATTRIBUTES, CONTENT_REPOSITORY_SIZE, DESCRIPTION).set(bundle.getString("server.content-repository-size"));
+        root.get(ATTRIBUTES, CONTENT_REPOSITORY_SIZE, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, CONTENT_REPOSITORY_SIZE, REQUIRED).set(false);
+
+        root.get(ATTRIBUTES, CONTENT_REPOSITORY_RECLAIMED_BYTES, DESCRIPTION).set(bundle.getString("server.content-repository-reclaimed-bytes"));
+        root.get(ATTRIBUTES, CONTENT_REPOSITORY_RECLAIMED_BYTES, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, CONTENT_REPOSITORY_RECLAIMED_BYTES, REQUIRED).set(false);
+
         root.get(OPERATIONS);
 
         root.get(CHILDREN, EXTENSION, DESCRIPTION).set(bundle.getString("server.extension"));
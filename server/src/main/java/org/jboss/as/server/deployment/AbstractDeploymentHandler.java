@@ -23,6 +23,7 @@ package org.jboss.as.server.deployment;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ARCHIVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BYTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
@@ -30,9 +31,12 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REL
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.URL;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
@@ -96,7 +100,7 @@ abstract class AbstractDeploymentHandler {
             final String urlSpec = operation.get(URL).asString();
             try {
                 message = "Invalid url stream.";
-                in = new URL(urlSpec).openStream();
+                in = openStream(new URL(urlSpec));
             } catch (MalformedURLException e) {
                 throw createFailureException(message);
             } catch (IOException e) {
@@ -109,6 +113,39 @@ abstract class AbstractDeploymentHandler {
         return in;
     }
 
+    /**
+     * Opens a stream to the given url. A local file is opened as a {@link FileInputStream}, which the content
+     * repository can copy without going through the heap.
+     */
+    protected static InputStream openStream(final URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new FileInputStream(new File(url.toURI()));
+            } catch (URISyntaxException ignore) {
+                // not a valid file url, leave it to the url handler
+            } catch (IllegalArgumentException ignore) {
+                // e.g. a url with an authority
+            }
+        }
+        return url.openStream();
+    }
+
+    /**
+     * Gets the hash of the managed content of a deployment.
+     *
+     * @param model the model of the deployment
+     * @return the hash, or {@code null} if the deployment has unmanaged content
+     */
+    protected static byte[] getManagedContentHash(final ModelNode model) {
+        if (model.hasDefined(CONTENT)) {
+            final ModelNode contentItem = model.get(CONTENT).get(0);
+            if (contentItem.hasDefined(HASH)) {
+                return contentItem.get(HASH).asBytes();
+            }
+        }
+        return null;
+    }
+
     /**
      * Checks to see if a valid deployment parameter has been defined.
      *
@@ -43,6 +43,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.vfs.VirtualFile;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.Manifest;
 
 /**
@@ -95,6 +96,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<ServiceVerificationHandler> SERVICE_VERIFICATION_HANDLER = AttachmentKey.create(ServiceVerificationHandler.class);
 
+    /**
+     * The time the deployment unit spent in each of the phases and deployment unit processors it has completed.
+     */
+    public static final AttachmentKey<DeploymentTimings> DEPLOYMENT_TIMINGS = AttachmentKey.create(DeploymentTimings.class);
+
     //
     // STRUCTURE
     //
@@ -171,6 +177,18 @@ public final class Attachments {
      */
     public static final AttachmentKey<AttachmentList<String>> INDEX_IGNORE_PATHS = AttachmentKey.createList(String.class);
 
+    /**
+     * The number of resource roots of a top level deployment and its sub deployments whose annotation index was
+     * found in the annotation index cache.
+     */
+    public static final AttachmentKey<AtomicInteger> ANNOTATION_INDEX_CACHE_HITS = AttachmentKey.create(AtomicInteger.class);
+
+    /**
+     * The number of resource roots of a top level deployment and its sub deployments which had to be indexed
+     * because their annotation index was not found in the annotation index cache.
+     */
+    public static final AttachmentKey<AtomicInteger> ANNOTATION_INDEX_CACHE_MISSES = AttachmentKey.create(AtomicInteger.class);
+
     /**
      * Flag to determine whether to process the child annotation indexes as part of the parent deployment.
      * Ex.  An EAR deployment should not processes nested JAR index when checking for deployable annotations.
@@ -165,6 +165,7 @@ public class DeploymentAddHandler implements OperationStepHandler, DescriptionPr
             final String relativeTo = asString(contentItemNode, RELATIVE_TO);
             final boolean archive = contentItemNode.require(ARCHIVE).asBoolean();
             contentItem = new DeploymentHandlerUtil.ContentItem(path, relativeTo, archive);
+            hash = null;
         }
 
         final Resource resource = context.createResource(PathAddress.EMPTY_ADDRESS);
@@ -180,6 +181,11 @@ public class DeploymentAddHandler implements OperationStepHandler, DescriptionPr
             DeploymentHandlerUtil.deploy(context, runtimeName, name, contentItem);
         }
 
-        context.completeStep();
+        if (hash != null) {
+            contentRepository.addContentReference(hash);
+        }
+        if (context.completeStep() == OperationContext.ResultAction.ROLLBACK && hash != null) {
+            contentRepository.removeContentReference(hash);
+        }
     }
 }
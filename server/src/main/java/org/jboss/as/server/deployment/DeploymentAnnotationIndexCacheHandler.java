@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reports how many resource roots of a deployment had their annotation index read from the annotation index cache,
+ * and how many had to be indexed.
+ */
+public class DeploymentAnnotationIndexCacheHandler implements OperationStepHandler {
+    public static final String HITS = "annotation-index-cache-hits";
+    public static final String MISSES = "annotation-index-cache-misses";
+    public static final OperationStepHandler INSTANCE = new DeploymentAnnotationIndexCacheHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        final PathElement element = address.getLastElement();
+        final AttachmentKey<AtomicInteger> key = HITS.equals(operation.require(NAME).asString())
+                ? Attachments.ANNOTATION_INDEX_CACHE_HITS : Attachments.ANNOTATION_INDEX_CACHE_MISSES;
+
+        context.addStep(new OperationStepHandler() {
+                    @Override
+                    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                        final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(element.getValue()));
+                        final DeploymentUnit deploymentUnit = controller != null ? ((AbstractDeploymentUnitService) controller.getService()).getValue() : null;
+                        final AtomicInteger counter = deploymentUnit != null ? deploymentUnit.getAttachment(key) : null;
+                        if (counter != null) {
+                            context.getResult().set(counter.get());
+                        }
+                        context.completeStep();
+                    }
+                }, OperationContext.Stage.RUNTIME);
+        context.completeStep();
+    }
+}
@@ -56,6 +56,7 @@ import static org.jboss.as.server.deployment.AbstractDeploymentHandler.CONTENT_A
 import static org.jboss.as.server.deployment.AbstractDeploymentHandler.asString;
 import static org.jboss.as.server.deployment.AbstractDeploymentHandler.createFailureException;
 import static org.jboss.as.server.deployment.AbstractDeploymentHandler.getInputStream;
+import static org.jboss.as.server.deployment.AbstractDeploymentHandler.getManagedContentHash;
 import static org.jboss.as.server.deployment.AbstractDeploymentHandler.hasValidContentAdditionParameterDefined;
 import static org.jboss.as.server.deployment.AbstractDeploymentHandler.validateOnePieceOfContent;
 import org.jboss.as.server.deployment.repository.api.ContentRepository;
@@ -126,6 +127,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler, Descr
         }
 
         final ModelNode replaceNode = context.readModelForUpdate(address);
+        final byte[] replacedHash = getManagedContentHash(replaceNode);
         final String replacedRuntimeName = replaceNode.require(RUNTIME_NAME).asString();
         final String runtimeName = operation.hasDefined(RUNTIME_NAME) ? operation.get(RUNTIME_NAME).asString() : replaceNode.require(RUNTIME_NAME).asString();
 
@@ -163,6 +165,7 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler, Descr
             final String relativeTo = asString(contentItemNode, RELATIVE_TO);
             final boolean archive = contentItemNode.require(ARCHIVE).asBoolean();
             contentItem = new DeploymentHandlerUtil.ContentItem(path, relativeTo, archive);
+            hash = null;
         }
 
         boolean start = replaceNode.get(ENABLED).asBoolean();
@@ -179,7 +182,17 @@ public class DeploymentFullReplaceHandler implements OperationStepHandler, Descr
         if (start) {
             DeploymentHandlerUtil.replace(context, replaceNode, runtimeName, name, replacedRuntimeName, contentItem);
         }
-        context.completeStep();
+
+        if (hash != null) {
+            contentRepository.addContentReference(hash);
+        }
+        if (context.completeStep() == OperationContext.ResultAction.ROLLBACK) {
+            if (hash != null) {
+                contentRepository.removeContentReference(hash);
+            }
+        } else if (replacedHash != null) {
+            contentRepository.removeContentReference(replacedHash);
+        }
     }
 
     private static void removeAttributes(final ModelNode node, final Iterable<String> attributeNames) {
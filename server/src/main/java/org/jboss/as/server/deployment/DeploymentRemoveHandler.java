@@ -29,7 +29,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+import static org.jboss.as.server.deployment.AbstractDeploymentHandler.getManagedContentHash;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.deployment.repository.api.ContentRepository;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.ServiceName;
@@ -45,9 +47,10 @@ public class DeploymentRemoveHandler implements OperationStepHandler, Descriptio
 
     public static final String OPERATION_NAME = REMOVE;
 
-    public static final DeploymentRemoveHandler INSTANCE = new DeploymentRemoveHandler();
+    private final ContentRepository contentRepository;
 
-    private DeploymentRemoveHandler() {
+    public DeploymentRemoveHandler(final ContentRepository contentRepository) {
+        this.contentRepository = contentRepository;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -86,7 +89,12 @@ public class DeploymentRemoveHandler implements OperationStepHandler, Descriptio
                 }
             }, OperationContext.Stage.RUNTIME);
         }
-        context.completeStep();
+        if (context.completeStep() != OperationContext.ResultAction.ROLLBACK) {
+            final byte[] hash = getManagedContentHash(model);
+            if (hash != null) {
+                contentRepository.removeContentReference(hash);
+            }
+        }
     }
 
     protected boolean requiresRuntime(OperationContext context) {
@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+
+/**
+ * The time a deployment unit spent in each deployment phase and in each deployment unit processor.
+ * <p>
+ * If the {@link #ALLOCATIONS_PROPERTY} system property is {@code true}, the number of bytes each processor allocated
+ * on the deployment thread is counted as well. This relies on the thread allocation counters of the HotSpot
+ * {@code ThreadMXBean} and is silently disabled on JVMs which do not provide them.
+ */
+public final class DeploymentTimings {
+
+    /**
+     * System property which enables counting the bytes allocated by each processor.
+     */
+    public static final String ALLOCATIONS_PROPERTY = "org.jboss.as.server.deployment.count-allocations";
+
+    /**
+     * System property setting the time in milliseconds above which a processor is reported as slow.
+     */
+    public static final String SLOW_PROCESSOR_THRESHOLD_PROPERTY = "org.jboss.as.server.deployment.slow-processor-threshold";
+
+    public static final String PHASES = "phases";
+    public static final String PROCESSORS = "processors";
+    public static final String PHASE = "phase";
+    public static final String PROCESSOR = "processor";
+    public static final String TIME = "time";
+    public static final String ALLOCATED_BYTES = "allocated-bytes";
+    public static final String SUBDEPLOYMENTS = "subdeployments";
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    private static final int SUMMARY_PROCESSORS = 5;
+
+    private static final long SLOW_PROCESSOR_THRESHOLD = Long.getLong(SLOW_PROCESSOR_THRESHOLD_PROPERTY, 5000L).longValue();
+
+    private static final AllocationCounter ALLOCATION_COUNTER = Boolean.getBoolean(ALLOCATIONS_PROPERTY) ? AllocationCounter.create() : null;
+
+    private final Map<Phase, Long> phases = new EnumMap<Phase, Long>(Phase.class);
+    private final List<ProcessorTime> processors = new ArrayList<ProcessorTime>();
+
+    DeploymentTimings() {
+    }
+
+    static DeploymentTimings get(final DeploymentUnit deploymentUnit) {
+        DeploymentTimings timings = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_TIMINGS);
+        if (timings == null) {
+            timings = new DeploymentTimings();
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_TIMINGS, timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Get the number of bytes allocated by the current thread so far.
+     *
+     * @return the number of bytes, or {@code -1} if allocations are not counted
+     */
+    static long allocatedBytes() {
+        return ALLOCATION_COUNTER == null ? -1L : ALLOCATION_COUNTER.getAllocatedBytes();
+    }
+
+    /**
+     * Forget the times recorded for a phase which is about to run again.
+     */
+    synchronized void startPhase(final Phase phase) {
+        phases.remove(phase);
+        final Iterator<ProcessorTime> iterator = processors.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().phase == phase) {
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized void processorCompleted(final Phase phase, final DeploymentUnitProcessor processor, final long elapsed, final long allocated) {
+        processors.add(new ProcessorTime(phase, processor.getClass().getName(), TimeUnit.NANOSECONDS.toMillis(elapsed), allocated));
+    }
+
+    synchronized void phaseCompleted(final Phase phase, final long elapsed) {
+        phases.put(phase, Long.valueOf(TimeUnit.NANOSECONDS.toMillis(elapsed)));
+    }
+
+    /**
+     * Get the time in milliseconds spent in each of the completed phases.
+     *
+     * @return a copy of the phase times
+     */
+    public synchronized Map<Phase, Long> getPhaseTimes() {
+        return new EnumMap<Phase, Long>(phases);
+    }
+
+    /**
+     * Get the total time in milliseconds spent in the completed phases.
+     *
+     * @return the total time
+     */
+    public synchronized long getTotalTime() {
+        long total = 0;
+        for (Long time : phases.values()) {
+            total += time.longValue();
+        }
+        return total;
+    }
+
+    public synchronized ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        final ModelNode phaseNode = result.get(PHASES).setEmptyObject();
+        for (Map.Entry<Phase, Long> entry : phases.entrySet()) {
+            phaseNode.get(entry.getKey().name()).set(entry.getValue().longValue());
+        }
+        final ModelNode processorNode = result.get(PROCESSORS).setEmptyList();
+        for (ProcessorTime processor : processors) {
+            final ModelNode node = new ModelNode();
+            node.get(PHASE).set(processor.phase.name());
+            node.get(PROCESSOR).set(processor.processor);
+            node.get(TIME).set(processor.time);
+            if (processor.allocated >= 0) {
+                node.get(ALLOCATED_BYTES).set(processor.allocated);
+            }
+            processorNode.add(node);
+        }
+        return result;
+    }
+
+    /**
+     * Log a summary of the timings of a deployment unit which has completed its last phase.  The summary is logged
+     * at {@code INFO} level if one of the processors took longer than the {@link #SLOW_PROCESSOR_THRESHOLD_PROPERTY
+     * slow processor threshold}, otherwise at {@code DEBUG} level.
+     */
+    synchronized void logSummary(final DeploymentUnit deploymentUnit) {
+        final boolean slow = hasSlowProcessor(SLOW_PROCESSOR_THRESHOLD);
+        if (!slow && !log.isDebugEnabled()) {
+            return;
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (String processor : getSlowestProcessors(SUMMARY_PROCESSORS)) {
+            builder.append(builder.length() == 0 ? "" : ", ").append(processor);
+        }
+        if (slow) {
+            log.infof("Deployment of %s took %d ms (phases %s), slowest processors: %s", deploymentUnit, getTotalTime(), phases, builder);
+        } else {
+            log.debugf("Deployment of %s took %d ms (phases %s), slowest processors: %s", deploymentUnit, getTotalTime(), phases, builder);
+        }
+    }
+
+    /**
+     * Whether one of the processors took longer than the given threshold.
+     *
+     * @param threshold the threshold in milliseconds
+     * @return {@code true} if a processor took longer
+     */
+    synchronized boolean hasSlowProcessor(final long threshold) {
+        for (ProcessorTime processor : processors) {
+            if (processor.time > threshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Describe the processors which took the most time, slowest first.
+     *
+     * @param count the maximum number of processors
+     * @return the descriptions of the processors
+     */
+    synchronized List<String> getSlowestProcessors(final int count) {
+        final List<ProcessorTime> slowest = new ArrayList<ProcessorTime>(processors);
+        Collections.sort(slowest, new Comparator<ProcessorTime>() {
+            public int compare(final ProcessorTime o1, final ProcessorTime o2) {
+                return o1.time < o2.time ? 1 : o1.time == o2.time ? 0 : -1;
+            }
+        });
+        final List<String> result = new ArrayList<String>();
+        for (int i = 0; i < slowest.size() && i < count; i++) {
+            result.add(slowest.get(i).toString());
+        }
+        return result;
+    }
+
+    private static final class ProcessorTime {
+        private final Phase phase;
+        private final String processor;
+        private final long time;
+        private final long allocated;
+
+        ProcessorTime(final Phase phase, final String processor, final long time, final long allocated) {
+            this.phase = phase;
+            this.processor = processor;
+            this.time = time;
+            this.allocated = allocated;
+        }
+
+        public String toString() {
+            return allocated >= 0
+                    ? String.format("%s (%s) %d ms, %d bytes", processor, phase, time, allocated)
+                    : String.format("%s (%s) %d ms", processor, phase, time);
+        }
+    }
+
+    /**
+     * Reads the allocation counter of the current thread through {@code com.sun.management.ThreadMXBean}, which is
+     * accessed reflectively because it is neither part of every JVM nor visible to this module.
+     */
+    private static final class AllocationCounter {
+        private final ThreadMXBean threadMXBean;
+        private final Method getThreadAllocatedBytes;
+
+        private AllocationCounter(final ThreadMXBean threadMXBean, final Method getThreadAllocatedBytes) {
+            this.threadMXBean = threadMXBean;
+            this.getThreadAllocatedBytes = getThreadAllocatedBytes;
+        }
+
+        static AllocationCounter create() {
+            try {
+                final Class<?> type = Class.forName("com.sun.management.ThreadMXBean", false, null);
+                final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+                if (!type.isInstance(threadMXBean)) {
+                    return null;
+                }
+                if (!((Boolean) type.getMethod("isThreadAllocatedMemorySupported").invoke(threadMXBean)).booleanValue()) {
+                    return null;
+                }
+                type.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threadMXBean, Boolean.TRUE);
+                return new AllocationCounter(threadMXBean, type.getMethod("getThreadAllocatedBytes", long.class));
+            } catch (Throwable t) {
+                log.debugf(t, "Allocation counters are not available");
+                return null;
+            }
+        }
+
+        long getAllocatedBytes() {
+            try {
+                return ((Long) getThreadAllocatedBytes.invoke(threadMXBean, Long.valueOf(Thread.currentThread().getId()))).longValue();
+            } catch (Throwable t) {
+                return -1L;
+            }
+        }
+    }
+}
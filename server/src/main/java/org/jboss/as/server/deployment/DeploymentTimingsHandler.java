@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Reports the time a deployment and its sub deployments spent in each deployment phase and deployment unit processor.
+ * Read on a sub deployment, it only reports the times of that sub deployment.
+ */
+public class DeploymentTimingsHandler implements OperationStepHandler {
+    public static final String ATTRIBUTE_NAME = "deployment-timings";
+    public static final OperationStepHandler INSTANCE = new DeploymentTimingsHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ServiceName serviceName = getDeploymentUnitServiceName(PathAddress.pathAddress(operation.get(OP_ADDR)));
+
+        context.addStep(new OperationStepHandler() {
+                    @Override
+                    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                        final ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+                        final DeploymentUnit deploymentUnit = controller != null ? ((AbstractDeploymentUnitService) controller.getService()).getValue() : null;
+                        final DeploymentTimings timings = deploymentUnit != null ? deploymentUnit.getAttachment(Attachments.DEPLOYMENT_TIMINGS) : null;
+                        if (timings != null) {
+                            final ModelNode result = timings.toModelNode();
+                            for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+                                final DeploymentTimings subTimings = subDeployment.getAttachment(Attachments.DEPLOYMENT_TIMINGS);
+                                if (subTimings != null) {
+                                    result.get(DeploymentTimings.SUBDEPLOYMENTS, subDeployment.getName()).set(subTimings.toModelNode());
+                                }
+                            }
+                            context.getResult().set(result);
+                        }
+                        context.completeStep();
+                    }
+                }, OperationContext.Stage.RUNTIME);
+        context.completeStep();
+    }
+
+    /**
+     * Get the name of the service of the deployment unit at an address, which is either a deployment or one of its
+     * sub deployments.
+     */
+    static ServiceName getDeploymentUnitServiceName(final PathAddress address) {
+        final PathElement element = address.getLastElement();
+        if (address.size() > 1 && DeploymentModelUtils.SUB_DEPLOYMENT.equals(element.getKey())) {
+            return Services.deploymentUnitName(address.getElement(0).getValue(), element.getValue());
+        }
+        return Services.deploymentUnitName(element.getValue());
+    }
+}
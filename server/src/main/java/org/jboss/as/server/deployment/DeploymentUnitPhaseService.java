@@ -22,7 +22,10 @@
 
 package org.jboss.as.server.deployment;
 
+import org.jboss.as.server.deployment.module.ModuleDependency;
+import org.jboss.as.server.deployment.module.ModuleSpecification;
 import org.jboss.logging.Logger;
+import org.jboss.modules.ModuleIdentifier;
 import org.jboss.msc.service.DelegatingServiceRegistry;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
@@ -35,11 +38,19 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 
 /**
  * A service which executes a particular phase of deployment.
+ * <p>
+ * A sub deployment normally starts a phase only once its parent has started that phase, which in turn waits for all
+ * sub deployments to complete the previous phase. Sub deployments which are not linked to their siblings through
+ * {@code Class-Path} entries or {@code jboss-deployment-structure.xml} dependencies move through the
+ * {@link Phase#DEPENDENCIES} and {@link Phase#CONFIGURE_MODULE} phases without waiting for their siblings.
+ * The time spent in each phase and processor is recorded in {@link Attachments#DEPLOYMENT_TIMINGS}.
  *
  * @param <T> the public type of this deployment unit phase
  *
@@ -109,10 +120,18 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final DeploymentTimings timings = DeploymentTimings.get(deploymentUnit);
+        timings.startPhase(phase);
+        final long startTime = System.nanoTime();
         while (iterator.hasNext()) {
             final DeploymentUnitProcessor processor = iterator.next();
             try {
+                final long processorStartTime = System.nanoTime();
+                final long allocatedBefore = DeploymentTimings.allocatedBytes();
                 processor.deploy(processorContext);
+                final long allocatedAfter = DeploymentTimings.allocatedBytes();
+                timings.processorCompleted(phase, processor, System.nanoTime() - processorStartTime,
+                        allocatedBefore >= 0 && allocatedAfter >= 0 ? allocatedAfter - allocatedBefore : -1L);
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
                     final DeploymentUnitProcessor prev = iterator.previous();
@@ -121,6 +140,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw new StartException(String.format("Failed to process phase %s of %s", phase, deploymentUnit), e);
             }
         }
+        timings.phaseCompleted(phase, System.nanoTime() - startTime);
+        if (nextPhase == null) {
+            timings.logSummary(deploymentUnit);
+        }
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
             phaseServiceBuilder.addDependency(context.getController().getName());
@@ -141,7 +164,9 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 }
             }
             if (deploymentUnit.getParent() != null) {
-                phaseServiceBuilder.addDependencies(Services.deploymentUnitName(deploymentUnit.getParent().getName(), nextPhase));
+                if (!isUnsynchronizedPhase(nextPhase) || isLinkedToSiblings(deploymentUnit)) {
+                    phaseServiceBuilder.addDependencies(Services.deploymentUnitName(deploymentUnit.getParent().getName(), nextPhase));
+                }
             }
             List<DeploymentUnit> subDeployments = deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS);
             // make sure all sub deployments have finished this phase before moving to the next one
@@ -153,6 +178,57 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    /**
+     * Phases which sub deployments that are not linked to their siblings may enter before their parent does.  The
+     * processors of the other phases rely on work the parent does for all of its sub deployments in the same phase.
+     */
+    private static boolean isUnsynchronizedPhase(final Phase phase) {
+        return phase == Phase.DEPENDENCIES || phase == Phase.CONFIGURE_MODULE;
+    }
+
+    /**
+     * Determine whether the module of a sub deployment depends on the module of one of its siblings.  Unless the
+     * parent isolates its sub deployments, {@link org.jboss.as.server.deployment.module.SubDeploymentDependencyProcessor}
+     * makes every sub deployment depend on all of its siblings which are not private.  Otherwise a sub deployment only
+     * depends on siblings it refers to through a {@code Class-Path} entry or a dependency declared in
+     * {@code jboss-deployment-structure.xml}.  All of these are known once the sub deployment has completed its
+     * {@link Phase#PARSE} phase.
+     */
+    static boolean isLinkedToSiblings(final DeploymentUnit deploymentUnit) {
+        final ModuleSpecification parentModuleSpec = deploymentUnit.getParent().getAttachment(Attachments.MODULE_SPECIFICATION);
+        final boolean isolated = parentModuleSpec == null || parentModuleSpec.isSubDeploymentModulesIsolated();
+        final Set<ModuleIdentifier> siblings = new HashSet<ModuleIdentifier>();
+        for (DeploymentUnit sibling : deploymentUnit.getParent().getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            if (sibling == deploymentUnit) {
+                continue;
+            }
+            if (!isolated) {
+                final ModuleSpecification siblingModuleSpec = sibling.getAttachment(Attachments.MODULE_SPECIFICATION);
+                if (siblingModuleSpec != null && !siblingModuleSpec.isPrivateModule()) {
+                    return true;
+                }
+            }
+            final ModuleIdentifier identifier = sibling.getAttachment(Attachments.MODULE_IDENTIFIER);
+            if (identifier != null) {
+                siblings.add(identifier);
+            }
+        }
+        for (ModuleIdentifier identifier : deploymentUnit.getAttachmentList(Attachments.CLASS_PATH_ENTRIES)) {
+            if (siblings.contains(identifier)) {
+                return true;
+            }
+        }
+        final ModuleSpecification moduleSpec = deploymentUnit.getAttachment(Attachments.MODULE_SPECIFICATION);
+        if (moduleSpec != null) {
+            for (ModuleDependency dependency : moduleSpec.getUserDependencies()) {
+                if (siblings.contains(dependency.getIdentifier())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public synchronized void stop(final StopContext context) {
         final DeploymentUnit deploymentUnitContext = deploymentUnit;
         final DeployerChains chains = deployerChainsInjector.getValue();
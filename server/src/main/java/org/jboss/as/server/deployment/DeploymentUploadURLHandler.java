@@ -69,7 +69,7 @@ public class DeploymentUploadURLHandler
         String urlSpec = operation.get(URL).asString();
         try {
             URL url = new URL(urlSpec);
-            return url.openStream();
+            return AbstractDeploymentHandler.openStream(url);
         } catch (MalformedURLException e) {
             throw new RuntimeException(urlSpec + " is not a valid URL", e);
         } catch (IOException e) {
@@ -0,0 +1,263 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Persistent cache of the annotation indexes computed for deployment resource roots, so that unchanged archives
+ * do not have to be indexed again on redeploy or restart.
+ * <p>
+ * An index is stored under a key computed from the name and content of every class file in the resource root, along
+ * with the Jandex release writing the index. Hashing the class files is cheap compared to parsing them, and unlike
+ * their sizes and modification times it changes whenever a class does. The class files are hashed in ranges, which
+ * the {@link AnnotationIndexProcessor} hashes concurrently, and the key is computed from the hashes of the ranges. The
+ * cached indexes are evicted once they have not been used for {@link #MAX_AGE_PROPERTY a number of days}, or, least
+ * recently used first, when their total size grows beyond {@link #MAX_SIZE_PROPERTY a limit}.
+ */
+public class AnnotationIndexCache {
+
+    /**
+     * System property setting the maximum total size of the cached indexes, in bytes.
+     */
+    public static final String MAX_SIZE_PROPERTY = "org.jboss.as.server.annotation-index-cache.max-size";
+
+    /**
+     * System property setting the number of days an unused index is kept.
+     */
+    public static final String MAX_AGE_PROPERTY = "org.jboss.as.server.annotation-index-cache.max-age";
+
+    private static final Logger logger = Logger.getLogger(AnnotationIndexCache.class);
+
+    private static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+    private static final long DEFAULT_MAX_AGE = 30;
+    private static final String SUFFIX = ".idx";
+
+    /**
+     * Identifies the layout of the cache keys and the Jandex release writing the indexes, so that indexes stored by
+     * a different release, which may use a different index format, are never read.
+     */
+    private static final String INDEX_FORMAT = "ranged-content-sha1/" + getJandexVersion();
+
+    private static final FileFilter INDEX_FILES = new FileFilter() {
+        @Override
+        public boolean accept(File file) {
+            return file.isFile() && file.getName().endsWith(SUFFIX);
+        }
+    };
+
+    private static final Comparator<File> MOST_RECENTLY_USED_FIRST = new Comparator<File>() {
+        @Override
+        public int compare(File o1, File o2) {
+            final long l1 = o1.lastModified();
+            final long l2 = o2.lastModified();
+            return l1 > l2 ? -1 : (l1 == l2 ? 0 : 1);
+        }
+    };
+
+    private final File directory;
+    private final long maxSize;
+    private final long maxAge;
+
+    public AnnotationIndexCache(final File directory) {
+        this(directory, Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE), TimeUnit.DAYS.toMillis(Long.getLong(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE)));
+    }
+
+    public AnnotationIndexCache(final File directory, final long maxSize, final long maxAge) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Hash a range of the class files of a resource root.
+     *
+     * @param root the resource root
+     * @param classFiles the class files of the range
+     * @return the hash of the names and contents of the class files
+     * @throws IOException if a class file could not be read
+     */
+    public static byte[] hashClassFiles(final VirtualFile root, final List<VirtualFile> classFiles) throws IOException {
+        final MessageDigest digest = createDigest();
+        final byte[] buffer = new byte[8192];
+        for (VirtualFile classFile : classFiles) {
+            digest.update(classFile.getPathNameRelativeTo(root).getBytes("UTF-8"));
+            // separates the name from the content
+            digest.update((byte) 0);
+            final InputStream in = classFile.openStream();
+            try {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Compute the key under which the index of a resource root is cached.
+     *
+     * @param hashes the {@link #hashClassFiles(VirtualFile, List) hashes} of the ranges of class files of the resource
+     *               root which are indexed, in order
+     * @return the key
+     */
+    public static String computeKey(final List<byte[]> hashes) {
+        final MessageDigest digest = createDigest();
+        try {
+            digest.update(INDEX_FORMAT.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        for (byte[] hash : hashes) {
+            digest.update(hash);
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get a cached index.
+     *
+     * @param key the key of the index
+     * @return the index, or {@code null} if it is not cached
+     */
+    public Index get(final String key) {
+        final File file = new File(directory, key + SUFFIX);
+        if (file.exists()) {
+            try {
+                final Index index = read(file);
+                // the modification time doubles as the last time the index was used
+                file.setLastModified(System.currentTimeMillis());
+                return index;
+            } catch (Exception e) {
+                logger.debugf(e, "Could not read cached annotation index %s", file);
+                file.delete();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Store an index in the cache, evicting old entries as needed.
+     *
+     * @param key the key of the index
+     * @param index the index
+     */
+    public void put(final String key, final Index index) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            logger.debugf("Could not create annotation index cache directory %s", directory);
+            return;
+        }
+        final File file = new File(directory, key + SUFFIX);
+        File tmp = null;
+        OutputStream out = null;
+        try {
+            tmp = File.createTempFile(key, ".tmp", directory);
+            out = new BufferedOutputStream(new FileOutputStream(tmp));
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            // a concurrent put for the same key stored the same index
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            logger.debugf(e, "Could not store annotation index %s", file);
+            if (tmp != null) {
+                tmp.delete();
+            }
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+        evict();
+    }
+
+    private synchronized void evict() {
+        final File[] files = directory.listFiles(INDEX_FILES);
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, MOST_RECENTLY_USED_FIRST);
+        final long oldest = System.currentTimeMillis() - maxAge;
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+            if (size > maxSize || file.lastModified() < oldest) {
+                logger.tracef("Evicting cached annotation index %s", file);
+                file.delete();
+            }
+        }
+    }
+
+    private static String getJandexVersion() {
+        final Package pkg = Index.class.getPackage();
+        if (pkg != null && pkg.getImplementationVersion() != null) {
+            return pkg.getImplementationVersion();
+        }
+        // the jar name usually contains the version
+        final CodeSource codeSource = Index.class.getProtectionDomain().getCodeSource();
+        return codeSource != null && codeSource.getLocation() != null ? codeSource.getLocation().toString() : "unknown";
+    }
+
+    private static Index read(final File file) throws IOException {
+        final InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return new IndexReader(in).read();
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import java.security.AccessController;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Service providing the executor the {@link AnnotationIndexProcessor} indexes resource roots on. The threads are
+ * shut down when the service stops, e.g. when the server is reloaded.
+ */
+public class AnnotationIndexExecutorService implements Service<ExecutorService> {
+
+    private volatile ThreadPoolExecutor executor;
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("AnnotationIndex-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final ThreadPoolExecutor executor = this.executor;
+        this.executor = null;
+        executor.shutdownNow();
+    }
+
+    public ExecutorService getValue() throws IllegalStateException, IllegalArgumentException {
+        final ExecutorService executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException("Annotation index executor is not started");
+        }
+        return executor;
+    }
+}
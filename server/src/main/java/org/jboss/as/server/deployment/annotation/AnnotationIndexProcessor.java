@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -29,10 +30,14 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.Indexer;
 import org.jboss.logging.Logger;
+import org.jboss.msc.value.Value;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
@@ -42,12 +47,26 @@ import org.jboss.vfs.util.SuffixMatchFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * <p>
+ * If an executor is given, the resource roots of a deployment are indexed concurrently, and resource roots with
+ * more than {@link #CHUNK_SIZE_PROPERTY a number of} classes are split into several tasks. The classes indexed by
+ * the tasks of a resource root are merged in their original order, so the resulting index is the same as if the
+ * resource root had been indexed by a single {@link Indexer}. The class files are hashed for the
+ * {@link AnnotationIndexCache cache} key the same way, before any of them is indexed.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
@@ -56,6 +75,39 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
     private static final Logger logger = Logger.getLogger(AnnotationIndexProcessor.class);
 
+    /**
+     * System property setting the maximum number of classes of a single resource root indexed by one task.
+     */
+    public static final String CHUNK_SIZE_PROPERTY = "org.jboss.as.server.annotation-index.chunk-size";
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final AnnotationIndexCache cache;
+    private final Value<ExecutorService> executor;
+    private final int chunkSize;
+
+    public AnnotationIndexProcessor() {
+        this(null);
+    }
+
+    /**
+     * @param cache the cache to look up and store the computed indexes in, or {@code null} to always index
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache) {
+        this(cache, null);
+    }
+
+    /**
+     * @param cache the cache to look up and store the computed indexes in, or {@code null} to always index
+     * @param executor the executor to index the resource roots on, or {@code null} to index them on the deployment thread.
+     *                 They are also indexed on the deployment thread while the executor is not available.
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache, final Value<ExecutorService> executor) {
+        this.cache = cache;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, Integer.getInteger(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE));
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -65,12 +117,22 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      *
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         final List<ResourceRoot> allResourceRoots = new ArrayList<ResourceRoot>();
-        final List<ResourceRoot> resourceRoots = phaseContext.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS);
+        final List<ResourceRoot> resourceRoots = deploymentUnit.getAttachment(Attachments.RESOURCE_ROOTS);
         if (resourceRoots != null) {
             allResourceRoots.addAll(resourceRoots);
         }
-        allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
+        allResourceRoots.add(deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT));
+
+        // the counters are kept on the top level deployment, which is processed before its sub deployments
+        final DeploymentUnit topLevelUnit = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        if (cache != null && deploymentUnit.getParent() == null) {
+            deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_CACHE_HITS, new AtomicInteger());
+            deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_CACHE_MISSES, new AtomicInteger());
+        }
+        // first find the resource roots which have to be indexed, then index them all at once
+        final List<PendingRoot> pendingRoots = new ArrayList<PendingRoot>();
         for (ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
@@ -103,7 +165,6 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             }
 
             final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
             try {
                 final VisitorAttributes visitorAttributes = new VisitorAttributes();
                 visitorAttributes.setLeavesOnly(true);
@@ -114,26 +175,237 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
                 });
 
                 final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
-                    try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    } catch (Exception e) {
-                        logger.warn("Could not index class " + classFile.getPathNameRelativeTo(virtualFile) + " in archive '" + virtualFile + "'", e);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
-                    }
-                }
-                final Index index = indexer.complete();
-                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-                logger.tracef("Generated index for archive %s", virtualFile);
+                final List<IndexTask> tasks = new ArrayList<IndexTask>();
+                int start = 0;
+                do {
+                    final int end = Math.min(start + chunkSize, classChildren.size());
+                    tasks.add(new IndexTask(virtualFile, classChildren.subList(start, end)));
+                    start = end;
+                } while (start < classChildren.size());
+                pendingRoots.add(new PendingRoot(resourceRoot, tasks));
             } catch (Throwable t) {
                 throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
             }
         }
+
+        if (cache != null) {
+            useCachedIndexes(pendingRoots, topLevelUnit);
+        }
+        final List<IndexTask> indexTasks = new ArrayList<IndexTask>();
+        for (PendingRoot pendingRoot : pendingRoots) {
+            indexTasks.addAll(pendingRoot.tasks);
+        }
+        runTasks(indexTasks);
+        for (PendingRoot pendingRoot : pendingRoots) {
+            final Index index;
+            if (pendingRoot.tasks.size() == 1) {
+                index = pendingRoot.tasks.get(0).indexer.complete();
+            } else {
+                final List<ClassInfo> classes = new ArrayList<ClassInfo>();
+                for (IndexTask task : pendingRoot.tasks) {
+                    classes.addAll(task.classes);
+                }
+                index = merge(classes);
+            }
+            pendingRoot.resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+            logger.tracef("Generated index for archive %s", pendingRoot.resourceRoot.getRoot());
+            if (pendingRoot.key != null) {
+                cache.put(pendingRoot.key, index);
+            }
+        }
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    /**
+     * Hash the class files of the pending resource roots, in the same ranges they are indexed in, and attach the
+     * cached indexes found for them. The resource roots whose index is cached are removed from the pending ones, the
+     * others get the key to store their index under.
+     */
+    private void useCachedIndexes(final List<PendingRoot> pendingRoots, final DeploymentUnit topLevelUnit) throws DeploymentUnitProcessingException {
+        final List<HashTask> hashTasks = new ArrayList<HashTask>();
+        for (PendingRoot pendingRoot : pendingRoots) {
+            hashTasks.addAll(pendingRoot.hashTasks);
+        }
+        runTasks(hashTasks);
+        for (Iterator<PendingRoot> iterator = pendingRoots.iterator(); iterator.hasNext();) {
+            final PendingRoot pendingRoot = iterator.next();
+            final List<byte[]> hashes = new ArrayList<byte[]>(pendingRoot.hashTasks.size());
+            for (HashTask task : pendingRoot.hashTasks) {
+                hashes.add(task.hash);
+            }
+            if (hashes.contains(null)) {
+                // a class file could not be read, indexing it logs why
+                continue;
+            }
+            final String key = AnnotationIndexCache.computeKey(hashes);
+            final Index cached = cache.get(key);
+            if (cached != null) {
+                pendingRoot.resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, cached);
+                increment(topLevelUnit, Attachments.ANNOTATION_INDEX_CACHE_HITS);
+                logger.tracef("Found cached index for archive %s", pendingRoot.resourceRoot.getRoot());
+                iterator.remove();
+                continue;
+            }
+            increment(topLevelUnit, Attachments.ANNOTATION_INDEX_CACHE_MISSES);
+            pendingRoot.key = key;
+        }
+    }
+
+    private void runTasks(final List<? extends Callable<?>> tasks) throws DeploymentUnitProcessingException {
+        final ExecutorService executor = getExecutor();
+        if (executor == null || tasks.size() < 2) {
+            for (Callable<?> task : tasks) {
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", e);
+                }
+            }
+            return;
+        }
+        final List<Future<?>> futures = new ArrayList<Future<?>>(tasks.size());
+        try {
+            for (Callable<?> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException("Interrupted while indexing deployment roots for annotations", e);
+        } catch (ExecutionException e) {
+            throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", e.getCause());
+        } catch (RuntimeException e) {
+            throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", e);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            return null;
+        }
+        try {
+            return executor.getValue();
+        } catch (IllegalStateException e) {
+            // the executor service is not started
+            return null;
+        }
+    }
+
+    /**
+     * Creates the index of the given classes, in the same order an {@link Indexer} indexing all of them would have
+     * recorded them in.
+     *
+     * @param classes the classes indexed by the tasks of a resource root, in the order of the tasks
+     * @return the index
+     */
+    static Index merge(final List<ClassInfo> classes) {
+        final Map<DotName, List<AnnotationInstance>> annotations = new HashMap<DotName, List<AnnotationInstance>>();
+        final Map<DotName, List<ClassInfo>> subclasses = new HashMap<DotName, List<ClassInfo>>();
+        final Map<DotName, ClassInfo> classesByName = new HashMap<DotName, ClassInfo>();
+        for (ClassInfo classInfo : classes) {
+            classesByName.put(classInfo.name(), classInfo);
+            final DotName superName = classInfo.superName();
+            if (superName != null) {
+                List<ClassInfo> list = subclasses.get(superName);
+                if (list == null) {
+                    list = new ArrayList<ClassInfo>();
+                    subclasses.put(superName, list);
+                }
+                list.add(classInfo);
+            }
+            for (Map.Entry<DotName, List<AnnotationInstance>> entry : classInfo.annotations().entrySet()) {
+                List<AnnotationInstance> list = annotations.get(entry.getKey());
+                if (list == null) {
+                    list = new ArrayList<AnnotationInstance>();
+                    annotations.put(entry.getKey(), list);
+                }
+                list.addAll(entry.getValue());
+            }
+        }
+        return Index.create(annotations, subclasses, classesByName);
+    }
+
+    private static void increment(final DeploymentUnit deploymentUnit, final AttachmentKey<AtomicInteger> key) {
+        final AtomicInteger counter = deploymentUnit.getAttachment(key);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    private static final class PendingRoot {
+        private final ResourceRoot resourceRoot;
+        private final List<IndexTask> tasks;
+        private final List<HashTask> hashTasks;
+        private String key;
+
+        private PendingRoot(final ResourceRoot resourceRoot, final List<IndexTask> tasks) {
+            this.resourceRoot = resourceRoot;
+            this.tasks = tasks;
+            this.hashTasks = new ArrayList<HashTask>(tasks.size());
+            for (IndexTask task : tasks) {
+                hashTasks.add(new HashTask(task.root, task.classFiles));
+            }
+        }
+    }
+
+    /**
+     * Hashes a range of the classes of a resource root for the cache key.
+     */
+    private static final class HashTask implements Callable<HashTask> {
+        private final VirtualFile root;
+        private final List<VirtualFile> classFiles;
+        private byte[] hash;
+
+        private HashTask(final VirtualFile root, final List<VirtualFile> classFiles) {
+            this.root = root;
+            this.classFiles = classFiles;
+        }
+
+        public HashTask call() {
+            try {
+                hash = AnnotationIndexCache.hashClassFiles(root, classFiles);
+            } catch (IOException e) {
+                logger.debugf(e, "Could not hash the classes of archive '%s'", root);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Indexes a range of the classes of a resource root.
+     */
+    private static final class IndexTask implements Callable<IndexTask> {
+        private final VirtualFile root;
+        private final List<VirtualFile> classFiles;
+        private final Indexer indexer = new Indexer();
+        private final List<ClassInfo> classes = new ArrayList<ClassInfo>();
+
+        private IndexTask(final VirtualFile root, final List<VirtualFile> classFiles) {
+            this.root = root;
+            this.classFiles = classFiles;
+        }
+
+        public IndexTask call() {
+            for (VirtualFile classFile : classFiles) {
+                InputStream inputStream = null;
+                try {
+                    inputStream = classFile.openStream();
+                    classes.add(indexer.index(inputStream));
+                } catch (Exception e) {
+                    logger.warn("Could not index class " + classFile.getPathNameRelativeTo(root) + " in archive '" + root + "'", e);
+                } finally {
+                    VFSUtils.safeClose(inputStream);
+                }
+            }
+            return this;
+        }
+    }
 }
@@ -19,7 +19,6 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.jboss.as.server.deployment.reflect;
 
 import org.jboss.invocation.proxy.MethodIdentifier;
@@ -32,118 +31,137 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * A short-lived index of all the declared fields and methods of a class.
  * <p/>
  * The ClassReflectionIndex is only available during the deployment.
+ * <p/>
+ * The fields, methods and constructors of the class are each only read and indexed the first time one of them is
+ * asked for. Methods and constructors are keyed by a compact signature string made of the method name and the
+ * parameter type names. The index may be used by several threads at once; threads which race to populate the
+ * same members build equal maps, one of which wins.
  *
  * @param <T> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ClassReflectionIndex<T> {
+
+    /**
+     * Approximate size of a map entry together with the header of its key string.
+     */
+    private static final int ENTRY_SIZE = 64;
+
+    /**
+     * Approximate size of a copied {@link Field}, {@link Method} or {@link Constructor} object.
+     */
+    private static final int MEMBER_SIZE = 96;
+
+    private static final Method[] NO_METHODS = new Method[0];
+
     private final Class<T> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<T>> constructors;
-    private final Map<ParamNameList, Constructor<T>> constructorsByTypeName;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
-    private final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName;
+    private volatile Map<String, Field> fields;
+    private volatile Map<String, Constructor<T>> constructors;
+    private volatile Methods methods;
 
-    @SuppressWarnings({"unchecked"})
     ClassReflectionIndex(final Class<T> indexedClass, final DeploymentReflectionIndex deploymentReflectionIndex) {
         this.indexedClass = indexedClass;
-        // -- fields --
-        final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
-        for (Field field : declaredFields) {
-            field.setAccessible(true);
-            fields.put(field.getName(), field);
-        }
-        this.fields = fields;
-        // -- methods --
-        final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
-        final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
-        for (Method method : declaredMethods) {
-            method.setAccessible(true);
-            addMethod(methods, method);
-            addMethodByTypeName(methodsByTypeName, method);
-        }
-
-        this.methods = methods;
-        this.methodsByTypeName = methodsByTypeName;
-        // -- constructors --
-        final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamNameList, Constructor<T>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<T>>();
-        final Map<ParamList, Constructor<T>> constructors = new HashMap<ParamList, Constructor<T>>();
-        for (Constructor<T> constructor : declaredConstructors) {
-            constructor.setAccessible(true);
-            Class<?>[] parameterTypes = constructor.getParameterTypes();
-            constructors.put(createParamList(parameterTypes), constructor);
-            constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
-        }
-        this.constructorsByTypeName = constructorsByTypeName;
-        this.constructors = constructors;
     }
 
-    private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
-    private static final ParamNameList EMPTY_NAMES = new ParamNameList(new String[0]);
-
-    private static void addMethod(Map<String, Map<ParamList, Map<Class<?>, Method>>> methods, Method method) {
-        final String name = method.getName();
-        Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
-            methods.put(name, nameMap = new HashMap<ParamList, Map<Class<?>, Method>>());
-        }
-        final Class<?>[] types = method.getParameterTypes();
-        final ParamList list = createParamList(types);
-        Map<Class<?>, Method> paramsMap = nameMap.get(list);
-        if (paramsMap == null) {
-            nameMap.put(list, paramsMap = new HashMap<Class<?>, Method>());
-        }
-        //don't allow superclass / interface methods to overwrite existing methods
-        if (!paramsMap.containsKey(method.getReturnType())) {
-            paramsMap.put(method.getReturnType(), method);
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields == null) {
+            try {
+                final Field[] declaredFields = indexedClass.getDeclaredFields();
+                fields = new HashMap<String, Field>(declaredFields.length * 2);
+                for (Field field : declaredFields) {
+                    field.setAccessible(true);
+                    fields.put(field.getName(), field);
+                }
+            } catch (Throwable e) {
+                throw new RuntimeException("Error getting reflective information for " + indexedClass, e);
+            }
+            this.fields = fields;
         }
+        return fields;
     }
 
-    private static void addMethodByTypeName(Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName, Method method) {
-        final String name = method.getName();
-        Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
-        if (nameMap == null) {
-            methodsByTypeName.put(name, nameMap = new HashMap<ParamNameList, Map<String, Method>>());
-        }
-        final Class<?>[] types = method.getParameterTypes();
-        final ParamNameList list = createParamNameList(types);
-        Map<String, Method> paramsMap = nameMap.get(list);
-        if (paramsMap == null) {
-            nameMap.put(list, paramsMap = new HashMap<String, Method>());
+    @SuppressWarnings({"unchecked"})
+    private Map<String, Constructor<T>> constructors() {
+        Map<String, Constructor<T>> constructors = this.constructors;
+        if (constructors == null) {
+            try {
+                final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
+                constructors = new HashMap<String, Constructor<T>>(declaredConstructors.length * 2);
+                for (Constructor<T> constructor : declaredConstructors) {
+                    constructor.setAccessible(true);
+                    constructors.put(signature("", constructor.getParameterTypes()), constructor);
+                }
+            } catch (Throwable e) {
+                throw new RuntimeException("Error getting reflective information for " + indexedClass, e);
+            }
+            this.constructors = constructors;
         }
+        return constructors;
+    }
 
-        //don't allow superclass / interface methods to overwrite existing methods
-        if (!paramsMap.containsKey(method.getReturnType().getName())) {
-            paramsMap.put(method.getReturnType().getName(), method);
+    private Methods methods() {
+        Methods methods = this.methods;
+        if (methods == null) {
+            try {
+                methods = new Methods(indexedClass.getDeclaredMethods());
+            } catch (Throwable e) {
+                throw new RuntimeException("Error getting reflective information for " + indexedClass, e);
+            }
+            this.methods = methods;
         }
+        return methods;
     }
 
-    private static ParamNameList createParamNameList(final Class<?>[] types) {
+    /**
+     * Builds the key of a method or constructor, e.g. {@code foo(java.lang.String,int)}.
+     */
+    private static String signature(final String name, final Class<?>[] types) {
         if (types == null || types.length == 0) {
-            return EMPTY_NAMES;
+            return name + "()";
         }
-        String[] strings = new String[types.length];
+        final StringBuilder builder = new StringBuilder(name.length() + 16 * types.length);
+        builder.append(name).append('(');
         for (int i = 0; i < types.length; i++) {
-            strings[i] = types[i].getName();
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(types[i].getName());
         }
-        return new ParamNameList(strings);
+        return builder.append(')').toString();
     }
 
-    private static ParamNameList createParamNameList(final String[] typeNames) {
-        return typeNames == null || typeNames.length == 0 ? EMPTY_NAMES : new ParamNameList(typeNames);
+    private static String signature(final String name, final String[] typeNames) {
+        if (typeNames == null || typeNames.length == 0) {
+            return name + "()";
+        }
+        final StringBuilder builder = new StringBuilder(name.length() + 16 * typeNames.length);
+        builder.append(name).append('(');
+        for (int i = 0; i < typeNames.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(typeNames[i]);
+        }
+        return builder.append(')').toString();
     }
 
-    private static ParamList createParamList(final Class<?>[] types) {
-        return types == null || types.length == 0 ? EMPTY : new ParamList(types);
+    /**
+     * The keys only carry type names, so a lookup by {@link Class} has to make sure the types are not merely
+     * classes of the same name from another class loader.
+     */
+    private static boolean sameTypes(final Class<?>[] declared, final Class<?>[] types) {
+        if (types == null || types.length == 0) {
+            return declared.length == 0;
+        }
+        return Arrays.equals(declared, types);
     }
 
     /**
@@ -162,7 +180,7 @@ public final class ClassReflectionIndex<T> {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -171,7 +189,7 @@ public final class ClassReflectionIndex<T> {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -183,15 +201,12 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
-            return null;
-        }
-        final Map<Class<?>, Method> paramsMap = nameMap.get(createParamList(paramTypes));
-        if (paramsMap == null) {
-            return null;
+        for (Method method : methods().bySignature(signature(name, paramTypes))) {
+            if (method.getReturnType() == returnType && sameTypes(method.getParameterTypes(), paramTypes)) {
+                return method;
+            }
         }
-        return paramsMap.get(returnType);
+        return null;
     }
 
     /**
@@ -213,15 +228,12 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(String returnType, String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
-        if (nameMap == null) {
-            return null;
-        }
-        final Map<String, Method> paramsMap = nameMap.get(createParamNameList(paramTypeNames));
-        if (paramsMap == null) {
-            return null;
+        for (Method method : methods().bySignature(signature(name, paramTypeNames))) {
+            if (method.getReturnType().getName().equals(returnType)) {
+                return method;
+            }
         }
-        return paramsMap.get(returnType);
+        return null;
     }
 
     /**
@@ -231,15 +243,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(MethodIdentifier methodIdentifier) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(methodIdentifier.getName());
-        if (nameMap == null) {
-            return null;
-        }
-        final Map<String, Method> paramsMap = nameMap.get(createParamNameList(methodIdentifier.getParameterTypes()));
-        if (paramsMap == null) {
-            return null;
-        }
-        return paramsMap.get(methodIdentifier.getReturnType());
+        return getMethod(methodIdentifier.getReturnType(), methodIdentifier.getName(), methodIdentifier.getParameterTypes());
     }
 
     /**
@@ -250,15 +254,17 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final Method[] candidates = methods().bySignature(signature(name, paramTypes));
+        if (candidates.length == 0) {
             return Collections.emptySet();
         }
-        final Map<Class<?>, Method> paramsMap = nameMap.get(createParamList(paramTypes));
-        if (paramsMap == null) {
-            return Collections.emptySet();
+        final List<Method> methods = new ArrayList<Method>(candidates.length);
+        for (Method method : candidates) {
+            if (sameTypes(method.getParameterTypes(), paramTypes)) {
+                methods.add(method);
+            }
         }
-        return Collections.unmodifiableCollection(paramsMap.values());
+        return Collections.unmodifiableCollection(methods);
     }
 
     /**
@@ -269,15 +275,11 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
-        if (nameMap == null) {
-            return Collections.emptySet();
-        }
-        final Map<String, Method> paramsMap = nameMap.get(createParamNameList(paramTypeNames));
-        if (paramsMap == null) {
+        final Method[] candidates = methods().bySignature(signature(name, paramTypeNames));
+        if (candidates.length == 0) {
             return Collections.emptySet();
         }
-        return Collections.unmodifiableCollection(paramsMap.values());
+        return Collections.unmodifiableCollection(Arrays.asList(candidates));
     }
 
     /**
@@ -287,15 +289,11 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getAllMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final Method[] candidates = methods().byName(name);
+        if (candidates.length == 0) {
             return Collections.emptySet();
         }
-        final Collection<Method> methods = new ArrayList<Method>();
-        for (Map<Class<?>, Method> map : nameMap.values()) {
-            methods.addAll(map.values());
-        }
-        return methods;
+        return new ArrayList<Method>(Arrays.asList(candidates));
     }
 
     /**
@@ -306,16 +304,14 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name and parameter count
      */
     public Collection<Method> getAllMethods(String name, int paramCount) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final Method[] candidates = methods().byName(name);
+        if (candidates.length == 0) {
             return Collections.emptySet();
         }
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map<Class<?>, Method> map : nameMap.values()) {
-            for (Method method : map.values()) {
-                if (method.getParameterTypes().length == paramCount) {
-                    methods.add(method);
-                }
+        for (Method method : candidates) {
+            if (method.getParameterTypes().length == paramCount) {
+                methods.add(method);
             }
         }
         return methods;
@@ -327,14 +323,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of all declared methods
      */
     public Collection<Method> getMethods() {
-        final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
-            final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
-            for (Map<Class<?>, Method> map : nameMap.values()) {
-                methods.addAll(map.values());
-            }
-        }
-        return methods;
+        return new ArrayList<Method>(Arrays.asList(methods().all));
     }
 
     /**
@@ -343,7 +332,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructors
      */
     public Collection<Constructor<T>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(constructors().values());
     }
 
     /**
@@ -353,7 +342,8 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        final Constructor<T> constructor = constructors().get(signature("", paramTypes));
+        return constructor != null && sameTypes(constructor.getParameterTypes(), paramTypes) ? constructor : null;
     }
 
     /**
@@ -363,58 +353,84 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(String... paramTypeNames) {
-        return constructorsByTypeName.get(createParamNameList(paramTypeNames));
+        return constructors().get(signature("", paramTypeNames));
     }
 
-    private static final class ParamList {
-        private final Class<?>[] types;
-        private final int hashCode;
-
-        ParamList(final Class<?>[] types) {
-            this.types = types;
-            hashCode = Arrays.hashCode(types);
+    /**
+     * Get the approximate number of bytes held by the members indexed so far.
+     *
+     * @return the estimated size
+     */
+    long getEstimatedSize() {
+        long size = 0;
+        final Map<String, Field> fields = this.fields;
+        if (fields != null) {
+            size += estimateSize(fields.keySet()) + (long) fields.size() * MEMBER_SIZE;
         }
-
-        Class<?>[] getTypes() {
-            return types;
+        final Map<String, Constructor<T>> constructors = this.constructors;
+        if (constructors != null) {
+            size += estimateSize(constructors.keySet()) + (long) constructors.size() * MEMBER_SIZE;
         }
-
-        public boolean equals(Object other) {
-            return other instanceof ParamList && equals((ParamList) other);
-        }
-
-        public boolean equals(ParamList other) {
-            return this == other || other != null && Arrays.equals(types, other.types);
+        final Methods methods = this.methods;
+        if (methods != null) {
+            size += estimateSize(methods.bySignature.keySet()) + estimateSize(methods.byName.keySet()) + (long) methods.all.length * MEMBER_SIZE;
         }
+        return size;
+    }
 
-        public int hashCode() {
-            return hashCode;
+    private static long estimateSize(final Collection<String> keys) {
+        long size = 0;
+        for (String key : keys) {
+            size += ENTRY_SIZE + 2 * key.length();
         }
+        return size;
     }
 
-    private static final class ParamNameList {
-        private final String[] types;
-        private final int hashCode;
-
-        ParamNameList(final String[] types) {
-            this.types = types;
-            hashCode = Arrays.hashCode(types);
+    /**
+     * The declared methods of the class, by signature and by name.
+     */
+    private static final class Methods {
+        private final Method[] all;
+        private final Map<String, Method[]> bySignature;
+        private final Map<String, Method[]> byName;
+
+        Methods(final Method[] declaredMethods) {
+            all = declaredMethods;
+            final Map<String, List<Method>> bySignature = new HashMap<String, List<Method>>(declaredMethods.length * 2);
+            final Map<String, List<Method>> byName = new HashMap<String, List<Method>>(declaredMethods.length * 2);
+            for (Method method : declaredMethods) {
+                method.setAccessible(true);
+                add(bySignature, signature(method.getName(), method.getParameterTypes()), method);
+                add(byName, method.getName(), method);
+            }
+            this.bySignature = toArrays(bySignature);
+            this.byName = toArrays(byName);
         }
 
-        String[] getTypes() {
-            return types;
+        Method[] bySignature(final String signature) {
+            final Method[] methods = bySignature.get(signature);
+            return methods == null ? NO_METHODS : methods;
         }
 
-        public boolean equals(Object other) {
-            return other instanceof ParamNameList && equals((ParamNameList) other);
+        Method[] byName(final String name) {
+            final Method[] methods = byName.get(name);
+            return methods == null ? NO_METHODS : methods;
         }
 
-        public boolean equals(ParamNameList other) {
-            return this == other || other != null && Arrays.equals(types, other.types);
+        private static void add(final Map<String, List<Method>> map, final String key, final Method method) {
+            List<Method> list = map.get(key);
+            if (list == null) {
+                map.put(key, list = new ArrayList<Method>(1));
+            }
+            list.add(method);
         }
 
-        public int hashCode() {
-            return hashCode;
+        private static Map<String, Method[]> toArrays(final Map<String, List<Method>> map) {
+            final Map<String, Method[]> result = new HashMap<String, Method[]>(map.size() * 2);
+            for (Map.Entry<String, List<Method>> entry : map.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().toArray(new Method[entry.getValue().size()]));
+            }
+            return result;
         }
     }
 }
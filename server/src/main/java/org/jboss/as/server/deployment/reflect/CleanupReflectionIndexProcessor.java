@@ -27,17 +27,29 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.logging.Logger;
 
 /**
- * The processor to remove the reflection index from the deployment unit.
+ * The processor to release the memory held by the reflection index of a deployment once it has been installed.
+ * <p/>
+ * Sub deployments share the index of their parent, which is reported and cleared once the top level deployment is
+ * cleaned up, after all of its sub deployments have been installed. The index stays attached, so that processors
+ * which run again when an earlier phase is restarted find it and populate it again on demand.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class CleanupReflectionIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final Logger logger = Logger.getLogger(CleanupReflectionIndexProcessor.class);
+
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
-        phaseContext.getDeploymentUnit().removeAttachment(Attachments.REFLECTION_INDEX);
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        final DeploymentReflectionIndex index = deploymentUnit.getAttachment(Attachments.REFLECTION_INDEX);
+        if (index != null && deploymentUnit.getParent() == null) {
+            logger.debugf("Reflection index of %s held %d classes, approximately %d bytes", deploymentUnit.getName(), index.getClassCount(), index.getEstimatedSize());
+            index.clear();
+        }
     }
 
     /** {@inheritDoc} */
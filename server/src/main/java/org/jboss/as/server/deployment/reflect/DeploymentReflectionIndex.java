@@ -23,16 +23,19 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A reflection index for a deployment.
+ * <p/>
+ * The index is safe for use by concurrently running deployment processors. The index of a class is created on first
+ * use and only reads the members of the class it is asked for.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
 
     DeploymentReflectionIndex() {
     }
@@ -59,15 +62,48 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         try {
             ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                final ClassReflectionIndex<T> newIndex = new ClassReflectionIndex<T>(clazz, this);
+                index = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, newIndex);
+                if (index == null) {
+                    index = newIndex;
+                }
             }
             return index;
         } catch (Throwable e) {
             throw new RuntimeException("Error getting reflective information for " + clazz, e);
         }
     }
+
+    /**
+     * Get the number of classes indexed so far.
+     *
+     * @return the number of classes
+     */
+    public int getClassCount() {
+        return classes.size();
+    }
+
+    /**
+     * Get the approximate number of bytes held by this index.
+     *
+     * @return the estimated size
+     */
+    public long getEstimatedSize() {
+        long size = 0;
+        for (ClassReflectionIndex<?> index : classes.values()) {
+            size += index.getEstimatedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Drop all the indexed classes. The index remains usable and is populated again on demand.
+     */
+    void clear() {
+        classes.clear();
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.server.controller.descriptions.ServerDescriptionConstants;
+import org.jboss.as.server.deployment.repository.api.ContentRepository;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reports the size of the content repository and how much obsolete content has been removed from it.
+ */
+public class ContentRepositoryMetricsHandler implements OperationStepHandler {
+
+    private final ContentRepository contentRepository;
+
+    public ContentRepositoryMetricsHandler(final ContentRepository contentRepository) {
+        this.contentRepository = contentRepository;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (contentRepository != null) {
+            if (ServerDescriptionConstants.CONTENT_REPOSITORY_SIZE.equals(operation.require(NAME).asString())) {
+                context.getResult().set(contentRepository.getContentSize());
+            } else {
+                context.getResult().set(contentRepository.getReclaimedBytes());
+            }
+        }
+        context.completeStep();
+    }
+}
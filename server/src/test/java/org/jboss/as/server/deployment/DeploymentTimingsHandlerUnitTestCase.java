@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class DeploymentTimingsHandlerUnitTestCase {
+
+    private static final PathAddress EAR_ADDRESS = PathAddress.pathAddress(PathElement.pathElement(DEPLOYMENT, "test.ear"));
+    private static final PathAddress WAR_ADDRESS = EAR_ADDRESS.append(PathElement.pathElement(DeploymentModelUtils.SUB_DEPLOYMENT, "web.war"));
+
+    private DeploymentUnit ear;
+    private DeploymentUnit war;
+
+    @Before
+    public void createDeployment() {
+        ear = new DeploymentUnitImpl(null, "test.ear", null);
+        war = new DeploymentUnitImpl(ear, "web.war", null);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, war);
+        DeploymentTimings.get(ear).phaseCompleted(Phase.PARSE, TimeUnit.MILLISECONDS.toNanos(5));
+        DeploymentTimings.get(war).phaseCompleted(Phase.PARSE, TimeUnit.MILLISECONDS.toNanos(3));
+    }
+
+    @Test
+    public void testServiceNames() {
+        assertEquals(Services.deploymentUnitName("test.ear"), DeploymentTimingsHandler.getDeploymentUnitServiceName(EAR_ADDRESS));
+        assertEquals(Services.deploymentUnitName("test.ear", "web.war"), DeploymentTimingsHandler.getDeploymentUnitServiceName(WAR_ADDRESS));
+    }
+
+    @Test
+    public void testDeployment() throws Exception {
+        final ModelNode result = readTimings(EAR_ADDRESS, Services.deploymentUnitName("test.ear"), ear);
+        assertEquals("5", result.get(DeploymentTimings.PHASES, Phase.PARSE.name()).asString());
+        assertEquals("3", result.get(DeploymentTimings.SUBDEPLOYMENTS, "web.war", DeploymentTimings.PHASES, Phase.PARSE.name()).asString());
+    }
+
+    @Test
+    public void testSubDeployment() throws Exception {
+        final ModelNode result = readTimings(WAR_ADDRESS, Services.deploymentUnitName("test.ear", "web.war"), war);
+        assertEquals("3", result.get(DeploymentTimings.PHASES, Phase.PARSE.name()).asString());
+        assertFalse(result.hasDefined(DeploymentTimings.SUBDEPLOYMENTS));
+    }
+
+    private static ModelNode readTimings(final PathAddress address, final ServiceName serviceName, final DeploymentUnit deploymentUnit) throws Exception {
+        final AbstractDeploymentUnitService service = Mockito.mock(AbstractDeploymentUnitService.class);
+        Mockito.when(service.getValue()).thenReturn(deploymentUnit);
+        final ServiceController<?> controller = Mockito.mock(ServiceController.class);
+        Mockito.doReturn(service).when(controller).getService();
+        final ServiceRegistry registry = Mockito.mock(ServiceRegistry.class);
+        Mockito.doReturn(controller).when(registry).getService(serviceName);
+
+        final ModelNode result = new ModelNode();
+        final OperationContext context = Mockito.mock(OperationContext.class);
+        Mockito.when(context.getServiceRegistry(false)).thenReturn(registry);
+        Mockito.when(context.getResult()).thenReturn(result);
+
+        final ModelNode operation = new ModelNode();
+        operation.get(OP_ADDR).set(address.toModelNode());
+        DeploymentTimingsHandler.INSTANCE.execute(context, operation);
+        final ArgumentCaptor<OperationStepHandler> step = ArgumentCaptor.forClass(OperationStepHandler.class);
+        Mockito.verify(context).addStep(step.capture(), Mockito.eq(OperationContext.Stage.RUNTIME));
+        step.getValue().execute(context, operation);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class DeploymentTimingsUnitTestCase {
+
+    @Test
+    public void testSlowProcessorThreshold() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        assertFalse(timings.hasSlowProcessor(0));
+
+        timings.processorCompleted(Phase.PARSE, new FirstProcessor(), millis(10), -1L);
+        timings.processorCompleted(Phase.DEPENDENCIES, new SecondProcessor(), millis(5000), -1L);
+        assertFalse(timings.hasSlowProcessor(5000));
+        assertTrue(timings.hasSlowProcessor(4999));
+        assertTrue(timings.hasSlowProcessor(9));
+    }
+
+    @Test
+    public void testSlowestProcessorsFirst() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        assertEquals(Collections.<String>emptyList(), timings.getSlowestProcessors(5));
+
+        timings.processorCompleted(Phase.PARSE, new FirstProcessor(), millis(20), -1L);
+        timings.processorCompleted(Phase.PARSE, new SecondProcessor(), millis(30), 1024L);
+        timings.processorCompleted(Phase.INSTALL, new ThirdProcessor(), millis(10), -1L);
+
+        assertEquals(Arrays.asList(
+                SecondProcessor.class.getName() + " (PARSE) 30 ms, 1024 bytes",
+                FirstProcessor.class.getName() + " (PARSE) 20 ms",
+                ThirdProcessor.class.getName() + " (INSTALL) 10 ms"), timings.getSlowestProcessors(5));
+        assertEquals(Arrays.asList(
+                SecondProcessor.class.getName() + " (PARSE) 30 ms, 1024 bytes",
+                FirstProcessor.class.getName() + " (PARSE) 20 ms"), timings.getSlowestProcessors(2));
+    }
+
+    @Test
+    public void testRestartedPhaseIsRecordedAgain() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        timings.processorCompleted(Phase.PARSE, new FirstProcessor(), millis(20), -1L);
+        timings.phaseCompleted(Phase.PARSE, millis(25));
+        timings.processorCompleted(Phase.INSTALL, new SecondProcessor(), millis(5), -1L);
+        timings.phaseCompleted(Phase.INSTALL, millis(7));
+        assertEquals(32L, timings.getTotalTime());
+
+        timings.startPhase(Phase.PARSE);
+        assertEquals(7L, timings.getTotalTime());
+        assertFalse(timings.getPhaseTimes().containsKey(Phase.PARSE));
+        assertEquals(Arrays.asList(SecondProcessor.class.getName() + " (INSTALL) 5 ms"), timings.getSlowestProcessors(5));
+    }
+
+    @Test
+    public void testModelNodeKeepsProcessorOrder() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        timings.processorCompleted(Phase.PARSE, new FirstProcessor(), millis(1), -1L);
+        timings.processorCompleted(Phase.PARSE, new SecondProcessor(), millis(30), 2048L);
+        timings.phaseCompleted(Phase.PARSE, millis(31));
+
+        final ModelNode node = timings.toModelNode();
+        assertEquals("31", node.get(DeploymentTimings.PHASES, Phase.PARSE.name()).asString());
+        final List<ModelNode> processors = node.get(DeploymentTimings.PROCESSORS).asList();
+        assertEquals(2, processors.size());
+        assertEquals(FirstProcessor.class.getName(), processors.get(0).get(DeploymentTimings.PROCESSOR).asString());
+        assertFalse(processors.get(0).hasDefined(DeploymentTimings.ALLOCATED_BYTES));
+        assertEquals(SecondProcessor.class.getName(), processors.get(1).get(DeploymentTimings.PROCESSOR).asString());
+        assertEquals("30", processors.get(1).get(DeploymentTimings.TIME).asString());
+        assertEquals("2048", processors.get(1).get(DeploymentTimings.ALLOCATED_BYTES).asString());
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static class FirstProcessor implements DeploymentUnitProcessor {
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+
+    private static class SecondProcessor extends FirstProcessor {
+    }
+
+    private static class ThirdProcessor extends FirstProcessor {
+    }
+}
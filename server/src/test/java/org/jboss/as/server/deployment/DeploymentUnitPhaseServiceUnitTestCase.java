@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.server.deployment.module.ModuleDependency;
+import org.jboss.as.server.deployment.module.ModuleSpecification;
+import org.jboss.modules.ModuleIdentifier;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeploymentUnitPhaseServiceUnitTestCase {
+
+    private DeploymentUnit ear;
+    private ModuleSpecification earModuleSpec;
+
+    @Before
+    public void createEar() {
+        ear = new DeploymentUnitImpl(null, "test.ear", null);
+        earModuleSpec = new ModuleSpecification();
+        ear.putAttachment(Attachments.MODULE_SPECIFICATION, earModuleSpec);
+    }
+
+    @Test
+    public void testNonIsolatedSubDeploymentsAreLinked() {
+        earModuleSpec.setSubDeploymentModulesIsolated(false);
+        final DeploymentUnit ejb = addSubDeployment("ejb.jar", false);
+        final DeploymentUnit war = addSubDeployment("web.war", true);
+        // both see the classes of the non private ejb jar
+        assertTrue(DeploymentUnitPhaseService.isLinkedToSiblings(war));
+        assertFalse(DeploymentUnitPhaseService.isLinkedToSiblings(ejb));
+
+        addSubDeployment("other.jar", false);
+        assertTrue(DeploymentUnitPhaseService.isLinkedToSiblings(ejb));
+    }
+
+    @Test
+    public void testIsolatedSubDeploymentsAreNotLinked() {
+        earModuleSpec.setSubDeploymentModulesIsolated(true);
+        final DeploymentUnit ejb = addSubDeployment("ejb.jar", false);
+        final DeploymentUnit war = addSubDeployment("web.war", true);
+        assertFalse(DeploymentUnitPhaseService.isLinkedToSiblings(ejb));
+        assertFalse(DeploymentUnitPhaseService.isLinkedToSiblings(war));
+    }
+
+    @Test
+    public void testIsolatedSubDeploymentLinkedThroughClassPath() {
+        earModuleSpec.setSubDeploymentModulesIsolated(true);
+        final DeploymentUnit ejb = addSubDeployment("ejb.jar", false);
+        final DeploymentUnit war = addSubDeployment("web.war", true);
+        war.addToAttachmentList(Attachments.CLASS_PATH_ENTRIES, ejb.getAttachment(Attachments.MODULE_IDENTIFIER));
+        assertTrue(DeploymentUnitPhaseService.isLinkedToSiblings(war));
+        assertFalse(DeploymentUnitPhaseService.isLinkedToSiblings(ejb));
+    }
+
+    @Test
+    public void testIsolatedSubDeploymentLinkedThroughDeclaredDependency() {
+        earModuleSpec.setSubDeploymentModulesIsolated(true);
+        final DeploymentUnit ejb = addSubDeployment("ejb.jar", false);
+        final DeploymentUnit war = addSubDeployment("web.war", true);
+        war.getAttachment(Attachments.MODULE_SPECIFICATION).addUserDependency(
+                new ModuleDependency(null, ejb.getAttachment(Attachments.MODULE_IDENTIFIER), false, false, true));
+        assertTrue(DeploymentUnitPhaseService.isLinkedToSiblings(war));
+        assertFalse(DeploymentUnitPhaseService.isLinkedToSiblings(ejb));
+    }
+
+    private DeploymentUnit addSubDeployment(final String name, final boolean privateModule) {
+        final DeploymentUnit subDeployment = new DeploymentUnitImpl(ear, name, null);
+        subDeployment.putAttachment(Attachments.MODULE_IDENTIFIER, ModuleIdentifier.create("deployment." + ear.getName() + "." + name));
+        final ModuleSpecification moduleSpec = new ModuleSpecification();
+        moduleSpec.setPrivateModule(privateModule);
+        subDeployment.putAttachment(Attachments.MODULE_SPECIFICATION, moduleSpec);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, subDeployment);
+        return subDeployment;
+    }
+}
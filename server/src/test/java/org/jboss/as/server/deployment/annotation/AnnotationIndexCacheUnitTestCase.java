@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AnnotationIndexCacheUnitTestCase {
+
+    private File dir;
+    private File cacheDir;
+    private File rootDir;
+
+    @Before
+    public void createDirs() throws IOException {
+        dir = File.createTempFile("annotation-index", "");
+        dir.delete();
+        cacheDir = new File(dir, "cache");
+        rootDir = new File(dir, "root");
+        rootDir.mkdirs();
+    }
+
+    @After
+    public void deleteDirs() {
+        delete(dir);
+    }
+
+    @Test
+    public void testMiss() {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        cache.put("key", createIndex());
+        final Index cached = cache.get("key");
+        assertNotNull(cached);
+        assertNotNull(cached.getClassByName(DotName.createSimple(getClass().getName())));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void testKeyChangesWithContent() throws IOException {
+        final File classFile = write("org/test/A.class", "first");
+        write("org/test/B.class", "other");
+        final long lastModified = classFile.lastModified();
+        final String key = computeKey("org/test/A.class", "org/test/B.class");
+        assertEquals(key, computeKey("org/test/A.class", "org/test/B.class"));
+
+        // same size and modification time, different content
+        write("org/test/A.class", "secnd");
+        classFile.setLastModified(lastModified);
+        final String changedKey = computeKey("org/test/A.class", "org/test/B.class");
+        assertFalse(key.equals(changedKey));
+
+        write("org/test/A.class", "first");
+        classFile.setLastModified(lastModified + 60000);
+        assertEquals(key, computeKey("org/test/A.class", "org/test/B.class"));
+
+        // same content under another name
+        write("org/test/C.class", "first");
+        assertFalse(key.equals(computeKey("org/test/C.class", "org/test/B.class")));
+    }
+
+    @Test
+    public void testInvalidatedIndexIsNotFound() throws IOException {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        write("org/test/A.class", "first");
+        final String key = computeKey("org/test/A.class");
+        cache.put(key, createIndex());
+        assertNotNull(cache.get(key));
+
+        write("org/test/A.class", "second");
+        assertNull(cache.get(computeKey("org/test/A.class")));
+    }
+
+    @Test
+    public void testCorruptFile() throws IOException {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        cache.put("key", createIndex());
+        final File file = new File(cacheDir, "key.idx");
+        assertTrue(file.exists());
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("not an index".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+
+        assertNull(cache.get("key"));
+        assertFalse(file.exists());
+    }
+
+    private Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream in = getClass().getResourceAsStream(getClass().getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+        return indexer.complete();
+    }
+
+    private String computeKey(final String... paths) throws IOException {
+        final VirtualFile root = VFS.getChild(rootDir.toURI());
+        final VirtualFile[] classFiles = new VirtualFile[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            classFiles[i] = root.getChild(paths[i]);
+        }
+        final byte[] hash = AnnotationIndexCache.hashClassFiles(root, Arrays.asList(classFiles));
+        return AnnotationIndexCache.computeKey(Collections.singletonList(hash));
+    }
+
+    private File write(final String path, final String content) throws IOException {
+        final File file = new File(rootDir, path);
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Test;
+
+public class AnnotationIndexProcessorUnitTestCase {
+
+    private static final Class<?>[] CLASSES = {Base.class, First.class, Second.class, Third.class, Other.class};
+
+    private static final DotName DEPRECATED = DotName.createSimple(Deprecated.class.getName());
+    private static final DotName MARKER = DotName.createSimple(Marker.class.getName());
+
+    @Test
+    public void testMergeMatchesSingleIndexer() throws IOException {
+        final Indexer single = new Indexer();
+        for (Class<?> clazz : CLASSES) {
+            index(single, clazz);
+        }
+        final Index expected = single.complete();
+
+        // the same classes split across the tasks of a resource root
+        final List<ClassInfo> classes = new ArrayList<ClassInfo>();
+        Indexer indexer = null;
+        for (int i = 0; i < CLASSES.length; i++) {
+            if (i % 2 == 0) {
+                indexer = new Indexer();
+            }
+            classes.add(index(indexer, CLASSES[i]));
+        }
+        final Index merged = AnnotationIndexProcessor.merge(classes);
+
+        assertEquals(new TreeSet<String>(names(expected.getKnownClasses())), new TreeSet<String>(names(merged.getKnownClasses())));
+        for (Class<?> clazz : CLASSES) {
+            final DotName name = DotName.createSimple(clazz.getName());
+            assertNotNull(merged.getClassByName(name));
+            assertEquals(names(expected.getKnownSubclasses(name)), names(merged.getKnownSubclasses(name)));
+        }
+        assertFalse(merged.getKnownSubclasses(DotName.createSimple(Base.class.getName())).isEmpty());
+        assertAnnotations(expected, merged, DEPRECATED);
+        assertAnnotations(expected, merged, MARKER);
+        assertFalse(merged.getAnnotations(MARKER).isEmpty());
+    }
+
+    private static void assertAnnotations(final Index expected, final Index merged, final DotName annotation) {
+        final List<AnnotationInstance> expectedInstances = expected.getAnnotations(annotation);
+        final List<AnnotationInstance> mergedInstances = merged.getAnnotations(annotation);
+        assertEquals(expectedInstances.size(), mergedInstances.size());
+        for (int i = 0; i < expectedInstances.size(); i++) {
+            assertEquals(expectedInstances.get(i).name(), mergedInstances.get(i).name());
+            assertEquals(String.valueOf(expectedInstances.get(i).target()), String.valueOf(mergedInstances.get(i).target()));
+        }
+    }
+
+    private static List<String> names(final Collection<ClassInfo> classes) {
+        final List<String> names = new ArrayList<String>();
+        for (ClassInfo classInfo : classes) {
+            names.add(classInfo.name().toString());
+        }
+        return names;
+    }
+
+    private static ClassInfo index(final Indexer indexer, final Class<?> clazz) throws IOException {
+        final InputStream in = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class");
+        try {
+            return indexer.index(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Marker {
+    }
+
+    @Marker
+    public static class Base {
+        @Deprecated
+        public void method() {
+        }
+    }
+
+    public static class First extends Base {
+        @Marker
+        public String field;
+    }
+
+    @Deprecated
+    public static class Second extends Base {
+        @Marker
+        public void method() {
+        }
+    }
+
+    public static class Third extends First {
+        @Deprecated
+        @Marker
+        public void other() {
+        }
+    }
+
+    @Marker
+    public static class Other {
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+public class ClassReflectionIndexUnitTestCase {
+
+    @Test
+    public void testMethodLookup() throws Exception {
+        final ClassReflectionIndex<Target> index = DeploymentReflectionIndex.create().getClassIndex(Target.class);
+        final Method foo = index.getMethod(void.class, "foo", Param.class);
+        assertNotNull(foo);
+        assertEquals(Target.class.getMethod("foo", Param.class), foo);
+        assertSame(foo, index.getMethod(foo));
+        assertSame(foo, index.getMethod("void", "foo", Param.class.getName()));
+        assertNotNull(index.getMethod(String.class, "foo", String.class));
+        assertNull(index.getMethod(String.class, "foo", Param.class));
+        assertNull(index.getMethod(void.class, "foo"));
+        assertEquals(1, index.getMethods("foo", Param.class).size());
+        assertEquals(2, index.getAllMethods("foo").size());
+        assertTrue(index.getAllMethods("foo", 0).isEmpty());
+        assertEquals(1, index.getAllMethods("bar", 0).size());
+    }
+
+    @Test
+    public void testConstructorLookup() throws Exception {
+        final ClassReflectionIndex<Target> index = DeploymentReflectionIndex.create().getClassIndex(Target.class);
+        assertEquals(Target.class.getConstructor(Param.class), index.getConstructor(Param.class));
+        assertEquals(Target.class.getConstructor(), index.getConstructor(new Class<?>[0]));
+        assertNotNull(index.getConstructor(Param.class.getName()));
+        assertNull(index.getConstructor(String.class));
+        assertEquals(2, index.getConstructors().size());
+    }
+
+    @Test
+    public void testLookupsAcrossClassLoaders() throws Exception {
+        final ClassLoader loader = new IsolatingClassLoader();
+        final Class<?> otherTarget = loader.loadClass(Target.class.getName());
+        final Class<?> otherParam = loader.loadClass(Param.class.getName());
+        assertNotSame(Param.class, otherParam);
+
+        final ClassReflectionIndex<?> index = DeploymentReflectionIndex.create().getClassIndex(otherTarget);
+        // same type names, different classes
+        assertNull(index.getMethod(void.class, "foo", Param.class));
+        assertTrue(index.getMethods("foo", Param.class).isEmpty());
+        assertNull(index.getConstructor(Param.class));
+
+        assertNotNull(index.getMethod(void.class, "foo", otherParam));
+        assertEquals(1, index.getMethods("foo", otherParam).size());
+        assertNotNull(index.getConstructor(otherParam));
+
+        // lookups by name cannot tell the class loaders apart
+        assertNotNull(index.getMethod("void", "foo", Param.class.getName()));
+        assertNotNull(index.getConstructor(Param.class.getName()));
+    }
+
+    public static class Param {
+    }
+
+    public static class Target {
+        public Target() {
+        }
+
+        public Target(final Param param) {
+        }
+
+        public void foo(final Param param) {
+        }
+
+        public String foo(final String value) {
+            return value;
+        }
+
+        public void bar() {
+        }
+    }
+
+    /**
+     * Defines its own copies of the classes of this test, so they are distinct from the ones of the test's loader.
+     */
+    private static final class IsolatingClassLoader extends ClassLoader {
+        private static final String PREFIX = ClassReflectionIndexUnitTestCase.class.getName() + "$";
+
+        IsolatingClassLoader() {
+            super(ClassReflectionIndexUnitTestCase.class.getClassLoader());
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PREFIX)) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                final byte[] bytes;
+                try {
+                    bytes = read(name.replace('.', '/') + ".class");
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+                clazz = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
+        }
+
+        private byte[] read(final String resource) throws IOException {
+            final InputStream in = getParent().getResourceAsStream(resource);
+            if (in == null) {
+                throw new IOException("No resource " + resource);
+            }
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            } finally {
+                in.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CleanupReflectionIndexProcessorUnitTestCase {
+
+    @Test
+    public void testClear() {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        index.getClassIndex(First.class).getMethods();
+        index.getClassIndex(Second.class).getFields();
+        assertEquals(2, index.getClassCount());
+        assertTrue(index.getEstimatedSize() > 0);
+
+        index.clear();
+        assertEquals(0, index.getClassCount());
+        assertEquals(0, index.getEstimatedSize());
+
+        // still usable, populated again on demand
+        assertNotNull(index.getClassIndex(First.class).getMethod(int.class, "length"));
+        assertEquals(1, index.getClassCount());
+    }
+
+    @Test
+    public void testTopLevelDeploymentIndexIsCleared() throws Exception {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        index.getClassIndex(First.class);
+        new CleanupReflectionIndexProcessor().deploy(createContext(index, null));
+        assertEquals(0, index.getClassCount());
+    }
+
+    @Test
+    public void testSubDeploymentKeepsSharedIndex() throws Exception {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        index.getClassIndex(First.class);
+        new CleanupReflectionIndexProcessor().deploy(createContext(index, Mockito.mock(DeploymentUnit.class)));
+        assertEquals(1, index.getClassCount());
+    }
+
+    public static class First {
+        public int length() {
+            return 0;
+        }
+    }
+
+    public static class Second {
+        public int value;
+    }
+
+    private static DeploymentPhaseContext createContext(final DeploymentReflectionIndex index, final DeploymentUnit parent) {
+        final DeploymentUnit deploymentUnit = Mockito.mock(DeploymentUnit.class);
+        Mockito.when(deploymentUnit.getAttachment(Attachments.REFLECTION_INDEX)).thenReturn(index);
+        Mockito.when(deploymentUnit.getParent()).thenReturn(parent);
+        Mockito.when(deploymentUnit.getName()).thenReturn("test.ear");
+        final DeploymentPhaseContext context = Mockito.mock(DeploymentPhaseContext.class);
+        Mockito.when(context.getDeploymentUnit()).thenReturn(deploymentUnit);
+        return context;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures how long it takes to load the boot operations of a configuration with <code>benchmark.subsystems</code>
+ * (40 by default) subsystems by parsing it, and from the boot snapshot. That both produce the same operations is
+ * checked by the unit tests of the controller module.
+ */
+public class BootSnapshotBenchmark {
+
+    private static final Logger log = Logger.getLogger(BootSnapshotBenchmark.class);
+
+    private final int subsystems = Integer.getInteger("benchmark.subsystems", 40);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 200);
+
+    private File dir;
+
+    @Before
+    public void createDir() throws Exception {
+        dir = File.createTempFile("boot-snapshot", "");
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    @After
+    public void deleteDir() {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testBoot() throws Exception {
+        final File config = new File(dir, "standalone.xml");
+        TestBootConfiguration.write(config, subsystems);
+
+        System.setProperty(XmlConfigurationPersister.BOOT_SNAPSHOT_PROPERTY, "false");
+        final XmlConfigurationPersister parsing;
+        try {
+            parsing = createPersister(config);
+        } finally {
+            System.clearProperty(XmlConfigurationPersister.BOOT_SNAPSHOT_PROPERTY);
+        }
+        final XmlConfigurationPersister snapshotting = createPersister(config);
+        // writes the snapshot
+        final int operations = snapshotting.load().size();
+        assertEquals(subsystems * TestBootConfiguration.OPERATIONS_PER_SUBSYSTEM, operations);
+
+        // warm up
+        load(parsing, iterations / 10, operations);
+        load(snapshotting, iterations / 10, operations);
+
+        final long parseTime = load(parsing, iterations, operations);
+        final long snapshotTime = load(snapshotting, iterations, operations);
+        log.infof("Boot of %d subsystems: parsing %d us, snapshot %d us", subsystems, parseTime / iterations / 1000, snapshotTime / iterations / 1000);
+    }
+
+    private static long load(final XmlConfigurationPersister persister, final int iterations, final int operations) throws Exception {
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            final List<ModelNode> loaded = persister.load();
+            assertEquals(operations, loaded.size());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static XmlConfigurationPersister createPersister(final File config) {
+        return new XmlConfigurationPersister(config, new QName(TestBootConfiguration.NAMESPACE, "server"), new TestBootConfiguration.Parser(), null) {
+            @Override
+            protected String getBootEnvironment() {
+                return "benchmark";
+            }
+
+            @Override
+            protected String getExtensionFingerprint(final String moduleName) {
+                return moduleName + ":1.0";
+            }
+        };
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer;
+
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.filestore.FileTimerPersistence;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.journal.JournalTimerPersistence;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the persistent timer stores. For each number of timers and each store it measures the time taken to
+ * create the timers, to record one firing of every timer and to replay the store on start. The number of timers and
+ * threads can be changed with the <code>benchmark.timers</code> (a comma separated list, 10000 and 100000 by default)
+ * and <code>benchmark.threads</code> system properties.
+ */
+public class TimerPersistenceBenchmark {
+
+    private static final Logger log = Logger.getLogger(TimerPersistenceBenchmark.class);
+
+    private static final String TIMED_OBJECT = "benchmark";
+
+    private final String[] timerCounts = System.getProperty("benchmark.timers", "10000,100000").split(",");
+    private final int threads = Integer.getInteger("benchmark.threads", 16);
+
+    @Test
+    public void testFileStore() throws Exception {
+        for (String count : timerCounts) {
+            run("file", Integer.parseInt(count.trim()));
+        }
+    }
+
+    @Test
+    public void testJournalStore() throws Exception {
+        for (String count : timerCounts) {
+            run("journal", Integer.parseInt(count.trim()));
+        }
+    }
+
+    private void run(final String type, final int timers) throws Exception {
+        final File dir = File.createTempFile("timer-benchmark", "");
+        dir.delete();
+        try {
+            TimerPersistence persistence = create(type, dir);
+            persistence.start();
+            final TimerEntity[] entities = new TimerEntity[timers];
+            for (int i = 0; i < timers; i++) {
+                entities[i] = new TestTimerEntity(TIMED_OBJECT, "timer-" + i, 1000, null);
+            }
+            final long create = concurrently(entities, persistence, false);
+            final long fire = concurrently(entities, persistence, true);
+            persistence.stop();
+
+            final long start = System.nanoTime();
+            persistence = create(type, dir);
+            persistence.start();
+            final int restored = persistence.loadActiveTimers(TIMED_OBJECT).size();
+            final long replay = System.nanoTime() - start;
+            persistence.stop();
+            assertEquals(type + " store restored the wrong number of timers", timers, restored);
+            log.infof("%-8s %7d timers, %2d threads: create %8.1f/s, fire %8.1f/s, replay %6d ms",
+                    type, timers, threads, rate(timers, create), rate(timers, fire), TimeUnit.NANOSECONDS.toMillis(replay));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private long concurrently(final TimerEntity[] entities, final TimerPersistence persistence, final boolean fire) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = thread; i < entities.length; i += threads) {
+                            if (fire) {
+                                entities[i].setPreviousRun(new Date());
+                            }
+                            persistence.persistTimer(entities[i]);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        done.await();
+        final long time = System.nanoTime() - start;
+        executor.shutdown();
+        return time;
+    }
+
+    private static TimerPersistence create(final String type, final File dir) {
+        final SimpleClassResolver resolver = new SimpleClassResolver(TimerPersistenceBenchmark.class.getClassLoader());
+        if ("journal".equals(type)) {
+            return new JournalTimerPersistence(new NoTransactionManager(), null, dir, true, resolver);
+        }
+        return new FileTimerPersistence(new NoTransactionManager(), null, dir, true, resolver);
+    }
+
+    private static double rate(final int count, final long nanos) {
+        return count / (nanos / 1000000000.0);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
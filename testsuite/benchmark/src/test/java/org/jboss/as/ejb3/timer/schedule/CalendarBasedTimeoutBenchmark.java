@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.schedule;
+
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+import javax.ejb.ScheduleExpression;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the next timeout computation of {@link CalendarBasedTimeout}. Each schedule is walked from a fixed date,
+ * feeding every timeout back in as the current time, both through {@link CalendarBasedTimeout#getNextTimeout(long)}
+ * and {@link CalendarBasedTimeout#getNextTimeout(Calendar)}. The number of timeouts per schedule can be changed with
+ * the <code>benchmark.iterations</code> system property. The correctness of the timeouts is checked by the unit
+ * tests of the ejb3 module.
+ */
+public class CalendarBasedTimeoutBenchmark {
+
+    private static final Logger log = Logger.getLogger(CalendarBasedTimeoutBenchmark.class);
+
+    private static final String[][] SCHEDULES = {
+            // name, second, minute, hour, day of month, month, day of week, timezone
+            {"every 5 seconds", "*/5", "*", "*", "*", "*", "*", "UTC"},
+            {"hourly", "0", "0", "*", "*", "*", "*", "UTC"},
+            {"weekdays 8:15", "0", "15", "8", "*", "*", "Mon-Fri", "UTC"},
+            {"last day of month", "0", "0", "0", "Last", "*", "*", "UTC"},
+            {"2nd friday", "0", "0", "12", "2nd Fri", "*", "*", "UTC"},
+            {"15th or friday", "0", "0", "12", "15", "*", "Fri", "UTC"},
+            {"29th of february", "0", "0", "0", "29", "Feb", "*", "UTC"},
+            {"every 30 minutes, dst", "0", "*/30", "*", "*", "*", "*", "Europe/Prague"},
+            {"2:30 daily, dst", "0", "30", "2", "*", "*", "*", "America/New_York"},
+    };
+
+    private final int iterations = Integer.getInteger("benchmark.iterations", 1000000);
+
+    @Test
+    public void testNextTimeout() {
+        final Calendar start = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        start.clear();
+        start.set(2012, Calendar.JANUARY, 1);
+        // warm up
+        for (String[] schedule : SCHEDULES) {
+            run(schedule, start.getTimeInMillis(), iterations / 10, false);
+            run(schedule, start.getTimeInMillis(), iterations / 10, true);
+        }
+        log.infof("%-24s %14s %14s", "schedule", "long ns/op", "Calendar ns/op");
+        for (String[] schedule : SCHEDULES) {
+            final double primitive = run(schedule, start.getTimeInMillis(), iterations, false);
+            final double calendar = run(schedule, start.getTimeInMillis(), iterations, true);
+            log.infof("%-24s %14.1f %14.1f", schedule[0], primitive, calendar);
+        }
+    }
+
+    private static double run(final String[] schedule, final long start, final int iterations, final boolean calendar) {
+        final CalendarBasedTimeout timeout = new CalendarBasedTimeout(new ScheduleExpression()
+                .second(schedule[1]).minute(schedule[2]).hour(schedule[3]).dayOfMonth(schedule[4])
+                .month(schedule[5]).dayOfWeek(schedule[6]).year("*").timezone(schedule[7]));
+        long time = start;
+        final long begin = System.nanoTime();
+        if (calendar) {
+            Calendar current = new GregorianCalendar();
+            current.setTimeInMillis(start);
+            for (int i = 0; i < iterations; i++) {
+                current = timeout.getNextTimeout(current);
+                if (current == null) {
+                    current = new GregorianCalendar();
+                    current.setTimeInMillis(start);
+                }
+            }
+            time = current.getTimeInMillis();
+        } else {
+            for (int i = 0; i < iterations; i++) {
+                time = timeout.getNextTimeout(time);
+                if (time == CalendarBasedTimeout.NO_MORE_TIMEOUTS) {
+                    time = start;
+                }
+            }
+        }
+        final long elapsed = System.nanoTime() - begin;
+        // also keeps the result alive
+        assertTrue(schedule[0] + " did not advance", iterations == 0 || time > start);
+        return (double) elapsed / iterations;
+    }
+}
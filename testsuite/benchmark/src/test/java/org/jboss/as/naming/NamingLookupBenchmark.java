@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+import javax.naming.CompositeName;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertNull;
+
+/**
+ * Measures the lookup throughput of a {@link NamingContext} backed by an {@link InMemoryNamingStore}. A number of
+ * entries is bound under <code>comp/env</code> style names and every thread repeatedly looks them up by string, with
+ * the number of threads doubling up to <code>benchmark.threads</code> (the number of processors by default), for
+ * <code>benchmark.seconds</code> each. Each run is repeated with one more thread rebinding an unrelated name, which
+ * exercises the invalidation of the resolved name cache.
+ */
+public class NamingLookupBenchmark {
+
+    private static final Logger log = Logger.getLogger(NamingLookupBenchmark.class);
+
+    private static final int ENTRIES = 64;
+
+    private final int seconds = Integer.getInteger("benchmark.seconds", 2);
+    private final int maxThreads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+
+    @Test
+    public void testLookup() throws Exception {
+        final InMemoryNamingStore store = new InMemoryNamingStore();
+        final String[] names = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            names[i] = "app/module/comp/env/entry" + i;
+            store.bind(new CompositeName(names[i]), "value" + i);
+        }
+        final NamingContext context = new NamingContext(store, null);
+        try {
+            // warm up
+            run(context, store, names, 1, false);
+
+            log.infof("%-8s %18s %18s", "threads", "lookups/s", "with rebinds/s");
+            for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+                final long plain = run(context, store, names, threads, false);
+                final long rebinding = run(context, store, names, threads, true);
+                log.infof("%-8d %18d %18d", threads, plain / seconds, rebinding / seconds);
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    private long run(final NamingContext context, final InMemoryNamingStore store, final String[] names,
+                     final int threads, final boolean rebind) throws Exception {
+        final long end = System.nanoTime() + seconds * 1000000000L;
+        final AtomicLong total = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            final Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    long count = 0;
+                    try {
+                        int i = offset;
+                        while ((count & 0xFF) != 0 || System.nanoTime() < end) {
+                            if (context.lookup(names[i++ & (ENTRIES - 1)]) == null) {
+                                throw new IllegalStateException("Lookup of a bound name returned null");
+                            }
+                            count++;
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        total.addAndGet(count);
+                        done.countDown();
+                    }
+                }
+            });
+            thread.start();
+        }
+        if (rebind) {
+            final CompositeName name = new CompositeName("app/module/comp/env/changing");
+            int i = 0;
+            while (done.getCount() > 0) {
+                store.rebind(name, Integer.valueOf(i++), Integer.class);
+                Thread.sleep(1);
+            }
+        }
+        done.await();
+        assertNull("A lookup failed", failure.get());
+        return total.get();
+    }
+}
@@ -706,6 +706,28 @@ public class ParseAndMarshalModelsTestCase {
             throw new RuntimeException("NYI: org.jboss.as.test.surefire.xml.ParseAndMarshalModelsTestCase.MockContentRepository.removeContent");
         }
 
+        @Override
+        public void addContentReference(byte[] hash) {
+        }
+
+        @Override
+        public void removeContentReference(byte[] hash) {
+        }
+
+        @Override
+        public void cleanObsoleteContent() {
+        }
+
+        @Override
+        public long getContentSize() {
+            return 0;
+        }
+
+        @Override
+        public long getReclaimedBytes() {
+            return 0;
+        }
+
     }
 
     private static class MockFileRepository implements FileRepository {